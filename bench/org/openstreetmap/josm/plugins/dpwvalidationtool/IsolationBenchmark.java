@@ -0,0 +1,102 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the paths a validator hits on every task: counting a mapper's
+ * buildings, the isolate filter and cloning the selection into the [Validation] layer.
+ *
+ * The panel's countBuildingsForMapper delegates to {@link MapperDayIndex#countBuildings},
+ * which is measured both against a built index and after an edit forced a rebuild.
+ * Run with {@code ant bench}.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IsolationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int buildings;
+
+    private DataSet dataSet;
+    private MapperDayIndex index;
+    private String mapper;
+    private LocalDate from;
+    private LocalDate to;
+    private SpatialBounds taskArea;
+    private List<OsmPrimitive> selection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logging.setLogLevel(Logging.LEVEL_WARN);
+        SyntheticDataSetGenerator generator = SyntheticDataSetGenerator.settlement(buildings);
+        dataSet = generator.generate();
+        index = MapperDayIndex.unregistered(dataSet);
+        mapper = SyntheticDataSetGenerator.mapperName(7);
+        // One week, as validators usually isolate
+        from = SyntheticDataSetGenerator.FIRST_DAY.plusDays(7);
+        to = from.plusDays(6);
+        // South-west quarter of the settlement
+        double[] extent = generator.getExtent();
+        taskArea = SpatialBounds.ofBox(extent[0], extent[1], (extent[0] + extent[2]) / 2, (extent[1] + extent[3]) / 2,
+            "benchmark");
+        selection = index.getBuildings(mapper, from, to);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.dispose();
+    }
+
+    @Benchmark
+    public int countBuildingsForMapper() {
+        return index.countBuildings(mapper);
+    }
+
+    @Benchmark
+    public int countBuildingsForMapperAfterEdit() {
+        index.invalidate();
+        return index.countBuildings(mapper);
+    }
+
+    @Benchmark
+    public List<OsmPrimitive> isolateFilter() {
+        return index.getBuildings(mapper, from, to);
+    }
+
+    @Benchmark
+    public List<OsmPrimitive> isolateFilterTaskArea() {
+        return index.getBuildings(mapper, from, to, taskArea);
+    }
+
+    @Benchmark
+    public DataSet clonePrimitives() {
+        return IsolatedCopy.cloneToDataSet(selection, null);
+    }
+}
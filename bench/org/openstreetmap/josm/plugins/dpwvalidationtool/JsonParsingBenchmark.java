@@ -0,0 +1,106 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the hand-written JSON parsing helpers, over payloads shaped like the
+ * real responses: the DPW /users list (2,500 mappers), a Tasking Manager task with 300
+ * taskHistory entries and the GitHub releases array (30 releases).
+ *
+ * Run with the GC profiler, which {@code ant bench} enables by default, to get the
+ * allocation rate next to the throughput.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParsingBenchmark {
+
+    private String users;
+    private String task;
+    private String taskHistory;
+    private String releases;
+    private String releaseNotes;
+
+    @Setup
+    public void setUp() {
+        users = fixture("dpw-users.json");
+        task = fixture("tm-task-history.json");
+        int historyStart = task.indexOf('[', task.indexOf("\"taskHistory\""));
+        taskHistory = task.substring(historyStart + 1, task.indexOf("], \"taskAnnotation\""));
+        releases = fixture("github-releases.json");
+        releaseNotes = rawStringField(UpdateChecker.findLatestRelease(releases), "body");
+    }
+
+    private static String fixture(String name) {
+        try (InputStream in = JsonParsingBenchmark.class.getResourceAsStream("fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The still-escaped content of a string field, as the panel hands it to unescapeJsonString */
+    private static String rawStringField(String json, String field) {
+        int start = json.indexOf('"', json.indexOf(':', json.indexOf("\"" + field + "\"")) + 1) + 1;
+        int end = start;
+        while (json.charAt(end) != '"') {
+            end += json.charAt(end) == '\\' ? 2 : 1;
+        }
+        return json.substring(start, end);
+    }
+
+    @Benchmark
+    public List<DPWAPIClient.UserInfo> dpwUserList() throws DPWAPIClient.APIException {
+        return DPWAPIClient.parseUserListJson(users);
+    }
+
+    @Benchmark
+    public String tmMapperFromTaskHistory() {
+        return TaskManagerAPIClient.findMapperInTaskHistory(task);
+    }
+
+    @Benchmark
+    public String[] tmSplitTaskHistory() {
+        return TaskManagerAPIClient.splitJsonArray(taskHistory);
+    }
+
+    @Benchmark
+    public void githubLatestRelease(Blackhole bh) {
+        String latest = UpdateChecker.findLatestRelease(releases);
+        bh.consume(UpdateChecker.extractJsonStringField(latest, "tag_name"));
+        bh.consume(UpdateChecker.extractJsonStringField(latest, "name"));
+        bh.consume(UpdateChecker.extractJsonStringField(latest, "body"));
+    }
+
+    @Benchmark
+    public String unescapeReleaseNotes() {
+        return ValidationToolPanel.unescapeJsonString(releaseNotes);
+    }
+}
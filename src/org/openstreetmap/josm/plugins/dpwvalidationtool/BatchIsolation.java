@@ -0,0 +1,137 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.io.OsmWriter;
+import org.openstreetmap.josm.io.OsmWriterFactory;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+/**
+ * Isolates the work of every mapper active on one day in a single pass.
+ *
+ * The (mapper, day) partitions come straight from the {@link MapperDayIndex}, and each
+ * partition is cloned into its own DataSet in parallel while the source DataSet's read
+ * lock is held. The results can be shown as one [Validation] layer per mapper or
+ * written as one .osm file per mapper.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class BatchIsolation {
+
+    private BatchIsolation() {
+        // Utility class
+    }
+
+    /**
+     * Isolated work of one mapper.
+     */
+    public static final class Result {
+        /** OSM username of the mapper */
+        public final String mapper;
+        /** Cloned buildings, or null if cloning failed */
+        public final IsolatedCopy copy;
+        /** Number of buildings in the partition */
+        public final int buildings;
+        /** Error message if cloning or export failed, otherwise null */
+        public final String error;
+        /** Exported file, if exported */
+        public final File file;
+
+        Result(String mapper, IsolatedCopy copy, int buildings, String error, File file) {
+            this.mapper = mapper;
+            this.copy = copy;
+            this.buildings = buildings;
+            this.error = error;
+            this.file = file;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Clone every partition into its own DataSet, in parallel.
+     *
+     * @param source the DataSet all partitions belong to
+     * @param partitions mapper username to that mapper's buildings
+     * @return one result per mapper, in mapper order
+     */
+    public static List<Result> isolate(DataSet source, Map<String, List<OsmPrimitive>> partitions) {
+        long start = System.nanoTime();
+        Lock lock = source.getReadLock();
+        lock.lock();
+        try {
+            // Workers only read the source, which no writer can touch while the read lock is held
+            List<Result> results = partitions.entrySet().parallelStream()
+                .map(e -> {
+                    try {
+                        return new Result(e.getKey(), IsolatedCopy.create(source, e.getValue()),
+                            e.getValue().size(), null, null);
+                    } catch (RuntimeException ex) {
+                        Logging.warn("DPWValidationTool: Batch isolation failed for " + e.getKey() + ": " + ex.getMessage());
+                        return new Result(e.getKey(), null, e.getValue().size(), ex.getMessage(), null);
+                    }
+                })
+                .collect(Collectors.toList());
+            Logging.info("DPWValidationTool: Batch-isolated " + results.size() + " mappers in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write each successful result to its own .osm file, in parallel.
+     *
+     * @param results the isolated partitions
+     * @param directory target directory
+     * @param dateString the filter date, used in file names
+     * @return the results with their exported file or error set
+     */
+    public static List<Result> export(List<Result> results, File directory, String dateString) {
+        return results.parallelStream()
+            .map(r -> {
+                if (!r.isSuccess()) {
+                    return r;
+                }
+                File file = new File(directory, fileNameFor(r.mapper, dateString));
+                try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(
+                        new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                    OsmWriter w = OsmWriterFactory.createOsmWriter(pw, true, OsmWriter.DEFAULT_API_VERSION);
+                    w.write(r.copy.getTarget());
+                    pw.flush();
+                    return new Result(r.mapper, r.copy, r.buildings, null, file);
+                } catch (Exception ex) {
+                    Logging.warn("DPWValidationTool: Batch export failed for " + r.mapper + ": " + ex.getMessage());
+                    return new Result(r.mapper, r.copy, r.buildings, ex.getMessage(), null);
+                }
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Build a file-system safe export file name for a mapper.
+     *
+     * @param mapper the OSM username
+     * @param dateString the filter date
+     * @return file name such as Batch_jane_doe_2025-01-15.osm
+     */
+    public static String fileNameFor(String mapper, String dateString) {
+        String safeMapper = mapper.replaceAll("[^A-Za-z0-9._-]", "_");
+        return String.format("Batch_%s_%s.osm", safeMapper, dateString);
+    }
+}
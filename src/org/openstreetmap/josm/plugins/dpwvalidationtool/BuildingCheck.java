@@ -0,0 +1,48 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.util.BitSet;
+
+/**
+ * One automatic QA check over the buildings of an isolated layer.
+ *
+ * The {@link QAEngine} splits the buildings into ranges and calls {@link #check} for
+ * many ranges at once from different threads, so implementations must not keep
+ * mutable state; everything they need is in the shared, read-only {@link QAInput}.
+ *
+ * {@link IncrementalQA} re-runs checks on single buildings after edits, so the result for
+ * a building may only depend on buildings whose boxes intersect its own.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public interface BuildingCheck {
+
+    /**
+     * Get the name shown in QA results.
+     *
+     * @return short human-readable name
+     */
+    String getName();
+
+    /**
+     * Get the panel error type whose counter this check feeds.
+     *
+     * @return index into {@code ValidationConstants.ERROR_TYPES}
+     */
+    int getErrorType();
+
+    /**
+     * Check the buildings with index in [from, to).
+     * Offenders are marked by setting their building index in {@code flagged}; a check
+     * that finds a problem between two buildings may also flag the other building, even if
+     * it is outside the range. Each problem must be counted from exactly one building.
+     *
+     * @param input the buildings and highways being checked
+     * @param from first building index, inclusive
+     * @param to last building index, exclusive
+     * @param flagged receives the offending building indexes
+     * @return number of issues found, counting each problem once
+     */
+    int check(QAInput input, int from, int to, BitSet flagged);
+}
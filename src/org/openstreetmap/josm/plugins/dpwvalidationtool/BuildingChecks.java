@@ -0,0 +1,304 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The built-in {@link BuildingCheck}s.
+ *
+ * Spatial checks (overlap, nesting, highway crossing) use the R-trees of the
+ * {@link QAInput}, so each building only meets its neighbours. Shape checks look at one
+ * outline at a time and feed the "Improperly Drawn" counter.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class BuildingChecks {
+
+    /** Index of "Overlapping Buildings" in the panel's error types */
+    public static final int ERROR_OVERLAPPING = 1;
+    /** Index of "Buildings Crossing Highway" in the panel's error types */
+    public static final int ERROR_CROSSING_HIGHWAY = 2;
+    /** Index of "Building Inside Building" in the panel's error types */
+    public static final int ERROR_INSIDE = 7;
+    /** Index of "Building Crossing Residential" in the panel's error types */
+    public static final int ERROR_CROSSING_RESIDENTIAL = 8;
+    /** Index of "Improperly Drawn" in the panel's error types */
+    public static final int ERROR_IMPROPERLY_DRAWN = 9;
+
+    /** Buildings smaller than this are reported as tiny */
+    static final double MIN_AREA_M2 = 2.0;
+
+    private static final double METERS_PER_DEGREE_LAT = 110_540;
+    private static final double METERS_PER_DEGREE_LON = 111_320;
+
+    private BuildingChecks() {
+        // Utility class
+    }
+
+    /**
+     * Get all built-in checks, in the order results are shown.
+     *
+     * @return unmodifiable list of checks
+     */
+    public static List<BuildingCheck> defaults() {
+        return Collections.unmodifiableList(Arrays.asList(
+            new Overlap(),
+            new Inside(),
+            new HighwayCrossing(false),
+            new HighwayCrossing(true),
+            new Unclosed(),
+            new Tiny(),
+            new SelfIntersection(),
+            new DuplicateNodes()));
+    }
+
+    /**
+     * Outlines that cross another building's outline or duplicate it. Each pair counts once.
+     */
+    static final class Overlap implements BuildingCheck {
+        @Override
+        public String getName() {
+            return "Overlapping buildings";
+        }
+
+        @Override
+        public int getErrorType() {
+            return ERROR_OVERLAPPING;
+        }
+
+        @Override
+        public int check(QAInput input, int from, int to, BitSet flagged) {
+            int[] pairs = {0};
+            for (int i = from; i < to; i++) {
+                final int a = i;
+                double[] ringA = input.building(a);
+                if (!input.isClosed(a)) continue;
+                input.searchNearbyBuildings(a, b -> {
+                    // Each unordered pair is tested once, from its lower index
+                    if (b <= a || !input.isClosed(b)) {
+                        return;
+                    }
+                    double[] ringB = input.building(b);
+                    if (BuildingGeometry.linesCross(ringA, ringB) || BuildingGeometry.sameVertices(ringA, ringB)) {
+                        flagged.set(a);
+                        flagged.set(b);
+                        pairs[0]++;
+                    }
+                });
+            }
+            return pairs[0];
+        }
+    }
+
+    /**
+     * Buildings lying entirely inside another building. The inner building is flagged.
+     */
+    static final class Inside implements BuildingCheck {
+        @Override
+        public String getName() {
+            return "Building inside building";
+        }
+
+        @Override
+        public int getErrorType() {
+            return ERROR_INSIDE;
+        }
+
+        @Override
+        public int check(QAInput input, int from, int to, BitSet flagged) {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (isInsideAnother(input, i)) {
+                    flagged.set(i);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static boolean isInsideAnother(QAInput input, int inner) {
+            if (!input.isClosed(inner)) {
+                return false;
+            }
+            double[] ring = input.building(inner);
+            boolean[] found = {false};
+            input.searchNearbyBuildings(inner, outer -> {
+                if (found[0] || outer == inner || !input.isClosed(outer) || !input.boxContains(outer, inner)) {
+                    return;
+                }
+                double[] outerRing = input.building(outer);
+                if (!BuildingGeometry.linesCross(outerRing, ring) && BuildingGeometry.ringInside(outerRing, ring)) {
+                    found[0] = true;
+                }
+            });
+            return found[0];
+        }
+    }
+
+    /**
+     * Buildings crossed by a highway: highway=residential feeds "Building Crossing Residential",
+     * every other highway feeds "Buildings Crossing Highway".
+     */
+    static final class HighwayCrossing implements BuildingCheck {
+        private final boolean residential;
+
+        HighwayCrossing(boolean residential) {
+            this.residential = residential;
+        }
+
+        @Override
+        public String getName() {
+            return residential ? "Crossing residential road" : "Crossing highway";
+        }
+
+        @Override
+        public int getErrorType() {
+            return residential ? ERROR_CROSSING_RESIDENTIAL : ERROR_CROSSING_HIGHWAY;
+        }
+
+        @Override
+        public int check(QAInput input, int from, int to, BitSet flagged) {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (input.crossedByHighway(i, residential)) {
+                    flagged.set(i);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Base for checks that look at one outline at a time.
+     */
+    abstract static class ShapeCheck implements BuildingCheck {
+        @Override
+        public int getErrorType() {
+            return ERROR_IMPROPERLY_DRAWN;
+        }
+
+        @Override
+        public int check(QAInput input, int from, int to, BitSet flagged) {
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                double[] coords = input.building(i);
+                if (coords != null && test(coords, input.isClosed(i))) {
+                    flagged.set(i);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @param coords flat lon/lat array of the outline
+         * @param closed whether the outline is closed
+         * @return true if the outline has the problem
+         */
+        abstract boolean test(double[] coords, boolean closed);
+    }
+
+    /**
+     * Building ways whose first and last node differ.
+     */
+    static final class Unclosed extends ShapeCheck {
+        @Override
+        public String getName() {
+            return "Unclosed way";
+        }
+
+        @Override
+        boolean test(double[] coords, boolean closed) {
+            return !closed;
+        }
+    }
+
+    /**
+     * Closed outlines with fewer than three distinct corners or a tiny area.
+     */
+    static final class Tiny extends ShapeCheck {
+        @Override
+        public String getName() {
+            return "Tiny or degenerate";
+        }
+
+        @Override
+        boolean test(double[] coords, boolean closed) {
+            return closed && (coords.length < 8 || areaSquareMeters(coords) < MIN_AREA_M2);
+        }
+    }
+
+    /**
+     * Closed outlines where two non-adjacent edges cross.
+     */
+    static final class SelfIntersection extends ShapeCheck {
+        @Override
+        public String getName() {
+            return "Self-intersecting";
+        }
+
+        @Override
+        boolean test(double[] coords, boolean closed) {
+            int edges = coords.length / 2 - 1;
+            for (int i = 0; i < edges; i++) {
+                for (int j = i + 2; j < edges; j++) {
+                    if (closed && i == 0 && j == edges - 1) {
+                        continue; // first and last edge meet at the closing node
+                    }
+                    if (BuildingGeometry.segmentsCross(coords[i * 2], coords[i * 2 + 1], coords[i * 2 + 2], coords[i * 2 + 3],
+                            coords[j * 2], coords[j * 2 + 1], coords[j * 2 + 2], coords[j * 2 + 3])) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Outlines that visit the same position twice, other than the closing node.
+     */
+    static final class DuplicateNodes extends ShapeCheck {
+        @Override
+        public String getName() {
+            return "Duplicate nodes";
+        }
+
+        @Override
+        boolean test(double[] coords, boolean closed) {
+            int points = coords.length / 2 - (closed ? 1 : 0);
+            for (int i = 0; i < points; i++) {
+                for (int j = i + 1; j < points; j++) {
+                    if (coords[i * 2] == coords[j * 2] && coords[i * 2 + 1] == coords[j * 2 + 1]) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Shoelace area of a closed ring, with degrees scaled to metres at the ring's latitude.
+     *
+     * @param ring closed ring as flat lon/lat array
+     * @return area in square metres
+     */
+    static double areaSquareMeters(double[] ring) {
+        double lonScale = METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(ring[1]));
+        double sum = 0;
+        for (int i = 0; i + 3 < ring.length; i += 2) {
+            double x0 = (ring[i] - ring[0]) * lonScale;
+            double y0 = (ring[i + 1] - ring[1]) * METERS_PER_DEGREE_LAT;
+            double x1 = (ring[i + 2] - ring[0]) * lonScale;
+            double y1 = (ring[i + 3] - ring[1]) * METERS_PER_DEGREE_LAT;
+            sum += x0 * y1 - x1 * y0;
+        }
+        return Math.abs(sum) / 2;
+    }
+}
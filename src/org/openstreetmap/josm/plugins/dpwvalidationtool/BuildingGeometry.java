@@ -0,0 +1,182 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.List;
+
+/**
+ * Planar geometry helpers over flat (lon0, lat0, lon1, lat1, ...) coordinate arrays.
+ *
+ * Building-sized shapes are small enough that treating degrees as planar coordinates
+ * gives the right answer for crossing and containment tests, so no projection is done.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class BuildingGeometry {
+
+    private BuildingGeometry() {
+        // Utility class
+    }
+
+    /**
+     * Get the coordinates of a way's nodes, or null if any node has no known position.
+     *
+     * @param way the way
+     * @return flat lon/lat array, closing node included for closed ways
+     */
+    static double[] coordinates(Way way) {
+        List<Node> nodes = way.getNodes();
+        double[] coords = new double[nodes.size() * 2];
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            if (n == null || !n.isLatLonKnown()) {
+                return null;
+            }
+            coords[i * 2] = n.lon();
+            coords[i * 2 + 1] = n.lat();
+        }
+        return coords;
+    }
+
+    /**
+     * Get the bounding box of a coordinate array.
+     *
+     * @param coords flat lon/lat array
+     * @return (minLon, minLat, maxLon, maxLat)
+     */
+    static double[] bbox(double[] coords) {
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < coords.length; i += 2) {
+            box[0] = Math.min(box[0], coords[i]);
+            box[1] = Math.min(box[1], coords[i + 1]);
+            box[2] = Math.max(box[2], coords[i]);
+            box[3] = Math.max(box[3], coords[i + 1]);
+        }
+        return box;
+    }
+
+    /**
+     * Sign of the cross product (b - a) x (c - a).
+     */
+    private static int orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        double cross = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        return cross > 0 ? 1 : cross < 0 ? -1 : 0;
+    }
+
+    /**
+     * Check whether two segments cross at a single point interior to both.
+     * Touching endpoints and collinear overlaps do not count, so buildings that share a
+     * wall or a corner node are not reported as crossing.
+     */
+    static boolean segmentsCross(double ax, double ay, double bx, double by,
+                                 double cx, double cy, double dx, double dy) {
+        int o1 = orientation(ax, ay, bx, by, cx, cy);
+        int o2 = orientation(ax, ay, bx, by, dx, dy);
+        int o3 = orientation(cx, cy, dx, dy, ax, ay);
+        int o4 = orientation(cx, cy, dx, dy, bx, by);
+        return o1 * o2 < 0 && o3 * o4 < 0;
+    }
+
+    /**
+     * Check whether any segment of one polyline crosses any segment of another.
+     *
+     * @param a flat lon/lat array
+     * @param b flat lon/lat array
+     * @return true if the outlines cross
+     */
+    static boolean linesCross(double[] a, double[] b) {
+        for (int i = 0; i + 3 < a.length; i += 2) {
+            double ax = a[i], ay = a[i + 1], bx = a[i + 2], by = a[i + 3];
+            double minX = Math.min(ax, bx), maxX = Math.max(ax, bx);
+            double minY = Math.min(ay, by), maxY = Math.max(ay, by);
+            for (int j = 0; j + 3 < b.length; j += 2) {
+                double cx = b[j], cy = b[j + 1], dx = b[j + 2], dy = b[j + 3];
+                if (Math.max(cx, dx) < minX || Math.min(cx, dx) > maxX
+                        || Math.max(cy, dy) < minY || Math.min(cy, dy) > maxY) {
+                    continue;
+                }
+                if (segmentsCross(ax, ay, bx, by, cx, cy, dx, dy)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a point lies inside a closed ring (even-odd rule).
+     *
+     * @param ring closed ring, closing point included
+     * @param x longitude
+     * @param y latitude
+     * @return true if inside
+     */
+    static boolean ringContains(double[] ring, double x, double y) {
+        boolean inside = false;
+        int n = ring.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double xi = ring[i * 2], yi = ring[i * 2 + 1];
+            double xj = ring[j * 2], yj = ring[j * 2 + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Check whether ring b lies inside ring a, assuming their outlines do not cross.
+     * Vertices b shares with a are ignored; every other vertex of b must be inside a.
+     *
+     * @param a outer candidate, closed
+     * @param b inner candidate, closed
+     * @return true if b is inside a
+     */
+    static boolean ringInside(double[] a, double[] b) {
+        boolean any = false;
+        for (int i = 0; i < b.length; i += 2) {
+            if (hasVertex(a, b[i], b[i + 1])) {
+                continue;
+            }
+            if (!ringContains(a, b[i], b[i + 1])) {
+                return false;
+            }
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * Check whether two rings use exactly the same vertices, i.e. one duplicates the other.
+     *
+     * @param a closed ring
+     * @param b closed ring
+     * @return true if every vertex of each ring is a vertex of the other
+     */
+    static boolean sameVertices(double[] a, double[] b) {
+        for (int i = 0; i < b.length; i += 2) {
+            if (!hasVertex(a, b[i], b[i + 1])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < a.length; i += 2) {
+            if (!hasVertex(b, a[i], a[i + 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasVertex(double[] ring, double x, double y) {
+        for (int i = 0; i < ring.length; i += 2) {
+            if (ring[i] == x && ring[i + 1] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
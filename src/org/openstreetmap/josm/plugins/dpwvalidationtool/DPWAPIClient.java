@@ -25,6 +25,7 @@ import java.util.regex.Pattern;
 public class DPWAPIClient {
     
     private final String baseUrl;
+    private final String apiKey;
     
     /**
      * Response wrapper for API calls.
@@ -121,7 +122,7 @@ public class DPWAPIClient {
      * Create a new API client with the configured base URL.
      */
     public DPWAPIClient() {
-        this.baseUrl = PluginSettings.getDPWApiBaseUrl();
+        this(PluginSettings.getDPWApiBaseUrl(), null);
     }
     
     /**
@@ -130,7 +131,19 @@ public class DPWAPIClient {
      * @param baseUrl the base URL of the DPW API
      */
     public DPWAPIClient(String baseUrl) {
+        this(baseUrl, null);
+    }
+    
+    /**
+     * Create a new API client with a custom base URL and API key.
+     * 
+     * @param baseUrl the base URL of the DPW API
+     * @param apiKey the X-API-Key to send, or null to use the configured key
+     * @since 3.2.8
+     */
+    public DPWAPIClient(String baseUrl, String apiKey) {
         this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
     }
     
     /**
@@ -149,11 +162,13 @@ public class DPWAPIClient {
         Logging.debug("DPWValidationTool: Fetching authorized mappers from " + fullUrl);
         
         try {
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", fullUrl);
             URL url = new URI(fullUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
             conn.setRequestProperty("Accept", "application/json");
-            conn.setRequestProperty("X-API-Key", PluginSettings.getDPWApiKey());
+            conn.setRequestProperty("X-API-Key", getApiKey());
             conn.setRequestProperty("User-Agent", "DPW-JOSM-Plugin/" + UpdateChecker.CURRENT_VERSION);
             conn.setRequestProperty("Referer", "https://josm.openstreetmap.de/");
             conn.setConnectTimeout(ValidationConstants.CONNECTION_TIMEOUT_MS);
@@ -166,6 +181,8 @@ public class DPWAPIClient {
             
             // Read response body
             String responseBody = readResponse(conn, responseCode);
+            Metrics.recordCall(Metrics.FETCH_USERS, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, 0, responseBody.length());
             Logging.debug("DPWValidationTool: API response: " + responseBody);
             
             if (responseCode < 200 || responseCode >= 300) {
@@ -197,6 +214,8 @@ public class DPWAPIClient {
             
             Logging.debug("DPWValidationTool: Fetching user_id for: " + osmUsername);
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", apiUrl);
             URL url = new URI(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
@@ -206,6 +225,8 @@ public class DPWAPIClient {
             
             int responseCode = conn.getResponseCode();
             String responseBody = readResponse(conn, responseCode);
+            Metrics.recordCall(Metrics.USER_LOOKUP, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, 0, responseBody.length());
             
             if (responseCode == 200) {
                 // Parse user_id from response
@@ -226,6 +247,7 @@ public class DPWAPIClient {
             }
             
         } catch (Exception ex) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("DPWValidationTool: Error fetching user_id: " + ex.getMessage());
             Logging.error(ex);
             return -1;
@@ -246,12 +268,14 @@ public class DPWAPIClient {
             Logging.info("DPWValidationTool: Submitting validation data to " + apiUrl);
             Logging.debug("DPWValidationTool: JSON payload: " + jsonData);
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("POST", apiUrl);
             URL url = new URI(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("POST");
             conn.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
             conn.setRequestProperty("Accept", "application/json");
-            conn.setRequestProperty("X-API-Key", PluginSettings.getDPWApiKey());
+            conn.setRequestProperty("X-API-Key", getApiKey());
             conn.setRequestProperty("User-Agent", "DPW-JOSM-Plugin/" + UpdateChecker.CURRENT_VERSION);
             conn.setRequestProperty("Referer", "https://josm.openstreetmap.de/");
             conn.setDoOutput(true);
@@ -259,8 +283,8 @@ public class DPWAPIClient {
             conn.setReadTimeout(15000);
             
             // Write JSON payload
+            byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
             try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
                 os.write(input, 0, input.length);
                 os.flush();
             }
@@ -269,6 +293,8 @@ public class DPWAPIClient {
             Logging.info("DPWValidationTool: API responded with HTTP " + responseCode);
             
             String responseBody = readResponse(conn, responseCode);
+            Metrics.recordCall(Metrics.SUBMIT, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, input.length, responseBody.length());
             Logging.debug("DPWValidationTool: API response body: " + responseBody);
             
             // Handle different response codes
@@ -305,6 +331,7 @@ public class DPWAPIClient {
             Logging.error("DPWValidationTool: Invalid API URL: " + e.getMessage());
             throw new IOException("Invalid API URL", e);
         } catch (Exception e) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("DPWValidationTool: Submission exception: " + e.getMessage());
             Logging.error(e);
             return ValidationSubmissionResult.error("Network error: " + e.getMessage());
@@ -329,6 +356,8 @@ public class DPWAPIClient {
             
             Logging.info("DPWValidationTool: Uploading to cloud: " + file.getName());
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("POST", apiUrl);
             URL url = new URI(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("POST");
@@ -339,7 +368,7 @@ public class DPWAPIClient {
             // Multipart form data
             String boundary = "----DPWBoundary" + System.currentTimeMillis();
             conn.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
-            conn.setRequestProperty("X-API-Key", PluginSettings.getDPWApiKey());
+            conn.setRequestProperty("X-API-Key", getApiKey());
             conn.setRequestProperty("User-Agent", "DPW-JOSM-Plugin/" + UpdateChecker.CURRENT_VERSION);
             conn.setRequestProperty("Referer", "https://josm.openstreetmap.de/");
             
@@ -399,6 +428,8 @@ public class DPWAPIClient {
             
             int responseCode = conn.getResponseCode();
             String responseBody = readResponse(conn, responseCode);
+            Metrics.recordCall(Metrics.UPLOAD, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, file.length(), responseBody.length());
             Logging.debug("DPWValidationTool: Upload response: " + responseBody);
             
             if (responseCode == 200) {
@@ -421,6 +452,7 @@ public class DPWAPIClient {
             }
             
         } catch (Exception ex) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("DPWValidationTool: Upload exception: " + ex.getMessage());
             Logging.error(ex);
             return CloudUploadResult.error("Network error: " + ex.getMessage());
@@ -429,6 +461,13 @@ public class DPWAPIClient {
     
     // ========== Private Helper Methods ==========
     
+    /**
+     * Get the API key to send: the one given at construction, otherwise the configured key.
+     */
+    private String getApiKey() {
+        return apiKey != null ? apiKey : PluginSettings.getDPWApiKey();
+    }
+    
     /**
      * Read HTTP response body.
      */
@@ -498,7 +537,7 @@ public class DPWAPIClient {
      * Parse user list JSON response.
      * Expected format: { "success": true, "data": [...], "count": N }
      */
-    private List<UserInfo> parseUserListJson(String json) throws APIException {
+    static List<UserInfo> parseUserListJson(String json) throws APIException {
         List<UserInfo> users = new ArrayList<>();
         
         try {
@@ -41,9 +41,7 @@ public class DPWValidationToolPlugin extends Plugin {
     public DPWValidationToolPlugin(PluginInformation info) {
         super(info);
         instance = this; // Store singleton instance
-        
-        // Check for pending updates on startup
-        UpdateChecker.applyPendingUpdate();
+        long start = System.nanoTime();
         
         // Defer constructing the UI panel until a MapFrame is available.
         // Creating a ToggleDialog too early can cause a NullPointerException
@@ -95,7 +93,37 @@ public class DPWValidationToolPlugin extends Plugin {
             };
             dpwMenu.add(new javax.swing.JMenuItem(settingsAction));
             
-            // 3. Check for Updates
+            // 3. Submission history
+            javax.swing.AbstractAction historyAction = new javax.swing.AbstractAction("Submission History...") {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    ValidationHistoryDialog.showHistoryDialog();
+                }
+            };
+            dpwMenu.add(new javax.swing.JMenuItem(historyAction));
+            
+            // 4. Timing metrics for ops dashboards (v3.2.8)
+            javax.swing.AbstractAction metricsAction = new javax.swing.AbstractAction("Export Metrics...") {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    exportDiagnostics("Export Metrics", "dpw-metrics",
+                        new String[][] {{"JSON (*.json)", "json"}, {"Prometheus text (*.prom)", "prom"}}, Metrics::export);
+                }
+            };
+            dpwMenu.add(new javax.swing.JMenuItem(metricsAction));
+            
+            // 5. Stage timeline of recent sessions (v3.2.8)
+            javax.swing.AbstractAction traceAction = new javax.swing.AbstractAction("Export Session Trace...") {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    exportDiagnostics("Export Session Trace", "dpw-session-trace",
+                        new String[][] {{"Chrome trace (*.json)", "json"}, {"JSON lines (*.jsonl)", "jsonl"}},
+                        SessionTrace.getDefault()::export);
+                }
+            };
+            dpwMenu.add(new javax.swing.JMenuItem(traceAction));
+            
+            // 6. Check for Updates
             javax.swing.AbstractAction updateAction = new javax.swing.AbstractAction("Check for Updates...") {
                 @Override
                 public void actionPerformed(ActionEvent e) {
@@ -112,8 +140,12 @@ public class DPWValidationToolPlugin extends Plugin {
             Logging.trace(ex);
         }
         
-        // Check for updates on startup (silent - only show if update available)
-        UpdateChecker.checkForUpdatesAsync(false);
+        // v3.2.8 - Staged startup: JOSM's boot only registers the menu. The pending update
+        // is installed in the background, then the silent update check runs; the panel,
+        // its DataSet scans and the mapper fetch wait until the panel is first opened.
+        UpdateChecker.applyPendingUpdateAsync(NetworkExecutor::execute)
+            .thenRun(() -> UpdateChecker.checkForUpdatesAsync(false));
+        Metrics.STARTUP.recordSince(start);
     }
 
     @Override
@@ -131,6 +163,52 @@ public class DPWValidationToolPlugin extends Plugin {
         }
     }
 
+    /** Writes a diagnostics file in the format given by its extension */
+    private interface DiagnosticsExport {
+        void write(java.nio.file.Path file) throws java.io.IOException;
+    }
+
+    /**
+     * v3.2.8 - Save a diagnostics file chosen by the user.
+     *
+     * @param title dialog title, also used in messages
+     * @param baseName suggested file name without extension
+     * @param formats pairs of filter description and extension, the first is preselected
+     * @param export writes the file
+     */
+    private void exportDiagnostics(String title, String baseName, String[][] formats, DiagnosticsExport export) {
+        javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+        chooser.setDialogTitle(title);
+        javax.swing.filechooser.FileNameExtensionFilter[] filters = new javax.swing.filechooser.FileNameExtensionFilter[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            filters[i] = new javax.swing.filechooser.FileNameExtensionFilter(formats[i][0], formats[i][1]);
+            chooser.addChoosableFileFilter(filters[i]);
+        }
+        chooser.setFileFilter(filters[0]);
+        chooser.setSelectedFile(new java.io.File(baseName + "." + formats[0][1]));
+        if (chooser.showSaveDialog(MainApplication.getMainFrame()) != javax.swing.JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.io.File file = chooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            String extension = formats[0][1];
+            for (int i = 0; i < filters.length; i++) {
+                if (chooser.getFileFilter() == filters[i]) {
+                    extension = formats[i][1];
+                }
+            }
+            file = new java.io.File(file.getParentFile(), file.getName() + "." + extension);
+        }
+        try {
+            export.write(file.toPath());
+            Logging.info("DPWValidationTool: " + title + " written to " + file.getAbsolutePath());
+        } catch (java.io.IOException ex) {
+            Logging.error("DPWValidationTool: " + title + " failed: " + ex.getMessage());
+            javax.swing.JOptionPane.showMessageDialog(MainApplication.getMainFrame(),
+                title + " failed: " + ex.getMessage(), title, javax.swing.JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Create a small programmatic pirate-style icon so we don't have to bundle a bitmap.
      */
@@ -0,0 +1,138 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Items keyed by epoch day, kept in a primitive int array sorted by day.
+ *
+ * Items are appended in any order and sorted once by {@link #seal()}; after that
+ * a day-range query is two binary searches over the unboxed day array plus a copy
+ * of the matching slice.
+ *
+ * @param <T> the item type
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class DaySortedList<T> {
+
+    private int[] days = new int[8];
+    private Object[] items = new Object[8];
+    private int size;
+    private boolean sealed;
+
+    /**
+     * Append an item. Only allowed before {@link #seal()}.
+     *
+     * @param day the epoch day
+     * @param item the item
+     */
+    void add(int day, T item) {
+        if (sealed) {
+            throw new IllegalStateException("DaySortedList is sealed");
+        }
+        if (size == days.length) {
+            int newCapacity = size * 2;
+            days = Arrays.copyOf(days, newCapacity);
+            items = Arrays.copyOf(items, newCapacity);
+        }
+        days[size] = day;
+        items[size] = item;
+        size++;
+    }
+
+    /**
+     * Sort by day (stable for equal days) and trim the arrays. Idempotent.
+     */
+    void seal() {
+        if (sealed) {
+            return;
+        }
+        // Sort (day, original position) pairs packed into longs to avoid boxing
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) days[i] << 32) | (i & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+        int[] sortedDays = new int[size];
+        Object[] sortedItems = new Object[size];
+        for (int i = 0; i < size; i++) {
+            int from = (int) keys[i];
+            sortedDays[i] = days[from];
+            sortedItems[i] = items[from];
+        }
+        days = sortedDays;
+        items = sortedItems;
+        sealed = true;
+    }
+
+    /**
+     * Get the number of items.
+     *
+     * @return item count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get all items whose day lies in [fromDay, toDay].
+     *
+     * @param fromDay first epoch day, inclusive
+     * @param toDay last epoch day, inclusive
+     * @return the items in day order (empty if none or if fromDay &gt; toDay)
+     */
+    @SuppressWarnings("unchecked")
+    List<T> range(int fromDay, int toDay) {
+        seal();
+        if (fromDay > toDay) {
+            return Collections.emptyList();
+        }
+        int start = lowerBound(fromDay);
+        int end = toDay == Integer.MAX_VALUE ? size : lowerBound(toDay + 1);
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add((T) items[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Count the items whose day lies in [fromDay, toDay].
+     *
+     * @param fromDay first epoch day, inclusive
+     * @param toDay last epoch day, inclusive
+     * @return number of items in the range
+     */
+    int count(int fromDay, int toDay) {
+        seal();
+        if (fromDay > toDay) {
+            return 0;
+        }
+        int end = toDay == Integer.MAX_VALUE ? size : lowerBound(toDay + 1);
+        return Math.max(0, end - lowerBound(fromDay));
+    }
+
+    /**
+     * Index of the first element with day &gt;= the given day.
+     */
+    private int lowerBound(int day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,245 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.tools.GBC;
+import org.openstreetmap.josm.tools.Logging;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.GridBagLayout;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diagnostics tab of the settings dialog: live stage timings, loaded layers with their
+ * estimated heap use, cache hit rates and pending network work, so support can see
+ * where a slow session spends its time.
+ *
+ * Metrics are redrawn every second while the tab is showing. Layer statistics come
+ * from the {@link LayerMemoryAccountant}, which only rescans layers whose data changed;
+ * they are refreshed on the JOSM worker every few seconds, one scan at a time.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class DiagnosticsPanel extends JPanel {
+
+    /** Refresh interval in milliseconds */
+    static final int REFRESH_MS = 1000;
+    /** Layers are rescanned every this many refreshes */
+    static final int LAYER_SCAN_TICKS = 5;
+
+    private static final String[] STAGE_COLUMNS = {"Stage", "Count", "Last ms", "p50 ms", "p99 ms", "Max ms", "Recent ms"};
+    private static final String[] LAYER_COLUMNS = {"Layer", "Nodes", "Ways", "Relations", "Est. heap"};
+
+    private final DefaultTableModel stageModel = readOnlyModel(STAGE_COLUMNS);
+    private final DefaultTableModel layerModel = readOnlyModel(LAYER_COLUMNS);
+    private final JLabel heapLabel = new JLabel();
+    private final JLabel userCacheLabel = new JLabel();
+    private final JLabel indexLabel = new JLabel();
+    private final JLabel dedupLabel = new JLabel();
+    private final JLabel pendingLabel = new JLabel();
+    private final JLabel errorsLabel = new JLabel();
+    private final Timer timer = new Timer(REFRESH_MS, e -> refresh());
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    // Confined to the EDT
+    private int ticks;
+    private volatile List<LayerMemoryAccountant.LayerStats> layers = new ArrayList<>();
+    private volatile String budgetSummary = "";
+
+    DiagnosticsPanel() {
+        super(new GridBagLayout());
+        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        add(new JLabel("<html><b>Workflow Timings</b></html>"), GBC.eol().fill(GBC.HORIZONTAL).insets(0, 0, 0, 5));
+        add(tableScroll(new JTable(stageModel), 190), GBC.eol().fill(GBC.BOTH).weight(1.0, 1.0));
+
+        add(new JLabel("<html><b>Data Layers</b></html>"), GBC.eol().fill(GBC.HORIZONTAL).insets(0, 10, 0, 5));
+        add(tableScroll(new JTable(layerModel), 90), GBC.eol().fill(GBC.BOTH).weight(1.0, 0.5));
+        add(heapLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+
+        add(new JLabel("<html><b>Caches &amp; Network</b></html>"), GBC.eol().fill(GBC.HORIZONTAL).insets(0, 10, 0, 5));
+        add(userCacheLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 2, 5, 2));
+        add(indexLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 2, 5, 2));
+        add(dedupLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 2, 5, 2));
+        add(pendingLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 2, 5, 2));
+        add(errorsLabel, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 2, 5, 10));
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        JButton copyButton = new JButton("Copy Report");
+        copyButton.setToolTipText("Copy the timings and layer statistics to the clipboard for a support request");
+        copyButton.addActionListener(e -> Toolkit.getDefaultToolkit().getSystemClipboard()
+            .setContents(new StringSelection(report(Metrics.snapshot(), layers)), null));
+        buttons.add(copyButton);
+        JButton resetButton = new JButton("Reset Metrics");
+        resetButton.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        buttons.add(resetButton);
+        add(buttons, GBC.eol().fill(GBC.HORIZONTAL));
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Redraw the metrics and start a layer scan if none is running. Call on the EDT.
+     */
+    private void refresh() {
+        Metrics.Snapshot snapshot = Metrics.snapshot();
+        stageModel.setRowCount(0);
+        for (Metrics.TimerSnapshot t : snapshot.getTimers()) {
+            long[] recent = t.getRecentNanos();
+            stageModel.addRow(new Object[] {t.name, t.count, recent.length > 0 ? millis(recent[0]) : "",
+                millis(t.p50Nanos), millis(t.p99Nanos), millis(t.maxNanos), recentMillis(recent)});
+        }
+
+        long hits = counter(snapshot, Metrics.USER_CACHE_HITS);
+        userCacheLabel.setText("User list cache: " + hitRate(hits, hits + counter(snapshot, Metrics.USER_CACHE_MISSES)));
+        long indexHits = counter(snapshot, Metrics.INDEX_HITS);
+        indexLabel.setText("Mapper index reused: " + hitRate(indexHits, indexHits + counter(snapshot, Metrics.INDEX_REBUILDS)));
+        long deduplicated = counter(snapshot, Metrics.UPLOADS_DEDUPLICATED);
+        Metrics.TimerSnapshot uploads = snapshot.getTimer(Metrics.UPLOAD.getName());
+        dedupLabel.setText("Uploads skipped as duplicates: "
+            + hitRate(deduplicated, deduplicated + (uploads == null ? 0 : uploads.count)));
+        pendingLabel.setText("Pending network tasks: " + NetworkExecutor.getPendingCount()
+            + " (submission retries so far: " + counter(snapshot, Metrics.SUBMIT_RETRIES) + ")");
+        errorsLabel.setText("API errors: " + counter(snapshot, Metrics.API_ERRORS)
+            + ", rate limited: " + counter(snapshot, Metrics.RATE_LIMITED)
+            + ", network failures: " + counter(snapshot, Metrics.NETWORK_ERRORS));
+
+        Runtime rt = Runtime.getRuntime();
+        long used = rt.totalMemory() - rt.freeMemory();
+        long layerBytes = 0;
+        for (LayerMemoryAccountant.LayerStats s : layers) {
+            layerBytes += s.estimatedBytes;
+        }
+        heapLabel.setText("<html>JVM heap: " + megabytes(used) + " used of " + megabytes(rt.maxMemory())
+            + "; data layers about " + megabytes(layerBytes) + "<br>" + budgetSummary + "</html>");
+
+        if (ticks++ % LAYER_SCAN_TICKS == 0) {
+            scanLayers();
+        }
+    }
+
+    private void scanLayers() {
+        if (MainApplication.getLayerManager() == null || !scanning.compareAndSet(false, true)) {
+            return;
+        }
+        List<OsmDataLayer> dataLayers = MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class);
+        // Unchanged layers reuse the last measurement, e.g. from the budget check after an isolation
+        MainApplication.worker.execute(() -> {
+            try {
+                LayerMemoryAccountant.Report report = LayerMemoryAccountant.getDefault()
+                    .scan(dataLayers, LayerMemoryAccountant.budgetBytes());
+                List<LayerMemoryAccountant.LayerStats> stats = report.getStats();
+                layers = stats;
+                budgetSummary = report.getSummary();
+                SwingUtilities.invokeLater(() -> {
+                    layerModel.setRowCount(0);
+                    for (LayerMemoryAccountant.LayerStats s : stats) {
+                        layerModel.addRow(new Object[] {s.name, s.nodes, s.ways, s.relations, megabytes(s.estimatedBytes)});
+                    }
+                });
+            } catch (RuntimeException ex) {
+                Logging.debug("DPWValidationTool: Layer statistics failed: " + ex.getMessage());
+            } finally {
+                scanning.set(false);
+            }
+        });
+    }
+
+    // ========== Formatting ==========
+
+    /**
+     * Format a plain-text report of the metrics and layers, for pasting into a support request.
+     */
+    static String report(Metrics.Snapshot snapshot, List<LayerMemoryAccountant.LayerStats> layers) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DPW Validation Tool ").append(UpdateChecker.CURRENT_VERSION).append(" diagnostics at ")
+            .append(snapshot.getTakenAt()).append('\n');
+        Runtime rt = Runtime.getRuntime();
+        sb.append("Java ").append(System.getProperty("java.version")).append(", heap ")
+            .append(megabytes(rt.totalMemory() - rt.freeMemory())).append(" of ").append(megabytes(rt.maxMemory()))
+            .append(", network tasks pending ").append(NetworkExecutor.getPendingCount()).append("\n\n");
+        for (LayerMemoryAccountant.LayerStats s : layers) {
+            sb.append("Layer '").append(s.name).append("': ").append(s.nodes).append(" nodes, ").append(s.ways)
+                .append(" ways, ").append(s.relations).append(" relations, about ")
+                .append(megabytes(s.estimatedBytes)).append('\n');
+        }
+        if (!layers.isEmpty()) {
+            sb.append('\n');
+        }
+        return sb.append(snapshot.toJson()).toString();
+    }
+
+    static String hitRate(long hits, long total) {
+        if (total == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%.0f%% (%d of %d)", 100.0 * hits / total, hits, total);
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    static String megabytes(long bytes) {
+        return LayerMemoryAccountant.megabytes(bytes);
+    }
+
+    private static String recentMillis(long[] recent) {
+        StringBuilder sb = new StringBuilder();
+        for (long r : recent) {
+            sb.append(sb.length() == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.0f", r / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static long counter(Metrics.Snapshot snapshot, Metrics.Counter counter) {
+        Long value = snapshot.getCounters().get(counter.getName());
+        return value == null ? 0 : value;
+    }
+
+    private static DefaultTableModel readOnlyModel(String[] columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static JScrollPane tableScroll(JTable table, int height) {
+        table.setFillsViewportHeight(true);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(600, height));
+        return scroll;
+    }
+}
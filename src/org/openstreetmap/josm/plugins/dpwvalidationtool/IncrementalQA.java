@@ -0,0 +1,143 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps the results of a {@link QAEngine} run current while buildings are edited.
+ *
+ * A building's result only depends on the buildings whose boxes touch it, so after an
+ * edit only the changed buildings and their neighbours (at the old and the new position)
+ * can change. Those are re-checked one by one against the old and the new input; the
+ * difference is applied to the issue counts and their flags are replaced. Problems
+ * between two buildings are counted from one building only, so it is enough to recount
+ * the affected buildings.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class IncrementalQA {
+
+    private final List<BuildingCheck> checks;
+    private final BitSet[] flagged;
+    private final int[] issues;
+    private QAInput input;
+
+    /**
+     * Start from the results of a complete run.
+     *
+     * @param report a report that was not cancelled
+     * @throws IllegalArgumentException if the report is incomplete
+     */
+    public IncrementalQA(QAEngine.Report report) {
+        if (report.cancelled) {
+            throw new IllegalArgumentException("Cannot continue from a cancelled QA run");
+        }
+        this.input = report.input;
+        this.checks = new ArrayList<>(report.results.size());
+        this.flagged = new BitSet[report.results.size()];
+        this.issues = new int[report.results.size()];
+        for (int c = 0; c < flagged.length; c++) {
+            QAEngine.CheckResult r = report.results.get(c);
+            checks.add(r.check);
+            flagged[c] = (BitSet) r.flagged.clone();
+            issues[c] = r.issues;
+        }
+    }
+
+    /**
+     * Get the current input.
+     *
+     * @return the input the current results belong to
+     */
+    public synchronized QAInput getInput() {
+        return input;
+    }
+
+    /**
+     * Apply building edits and re-check the buildings they can affect.
+     *
+     * @param changes new coordinates by building index; null for removed buildings,
+     *                indexes past the end for new buildings
+     * @param buildingWays building ways of the updated input, in index order
+     * @return a report of the updated results
+     */
+    public synchronized QAEngine.Report update(Map<Integer, double[]> changes, List<Way> buildingWays) {
+        long start = System.nanoTime();
+        QAInput old = input;
+        QAInput next = old.withBuildings(changes, buildingWays);
+
+        BitSet affected = new BitSet();
+        for (int i : changes.keySet()) {
+            affected.set(i);
+            if (i < old.size()) {
+                old.searchNearbyBuildings(i, affected::set);
+            }
+            next.searchNearbyBuildings(i, affected::set);
+        }
+        // An issue that flags an affected building is found from one of its neighbours
+        BitSet owners = (BitSet) affected.clone();
+        affected.stream().forEach(i -> next.searchNearbyBuildings(i, owners::set));
+
+        IntStream range = IntStream.range(0, checks.size());
+        // Small edits are cheaper to re-check on this thread than to fan out
+        (owners.cardinality() > QAEngine.CHUNK_SIZE ? range.parallel() : range)
+            .forEach(c -> recheck(c, old, next, affected, owners));
+
+        input = next;
+        long micros = (System.nanoTime() - start) / 1_000;
+        Logging.debug("DPWValidationTool: QA re-checked " + affected.cardinality() + " of " + next.size()
+            + " buildings after " + changes.size() + " changes in " + micros + " µs");
+        return snapshot(micros / 1_000);
+    }
+
+    private void recheck(int c, QAInput old, QAInput next, BitSet affected, BitSet owners) {
+        BuildingCheck check = checks.get(c);
+        BitSet scratch = new BitSet();
+        BitSet fresh = new BitSet();
+        int before = 0;
+        int after = 0;
+        try {
+            for (int i = affected.nextSetBit(0); i >= 0 && i < old.size(); i = affected.nextSetBit(i + 1)) {
+                before += check.check(old, i, i + 1, scratch);
+            }
+            for (int i = owners.nextSetBit(0); i >= 0; i = owners.nextSetBit(i + 1)) {
+                int found = check.check(next, i, i + 1, fresh);
+                if (affected.get(i)) {
+                    after += found;
+                }
+            }
+        } catch (RuntimeException e) {
+            Logging.warn("DPWValidationTool: QA check '" + check.getName() + "' failed: " + e.getMessage());
+            return;
+        }
+        issues[c] += after - before;
+        fresh.and(affected);
+        flagged[c].andNot(affected);
+        flagged[c].or(fresh);
+    }
+
+    /**
+     * Get the current results.
+     *
+     * @return a report that later updates do not change
+     */
+    public synchronized QAEngine.Report getReport() {
+        return snapshot(0);
+    }
+
+    private QAEngine.Report snapshot(long elapsedMillis) {
+        List<QAEngine.CheckResult> results = new ArrayList<>(checks.size());
+        for (int c = 0; c < checks.size(); c++) {
+            results.add(new QAEngine.CheckResult(checks.get(c), (BitSet) flagged[c].clone(), issues[c], 0));
+        }
+        return new QAEngine.Report(input, results, false, elapsedMillis);
+    }
+}
@@ -0,0 +1,255 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.UndoRedoHandler;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cloned copy of a mapper's buildings backing a [Validation] layer.
+ *
+ * Remembers which source primitive each clone came from, so that re-isolating for
+ * another day or mapper only adds the newly selected buildings and removes the ones
+ * that dropped out, instead of rebuilding the layer from scratch. The update changes the
+ * DataSet directly rather than through commands, so it is only meant for layers without
+ * unsaved edits, and it clears the undo history of the copy first.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class IsolatedCopy {
+
+    private final DataSet source;
+    private final DataSet target;
+    private final Map<OsmPrimitive, OsmPrimitive> sourceToClone;
+    private final Set<OsmPrimitive> selected;
+
+    /**
+     * Result of an incremental update.
+     */
+    public static final class Diff {
+        /** Number of selected primitives added to the copy */
+        public final int added;
+        /** Number of selected primitives removed from the copy */
+        public final int removed;
+
+        Diff(int added, int removed) {
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+
+    private IsolatedCopy(DataSet source, DataSet target, Map<OsmPrimitive, OsmPrimitive> sourceToClone,
+                         Collection<? extends OsmPrimitive> selected) {
+        this.source = source;
+        this.target = target;
+        this.sourceToClone = sourceToClone;
+        this.selected = new HashSet<>(selected);
+    }
+
+    /**
+     * Clone the selected primitives of a source DataSet into a new DataSet.
+     *
+     * @param source the DataSet the primitives belong to
+     * @param selected the primitives to copy
+     * @return the copy
+     * @throws org.openstreetmap.josm.data.osm.DataIntegrityProblemException if the copy is inconsistent
+     */
+    public static IsolatedCopy create(DataSet source, Collection<? extends OsmPrimitive> selected) {
+        Map<OsmPrimitive, OsmPrimitive> mapping = new HashMap<>();
+        DataSet target = cloneToDataSet(selected, mapping);
+        return new IsolatedCopy(source, target, mapping, selected);
+    }
+
+    /**
+     * Deep-copy primitives into a new DataSet, including all nodes referenced by selected ways.
+     *
+     * @param primitives the primitives to copy
+     * @param mappingOut if not null, receives the source-to-clone mapping
+     * @return a new DataSet holding the copies
+     * @throws org.openstreetmap.josm.data.osm.DataIntegrityProblemException if the copy is inconsistent
+     */
+    public static DataSet cloneToDataSet(Collection<? extends OsmPrimitive> primitives,
+                                         Map<OsmPrimitive, OsmPrimitive> mappingOut) {
+        long start = System.nanoTime();
+        JfrEvents.Clone event = JfrEvents.beginClone();
+        List<Node> nodes = new ArrayList<>();
+        List<Way> ways = new ArrayList<>();
+        List<Relation> relations = new ArrayList<>();
+        for (OsmPrimitive p : primitives) {
+            if (p instanceof Node) nodes.add((Node) p);
+            else if (p instanceof Way) ways.add((Way) p);
+            else if (p instanceof Relation) relations.add((Relation) p);
+        }
+        // Ensure we include all nodes referenced by selected ways (they might not be in selected set)
+        Set<Node> existingNodes = new HashSet<>(nodes);
+        for (Way w : ways) {
+            for (Node n : w.getNodes()) {
+                if (n != null && existingNodes.add(n)) {
+                    nodes.add(n);
+                }
+            }
+        }
+        DataSet newDs = new DataSet();
+        Map<OsmPrimitive, OsmPrimitive> mapping = newDs.clonePrimitives(nodes, ways, relations);
+        if (mappingOut != null && mapping != null) {
+            mappingOut.putAll(mapping);
+        }
+        Metrics.CLONE.recordSince(start);
+        JfrEvents.endClone(event, nodes.size(), ways.size(), relations.size());
+        Logging.info("DPWValidationTool: clonePrimitives mapping size=" + (mapping == null ? 0 : mapping.size())
+            + " (nodes=" + nodes.size() + ", ways=" + ways.size() + ", relations=" + relations.size() + ")");
+        return newDs;
+    }
+
+    /**
+     * Get the DataSet the clones were taken from.
+     *
+     * @return the source DataSet
+     */
+    public DataSet getSource() {
+        return source;
+    }
+
+    /**
+     * Get the DataSet holding the clones.
+     *
+     * @return the target DataSet
+     */
+    public DataSet getTarget() {
+        return target;
+    }
+
+    /**
+     * Check whether a new selection can be applied incrementally.
+     * Relations are copied together with their members by {@link DataSet#clonePrimitives},
+     * so any selection containing relations is rebuilt in full instead.
+     *
+     * @param newSelection the new selection
+     * @return true if {@link #update} can be used
+     */
+    public boolean canUpdate(Collection<? extends OsmPrimitive> newSelection) {
+        for (OsmPrimitive p : selected) {
+            if (p instanceof Relation) return false;
+        }
+        for (OsmPrimitive p : newSelection) {
+            if (p instanceof Relation || p.getDataSet() != source) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Apply a new selection by diffing it against the current one.
+     * Must be called on the EDT once the target belongs to a layer. Callers must rebuild
+     * the copy instead when its layer has unsaved edits; undo and redo commands for the
+     * copy are discarded, since they may refer to clones removed here.
+     *
+     * @param newSelection the new selection (ways and nodes of the source DataSet)
+     * @return how many selected primitives were added and removed
+     */
+    public Diff update(Collection<? extends OsmPrimitive> newSelection) {
+        Set<OsmPrimitive> next = new HashSet<>(newSelection);
+        List<OsmPrimitive> toRemove = new ArrayList<>();
+        for (OsmPrimitive p : selected) {
+            if (!next.contains(p)) toRemove.add(p);
+        }
+        List<OsmPrimitive> toAdd = new ArrayList<>();
+        for (OsmPrimitive p : next) {
+            if (!selected.contains(p)) toAdd.add(p);
+        }
+        if (toRemove.isEmpty() && toAdd.isEmpty()) {
+            return new Diff(0, 0);
+        }
+
+        UndoRedoHandler.getInstance().clean(target);
+        target.beginUpdate();
+        try {
+            removeClones(toRemove, next);
+            addClones(toAdd);
+        } finally {
+            target.endUpdate();
+        }
+        selected.removeAll(toRemove);
+        selected.addAll(toAdd);
+        return new Diff(toAdd.size(), toRemove.size());
+    }
+
+    private void removeClones(List<OsmPrimitive> toRemove, Set<OsmPrimitive> stillSelected) {
+        // Ways first, collecting their nodes as orphan candidates
+        Set<Node> candidates = new LinkedHashSet<>();
+        for (OsmPrimitive p : toRemove) {
+            if (!(p instanceof Way)) continue;
+            Way clone = (Way) sourceToClone.remove(p);
+            if (clone == null || clone.getDataSet() != target) continue;
+            candidates.addAll(clone.getNodes());
+            clone.setNodes(Collections.emptyList());
+            target.removePrimitive(clone);
+        }
+        for (OsmPrimitive p : toRemove) {
+            if (p instanceof Node) {
+                OsmPrimitive clone = sourceToClone.get(p);
+                if (clone != null) candidates.add((Node) clone);
+            }
+        }
+        // Then nodes no longer used by any remaining way and not selected themselves
+        Map<OsmPrimitive, OsmPrimitive> cloneToSource = null;
+        for (Node node : candidates) {
+            if (node.getDataSet() != target || !node.getReferrers().isEmpty()) continue;
+            if (cloneToSource == null) {
+                cloneToSource = new HashMap<>();
+                for (Map.Entry<OsmPrimitive, OsmPrimitive> e : sourceToClone.entrySet()) {
+                    cloneToSource.put(e.getValue(), e.getKey());
+                }
+            }
+            OsmPrimitive src = cloneToSource.get(node);
+            if (src != null && stillSelected.contains(src)) continue;
+            target.removePrimitive(node);
+            if (src != null) sourceToClone.remove(src);
+        }
+    }
+
+    private void addClones(List<OsmPrimitive> toAdd) {
+        // Nodes first so ways can reference their clones
+        for (OsmPrimitive p : toAdd) {
+            if (p instanceof Node) cloneNode((Node) p);
+        }
+        for (OsmPrimitive p : toAdd) {
+            if (!(p instanceof Way)) continue;
+            Way way = (Way) p;
+            List<Node> clonedNodes = new ArrayList<>(way.getNodesCount());
+            for (Node n : way.getNodes()) {
+                clonedNodes.add(cloneNode(n));
+            }
+            // Without the source nodes, which would otherwise list the clone as a referrer
+            Way clone = new Way(way, false, false);
+            clone.setNodes(clonedNodes);
+            target.addPrimitive(clone);
+            sourceToClone.put(way, clone);
+        }
+    }
+
+    private Node cloneNode(Node node) {
+        OsmPrimitive existing = sourceToClone.get(node);
+        if (existing != null && existing.getDataSet() == target) {
+            return (Node) existing;
+        }
+        Node clone = new Node(node);
+        target.addPrimitive(clone);
+        sourceToClone.put(node, clone);
+        return clone;
+    }
+}
@@ -0,0 +1,311 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataSetListenerAdapter;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.gui.util.GuiHelper;
+import org.openstreetmap.josm.tools.Logging;
+
+import javax.swing.SwingUtilities;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Read-mostly isolated view of a mapper's work on the source layer.
+ *
+ * Instead of deep-cloning the selected buildings into a new DataSet, every other
+ * primitive of the source layer is hidden through its disabled state, the same
+ * mechanism JOSM filters use. Nothing is copied until {@link #materialize()} is
+ * called at export time, so peak heap during validation stays at the size of the
+ * source download.
+ *
+ * While the view is applied it listens to the source DataSet: primitives the validator
+ * creates are added to the selection so they are exported, and when JOSM re-runs its
+ * filters (which recomputes every disabled state) the primitives hidden by the view are
+ * hidden again.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class IsolatedView {
+
+    private final OsmDataLayer sourceLayer;
+    private final DataSetListenerAdapter listener = new DataSetListenerAdapter(this::onDatasetEvent);
+    // Guarded by this: replaced on the EDT, grown from DataSet events, copied by materialize()
+    private Set<OsmPrimitive> selected;
+    // Guarded by this: selected primitives deleted or purged while the view is applied, restored on undo
+    private final Set<OsmPrimitive> removedFromView = new HashSet<>();
+    private final Set<OsmPrimitive> hiddenByView = new HashSet<>();
+    private boolean applied;
+
+    // Set while a view hides or shows primitives, see isFilterRun()
+    private static final ThreadLocal<Boolean> FILTER_RUN = new ThreadLocal<>();
+
+    IsolatedView(OsmDataLayer sourceLayer, Collection<? extends OsmPrimitive> selected) {
+        this.sourceLayer = sourceLayer;
+        this.selected = new HashSet<>(selected);
+    }
+
+    /**
+     * Create a view of the given primitives on their source layer and hide everything else.
+     *
+     * @param sourceLayer the layer holding the selected primitives
+     * @param selected the buildings to keep visible
+     * @return the applied view
+     */
+    public static IsolatedView apply(OsmDataLayer sourceLayer, Collection<? extends OsmPrimitive> selected) {
+        IsolatedView view = new IsolatedView(sourceLayer, selected);
+        runInEDT(view::hideOthers);
+        sourceLayer.getDataSet().addDataSetListener(view.listener);
+        return view;
+    }
+
+    private void hideOthers() {
+        Set<OsmPrimitive> visible = withReferencedNodes(getSelected());
+        DataSet ds = sourceLayer.getDataSet();
+        beginFilterRun(ds);
+        try {
+            for (OsmPrimitive p : ds.allPrimitives()) {
+                // Leave primitives already hidden by a user filter alone so clearing restores them as they were
+                if (!visible.contains(p) && !p.isDisabled() && p.setDisabledState(true)) {
+                    hiddenByView.add(p);
+                }
+            }
+            applied = true;
+            ds.fireFilterChanged();
+        } finally {
+            endFilterRun(ds);
+        }
+        sourceLayer.invalidate();
+        Logging.info("DPWValidationTool: Isolated view shows " + visible.size() + " primitives, hides "
+            + hiddenByView.size());
+    }
+
+    /**
+     * Switch the view to a new selection, toggling only the primitives whose visibility changes.
+     * Used for incremental re-isolation when the validator steps to another day or mapper.
+     *
+     * @param newSelection the buildings to show from now on
+     * @return number of primitives whose visibility changed
+     */
+    public int update(Collection<? extends OsmPrimitive> newSelection) {
+        int[] changed = {0};
+        runInEDT(() -> {
+            Set<OsmPrimitive> oldVisible = withReferencedNodes(getSelected());
+            Set<OsmPrimitive> newVisible = withReferencedNodes(newSelection);
+            DataSet ds = sourceLayer.getDataSet();
+            beginFilterRun(ds);
+            try {
+                for (OsmPrimitive p : oldVisible) {
+                    if (!newVisible.contains(p) && !p.isDisabled() && p.setDisabledState(true)) {
+                        hiddenByView.add(p);
+                        changed[0]++;
+                    }
+                }
+                for (OsmPrimitive p : newVisible) {
+                    if (hiddenByView.remove(p)) {
+                        p.unsetDisabledState();
+                        changed[0]++;
+                    }
+                }
+                synchronized (this) {
+                    selected = new HashSet<>(newSelection);
+                    removedFromView.clear();
+                }
+                ds.fireFilterChanged();
+            } finally {
+                endFilterRun(ds);
+            }
+            sourceLayer.invalidate();
+        });
+        Logging.info("DPWValidationTool: Isolated view updated, " + changed[0] + " primitives toggled");
+        return changed[0];
+    }
+
+    /**
+     * Remove the view and show the hidden primitives again.
+     */
+    public void clear() {
+        sourceLayer.getDataSet().removeDataSetListener(listener);
+        runInEDT(() -> {
+            if (!applied) {
+                return;
+            }
+            DataSet ds = sourceLayer.getDataSet();
+            beginFilterRun(ds);
+            try {
+                for (OsmPrimitive p : hiddenByView) {
+                    p.unsetDisabledState();
+                }
+                hiddenByView.clear();
+                applied = false;
+                ds.fireFilterChanged();
+            } finally {
+                endFilterRun(ds);
+            }
+            sourceLayer.invalidate();
+        });
+    }
+
+    /**
+     * Keep the selection and the hidden state in step with edits and filter runs.
+     */
+    private void onDatasetEvent(AbstractDatasetChangedEvent event) {
+        switch (event.getType()) {
+        case PRIMITIVES_ADDED:
+            primitivesAdded(event.getPrimitives());
+            break;
+        case PRIMITIVES_REMOVED:
+            primitivesRemoved(event.getPrimitives());
+            break;
+        case DATA_CHANGED:
+            // Also fired by filter runs, which may have re-enabled what the view hides
+            SwingUtilities.invokeLater(this::rehide);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Add primitives created by the validator, and bring back selected ones whose
+     * deletion was undone.
+     */
+    synchronized void primitivesAdded(Collection<? extends OsmPrimitive> added) {
+        for (OsmPrimitive p : added) {
+            // Untagged nodes come along with their ways
+            if (removedFromView.remove(p) || (p.isNew() && !(p instanceof Node && !p.isTagged()))) {
+                selected.add(p);
+            }
+        }
+    }
+
+    /**
+     * Drop deleted or purged primitives, remembering them in case the deletion is undone.
+     */
+    synchronized void primitivesRemoved(Collection<? extends OsmPrimitive> removed) {
+        for (OsmPrimitive p : removed) {
+            if (selected.remove(p)) {
+                removedFromView.add(p);
+            }
+        }
+    }
+
+    /**
+     * Start changing disabled states; events fired until {@link #endFilterRun} belong to the run.
+     */
+    static void beginFilterRun(DataSet ds) {
+        FILTER_RUN.set(Boolean.TRUE);
+        ds.beginUpdate();
+    }
+
+    static void endFilterRun(DataSet ds) {
+        try {
+            // The cached events, including our fireFilterChanged, are fired from here
+            ds.endUpdate();
+        } finally {
+            FILTER_RUN.remove();
+        }
+    }
+
+    /**
+     * Check whether the current thread is firing the events of a view's filter run.
+     * These runs only change disabled states, so listeners caching the DataSet content
+     * can ignore them.
+     *
+     * @return true while an isolated view fires its own filter change
+     */
+    static boolean isFilterRun() {
+        return FILTER_RUN.get() != null;
+    }
+
+    private void rehide() {
+        if (!applied) {
+            return;
+        }
+        DataSet ds = sourceLayer.getDataSet();
+        int rehidden = 0;
+        beginFilterRun(ds);
+        try {
+            for (OsmPrimitive p : hiddenByView) {
+                if (!p.isDisabled() && p.setDisabledState(true)) {
+                    rehidden++;
+                }
+            }
+            // Our own fireFilterChanged finds nothing to re-hide, so this does not loop
+            if (rehidden > 0) {
+                ds.fireFilterChanged();
+            }
+        } finally {
+            endFilterRun(ds);
+        }
+        if (rehidden > 0) {
+            sourceLayer.invalidate();
+            Logging.debug("DPWValidationTool: Isolated view re-hid " + rehidden + " primitives after a filter run");
+        }
+    }
+
+    /**
+     * Get the layer this view filters.
+     *
+     * @return the source layer
+     */
+    public OsmDataLayer getSourceLayer() {
+        return sourceLayer;
+    }
+
+    /**
+     * Get the buildings shown by this view.
+     *
+     * @return snapshot of the selected primitives, including those created since the view was applied
+     */
+    public synchronized Set<OsmPrimitive> getSelected() {
+        return Collections.unmodifiableSet(new HashSet<>(selected));
+    }
+
+    /**
+     * Clone the viewed primitives into a standalone DataSet, e.g. for export.
+     *
+     * @return a new DataSet holding copies of the selected primitives, those created
+     *         while the view was applied, and their nodes
+     */
+    public DataSet materialize() {
+        DataSet ds = sourceLayer.getDataSet();
+        Lock lock = ds.getReadLock();
+        lock.lock();
+        try {
+            return IsolatedCopy.cloneToDataSet(getSelected(), null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the primitives plus every node referenced by the ways among them.
+     */
+    private static Set<OsmPrimitive> withReferencedNodes(Collection<? extends OsmPrimitive> primitives) {
+        Set<OsmPrimitive> result = new HashSet<>(primitives);
+        for (OsmPrimitive p : primitives) {
+            if (p instanceof Way) {
+                result.addAll(((Way) p).getNodes());
+            }
+        }
+        return result;
+    }
+
+    private static void runInEDT(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            GuiHelper.runInEDTAndWait(task);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the plugin's work, so a recording taken on a slow
+ * machine shows isolation, cloning, export writes, API calls and cache lookups next to
+ * GC and allocation activity. Record with
+ * {@code -XX:StartFlightRecording:filename=josm.jfr} or {@code jcmd <pid> JFR.start}
+ * and open the file in JDK Mission Control; the events are under "DPW Validation Tool".
+ *
+ * JOSM may run on a trimmed runtime without the jdk.jfr module. The begin methods then
+ * return null, every end method accepts null, and the event classes are never loaded.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class JfrEvents {
+
+    /** Whether the runtime has Flight Recorder */
+    static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private static final String PREFIX = "org.openstreetmap.josm.plugins.dpwvalidationtool.";
+
+    private JfrEvents() {
+        // Utility class
+    }
+
+    // ========== Events ==========
+
+    @Name(PREFIX + "Isolate")
+    @Label("Isolate")
+    @Category({"JOSM", "DPW Validation Tool"})
+    @Description("Isolating a mapper's buildings, from the index query to the layer being ready")
+    @StackTrace(false)
+    static final class Isolate extends Event {
+        @Label("Buildings")
+        int buildings;
+        @Label("Mode")
+        @Description("view, incremental or copy")
+        String mode;
+    }
+
+    @Name(PREFIX + "Clone")
+    @Label("Clone Primitives")
+    @Category({"JOSM", "DPW Validation Tool"})
+    @Description("Cloning primitives into a new DataSet")
+    @StackTrace(false)
+    static final class Clone extends Event {
+        @Label("Nodes")
+        int nodes;
+        @Label("Ways")
+        int ways;
+        @Label("Relations")
+        int relations;
+    }
+
+    @Name(PREFIX + "Export")
+    @Label("Export Write")
+    @Category({"JOSM", "DPW Validation Tool"})
+    @Description("Writing the validated layer to an export file")
+    @StackTrace(false)
+    static final class Export extends Event {
+        @Label("File")
+        String file;
+        @Label("Format")
+        String format;
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name(PREFIX + "HttpRequest")
+    @Label("HTTP Request")
+    @Category({"JOSM", "DPW Validation Tool"})
+    @Description("A DPW API or Tasking Manager request, from connecting to the end of the response body")
+    @StackTrace(false)
+    static final class HttpRequest extends Event {
+        @Label("Method")
+        String method;
+        @Label("Endpoint")
+        @Description("Path without query parameters")
+        String endpoint;
+        @Label("Status")
+        int status;
+        @Label("Request Size")
+        @DataAmount
+        long requestBytes;
+        @Label("Response Size")
+        @DataAmount
+        long responseBytes;
+    }
+
+    @Name(PREFIX + "CacheLookup")
+    @Label("Cache Lookup")
+    @Category({"JOSM", "DPW Validation Tool"})
+    @Description("A lookup in one of the plugin's caches")
+    @StackTrace(false)
+    static final class CacheLookup extends Event {
+        @Label("Cache")
+        String cache;
+        @Label("Hit")
+        boolean hit;
+    }
+
+    // ========== Isolation ==========
+
+    static Isolate beginIsolate() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        Isolate event = new Isolate();
+        event.begin();
+        return event;
+    }
+
+    static void endIsolate(Isolate event, int buildings, String mode) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.buildings = buildings;
+        event.mode = mode;
+        event.commit();
+    }
+
+    // ========== Cloning ==========
+
+    static Clone beginClone() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        Clone event = new Clone();
+        event.begin();
+        return event;
+    }
+
+    static void endClone(Clone event, int nodes, int ways, int relations) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.nodes = nodes;
+        event.ways = ways;
+        event.relations = relations;
+        event.commit();
+    }
+
+    // ========== Export ==========
+
+    static Export beginExport() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        Export event = new Export();
+        event.begin();
+        return event;
+    }
+
+    static void endExport(Export event, String file, String format, long bytes) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.file = file;
+        event.format = format;
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    // ========== HTTP ==========
+
+    /**
+     * Start timing an HTTP request.
+     *
+     * @param method HTTP method
+     * @param url request URL; only the path is recorded
+     * @return the started event, or null without Flight Recorder
+     */
+    static HttpRequest beginHttp(String method, String url) {
+        if (!AVAILABLE) {
+            return null;
+        }
+        HttpRequest event = new HttpRequest();
+        event.begin();
+        event.method = method;
+        event.endpoint = pathOf(url);
+        return event;
+    }
+
+    static void endHttp(HttpRequest event, int status, long requestBytes, long responseBytes) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.status = status;
+        event.requestBytes = requestBytes;
+        event.responseBytes = responseBytes;
+        event.commit();
+    }
+
+    // ========== Caches ==========
+
+    /**
+     * Record a cache lookup.
+     *
+     * @param cache cache name
+     * @param hit whether the cache answered the lookup
+     */
+    static void cacheLookup(String cache, boolean hit) {
+        if (!AVAILABLE) {
+            return;
+        }
+        CacheLookup event = new CacheLookup();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Strip scheme, host and query from a URL, keeping user names in query strings out of recordings.
+     */
+    static String pathOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : url.indexOf('/', start + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int end = url.indexOf('?', start);
+        return end < 0 ? url.substring(start) : url.substring(start, end);
+    }
+}
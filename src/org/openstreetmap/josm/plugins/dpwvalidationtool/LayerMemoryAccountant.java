@@ -0,0 +1,383 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.event.DataSetListenerAdapter;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.gui.util.GuiHelper;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Estimates the heap retained by each data layer and keeps the [Validation] layers
+ * within a budget.
+ *
+ * Validators who skip the session reset leave one [Validation] layer behind per
+ * isolation, and on a 4 GB laptop JOSM eventually runs out of memory. After every
+ * isolation the layers are measured (primitive, way node, member and tag counts times
+ * rough per-object sizes) and, when the [Validation] layers together exceed the budget,
+ * the oldest unmodified ones other than the current isolation are closed if auto-evict
+ * is enabled; otherwise a warning is logged and shown in the panel. Layers with unsaved
+ * edits are never closed.
+ *
+ * Measurements are kept per DataSet until it changes, so the diagnostics panel and
+ * repeated budget checks only rescan layers that were edited or reloaded.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class LayerMemoryAccountant {
+
+    // Rough retained sizes of JOSM primitives on a 64-bit JVM with compressed oops
+    static final int NODE_BYTES = 96;
+    static final int WAY_BYTES = 80;
+    static final int WAY_NODE_BYTES = 4;
+    static final int RELATION_BYTES = 80;
+    static final int MEMBER_BYTES = 24;
+    static final int TAG_BYTES = 8;
+
+    private static final LayerMemoryAccountant DEFAULT = new LayerMemoryAccountant();
+
+    // Order in which layers were first measured, oldest first; weak so closed layers can be collected
+    private final Map<OsmDataLayer, Long> firstSeen = new WeakHashMap<>();
+    private long sequence;
+    // Last measurement of each DataSet, guarded by this; weak for the same reason
+    private final Map<DataSet, Measurement> measured = new WeakHashMap<>();
+
+    /**
+     * Counts of one DataSet, marked stale by any edit of it.
+     */
+    private static final class Measurement {
+        volatile boolean stale = true;
+        volatile LayerStats stats;
+        final DataSetListenerAdapter listener = new DataSetListenerAdapter(event -> {
+            if (MapperDayIndex.changesContent(event)) {
+                stale = true;
+            }
+        });
+    }
+
+    /**
+     * Get the accountant shared by the plugin.
+     *
+     * @return the shared accountant
+     */
+    static LayerMemoryAccountant getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Measure the given layers. Layers whose DataSet changed since the last measurement
+     * need a pass over every primitive, so call it off the EDT.
+     *
+     * @param layers the layers to measure
+     * @param budgetBytes budget for the [Validation] layers
+     * @return the layers with their estimates
+     */
+    Report scan(List<OsmDataLayer> layers, long budgetBytes) {
+        List<Usage> usages = new ArrayList<>(layers.size());
+        for (OsmDataLayer layer : layers) {
+            usages.add(new Usage(layer, measure(layer), layer.isModified(), order(layer)));
+        }
+        return new Report(usages, budgetBytes, 0);
+    }
+
+    private LayerStats measure(OsmDataLayer layer) {
+        DataSet dataSet = layer.getDataSet();
+        Measurement m;
+        synchronized (this) {
+            m = measured.get(dataSet);
+            if (m == null) {
+                m = new Measurement();
+                dataSet.addDataSetListener(m.listener);
+                measured.put(dataSet, m);
+            }
+        }
+        LayerStats stats = m.stats;
+        if (stats == null || m.stale) {
+            // Cleared first, so a change during the pass leaves it stale for the next scan
+            m.stale = false;
+            stats = LayerStats.of(layer.getName(), dataSet);
+            m.stats = stats;
+        } else if (!stats.name.equals(layer.getName())) {
+            stats = stats.withName(layer.getName());
+            m.stats = stats;
+        }
+        return stats;
+    }
+
+    private synchronized long order(OsmDataLayer layer) {
+        return firstSeen.computeIfAbsent(layer, l -> sequence++);
+    }
+
+    /**
+     * Measure all data layers and, when the [Validation] layers exceed the configured
+     * budget, close the oldest ones if auto-evict is enabled. Call off the EDT.
+     *
+     * @param keep the layers just isolated, never closed
+     * @return the layers after any eviction
+     */
+    Report enforce(Collection<OsmDataLayer> keep) {
+        if (MainApplication.getLayerManager() == null) {
+            return new Report(Collections.emptyList(), budgetBytes(), 0);
+        }
+        Report report = scan(MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class), budgetBytes());
+        if (!report.isOverBudget()) {
+            return report;
+        }
+        List<Usage> evict = PluginSettings.isAutoEvictLayersEnabled() ? planEviction(report, keep) : Collections.emptyList();
+        if (evict.isEmpty()) {
+            Logging.warn("DPWValidationTool: " + report.getSummary());
+            return report;
+        }
+        GuiHelper.runInEDTAndWait(() -> {
+            for (Usage u : evict) {
+                if (MainApplication.getLayerManager().containsLayer(u.layer)) {
+                    MainApplication.getLayerManager().removeLayer(u.layer);
+                }
+            }
+        });
+        Metrics.LAYERS_EVICTED.add(evict.size());
+        List<Usage> remaining = new ArrayList<>(report.getUsages());
+        remaining.removeAll(evict);
+        Report after = new Report(remaining, report.getBudgetBytes(), evict.size());
+        Logging.info("DPWValidationTool: Closed " + evict.size() + " old validation layer(s) to stay within the memory budget; "
+            + after.getSummary());
+        return after;
+    }
+
+    /**
+     * Choose the [Validation] layers to close to get back within the budget: oldest
+     * first, skipping the kept layers and layers with unsaved edits.
+     *
+     * @param report the measured layers
+     * @param keep layers that must stay open
+     * @return the layers to close, possibly not enough to reach the budget
+     */
+    static List<Usage> planEviction(Report report, Collection<OsmDataLayer> keep) {
+        List<Usage> candidates = new ArrayList<>();
+        for (Usage u : report.getUsages()) {
+            if (u.isValidationLayer() && !u.modified && !keep.contains(u.layer)) {
+                candidates.add(u);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(u -> u.order));
+        List<Usage> evict = new ArrayList<>();
+        long bytes = report.getValidationBytes();
+        for (Usage u : candidates) {
+            if (bytes <= report.getBudgetBytes()) {
+                break;
+            }
+            evict.add(u);
+            bytes -= u.stats.estimatedBytes;
+        }
+        return evict;
+    }
+
+    /**
+     * @return the configured budget for the [Validation] layers in bytes
+     */
+    static long budgetBytes() {
+        return PluginSettings.getLayerMemoryBudgetMb() * 1024L * 1024L;
+    }
+
+    static boolean isValidationLayer(String name) {
+        return name != null && name.startsWith(ValidationConstants.VALIDATION_LAYER_PREFIX);
+    }
+
+    // ========== Results ==========
+
+    /**
+     * One measured layer.
+     */
+    static final class Usage {
+        final OsmDataLayer layer;
+        final LayerStats stats;
+        final boolean modified;
+        final long order;
+
+        Usage(OsmDataLayer layer, LayerStats stats, boolean modified, long order) {
+            this.layer = layer;
+            this.stats = stats;
+            this.modified = modified;
+            this.order = order;
+        }
+
+        boolean isValidationLayer() {
+            return LayerMemoryAccountant.isValidationLayer(stats.name);
+        }
+    }
+
+    /**
+     * Measured layers against the budget. Holds the layers, so do not keep it around.
+     */
+    static final class Report {
+        private final List<Usage> usages;
+        private final long budgetBytes;
+        private final int evicted;
+        private final long validationBytes;
+        private final long sourceBytes;
+        private final int validationLayers;
+
+        Report(List<Usage> usages, long budgetBytes, int evicted) {
+            this.usages = usages;
+            this.budgetBytes = budgetBytes;
+            this.evicted = evicted;
+            long validation = 0;
+            long source = 0;
+            int count = 0;
+            for (Usage u : usages) {
+                if (u.isValidationLayer()) {
+                    validation += u.stats.estimatedBytes;
+                    count++;
+                } else {
+                    source += u.stats.estimatedBytes;
+                }
+            }
+            this.validationBytes = validation;
+            this.sourceBytes = source;
+            this.validationLayers = count;
+        }
+
+        List<Usage> getUsages() {
+            return usages;
+        }
+
+        List<LayerStats> getStats() {
+            List<LayerStats> stats = new ArrayList<>(usages.size());
+            for (Usage u : usages) {
+                stats.add(u.stats);
+            }
+            return stats;
+        }
+
+        long getBudgetBytes() {
+            return budgetBytes;
+        }
+
+        /** @return estimated bytes of all [Validation] layers */
+        long getValidationBytes() {
+            return validationBytes;
+        }
+
+        /** @return estimated bytes of all other data layers */
+        long getSourceBytes() {
+            return sourceBytes;
+        }
+
+        int getValidationLayerCount() {
+            return validationLayers;
+        }
+
+        /** @return number of layers closed to produce this report */
+        int getEvicted() {
+            return evicted;
+        }
+
+        boolean isOverBudget() {
+            return validationBytes > budgetBytes;
+        }
+
+        /**
+         * @return one line for the panel and the log
+         */
+        String getSummary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(validationLayers).append(" validation layer").append(validationLayers == 1 ? "" : "s")
+                .append(" use about ").append(megabytes(validationBytes)).append(" of the ")
+                .append(megabytes(budgetBytes)).append(" budget, source data about ").append(megabytes(sourceBytes));
+            if (evicted > 0) {
+                sb.append(" (").append(evicted).append(" older layer").append(evicted == 1 ? "" : "s").append(" closed)");
+            } else if (isOverBudget()) {
+                sb.append(" - reset the session or close old validation layers");
+            }
+            return sb.toString();
+        }
+    }
+
+    // ========== Estimates ==========
+
+    /**
+     * Primitive counts and estimated heap use of one data layer.
+     */
+    static final class LayerStats {
+        final String name;
+        final int nodes;
+        final int ways;
+        final int relations;
+        final long wayNodes;
+        final long members;
+        final long tags;
+        final long estimatedBytes;
+
+        LayerStats(String name, int nodes, int ways, long wayNodes, int relations, long members, long tags) {
+            this.name = name;
+            this.nodes = nodes;
+            this.ways = ways;
+            this.relations = relations;
+            this.wayNodes = wayNodes;
+            this.members = members;
+            this.tags = tags;
+            this.estimatedBytes = estimateBytes(nodes, ways, wayNodes, relations, members, tags);
+        }
+
+        LayerStats withName(String newName) {
+            return new LayerStats(newName, nodes, ways, wayNodes, relations, members, tags);
+        }
+
+        static LayerStats of(String name, DataSet dataSet) {
+            int nodes = 0;
+            int ways = 0;
+            int relations = 0;
+            long wayNodes = 0;
+            long members = 0;
+            long tags = 0;
+            Lock lock = dataSet.getReadLock();
+            lock.lock();
+            try {
+                for (OsmPrimitive p : dataSet.allPrimitives()) {
+                    tags += p.getNumKeys();
+                    if (p instanceof Way) {
+                        ways++;
+                        wayNodes += ((Way) p).getNodesCount();
+                    } else if (p instanceof Relation) {
+                        relations++;
+                        members += ((Relation) p).getMembersCount();
+                    } else {
+                        nodes++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new LayerStats(name, nodes, ways, wayNodes, relations, members, tags);
+        }
+    }
+
+    /**
+     * Estimate the heap retained by a set of primitives.
+     *
+     * @return estimated bytes
+     */
+    static long estimateBytes(long nodes, long ways, long wayNodes, long relations, long members, long tags) {
+        return nodes * NODE_BYTES + ways * WAY_BYTES + wayNodes * WAY_NODE_BYTES
+            + relations * RELATION_BYTES + members * MEMBER_BYTES + tags * TAG_BYTES;
+    }
+
+    static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,356 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationMember;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fingerprints of every primitive of an uploaded export, used to upload only what
+ * changed when the same validation log is exported again.
+ *
+ * Each primitive is keyed by type letter and id ("n123", "w-5") and reduced to a 64-bit
+ * hash of its tags and coordinates, node list or members. Comparing two snapshots gives
+ * the created, modified and deleted primitives, which are written as an osmChange
+ * document. One snapshot file per validation log is kept in the JOSM user data directory.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class LayerSnapshot {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String sha256;
+    private final Map<String, Long> fingerprints;
+
+    /**
+     * Create a snapshot from fingerprints.
+     *
+     * @param sha256 hex SHA-256 of the full export this snapshot describes
+     * @param fingerprints fingerprint by primitive key
+     */
+    LayerSnapshot(String sha256, Map<String, Long> fingerprints) {
+        this.sha256 = sha256;
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Fingerprint every primitive of a DataSet. Call with the read lock held.
+     *
+     * @param data the exported data
+     * @param sha256 hex SHA-256 of the full export written from it
+     * @return the snapshot
+     */
+    public static LayerSnapshot of(DataSet data, String sha256) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (OsmPrimitive p : data.allPrimitives()) {
+            if (!p.isDeleted() && !p.isIncomplete()) {
+                fingerprints.put(key(p), fingerprint(p));
+            }
+        }
+        return new LayerSnapshot(sha256, fingerprints);
+    }
+
+    /**
+     * Get the SHA-256 of the full export this snapshot describes.
+     *
+     * @return hex SHA-256
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * Get the number of primitives in the snapshot.
+     *
+     * @return primitive count
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Primitives that differ between two snapshots.
+     */
+    public static final class Diff {
+        /** Keys only in the newer snapshot */
+        public final Set<String> created;
+        /** Keys in both whose fingerprint changed */
+        public final Set<String> modified;
+        /** Keys only in the older snapshot */
+        public final Set<String> deleted;
+
+        Diff(Set<String> created, Set<String> modified, Set<String> deleted) {
+            this.created = Collections.unmodifiableSet(created);
+            this.modified = Collections.unmodifiableSet(modified);
+            this.deleted = Collections.unmodifiableSet(deleted);
+        }
+
+        /**
+         * @return true if nothing changed
+         */
+        public boolean isEmpty() {
+            return created.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+        }
+
+        /**
+         * @return number of changed primitives
+         */
+        public int size() {
+            return created.size() + modified.size() + deleted.size();
+        }
+    }
+
+    /**
+     * Compare with an older snapshot.
+     *
+     * @param base the snapshot of the last upload
+     * @return what changed since then
+     */
+    public Diff diffFrom(LayerSnapshot base) {
+        Set<String> created = new HashSet<>();
+        Set<String> modified = new HashSet<>();
+        Set<String> deleted = new HashSet<>();
+        for (Map.Entry<String, Long> e : fingerprints.entrySet()) {
+            Long old = base.fingerprints.get(e.getKey());
+            if (old == null) {
+                created.add(e.getKey());
+            } else if (old.longValue() != e.getValue().longValue()) {
+                modified.add(e.getKey());
+            }
+        }
+        for (String k : base.fingerprints.keySet()) {
+            if (!fingerprints.containsKey(k)) {
+                deleted.add(k);
+            }
+        }
+        return new Diff(created, modified, deleted);
+    }
+
+    // ========== Persistence ==========
+
+    /**
+     * Get the snapshot file of a validation log.
+     *
+     * @param validationLogId the validation log
+     * @return path in the JOSM user data directory
+     */
+    public static Path fileFor(int validationLogId) {
+        File dir = new File(Config.getDirs().getUserDataDirectory(true), "DPWValidationTool" + File.separator + "snapshots");
+        return new File(dir, "log-" + validationLogId + ".tsv").toPath();
+    }
+
+    /**
+     * Write the snapshot, replacing any earlier one atomically.
+     *
+     * @param file target file
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            w.write("# sha256\t" + sha256);
+            w.newLine();
+            for (Map.Entry<String, Long> e : fingerprints.entrySet()) {
+                w.write(e.getKey() + "\t" + Long.toHexString(e.getValue()));
+                w.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read a snapshot.
+     *
+     * @param file snapshot file
+     * @return the snapshot, or null if there is none or it cannot be read
+     */
+    public static LayerSnapshot load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).startsWith("# sha256\t")) {
+                return null;
+            }
+            Map<String, Long> fingerprints = new HashMap<>(lines.size() * 2);
+            for (String line : lines.subList(1, lines.size())) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    fingerprints.put(line.substring(0, tab), Long.parseUnsignedLong(line.substring(tab + 1), 16));
+                }
+            }
+            return new LayerSnapshot(lines.get(0).substring("# sha256\t".length()), fingerprints);
+        } catch (IOException | NumberFormatException e) {
+            Logging.warn("DPWValidationTool: Could not read upload snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ========== Fingerprints ==========
+
+    static String key(OsmPrimitive p) {
+        char type = p instanceof Node ? 'n' : p instanceof Way ? 'w' : 'r';
+        return type + Long.toString(p.getUniqueId());
+    }
+
+    static long fingerprint(OsmPrimitive p) {
+        StringBuilder sb = new StringBuilder(64);
+        if (p instanceof Node) {
+            Node n = (Node) p;
+            sb.append(n.lat()).append(',').append(n.lon());
+        } else if (p instanceof Way) {
+            for (Node n : ((Way) p).getNodes()) {
+                sb.append(n.getUniqueId()).append(',');
+            }
+        } else if (p instanceof Relation) {
+            for (RelationMember m : ((Relation) p).getMembers()) {
+                sb.append(key(m.getMember())).append('=').append(m.getRole()).append(',');
+            }
+        }
+        sb.append('|');
+        for (Map.Entry<String, String> tag : new TreeMap<>(p.getKeys()).entrySet()) {
+            sb.append(tag.getKey()).append('=').append(tag.getValue()).append(';');
+        }
+        return fnv64(sb);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a character sequence.
+     */
+    static long fnv64(CharSequence s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            h = (h ^ (c & 0xFF)) * FNV_PRIME;
+            h = (h ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    // ========== osmChange ==========
+
+    /**
+     * Write the changes as an osmChange document. Call with the read lock held.
+     *
+     * @param out target writer
+     * @param data the data the newer snapshot was taken from
+     * @param diff the changes to write
+     * @throws IOException if writing fails
+     */
+    public static void writeOsmChange(Writer out, DataSet data, Diff diff) throws IOException {
+        List<OsmPrimitive> created = new ArrayList<>();
+        List<OsmPrimitive> modified = new ArrayList<>();
+        // Nodes first, then ways, then relations, so every reference is defined before use
+        List<Iterable<? extends OsmPrimitive>> byType = new ArrayList<>();
+        byType.add(data.getNodes());
+        byType.add(data.getWays());
+        byType.add(data.getRelations());
+        for (Iterable<? extends OsmPrimitive> primitives : byType) {
+            for (OsmPrimitive p : primitives) {
+                String key = key(p);
+                if (diff.created.contains(key)) {
+                    created.add(p);
+                } else if (diff.modified.contains(key)) {
+                    modified.add(p);
+                }
+            }
+        }
+        out.write("<?xml version='1.0' encoding='UTF-8'?>\n");
+        out.write("<osmChange version=\"0.6\" generator=\"DPWValidationTool/" + UpdateChecker.CURRENT_VERSION + "\">\n");
+        writeSection(out, "create", created);
+        writeSection(out, "modify", modified);
+        if (!diff.deleted.isEmpty()) {
+            out.write("  <delete>\n");
+            List<String> deleted = new ArrayList<>(diff.deleted);
+            // Relations, then ways, then nodes, so nothing is deleted while still referenced
+            deleted.sort((a, b) -> a.charAt(0) != b.charAt(0)
+                ? Integer.compare("rwn".indexOf(a.charAt(0)), "rwn".indexOf(b.charAt(0))) : a.compareTo(b));
+            for (String key : deleted) {
+                out.write("    <" + typeName(key.charAt(0)) + " id=\"" + key.substring(1) + "\"/>\n");
+            }
+            out.write("  </delete>\n");
+        }
+        out.write("</osmChange>\n");
+    }
+
+    private static void writeSection(Writer out, String section, List<OsmPrimitive> primitives) throws IOException {
+        if (primitives.isEmpty()) {
+            return;
+        }
+        out.write("  <" + section + ">\n");
+        for (OsmPrimitive p : primitives) {
+            String type = typeName(key(p).charAt(0));
+            out.write("    <" + type + " id=\"" + p.getUniqueId() + "\"");
+            if (p.getVersion() > 0) {
+                out.write(" version=\"" + p.getVersion() + "\"");
+            }
+            if (p instanceof Node) {
+                out.write(" lat=\"" + ((Node) p).lat() + "\" lon=\"" + ((Node) p).lon() + "\"");
+            }
+            out.write(">\n");
+            if (p instanceof Way) {
+                for (Node n : ((Way) p).getNodes()) {
+                    out.write("      <nd ref=\"" + n.getUniqueId() + "\"/>\n");
+                }
+            } else if (p instanceof Relation) {
+                for (RelationMember m : ((Relation) p).getMembers()) {
+                    out.write("      <member type=\"" + typeName(key(m.getMember()).charAt(0)) + "\" ref=\""
+                        + m.getMember().getUniqueId() + "\" role=\"" + escape(m.getRole()) + "\"/>\n");
+                }
+            }
+            for (Map.Entry<String, String> tag : new TreeMap<>(p.getKeys()).entrySet()) {
+                out.write("      <tag k=\"" + escape(tag.getKey()) + "\" v=\"" + escape(tag.getValue()) + "\"/>\n");
+            }
+            out.write("    </" + type + ">\n");
+        }
+        out.write("  </" + section + ">\n");
+    }
+
+    private static String typeName(char type) {
+        return type == 'n' ? "node" : type == 'w' ? "way" : "relation";
+    }
+
+    static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '"': sb.append("&quot;"); break;
+                case '\n': sb.append("&#10;"); break;
+                case '\t': sb.append("&#9;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataSetListenerAdapter;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.tools.Logging;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+/**
+ * Re-checks edited buildings of the isolated data after an auto-detection run.
+ *
+ * Listens to the DataSet the buildings live in, collects the building ways touched by
+ * each change (moved nodes, changed node lists, tags, additions and deletions) and,
+ * once edits pause, hands only those to {@link IncrementalQA} on the worker thread.
+ * Highway edits are not tracked; they are picked up by the next full run.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class LiveQA {
+
+    /** Quiet time after the last edit before re-checking, in milliseconds */
+    static final int DEBOUNCE_MS = 400;
+
+    private final DataSet dataSet;
+    private final IncrementalQA qa;
+    private final boolean trackNewBuildings;
+    private final Consumer<QAEngine.Report> onUpdate;
+    private final DataSetListenerAdapter listener;
+    private final Timer timer;
+
+    // Confined to the EDT
+    private final Map<Way, Integer> indexes = new IdentityHashMap<>();
+    private List<Way> ways;
+    // Guarded by this
+    private final Set<Way> dirty = new LinkedHashSet<>();
+    private volatile boolean stopped;
+
+    /**
+     * Start tracking edits. Call on the EDT.
+     *
+     * @param dataSet the DataSet holding the checked buildings
+     * @param report the completed run to keep current
+     * @param trackNewBuildings whether buildings added to the DataSet join the checks
+     *                          (true when the DataSet only holds isolated data)
+     * @param onUpdate receives each updated report on the EDT
+     */
+    LiveQA(DataSet dataSet, QAEngine.Report report, boolean trackNewBuildings, Consumer<QAEngine.Report> onUpdate) {
+        this.dataSet = dataSet;
+        this.qa = new IncrementalQA(report);
+        this.trackNewBuildings = trackNewBuildings;
+        this.onUpdate = onUpdate;
+        this.ways = report.input.getBuildingWays();
+        for (int i = 0; i < ways.size(); i++) {
+            indexes.put(ways.get(i), i);
+        }
+        this.timer = new Timer(DEBOUNCE_MS, e -> flush());
+        this.timer.setRepeats(false);
+        this.listener = new DataSetListenerAdapter(this::collect);
+        dataSet.addDataSetListener(listener);
+    }
+
+    /**
+     * Stop tracking edits. Pending re-checks are dropped.
+     */
+    void stop() {
+        stopped = true;
+        timer.stop();
+        dataSet.removeDataSetListener(listener);
+    }
+
+    private void collect(AbstractDatasetChangedEvent event) {
+        Set<Way> touched = new LinkedHashSet<>();
+        for (OsmPrimitive p : event.getPrimitives()) {
+            if (p instanceof Way) {
+                touched.add((Way) p);
+            } else if (p instanceof Node) {
+                for (OsmPrimitive referrer : p.getReferrers()) {
+                    if (referrer instanceof Way) {
+                        touched.add((Way) referrer);
+                    }
+                }
+            }
+        }
+        if (touched.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            dirty.addAll(touched);
+        }
+        timer.restart();
+    }
+
+    private void flush() {
+        if (stopped) {
+            return;
+        }
+        Set<Way> batch;
+        synchronized (this) {
+            batch = new LinkedHashSet<>(dirty);
+            dirty.clear();
+        }
+        Map<Integer, double[]> changes = new HashMap<>();
+        List<Way> grown = null;
+        Lock lock = dataSet.getReadLock();
+        lock.lock();
+        try {
+            for (Way w : batch) {
+                boolean building = w.hasKey("building") && w.isUsable();
+                Integer index = indexes.get(w);
+                if (index == null) {
+                    if (!building || !trackNewBuildings) {
+                        continue;
+                    }
+                    if (grown == null) {
+                        grown = new ArrayList<>(ways);
+                    }
+                    index = grown.size();
+                    grown.add(w);
+                    indexes.put(w, index);
+                }
+                changes.put(index, building ? BuildingGeometry.coordinates(w) : null);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (grown != null) {
+            ways = Collections.unmodifiableList(grown);
+        }
+        final List<Way> updatedWays = ways;
+        MainApplication.worker.execute(() -> {
+            try {
+                QAEngine.Report report = qa.update(changes, updatedWays);
+                SwingUtilities.invokeLater(() -> {
+                    if (!stopped) {
+                        onUpdate.accept(report);
+                    }
+                });
+            } catch (RuntimeException e) {
+                Logging.warn("DPWValidationTool: Live QA update failed: " + e.getMessage());
+            }
+        });
+    }
+}
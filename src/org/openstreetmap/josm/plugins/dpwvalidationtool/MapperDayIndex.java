@@ -0,0 +1,476 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.BBox;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.event.AbstractDatasetChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataChangedEvent;
+import org.openstreetmap.josm.data.osm.event.DataSetListenerAdapter;
+import org.openstreetmap.josm.gui.MainApplication;
+import org.openstreetmap.josm.gui.layer.OsmDataLayer;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.function.IntConsumer;
+
+/**
+ * Resident index of building primitives by mapper and UTC day for one DataSet.
+ *
+ * Built with a single pass over the DataSet on first use and kept until the DataSet
+ * changes, so counting and isolating buildings for a mapper no longer rescans every
+ * primitive. One index is kept per DataSet that is still loaded as a data layer;
+ * this is what lets a warm session reuse the source data for the next task.
+ *
+ * For isolation limited to an area, a {@link PackedRTree} over the building bounding
+ * boxes is built on the first spatial query and kept alongside the mapper entries.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class MapperDayIndex {
+
+    private static final Map<DataSet, MapperDayIndex> INDEXES = new IdentityHashMap<>();
+
+    private final DataSet dataSet;
+    private final DataSetListenerAdapter listener;
+    private volatile boolean stale = true;
+
+    // Guarded by this
+    private Map<String, MapperEntry> mappers = Collections.emptyMap();
+    private List<String> userNames = Collections.emptyList();
+    private int totalBuildings;
+    // All indexed buildings with their mapper and epoch day (NO_DAY if untimed), in scan order
+    private OsmPrimitive[] buildingItems = new OsmPrimitive[0];
+    private String[] buildingMappers = new String[0];
+    private int[] buildingDays = new int[0];
+    // Built lazily from buildingItems; null until the first spatial query after a rebuild
+    private PackedRTree spatialTree;
+    private double[] spatialBoxes;
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    /**
+     * Buildings of one mapper, sorted by UTC epoch day for binary-searched range queries.
+     */
+    private static final class MapperEntry {
+        int buildingCount;
+        final DaySortedList<OsmPrimitive> byDay = new DaySortedList<>();
+    }
+
+    private MapperDayIndex(DataSet dataSet) {
+        this.dataSet = dataSet;
+        this.listener = new DataSetListenerAdapter(event -> {
+            if (changesContent(event)) {
+                stale = true;
+            }
+        });
+        dataSet.addDataSetListener(listener);
+    }
+
+    /**
+     * Get the index for a DataSet, creating it if needed.
+     * Indexes of DataSets that are no longer loaded as a layer are released.
+     *
+     * @param dataSet the DataSet to index
+     * @return the index, or null if dataSet is null
+     */
+    public static synchronized MapperDayIndex forDataSet(DataSet dataSet) {
+        if (dataSet == null) {
+            return null;
+        }
+        pruneDetached();
+        return INDEXES.computeIfAbsent(dataSet, MapperDayIndex::new);
+    }
+
+    /**
+     * Release the index of one DataSet, if any.
+     *
+     * @param dataSet the DataSet whose index should be dropped
+     */
+    public static synchronized void release(DataSet dataSet) {
+        MapperDayIndex index = INDEXES.remove(dataSet);
+        if (index != null) {
+            index.dispose();
+        }
+    }
+
+    /**
+     * Release all indexes. Used on full session reset.
+     */
+    public static synchronized void releaseAll() {
+        for (MapperDayIndex index : INDEXES.values()) {
+            index.dispose();
+        }
+        INDEXES.clear();
+    }
+
+    /**
+     * Drop indexes whose DataSet is no longer shown by any data layer.
+     */
+    private static void pruneDetached() {
+        if (INDEXES.isEmpty() || MainApplication.getLayerManager() == null) {
+            return;
+        }
+        Set<DataSet> loaded = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OsmDataLayer layer : MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class)) {
+            loaded.add(layer.getDataSet());
+        }
+        Iterator<Map.Entry<DataSet, MapperDayIndex>> it = INDEXES.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<DataSet, MapperDayIndex> entry = it.next();
+            if (!loaded.contains(entry.getKey())) {
+                entry.getValue().dispose();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Create an index that is not shared through {@link #forDataSet}.
+     * Used by the benchmarks, which run without any data layer loaded.
+     *
+     * @param dataSet the DataSet to index
+     * @return a new index
+     */
+    static MapperDayIndex unregistered(DataSet dataSet) {
+        return new MapperDayIndex(dataSet);
+    }
+
+    /**
+     * Check whether a DataSet event may change the primitives, tags or geometry of the DataSet.
+     * Flag, changeset and conflict changes never do, nor do the filter runs of an
+     * {@link IsolatedView}. A DATA_CHANGED event batches the events of one update, or
+     * stands for a change too large to list, so only those outside a view run count.
+     *
+     * @param event the DataSet event
+     * @return true if the index, or any other cache of the content, must be rebuilt
+     */
+    static boolean changesContent(AbstractDatasetChangedEvent event) {
+        switch (event.getType()) {
+        case PRIMITIVES_ADDED:
+        case PRIMITIVES_REMOVED:
+        case TAGS_CHANGED:
+        case NODE_MOVED:
+        case WAY_NODES_CHANGED:
+        case RELATION_MEMBERS_CHANGED:
+            return true;
+        case DATA_CHANGED:
+            List<AbstractDatasetChangedEvent> events = ((DataChangedEvent) event).getEvents();
+            if (events == null) {
+                return !IsolatedView.isFilterRun();
+            }
+            for (AbstractDatasetChangedEvent e : events) {
+                if (changesContent(e)) {
+                    return true;
+                }
+            }
+            return false;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Mark the index stale, as an edit would, so the next query rebuilds it.
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    synchronized void dispose() {
+        dataSet.removeDataSetListener(listener);
+        mappers = Collections.emptyMap();
+        userNames = Collections.emptyList();
+        totalBuildings = 0;
+        clearBuildings();
+        stale = true;
+    }
+
+    /**
+     * Rebuild the index if the DataSet changed since the last build.
+     */
+    private synchronized void ensureBuilt() {
+        if (!stale) {
+            Metrics.INDEX_HITS.increment();
+            JfrEvents.cacheLookup("mapper_index", true);
+            return;
+        }
+        Metrics.INDEX_REBUILDS.increment();
+        JfrEvents.cacheLookup("mapper_index", false);
+        // Clear the flag first so a concurrent edit during the scan marks it stale again
+        stale = false;
+        long start = System.nanoTime();
+        Map<String, MapperEntry> newMappers = new HashMap<>();
+        Set<String> names = new TreeSet<>();
+        int buildings = 0;
+        List<OsmPrimitive> items = new ArrayList<>();
+        List<String> itemMappers = new ArrayList<>();
+        int[] itemDays = new int[64];
+
+        Lock lock = dataSet.getReadLock();
+        lock.lock();
+        try {
+            for (OsmPrimitive p : dataSet.allPrimitives()) {
+                User user = p.getUser();
+                String name = user != null ? user.getName() : null;
+                if (name != null && !name.isEmpty()) {
+                    names.add(name);
+                }
+                if (!p.hasKey("building")) {
+                    continue;
+                }
+                buildings++;
+                if (name == null) {
+                    continue;
+                }
+                MapperEntry entry = newMappers.computeIfAbsent(name, k -> new MapperEntry());
+                entry.buildingCount++;
+                int day = NO_DAY;
+                Instant instant = p.isTimestampEmpty() ? null : p.getInstant();
+                if (instant != null) {
+                    day = (int) instant.atZone(ZoneOffset.UTC).toLocalDate().toEpochDay();
+                    entry.byDay.add(day, p);
+                }
+                if (items.size() == itemDays.length) {
+                    itemDays = Arrays.copyOf(itemDays, itemDays.length * 2);
+                }
+                itemDays[items.size()] = day;
+                items.add(p);
+                itemMappers.add(name);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (MapperEntry entry : newMappers.values()) {
+            entry.byDay.seal();
+        }
+
+        mappers = newMappers;
+        userNames = Collections.unmodifiableList(new ArrayList<>(names));
+        totalBuildings = buildings;
+        clearBuildings();
+        buildingItems = items.toArray(new OsmPrimitive[0]);
+        buildingMappers = itemMappers.toArray(new String[0]);
+        buildingDays = Arrays.copyOf(itemDays, items.size());
+        Metrics.INDEX_BUILD.recordSince(start);
+        Logging.info("DPWValidationTool: Indexed " + buildings + " buildings by " + newMappers.size()
+            + " mappers in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void clearBuildings() {
+        buildingItems = new OsmPrimitive[0];
+        buildingMappers = new String[0];
+        buildingDays = new int[0];
+        spatialTree = null;
+        spatialBoxes = null;
+    }
+
+    /**
+     * Build the R-tree over building bounding boxes if it is not built yet.
+     */
+    private void ensureSpatial() {
+        ensureBuilt();
+        if (spatialTree != null) {
+            return;
+        }
+        long start = System.nanoTime();
+        double[] boxes = new double[buildingItems.length * 4];
+        Lock lock = dataSet.getReadLock();
+        lock.lock();
+        try {
+            for (int i = 0; i < buildingItems.length; i++) {
+                BBox bbox = buildingItems[i].getBBox();
+                if (bbox == null || !bbox.isValid()) {
+                    // Inverted box: kept in the tree but never matches a query
+                    boxes[i * 4] = Double.POSITIVE_INFINITY;
+                    boxes[i * 4 + 1] = Double.POSITIVE_INFINITY;
+                    boxes[i * 4 + 2] = Double.NEGATIVE_INFINITY;
+                    boxes[i * 4 + 3] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                boxes[i * 4] = bbox.minLon();
+                boxes[i * 4 + 1] = bbox.minLat();
+                boxes[i * 4 + 2] = bbox.maxLon();
+                boxes[i * 4 + 3] = bbox.maxLat();
+            }
+        } finally {
+            lock.unlock();
+        }
+        spatialBoxes = boxes;
+        spatialTree = new PackedRTree(boxes);
+        Logging.info("DPWValidationTool: Built spatial index over " + buildingItems.length + " buildings in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Visit the index of every building whose bounding box centre lies inside the area.
+     */
+    private void searchArea(SpatialBounds area, IntConsumer visitor) {
+        ensureSpatial();
+        double[] boxes = spatialBoxes;
+        spatialTree.search(area.getMinLon(), area.getMinLat(), area.getMaxLon(), area.getMaxLat(), i -> {
+            double lon = (boxes[i * 4] + boxes[i * 4 + 2]) / 2;
+            double lat = (boxes[i * 4 + 1] + boxes[i * 4 + 3]) / 2;
+            if (area.contains(lon, lat)) {
+                visitor.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Get the DataSet this index covers.
+     *
+     * @return the indexed DataSet
+     */
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * Get buildings last edited by a mapper on a given UTC day.
+     *
+     * @param mapper the OSM username
+     * @param day the UTC date
+     * @return the matching building primitives (empty if none)
+     */
+    public List<OsmPrimitive> getBuildings(String mapper, LocalDate day) {
+        return getBuildings(mapper, day, day);
+    }
+
+    /**
+     * Get buildings last edited by a mapper within a UTC date range.
+     *
+     * @param mapper the OSM username
+     * @param from first UTC date, inclusive
+     * @param to last UTC date, inclusive
+     * @return the matching building primitives in date order (empty if none)
+     */
+    public synchronized List<OsmPrimitive> getBuildings(String mapper, LocalDate from, LocalDate to) {
+        ensureBuilt();
+        MapperEntry entry = mappers.get(mapper);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        return entry.byDay.range((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Get buildings last edited by a mapper within a UTC date range and an area.
+     * Only buildings found by the spatial index are looked at; a building belongs to the
+     * area when the centre of its bounding box lies inside it.
+     *
+     * @param mapper the OSM username
+     * @param from first UTC date, inclusive
+     * @param to last UTC date, inclusive
+     * @param area the area, or null for no spatial limit
+     * @return the matching building primitives (empty if none)
+     */
+    public synchronized List<OsmPrimitive> getBuildings(String mapper, LocalDate from, LocalDate to, SpatialBounds area) {
+        if (area == null) {
+            return getBuildings(mapper, from, to);
+        }
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        List<OsmPrimitive> result = new ArrayList<>();
+        searchArea(area, i -> {
+            int day = buildingDays[i];
+            if (day != NO_DAY && day >= fromDay && day <= toDay && mapper.equals(buildingMappers[i])) {
+                result.add(buildingItems[i]);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Partition the buildings of a UTC date range and an area by mapper.
+     *
+     * @param from first UTC date, inclusive
+     * @param to last UTC date, inclusive
+     * @param area the area, or null for no spatial limit
+     * @return mapper username to buildings, sorted by username; mappers with no buildings are omitted
+     */
+    public synchronized Map<String, List<OsmPrimitive>> getBuildingsByMapper(LocalDate from, LocalDate to, SpatialBounds area) {
+        if (area == null) {
+            return getBuildingsByMapper(from, to);
+        }
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        Map<String, List<OsmPrimitive>> result = new TreeMap<>();
+        searchArea(area, i -> {
+            int day = buildingDays[i];
+            if (day != NO_DAY && day >= fromDay && day <= toDay) {
+                result.computeIfAbsent(buildingMappers[i], k -> new ArrayList<>()).add(buildingItems[i]);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Partition the buildings of a UTC date range by mapper.
+     *
+     * @param from first UTC date, inclusive
+     * @param to last UTC date, inclusive
+     * @return mapper username to buildings, sorted by username; mappers with no buildings in the range are omitted
+     */
+    public synchronized Map<String, List<OsmPrimitive>> getBuildingsByMapper(LocalDate from, LocalDate to) {
+        ensureBuilt();
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        Map<String, List<OsmPrimitive>> result = new TreeMap<>();
+        for (Map.Entry<String, MapperEntry> e : mappers.entrySet()) {
+            List<OsmPrimitive> buildings = e.getValue().byDay.range(fromDay, toDay);
+            if (!buildings.isEmpty()) {
+                result.put(e.getKey(), buildings);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count all buildings last edited by a mapper, regardless of date.
+     *
+     * @param mapper the OSM username
+     * @return number of buildings
+     */
+    public synchronized int countBuildings(String mapper) {
+        ensureBuilt();
+        MapperEntry entry = mappers.get(mapper);
+        return entry != null ? entry.buildingCount : 0;
+    }
+
+    /**
+     * Count all buildings in the DataSet.
+     *
+     * @return number of primitives tagged building=*
+     */
+    public synchronized int getTotalBuildings() {
+        ensureBuilt();
+        return totalBuildings;
+    }
+
+    /**
+     * Get the sorted names of all users who last edited any primitive in the DataSet.
+     *
+     * @return unmodifiable sorted list of usernames
+     */
+    public synchronized List<String> getUserNames() {
+        ensureBuilt();
+        return userNames;
+    }
+}
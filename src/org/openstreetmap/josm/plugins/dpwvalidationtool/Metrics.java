@@ -0,0 +1,550 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide timing and counter registry for the validation workflow.
+ *
+ * Every stage (fetch users, isolate, clone, submit, export, upload and the API lookups)
+ * records its latency into a {@link Timer}: a log-linear histogram with 16 sub-buckets
+ * per power of two, so percentiles are accurate to within 1/16 of the value from
+ * nanoseconds up to centuries. Recording into a timer only updates atomics and does not
+ * allocate; registered timers also append the stage to the {@link SessionTrace}, which
+ * takes the trace's lock for the copy into its preallocated buffer.
+ * {@link #snapshot()} copies the current state for display or export as JSON or in the
+ * Prometheus text format.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class Metrics {
+
+    // Registries come first: the metric constants below register themselves
+    private static final List<Timer> TIMERS = new CopyOnWriteArrayList<>();
+    private static final List<Counter> COUNTERS = new CopyOnWriteArrayList<>();
+
+    /** Prefix of every exported metric name */
+    static final String PREFIX = "dpw_";
+
+    // ========== Workflow Stages ==========
+
+    /** Authorized mapper list request to the DPW API */
+    public static final Timer FETCH_USERS = register(new Timer("fetch_users", "Fetch authorized mappers from the DPW API"));
+    /** user_id lookup by OSM username */
+    public static final Timer USER_LOOKUP = register(new Timer("user_lookup", "Look up a DPW user_id by OSM username"));
+    /** Tasking Manager task request */
+    public static final Timer TASK_INFO = register(new Timer("task_info", "Fetch task information from the Tasking Manager"));
+    /** Isolating a mapper's work, from the index query to the layer being shown */
+    public static final Timer ISOLATE = register(new Timer("isolate", "Isolate a mapper's buildings for the date range"));
+    /** Cloning primitives into a new DataSet */
+    public static final Timer CLONE = register(new Timer("clone", "Clone primitives into a new DataSet"));
+    /** Validation log submission to the DPW API */
+    public static final Timer SUBMIT = register(new Timer("submit", "Submit a validation log to the DPW API"));
+    /** Writing the export file */
+    public static final Timer EXPORT = register(new Timer("export", "Write the validated layer to an export file"));
+    /** Uploading an export to cloud storage */
+    public static final Timer UPLOAD = register(new Timer("upload", "Upload an export to cloud storage"));
+    /** Building or rebuilding the mapper/day index of a DataSet */
+    public static final Timer INDEX_BUILD = register(new Timer("index_build", "Build the mapper/day index of a DataSet"));
+    /** Plugin registration during JOSM startup */
+    public static final Timer STARTUP = register(new Timer("startup", "Register the plugin during JOSM startup"));
+    /** Construction of the validation panel */
+    public static final Timer PANEL_BUILD = register(new Timer("panel_build", "Build the validation panel"));
+
+    // ========== Counters ==========
+
+    /** API responses with status 400 or above */
+    public static final Counter API_ERRORS = register(new Counter("api_errors", "API responses with HTTP status 400 or above"));
+    /** API responses with status 429 */
+    public static final Counter RATE_LIMITED = register(new Counter("api_rate_limited", "API responses with HTTP status 429"));
+    /** API calls that failed without a response */
+    public static final Counter NETWORK_ERRORS = register(new Counter("network_errors", "API calls that failed without an HTTP response"));
+    /** Uploads skipped because the content was already uploaded */
+    public static final Counter UPLOADS_DEDUPLICATED = register(new Counter("uploads_deduplicated", "Uploads skipped because identical content was already stored"));
+    /** Submissions retried after a 429 */
+    public static final Counter SUBMIT_RETRIES = register(new Counter("submit_retries", "Submissions scheduled for retry after a rate limit"));
+    /** Authorized mapper list served from the cache */
+    public static final Counter USER_CACHE_HITS = register(new Counter("user_cache_hits", "Authorized mapper list served from the cache"));
+    /** Authorized mapper list fetched from the API */
+    public static final Counter USER_CACHE_MISSES = register(new Counter("user_cache_misses", "Authorized mapper list fetched from the API"));
+    /** Mapper/day index queries answered without a rebuild */
+    public static final Counter INDEX_HITS = register(new Counter("index_hits", "Mapper/day index queries answered without a rebuild"));
+    /** Mapper/day index rebuilds after the data changed */
+    public static final Counter INDEX_REBUILDS = register(new Counter("index_rebuilds", "Mapper/day index rebuilds after the data changed"));
+    /** [Validation] layers closed to stay within the memory budget */
+    public static final Counter LAYERS_EVICTED = register(new Counter("layers_evicted", "Validation layers closed to stay within the memory budget"));
+
+    private Metrics() {
+        // Utility class
+    }
+
+    private static Timer register(Timer timer) {
+        timer.traced = true;
+        TIMERS.add(timer);
+        return timer;
+    }
+
+    private static Counter register(Counter counter) {
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    /**
+     * Record an HTTP call: its latency, and the error counters for its status.
+     *
+     * @param timer the stage timer
+     * @param startNanos {@link System#nanoTime()} before the request was sent
+     * @param status HTTP status code of the response
+     */
+    public static void recordCall(Timer timer, long startNanos, int status) {
+        timer.recordSince(startNanos, status);
+        if (status >= 400) {
+            API_ERRORS.increment();
+            if (status == 429) {
+                RATE_LIMITED.increment();
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of every registered metric.
+     *
+     * @return the snapshot
+     */
+    public static Snapshot snapshot() {
+        List<TimerSnapshot> timers = new ArrayList<>(TIMERS.size());
+        for (Timer t : TIMERS) {
+            timers.add(t.snapshot());
+        }
+        Map<String, Long> counters = new LinkedHashMap<>();
+        Map<String, String> help = new LinkedHashMap<>();
+        for (Counter c : COUNTERS) {
+            counters.put(c.getName(), c.get());
+            help.put(c.getName(), c.getDescription());
+        }
+        return new Snapshot(Instant.now(), timers, counters, help);
+    }
+
+    /**
+     * Reset every registered metric to zero.
+     */
+    public static void reset() {
+        for (Timer t : TIMERS) {
+            t.reset();
+        }
+        for (Counter c : COUNTERS) {
+            c.reset();
+        }
+    }
+
+    /**
+     * Write a snapshot to a file: Prometheus text format for .prom and .txt, JSON otherwise.
+     *
+     * @param file the target file
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Snapshot snapshot = snapshot();
+        String text = name.endsWith(".prom") || name.endsWith(".txt") ? snapshot.toPrometheus() : snapshot.toJson();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(text);
+        }
+    }
+
+    // ========== Timer ==========
+
+    /**
+     * Latency histogram with log-linear buckets.
+     *
+     * Values below 16 have a bucket each; above that every power of two is split into
+     * 16 equal sub-buckets, which bounds the relative error of any percentile to 6.25%.
+     * The last {@value #RECENT_SIZE} values are also kept in order of recording.
+     */
+    public static final class Timer {
+
+        static final int SUB_BITS = 4;
+        static final int SUB_COUNT = 1 << SUB_BITS;
+        static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_COUNT;
+        /** Number of most recent values kept, a power of two */
+        static final int RECENT_SIZE = 8;
+
+        private final String name;
+        private final String description;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray recent = new AtomicLongArray(RECENT_SIZE);
+        private final AtomicLong recorded = new AtomicLong();
+        // Set once by register() during class initialization
+        private boolean traced;
+
+        /**
+         * Create a timer that is not in the registry.
+         *
+         * @param name metric name, lower case with underscores
+         * @param description one-line description for exports
+         */
+        public Timer(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        /**
+         * Record one duration.
+         *
+         * @param nanos duration in nanoseconds, negative values count as 0
+         */
+        public void record(long nanos) {
+            long v = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketIndex(v));
+            sum.add(v);
+            recent.set((int) (recorded.getAndIncrement() & (RECENT_SIZE - 1)), v);
+            long m = max.get();
+            while (v > m && !max.compareAndSet(m, v)) {
+                m = max.get();
+            }
+        }
+
+        /**
+         * Record the time elapsed since a start time.
+         *
+         * @param startNanos {@link System#nanoTime()} at the start
+         */
+        public void recordSince(long startNanos) {
+            recordSince(startNanos, SessionTrace.NO_VALUE);
+        }
+
+        /**
+         * Record the time elapsed since a start time; registered timers also add the
+         * stage to the {@link SessionTrace}.
+         *
+         * @param startNanos {@link System#nanoTime()} at the start
+         * @param value value for the trace event, or {@link SessionTrace#NO_VALUE}
+         */
+        public void recordSince(long startNanos, long value) {
+            long end = System.nanoTime();
+            record(end - startNanos);
+            if (traced) {
+                SessionTrace.getDefault().record(name, startNanos, end, value);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Take a consistent copy of the histogram and its summary values.
+         *
+         * @return the snapshot
+         */
+        public TimerSnapshot snapshot() {
+            long[] counts = new long[BUCKET_COUNT];
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+            long maxValue = max.get();
+            // Newest first; a value recorded concurrently may appear in place of an older one
+            long n = recorded.get();
+            long[] latest = new long[(int) Math.min(n, RECENT_SIZE)];
+            for (int i = 0; i < latest.length; i++) {
+                latest[i] = recent.get((int) ((n - 1 - i) & (RECENT_SIZE - 1)));
+            }
+            return new TimerSnapshot(name, description, count, sum.sum(), maxValue,
+                valueAtPercentile(counts, count, maxValue, 50),
+                valueAtPercentile(counts, count, maxValue, 90),
+                valueAtPercentile(counts, count, maxValue, 99),
+                valueAtPercentile(counts, count, maxValue, 99.9), latest);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            sum.reset();
+            max.set(0);
+            recorded.set(0);
+        }
+
+        static int bucketIndex(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+            return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        /** Smallest value that falls into a bucket */
+        static long lowestValue(int bucket) {
+            if (bucket < SUB_COUNT) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+            long sub = bucket % SUB_COUNT;
+            return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+        }
+
+        /** Largest value that falls into a bucket */
+        static long highestValue(int bucket) {
+            return bucket + 1 < BUCKET_COUNT ? lowestValue(bucket + 1) - 1 : Long.MAX_VALUE;
+        }
+
+        private static long valueAtPercentile(long[] counts, long count, long maxValue, double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), maxValue);
+                }
+            }
+            return maxValue;
+        }
+    }
+
+    // ========== Counter ==========
+
+    /**
+     * Monotonic event counter.
+     */
+    public static final class Counter {
+
+        private final String name;
+        private final String description;
+        private final LongAdder value = new LongAdder();
+
+        /**
+         * Create a counter that is not in the registry.
+         *
+         * @param name metric name, lower case with underscores
+         * @param description one-line description for exports
+         */
+        public Counter(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long n) {
+            value.add(n);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    // ========== Snapshots ==========
+
+    /**
+     * Summary of one timer at the time of the snapshot. Durations are in nanoseconds.
+     */
+    public static final class TimerSnapshot {
+        public final String name;
+        public final String description;
+        public final long count;
+        public final long sumNanos;
+        public final long maxNanos;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        private final long[] recentNanos;
+
+        TimerSnapshot(String name, String description, long count, long sumNanos, long maxNanos,
+                      long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long[] recentNanos) {
+            this.name = name;
+            this.description = description;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.recentNanos = recentNanos;
+        }
+
+        /**
+         * @return the most recent durations in nanoseconds, newest first
+         */
+        public long[] getRecentNanos() {
+            return recentNanos.clone();
+        }
+
+        /**
+         * @return mean duration in nanoseconds, 0 if nothing was recorded
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+
+    /**
+     * Immutable copy of all registered metrics.
+     */
+    public static final class Snapshot {
+        private final Instant takenAt;
+        private final List<TimerSnapshot> timers;
+        private final Map<String, Long> counters;
+        private final Map<String, String> counterHelp;
+
+        Snapshot(Instant takenAt, List<TimerSnapshot> timers, Map<String, Long> counters,
+                 Map<String, String> counterHelp) {
+            this.takenAt = takenAt;
+            this.timers = Collections.unmodifiableList(timers);
+            this.counters = Collections.unmodifiableMap(counters);
+            this.counterHelp = counterHelp;
+        }
+
+        public Instant getTakenAt() {
+            return takenAt;
+        }
+
+        public List<TimerSnapshot> getTimers() {
+            return timers;
+        }
+
+        /**
+         * @return counter values by metric name, in registration order
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        /**
+         * Find a timer by name.
+         *
+         * @param name metric name
+         * @return the timer summary, or null
+         */
+        public TimerSnapshot getTimer(String name) {
+            for (TimerSnapshot t : timers) {
+                if (t.name.equals(name)) {
+                    return t;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Format as JSON, with durations in milliseconds.
+         *
+         * @return JSON object text
+         */
+        public String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\n  \"plugin_version\": \"").append(UpdateChecker.CURRENT_VERSION).append("\",\n");
+            sb.append("  \"taken_at\": \"").append(takenAt).append("\",\n");
+            sb.append("  \"timers\": {");
+            for (int i = 0; i < timers.size(); i++) {
+                TimerSnapshot t = timers.get(i);
+                sb.append(i == 0 ? "\n" : ",\n");
+                sb.append("    \"").append(t.name).append("\": {\"count\": ").append(t.count)
+                    .append(", \"mean_ms\": ").append(millis(t.getMeanNanos()))
+                    .append(", \"p50_ms\": ").append(millis(t.p50Nanos))
+                    .append(", \"p90_ms\": ").append(millis(t.p90Nanos))
+                    .append(", \"p99_ms\": ").append(millis(t.p99Nanos))
+                    .append(", \"p999_ms\": ").append(millis(t.p999Nanos))
+                    .append(", \"max_ms\": ").append(millis(t.maxNanos))
+                    .append(", \"total_ms\": ").append(millis(t.sumNanos))
+                    .append(", \"recent_ms\": [");
+                for (int r = 0; r < t.recentNanos.length; r++) {
+                    sb.append(r == 0 ? "" : ", ").append(millis(t.recentNanos[r]));
+                }
+                sb.append("]}");
+            }
+            sb.append(timers.isEmpty() ? "},\n" : "\n  },\n");
+            sb.append("  \"counters\": {");
+            int i = 0;
+            for (Map.Entry<String, Long> e : counters.entrySet()) {
+                sb.append(i++ == 0 ? "\n" : ",\n");
+                sb.append("    \"").append(e.getKey()).append("\": ").append(e.getValue());
+            }
+            sb.append(counters.isEmpty() ? "}\n" : "\n  }\n");
+            return sb.append("}\n").toString();
+        }
+
+        /**
+         * Format in the Prometheus text exposition format: one summary per timer, in
+         * seconds, and one counter per event count.
+         *
+         * @return exposition text
+         */
+        public String toPrometheus() {
+            StringBuilder sb = new StringBuilder();
+            for (TimerSnapshot t : timers) {
+                String metric = PREFIX + t.name + "_seconds";
+                sb.append("# HELP ").append(metric).append(' ').append(t.description).append('\n');
+                sb.append("# TYPE ").append(metric).append(" summary\n");
+                quantile(sb, metric, "0.5", t.p50Nanos);
+                quantile(sb, metric, "0.9", t.p90Nanos);
+                quantile(sb, metric, "0.99", t.p99Nanos);
+                quantile(sb, metric, "0.999", t.p999Nanos);
+                sb.append(metric).append("_sum ").append(seconds(t.sumNanos)).append('\n');
+                sb.append(metric).append("_count ").append(t.count).append('\n');
+            }
+            for (Map.Entry<String, Long> e : counters.entrySet()) {
+                String metric = PREFIX + e.getKey() + "_total";
+                sb.append("# HELP ").append(metric).append(' ').append(counterHelp.get(e.getKey())).append('\n');
+                sb.append("# TYPE ").append(metric).append(" counter\n");
+                sb.append(metric).append(' ').append(e.getValue()).append('\n');
+            }
+            return sb.toString();
+        }
+
+        private static void quantile(StringBuilder sb, String metric, String q, long nanos) {
+            sb.append(metric).append("{quantile=\"").append(q).append("\"} ").append(seconds(nanos)).append('\n');
+        }
+
+        private static String millis(double nanos) {
+            return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+        }
+
+        private static String seconds(double nanos) {
+            return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+        }
+    }
+}
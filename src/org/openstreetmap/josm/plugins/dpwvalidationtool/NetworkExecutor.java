@@ -0,0 +1,149 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared executor for all blocking network I/O (DPW API, Tasking Manager, GitHub updates).
+ *
+ * By default every task runs on a daemon platform thread, matching the previous
+ * one-thread-per-request behaviour. When virtual-thread I/O is enabled in the settings,
+ * tasks run on virtual threads instead, so hundreds of concurrent HTTP calls park cheaply
+ * instead of each holding a full platform thread.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class NetworkExecutor {
+
+    private static final String THREAD_PREFIX = "DPWValidationTool-io-";
+
+    private static ExecutorService executor;
+    private static boolean virtualMode;
+    // Tasks submitted through execute/supplyAsync that have not finished yet
+    private static final AtomicInteger pending = new AtomicInteger();
+
+    private NetworkExecutor() {
+        // Utility class
+    }
+
+    /**
+     * Create a new network executor.
+     *
+     * @param virtualThreads true for one virtual thread per task, false for daemon platform threads
+     * @return the executor service
+     */
+    public static ExecutorService create(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(THREAD_PREFIX + "v", 0).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, THREAD_PREFIX + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Get the shared executor, switching mode if the preference changed since the last call.
+     * Tasks already running on the previous executor are allowed to finish.
+     *
+     * @return the shared executor service
+     */
+    public static synchronized ExecutorService get() {
+        boolean wantVirtual = PluginSettings.isVirtualThreadIOEnabled();
+        if (executor == null || executor.isShutdown() || wantVirtual != virtualMode) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            executor = create(wantVirtual);
+            virtualMode = wantVirtual;
+            Logging.info("DPWValidationTool: Network I/O using "
+                + (wantVirtual ? "virtual" : "platform") + " threads");
+        }
+        return executor;
+    }
+
+    /**
+     * Run a blocking network task in the background.
+     *
+     * @param task the task to run
+     */
+    public static void execute(Runnable task) {
+        pending.incrementAndGet();
+        try {
+            get().execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Run a blocking network call in the background and return its result as a future.
+     *
+     * @param call the call to run
+     * @param <T> the result type
+     * @return future completed with the call result
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> call) {
+        pending.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.get();
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }, get());
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of background network tasks that are queued or running, including
+     * submissions waiting out a rate-limit backoff.
+     *
+     * @return pending task count
+     */
+    public static int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Check whether the shared executor currently runs tasks on virtual threads.
+     *
+     * @return true if virtual-thread mode is active
+     */
+    public static synchronized boolean isVirtualMode() {
+        return executor != null && virtualMode;
+    }
+
+    /**
+     * Shut down the shared executor. A new one is created on the next call to {@link #get()}.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Static R-tree over axis-aligned boxes, packed with Sort-Tile-Recursive (STR) ordering.
+ *
+ * The tree is built once from all boxes and never modified. Every node, leaf or internal,
+ * lives in one flat double[] of (minX, minY, maxX, maxY) quadruples with a parallel int[]
+ * holding the item id for leaves and the first child position for internal nodes, so
+ * the whole tree is two primitive arrays with no per-node objects.
+ *
+ * Boxes whose min is greater than their max never match a query; callers can use that
+ * to keep items without a valid extent in the tree without them ever being reported.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+final class PackedRTree {
+
+    /** Maximum children per node */
+    static final int NODE_SIZE = 16;
+
+    private final int numItems;
+    private final double[] boxes;
+    private final int[] indices;
+    /** levelEnds[k] is the position after the last node of level k; level 0 holds the items */
+    private final int[] levelEnds;
+
+    /**
+     * Build the tree.
+     *
+     * @param itemBoxes (minX, minY, maxX, maxY) per item; item ids are the quadruple positions
+     */
+    PackedRTree(double[] itemBoxes) {
+        if (itemBoxes.length % 4 != 0) {
+            throw new IllegalArgumentException("Box array length must be a multiple of 4");
+        }
+        numItems = itemBoxes.length / 4;
+
+        // Level sizes: items, then ceil(n / NODE_SIZE) per level up to a single root
+        int[] ends = new int[8];
+        int levels = 0;
+        int count = numItems;
+        int total = 0;
+        while (true) {
+            total += count;
+            if (levels == ends.length) {
+                ends = Arrays.copyOf(ends, levels * 2);
+            }
+            ends[levels++] = total;
+            if (levels > 1 && count == 1) {
+                break;
+            }
+            count = Math.max(1, (count + NODE_SIZE - 1) / NODE_SIZE);
+        }
+        levelEnds = Arrays.copyOf(ends, levels);
+
+        boxes = new double[total * 4];
+        indices = new int[total];
+
+        int[] order = strOrder(itemBoxes, numItems);
+        for (int i = 0; i < numItems; i++) {
+            System.arraycopy(itemBoxes, order[i] * 4, boxes, i * 4, 4);
+            indices[i] = order[i];
+        }
+
+        // Each parent covers NODE_SIZE consecutive nodes of the level below
+        for (int level = 1; level < levels; level++) {
+            int childStart = level == 1 ? 0 : levelEnds[level - 2];
+            int childEnd = levelEnds[level - 1];
+            int pos = childEnd;
+            for (int c = childStart; c < childEnd; c += NODE_SIZE, pos++) {
+                int last = Math.min(c + NODE_SIZE, childEnd);
+                double minX = Double.POSITIVE_INFINITY;
+                double minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                for (int k = c; k < last; k++) {
+                    minX = Math.min(minX, boxes[k * 4]);
+                    minY = Math.min(minY, boxes[k * 4 + 1]);
+                    maxX = Math.max(maxX, boxes[k * 4 + 2]);
+                    maxY = Math.max(maxY, boxes[k * 4 + 3]);
+                }
+                boxes[pos * 4] = minX;
+                boxes[pos * 4 + 1] = minY;
+                boxes[pos * 4 + 2] = maxX;
+                boxes[pos * 4 + 3] = maxY;
+                indices[pos] = c;
+            }
+        }
+    }
+
+    /**
+     * Compute the STR order: sort by centre x into vertical slices of S * NODE_SIZE items,
+     * then sort each slice by centre y. Centres are quantized to 31 bits over the overall
+     * extent and packed with the item id into longs so both sorts are primitive sorts.
+     */
+    private static int[] strOrder(double[] itemBoxes, int n) {
+        int[] order = new int[n];
+        if (n == 0) {
+            return order;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (!isValid(itemBoxes, i)) continue;
+            minX = Math.min(minX, itemBoxes[i * 4]);
+            minY = Math.min(minY, itemBoxes[i * 4 + 1]);
+            maxX = Math.max(maxX, itemBoxes[i * 4 + 2]);
+            maxY = Math.max(maxY, itemBoxes[i * 4 + 3]);
+        }
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) quantize(itemBoxes, i, 0, minX, maxX) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int leafCount = (n + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceSize = (int) Math.ceil(Math.sqrt(leafCount)) * NODE_SIZE;
+        for (int start = 0; start < n; start += sliceSize) {
+            int end = Math.min(start + sliceSize, n);
+            for (int k = start; k < end; k++) {
+                int id = (int) keys[k];
+                keys[k] = ((long) quantize(itemBoxes, id, 1, minY, maxY) << 32) | id;
+            }
+            Arrays.sort(keys, start, end);
+        }
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static boolean isValid(double[] itemBoxes, int i) {
+        return itemBoxes[i * 4] <= itemBoxes[i * 4 + 2] && itemBoxes[i * 4 + 1] <= itemBoxes[i * 4 + 3];
+    }
+
+    private static int quantize(double[] itemBoxes, int i, int axis, double min, double max) {
+        if (!isValid(itemBoxes, i) || !(max > min)) {
+            return 0;
+        }
+        double centre = (itemBoxes[i * 4 + axis] + itemBoxes[i * 4 + 2 + axis]) / 2;
+        return (int) ((centre - min) / (max - min) * Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of items in the tree.
+     *
+     * @return item count
+     */
+    int size() {
+        return numItems;
+    }
+
+    /**
+     * Report the id of every item whose box intersects the query box (edges inclusive).
+     *
+     * @param minX query minimum x
+     * @param minY query minimum y
+     * @param maxX query maximum x
+     * @param maxY query maximum y
+     * @param visitor receives matching item ids, in no particular order
+     */
+    void search(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (numItems == 0) {
+            return;
+        }
+        int root = levelEnds[levelEnds.length - 1] - 1;
+        if (!intersects(root, minX, minY, maxX, maxY)) {
+            return;
+        }
+        // Stack of (node position, level) pairs
+        int[] stack = new int[2 * NODE_SIZE * levelEnds.length];
+        int sp = 0;
+        stack[sp++] = root;
+        stack[sp++] = levelEnds.length - 1;
+        while (sp > 0) {
+            int level = stack[--sp];
+            int node = stack[--sp];
+            int childStart = indices[node];
+            int childEnd = Math.min(childStart + NODE_SIZE, levelEnds[level - 1]);
+            for (int c = childStart; c < childEnd; c++) {
+                if (!intersects(c, minX, minY, maxX, maxY)) {
+                    continue;
+                }
+                if (level == 1) {
+                    visitor.accept(indices[c]);
+                } else {
+                    if (sp + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[sp++] = c;
+                    stack[sp++] = level - 1;
+                }
+            }
+        }
+    }
+
+    private boolean intersects(int node, double minX, double minY, double maxX, double maxY) {
+        int b = node * 4;
+        return boxes[b] <= maxX && boxes[b + 1] <= maxY && boxes[b + 2] >= minX && boxes[b + 3] >= minY;
+    }
+}
@@ -0,0 +1,517 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Relation;
+import org.openstreetmap.josm.data.osm.RelationMember;
+import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Writes OSM data in the PBF format (OsmSchema-V0.6 with DenseNodes).
+ *
+ * Entities are buffered into primitive blocks of up to {@link #MAX_BLOCK_ENTITIES}
+ * entities of one type, each with its own string table, and every block is zlib
+ * compressed. Nodes must be written before ways and ways before relations. The
+ * protobuf encoding is done by hand so the plugin needs no extra library.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class PbfWriter implements Closeable {
+
+    /** Entities per primitive block */
+    static final int MAX_BLOCK_ENTITIES = 8000;
+
+    /** Coordinate resolution in nanodegrees (the format default) */
+    private static final int GRANULARITY = 100;
+
+    private static final int NODE = 0;
+    private static final int WAY = 1;
+    private static final int RELATION = 2;
+
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater();
+    private boolean headerWritten;
+    private int blockType = NODE;
+    private final List<Entity> block = new ArrayList<>();
+
+    /**
+     * Version, time and author of an entity.
+     */
+    public static final class Info {
+        final int version;
+        final long timestamp;
+        final long changeset;
+        final int uid;
+        final String user;
+
+        /**
+         * @param version entity version, 0 if new
+         * @param timestamp seconds since the epoch, 0 if unknown
+         * @param changeset changeset ID, 0 if unknown
+         * @param uid user ID, 0 if unknown
+         * @param user user name, may be empty
+         */
+        public Info(int version, long timestamp, long changeset, int uid, String user) {
+            this.version = version;
+            this.timestamp = timestamp;
+            this.changeset = changeset;
+            this.uid = uid;
+            this.user = user == null ? "" : user;
+        }
+    }
+
+    private static final class Entity {
+        final long id;
+        final Map<String, String> tags;
+        final Info info;
+        long lat;
+        long lon;
+        long[] refs;
+        int[] memberTypes;
+        String[] roles;
+
+        Entity(long id, Map<String, String> tags, Info info) {
+            this.id = id;
+            this.tags = tags;
+            this.info = info;
+        }
+    }
+
+    /**
+     * Create a writer. The stream is closed by {@link #close()}.
+     *
+     * @param out target stream
+     */
+    public PbfWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Write every complete, undeleted primitive of a DataSet, each type ordered by ID.
+     * Nodes without coordinates are left out, and so are ways that use them, so no
+     * written way refers to a node missing from the file. Call with the read lock held.
+     *
+     * @param data the data to write
+     * @throws IOException if writing fails
+     */
+    public void write(DataSet data) throws IOException {
+        Set<Node> written = new HashSet<>();
+        for (Node n : sorted(data.getNodes())) {
+            if (n.isLatLonKnown()) {
+                node(n.getUniqueId(), n.lat(), n.lon(), n.getKeys(), info(n));
+                written.add(n);
+            }
+        }
+        for (Way w : sorted(data.getWays())) {
+            List<Node> nodes = w.getNodes();
+            if (!written.containsAll(nodes)) {
+                continue;
+            }
+            long[] refs = new long[nodes.size()];
+            for (int i = 0; i < refs.length; i++) {
+                refs[i] = nodes.get(i).getUniqueId();
+            }
+            way(w.getUniqueId(), refs, w.getKeys(), info(w));
+        }
+        for (Relation r : sorted(data.getRelations())) {
+            List<RelationMember> members = r.getMembers();
+            long[] ids = new long[members.size()];
+            int[] types = new int[members.size()];
+            String[] roles = new String[members.size()];
+            for (int i = 0; i < ids.length; i++) {
+                OsmPrimitive m = members.get(i).getMember();
+                ids[i] = m.getUniqueId();
+                types[i] = m instanceof Node ? NODE : m instanceof Way ? WAY : RELATION;
+                roles[i] = members.get(i).getRole();
+            }
+            relation(r.getUniqueId(), ids, types, roles, r.getKeys(), info(r));
+        }
+    }
+
+    private static <T extends OsmPrimitive> List<T> sorted(Collection<T> primitives) {
+        List<T> list = new ArrayList<>(primitives.size());
+        for (T p : primitives) {
+            if (!p.isDeleted() && !p.isIncomplete()) {
+                list.add(p);
+            }
+        }
+        list.sort(Comparator.comparingLong(OsmPrimitive::getUniqueId));
+        return list;
+    }
+
+    private static Info info(OsmPrimitive p) {
+        User user = p.getUser();
+        return new Info(p.getVersion(), p.getRawTimestamp() & 0xFFFFFFFFL, p.getChangesetId(),
+            user != null ? (int) user.getId() : 0, user != null ? user.getName() : "");
+    }
+
+    /**
+     * Write a node.
+     *
+     * @param id node ID
+     * @param lat latitude in degrees
+     * @param lon longitude in degrees
+     * @param tags tags, may be empty
+     * @param info metadata
+     * @throws IOException if writing fails
+     */
+    public void node(long id, double lat, double lon, Map<String, String> tags, Info info) throws IOException {
+        Entity e = add(NODE, id, tags, info);
+        e.lat = Math.round(lat * 1e9 / GRANULARITY);
+        e.lon = Math.round(lon * 1e9 / GRANULARITY);
+    }
+
+    /**
+     * Write a way.
+     *
+     * @param id way ID
+     * @param refs node IDs in order
+     * @param tags tags, may be empty
+     * @param info metadata
+     * @throws IOException if writing fails
+     */
+    public void way(long id, long[] refs, Map<String, String> tags, Info info) throws IOException {
+        add(WAY, id, tags, info).refs = refs;
+    }
+
+    /**
+     * Write a relation.
+     *
+     * @param id relation ID
+     * @param memberIds member IDs in order
+     * @param memberTypes member types: 0 node, 1 way, 2 relation
+     * @param roles member roles
+     * @param tags tags, may be empty
+     * @param info metadata
+     * @throws IOException if writing fails
+     */
+    public void relation(long id, long[] memberIds, int[] memberTypes, String[] roles,
+            Map<String, String> tags, Info info) throws IOException {
+        Entity e = add(RELATION, id, tags, info);
+        e.refs = memberIds;
+        e.memberTypes = memberTypes;
+        e.roles = roles;
+    }
+
+    private Entity add(int type, long id, Map<String, String> tags, Info info) throws IOException {
+        if (type < blockType) {
+            throw new IllegalStateException("PBF entities must be written as nodes, then ways, then relations");
+        }
+        if (!headerWritten) {
+            writeHeader();
+        }
+        if (type != blockType || block.size() >= MAX_BLOCK_ENTITIES) {
+            flushBlock();
+            blockType = type;
+        }
+        Entity e = new Entity(id, tags, info);
+        block.add(e);
+        return e;
+    }
+
+    /**
+     * Write any buffered entities and close the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!headerWritten) {
+                writeHeader();
+            }
+            flushBlock();
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    // ========== Blocks ==========
+
+    private void writeHeader() throws IOException {
+        ProtoBuffer header = new ProtoBuffer();
+        header.string(4, "OsmSchema-V0.6");
+        header.string(4, "DenseNodes");
+        header.string(16, "DPWValidationTool/" + UpdateChecker.CURRENT_VERSION);
+        writeBlob("OSMHeader", header);
+        headerWritten = true;
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        StringTable strings = new StringTable();
+        ProtoBuffer group = new ProtoBuffer();
+        if (blockType == NODE) {
+            group.message(2, denseNodes(strings));
+        } else {
+            for (Entity e : block) {
+                group.message(blockType == WAY ? 3 : 4, blockType == WAY ? way(e, strings) : relation(e, strings));
+            }
+        }
+        ProtoBuffer primitiveBlock = new ProtoBuffer();
+        primitiveBlock.message(1, strings.encode());
+        primitiveBlock.message(2, group);
+        writeBlob("OSMData", primitiveBlock);
+        block.clear();
+    }
+
+    private ProtoBuffer denseNodes(StringTable strings) {
+        int n = block.size();
+        long[] ids = new long[n];
+        long[] lats = new long[n];
+        long[] lons = new long[n];
+        long[] versions = new long[n];
+        long[] timestamps = new long[n];
+        long[] changesets = new long[n];
+        long[] uids = new long[n];
+        long[] userSids = new long[n];
+        List<Integer> keysVals = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Entity e = block.get(i);
+            ids[i] = e.id;
+            lats[i] = e.lat;
+            lons[i] = e.lon;
+            versions[i] = e.info.version;
+            timestamps[i] = e.info.timestamp;
+            changesets[i] = e.info.changeset;
+            uids[i] = e.info.uid;
+            userSids[i] = strings.index(e.info.user);
+            for (Map.Entry<String, String> tag : e.tags.entrySet()) {
+                keysVals.add(strings.index(tag.getKey()));
+                keysVals.add(strings.index(tag.getValue()));
+            }
+            keysVals.add(0);
+        }
+        ProtoBuffer info = new ProtoBuffer();
+        info.packedVarints(1, versions);
+        info.packedSInts(2, delta(timestamps));
+        info.packedSInts(3, delta(changesets));
+        info.packedSInts(4, delta(uids));
+        info.packedSInts(5, delta(userSids));
+
+        ProtoBuffer dense = new ProtoBuffer();
+        dense.packedSInts(1, delta(ids));
+        dense.message(5, info);
+        dense.packedSInts(8, delta(lats));
+        dense.packedSInts(9, delta(lons));
+        long[] kv = new long[keysVals.size()];
+        for (int i = 0; i < kv.length; i++) {
+            kv[i] = keysVals.get(i);
+        }
+        dense.packedVarints(10, kv);
+        return dense;
+    }
+
+    private static ProtoBuffer way(Entity e, StringTable strings) {
+        ProtoBuffer way = new ProtoBuffer();
+        way.varint(1, e.id);
+        tags(way, e.tags, strings);
+        way.message(4, info(e.info, strings));
+        way.packedSInts(8, delta(e.refs));
+        return way;
+    }
+
+    private static ProtoBuffer relation(Entity e, StringTable strings) {
+        ProtoBuffer relation = new ProtoBuffer();
+        relation.varint(1, e.id);
+        tags(relation, e.tags, strings);
+        relation.message(4, info(e.info, strings));
+        long[] roles = new long[e.roles.length];
+        long[] types = new long[e.memberTypes.length];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = strings.index(e.roles[i]);
+            types[i] = e.memberTypes[i];
+        }
+        relation.packedVarints(8, roles);
+        relation.packedSInts(9, delta(e.refs));
+        relation.packedVarints(10, types);
+        return relation;
+    }
+
+    private static void tags(ProtoBuffer target, Map<String, String> tags, StringTable strings) {
+        long[] keys = new long[tags.size()];
+        long[] vals = new long[tags.size()];
+        int i = 0;
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            keys[i] = strings.index(tag.getKey());
+            vals[i++] = strings.index(tag.getValue());
+        }
+        target.packedVarints(2, keys);
+        target.packedVarints(3, vals);
+    }
+
+    private static ProtoBuffer info(Info info, StringTable strings) {
+        ProtoBuffer b = new ProtoBuffer();
+        b.varint(1, info.version);
+        b.varint(2, info.timestamp);
+        b.varint(3, info.changeset);
+        b.varint(4, info.uid);
+        b.varint(5, strings.index(info.user));
+        return b;
+    }
+
+    private static long[] delta(long[] values) {
+        long[] d = new long[values.length];
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            d[i] = values[i] - previous;
+            previous = values[i];
+        }
+        return d;
+    }
+
+    private void writeBlob(String type, ProtoBuffer content) throws IOException {
+        byte[] raw = content.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ProtoBuffer compressed = new ProtoBuffer();
+        byte[] chunk = new byte[Math.max(64, raw.length / 2)];
+        while (!deflater.finished()) {
+            int len = deflater.deflate(chunk);
+            compressed.raw(chunk, len);
+        }
+        ProtoBuffer blob = new ProtoBuffer();
+        blob.varint(2, raw.length);
+        blob.bytes(3, compressed.toByteArray());
+        byte[] blobBytes = blob.toByteArray();
+
+        ProtoBuffer header = new ProtoBuffer();
+        header.string(1, type);
+        header.varint(3, blobBytes.length);
+        byte[] headerBytes = header.toByteArray();
+        out.writeInt(headerBytes.length);
+        out.write(headerBytes);
+        out.write(blobBytes);
+    }
+
+    // ========== Encoding ==========
+
+    /**
+     * Per-block string table; index 0 is reserved for the empty string.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        StringTable() {
+            strings.add("");
+            indexes.put("", 0);
+        }
+
+        int index(String s) {
+            return indexes.computeIfAbsent(s, k -> {
+                strings.add(k);
+                return strings.size() - 1;
+            });
+        }
+
+        ProtoBuffer encode() {
+            ProtoBuffer b = new ProtoBuffer();
+            for (String s : strings) {
+                b.bytes(1, s.getBytes(StandardCharsets.UTF_8));
+            }
+            return b;
+        }
+    }
+
+    /**
+     * Growable buffer with the few protobuf encodings PBF needs.
+     */
+    static final class ProtoBuffer {
+        private byte[] buf = new byte[256];
+        private int size;
+
+        void raw(byte[] bytes, int len) {
+            ensure(len);
+            System.arraycopy(bytes, 0, buf, size, len);
+            size += len;
+        }
+
+        void rawVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void varint(int field, long value) {
+            rawVarint((long) field << 3);
+            rawVarint(value);
+        }
+
+        void bytes(int field, byte[] value) {
+            rawVarint((long) field << 3 | 2);
+            rawVarint(value.length);
+            raw(value, value.length);
+        }
+
+        void string(int field, String value) {
+            bytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void message(int field, ProtoBuffer message) {
+            rawVarint((long) field << 3 | 2);
+            rawVarint(message.size);
+            raw(message.buf, message.size);
+        }
+
+        void packedVarints(int field, long[] values) {
+            if (values.length == 0) {
+                return;
+            }
+            ProtoBuffer packed = new ProtoBuffer();
+            for (long v : values) {
+                packed.rawVarint(v);
+            }
+            message(field, packed);
+        }
+
+        void packedSInts(int field, long[] values) {
+            if (values.length == 0) {
+                return;
+            }
+            ProtoBuffer packed = new ProtoBuffer();
+            for (long v : values) {
+                packed.rawVarint((v << 1) ^ (v >> 63));
+            }
+            message(field, packed);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -25,6 +25,15 @@ public class PluginSettings {
     private static final String DEFAULT_PROJECT_URL = PREFIX + "default-project-url";
     private static final String DEFAULT_PROJECT_ID = PREFIX + "default-project-id";
     private static final String DPW_API_KEY = PREFIX + "dpw-api-key";
+    private static final String VIRTUAL_THREAD_IO = PREFIX + "virtual-thread-io";
+    private static final String WARM_SESSION = PREFIX + "warm-session";
+    private static final String ISOLATED_VIEW = PREFIX + "isolated-view";
+    private static final String ISOLATE_TASK_AREA = PREFIX + "isolate-task-area";
+    private static final String LIVE_QA = PREFIX + "live-qa";
+    private static final String DELTA_UPLOAD = PREFIX + "delta-upload";
+    private static final String EXPORT_FORMAT = PREFIX + "export-format";
+    private static final String LAYER_MEMORY_BUDGET_MB = PREFIX + "layer-memory-budget-mb";
+    private static final String AUTO_EVICT_LAYERS = PREFIX + "auto-evict-layers";
     
     // Default values
     // v3.2.8: Vercel with API key authentication (required as of Jan 6, 2026)
@@ -199,6 +208,143 @@ public class PluginSettings {
         Config.getPref().put(DEFAULT_PROJECT_ID, projectId);
     }
     
+    /**
+     * Check if network I/O should run on virtual threads
+     * Default: false (platform threads)
+     */
+    public static boolean isVirtualThreadIOEnabled() {
+        return Config.getPref().getBoolean(VIRTUAL_THREAD_IO, false);
+    }
+    
+    /**
+     * Enable or disable virtual-thread network I/O
+     */
+    public static void setVirtualThreadIOEnabled(boolean enabled) {
+        Config.getPref().putBoolean(VIRTUAL_THREAD_IO, enabled);
+    }
+    
+    /**
+     * Check if the post-export reset should keep downloaded data by default
+     * (warm session: only validation layers and form are cleared)
+     * Default: true
+     */
+    public static boolean isWarmSessionEnabled() {
+        return Config.getPref().getBoolean(WARM_SESSION, true);
+    }
+    
+    /**
+     * Enable or disable warm session as the default post-export reset
+     */
+    public static void setWarmSessionEnabled(boolean enabled) {
+        Config.getPref().putBoolean(WARM_SESSION, enabled);
+    }
+    
+    /**
+     * Check if isolation should filter the source layer instead of cloning into a new layer
+     * Default: false (clone into a [Validation] layer)
+     */
+    public static boolean isIsolatedViewEnabled() {
+        return Config.getPref().getBoolean(ISOLATED_VIEW, false);
+    }
+    
+    /**
+     * Enable or disable isolated view mode
+     */
+    public static void setIsolatedViewEnabled(boolean enabled) {
+        Config.getPref().putBoolean(ISOLATED_VIEW, enabled);
+    }
+    
+    /**
+     * Check if isolation should be limited to the TM task polygon
+     * (isolation is refused when no task geometry is known)
+     * Default: false (whole download)
+     */
+    public static boolean isIsolateTaskAreaEnabled() {
+        return Config.getPref().getBoolean(ISOLATE_TASK_AREA, false);
+    }
+    
+    /**
+     * Enable or disable task-area isolation
+     */
+    public static void setIsolateTaskAreaEnabled(boolean enabled) {
+        Config.getPref().putBoolean(ISOLATE_TASK_AREA, enabled);
+    }
+    
+    /**
+     * Check if auto-detected error counts are re-checked while buildings are edited
+     * Default: true
+     */
+    public static boolean isLiveQAEnabled() {
+        return Config.getPref().getBoolean(LIVE_QA, true);
+    }
+    
+    /**
+     * Enable or disable live QA re-checks
+     */
+    public static void setLiveQAEnabled(boolean enabled) {
+        Config.getPref().putBoolean(LIVE_QA, enabled);
+    }
+    
+    /**
+     * Check if re-exports of an uploaded validation log upload only an osmChange delta
+     * Default: true
+     */
+    public static boolean isDeltaUploadEnabled() {
+        return Config.getPref().getBoolean(DELTA_UPLOAD, true);
+    }
+    
+    /**
+     * Enable or disable delta uploads
+     */
+    public static void setDeltaUploadEnabled(boolean enabled) {
+        Config.getPref().putBoolean(DELTA_UPLOAD, enabled);
+    }
+    
+    /**
+     * Get the default export file format, "osm" (XML) or "pbf"
+     * Default: osm
+     */
+    public static String getExportFormat() {
+        return "pbf".equals(Config.getPref().get(EXPORT_FORMAT, "osm")) ? "pbf" : "osm";
+    }
+    
+    /**
+     * Set the default export file format, "osm" (XML) or "pbf"
+     */
+    public static void setExportFormat(String format) {
+        Config.getPref().put(EXPORT_FORMAT, format);
+    }
+    
+    /**
+     * Get the estimated heap the [Validation] layers may use together, in MB
+     * Default: 256
+     */
+    public static int getLayerMemoryBudgetMb() {
+        return Math.max(16, Config.getPref().getInt(LAYER_MEMORY_BUDGET_MB, 256));
+    }
+    
+    /**
+     * Set the [Validation] layer memory budget in MB
+     */
+    public static void setLayerMemoryBudgetMb(int megabytes) {
+        Config.getPref().putInt(LAYER_MEMORY_BUDGET_MB, megabytes);
+    }
+    
+    /**
+     * Check if the oldest unmodified [Validation] layers are closed when over the memory budget
+     * Default: false (warn only)
+     */
+    public static boolean isAutoEvictLayersEnabled() {
+        return Config.getPref().getBoolean(AUTO_EVICT_LAYERS, false);
+    }
+    
+    /**
+     * Enable or disable closing old [Validation] layers over the memory budget
+     */
+    public static void setAutoEvictLayersEnabled(boolean enabled) {
+        Config.getPref().putBoolean(AUTO_EVICT_LAYERS, enabled);
+    }
+    
     /**
      * Reset all settings to default values
      */
@@ -212,5 +358,14 @@ public class PluginSettings {
         setCacheTMDataEnabled(true);
         setDefaultProjectUrl("");
         setDefaultProjectId("");
+        setVirtualThreadIOEnabled(false);
+        setWarmSessionEnabled(true);
+        setIsolatedViewEnabled(false);
+        setIsolateTaskAreaEnabled(false);
+        setLiveQAEnabled(true);
+        setDeltaUploadEnabled(true);
+        setExportFormat("osm");
+        setLayerMemoryBudgetMb(256);
+        setAutoEvictLayersEnabled(false);
     }
 }
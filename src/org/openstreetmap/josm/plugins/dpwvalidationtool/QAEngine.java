@@ -0,0 +1,238 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Runs {@link BuildingCheck}s over the buildings of an isolated layer in parallel.
+ *
+ * Work is split into (check, building range) tasks that run on the common fork/join
+ * pool. Each task fills its own BitSet, which are OR-ed together per check at the end,
+ * so results take one bit per building and check instead of lists of primitives.
+ * A run can be cancelled between tasks.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class QAEngine {
+
+    /** Buildings per task */
+    static final int CHUNK_SIZE = 512;
+
+    private final List<BuildingCheck> checks;
+
+    /**
+     * Create an engine with the given checks.
+     *
+     * @param checks the checks to run
+     */
+    public QAEngine(List<BuildingCheck> checks) {
+        this.checks = Collections.unmodifiableList(new ArrayList<>(checks));
+    }
+
+    /**
+     * Create an engine with all built-in checks.
+     *
+     * @return the engine
+     */
+    public static QAEngine withDefaultChecks() {
+        return new QAEngine(BuildingChecks.defaults());
+    }
+
+    /**
+     * Get the checks this engine runs.
+     *
+     * @return unmodifiable list of checks
+     */
+    public List<BuildingCheck> getChecks() {
+        return checks;
+    }
+
+    /**
+     * Outcome of one check.
+     */
+    public static final class CheckResult {
+        /** The check */
+        public final BuildingCheck check;
+        /** Offending building indexes */
+        public final BitSet flagged;
+        /** Number of issues found */
+        public final int issues;
+        /** CPU-side time spent in the check across all threads, in nanoseconds */
+        public final long nanos;
+
+        CheckResult(BuildingCheck check, BitSet flagged, int issues, long nanos) {
+            this.check = check;
+            this.flagged = flagged;
+            this.issues = issues;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Outcome of a QA run.
+     */
+    public static final class Report {
+        /** The checked input */
+        public final QAInput input;
+        /** One result per check, in check order */
+        public final List<CheckResult> results;
+        /** True if the run was cancelled; results are then incomplete */
+        public final boolean cancelled;
+        /** Wall-clock time of the run in milliseconds */
+        public final long elapsedMillis;
+
+        Report(QAInput input, List<CheckResult> results, boolean cancelled, long elapsedMillis) {
+            this.input = input;
+            this.results = Collections.unmodifiableList(results);
+            this.cancelled = cancelled;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * Get the number of issues for an error type. When several checks feed the same
+         * type, each offending building counts once however many of them it fails.
+         *
+         * @param errorType index into the panel's error types
+         * @return number of issues
+         */
+        public int getIssues(int errorType) {
+            CheckResult single = null;
+            BitSet union = null;
+            for (CheckResult r : results) {
+                if (r.check.getErrorType() != errorType) {
+                    continue;
+                }
+                if (single == null && union == null) {
+                    single = r;
+                } else {
+                    if (union == null) {
+                        union = (BitSet) single.flagged.clone();
+                    }
+                    union.or(r.flagged);
+                }
+            }
+            return union != null ? union.cardinality() : single != null ? single.issues : 0;
+        }
+
+        /**
+         * Get the error types fed by the checks of this run.
+         *
+         * @return error type indexes in check order, without duplicates
+         */
+        public Set<Integer> getErrorTypes() {
+            Set<Integer> types = new LinkedHashSet<>();
+            for (CheckResult r : results) {
+                types.add(r.check.getErrorType());
+            }
+            return types;
+        }
+
+        /**
+         * Get a bit mask of the checks a building failed; bit k stands for check k.
+         *
+         * @param building building index
+         * @return mask, 0 if the building passed every check
+         */
+        public long getFlags(int building) {
+            long mask = 0;
+            for (int k = 0; k < results.size() && k < 64; k++) {
+                if (results.get(k).flagged.get(building)) {
+                    mask |= 1L << k;
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Get the building ways that failed any check.
+         *
+         * @return offending ways in building order (empty for coordinate-only inputs)
+         */
+        public Set<Way> getOffenders() {
+            BitSet all = new BitSet();
+            for (CheckResult r : results) {
+                all.or(r.flagged);
+            }
+            List<Way> ways = input.getBuildingWays();
+            Set<Way> offenders = new LinkedHashSet<>();
+            for (int i = all.nextSetBit(0); i >= 0 && i < ways.size(); i = all.nextSetBit(i + 1)) {
+                offenders.add(ways.get(i));
+            }
+            return offenders;
+        }
+    }
+
+    /**
+     * Run every check over the input.
+     *
+     * @param input the buildings to check
+     * @param cancel set to true from any thread to stop the run
+     * @param progress receives the percentage done (0-100) as tasks finish; may be null
+     * @return the report
+     */
+    public Report run(QAInput input, AtomicBoolean cancel, IntConsumer progress) {
+        long start = System.nanoTime();
+        int chunks = Math.max(1, (input.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        int tasks = checks.size() * chunks;
+        BitSet[] partial = new BitSet[tasks];
+        int[] issues = new int[tasks];
+        AtomicLongArray nanos = new AtomicLongArray(checks.size());
+        AtomicInteger done = new AtomicInteger();
+
+        IntStream.range(0, tasks).parallel().forEach(t -> {
+            if (cancel.get()) {
+                return;
+            }
+            int c = t / chunks;
+            int from = (t % chunks) * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, input.size());
+            BitSet flagged = new BitSet();
+            long taskStart = System.nanoTime();
+            try {
+                issues[t] = checks.get(c).check(input, from, to, flagged);
+            } catch (RuntimeException e) {
+                Logging.warn("DPWValidationTool: QA check '" + checks.get(c).getName() + "' failed: " + e.getMessage());
+            }
+            nanos.addAndGet(c, System.nanoTime() - taskStart);
+            partial[t] = flagged;
+            if (progress != null) {
+                progress.accept(done.incrementAndGet() * 100 / tasks);
+            }
+        });
+
+        List<CheckResult> results = new ArrayList<>(checks.size());
+        for (int c = 0; c < checks.size(); c++) {
+            BitSet flagged = new BitSet(input.size());
+            int count = 0;
+            for (int k = c * chunks; k < (c + 1) * chunks; k++) {
+                if (partial[k] != null) {
+                    flagged.or(partial[k]);
+                    count += issues[k];
+                }
+            }
+            results.add(new CheckResult(checks.get(c), flagged, count, nanos.get(c)));
+        }
+        Report report = new Report(input, results, cancel.get(), (System.nanoTime() - start) / 1_000_000);
+        StringBuilder timings = new StringBuilder();
+        for (CheckResult r : results) {
+            timings.append(", ").append(r.check.getName()).append('=').append(r.nanos / 1_000_000).append(" ms");
+        }
+        Logging.info("DPWValidationTool: QA over " + input.size() + " buildings took " + report.elapsedMillis + " ms"
+            + (report.cancelled ? " (cancelled)" : "") + timings);
+        return report;
+    }
+}
@@ -0,0 +1,330 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only snapshot of the buildings and highways a QA run looks at.
+ *
+ * Way coordinates are copied into flat arrays once, under the DataSet read lock, so
+ * checks can run on any thread without touching JOSM primitives. The R-trees over
+ * building boxes and highway segments are built on first use and shared by all checks.
+ *
+ * Edited buildings are applied with {@link #withBuildings}, which derives a new snapshot
+ * that reuses the parent's trees: the few changed buildings are searched linearly
+ * until there are enough of them to be worth a fresh tree.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class QAInput {
+
+    private final List<Way> buildingWays;
+    private final double[][] buildings;
+    private final double[] buildingBoxes;
+    private final double[][] highways;
+    private final boolean[] residential;
+
+    /** Changed buildings a derived input tolerates before it builds its own building tree */
+    static final int MAX_STALE = 256;
+
+    // Tree inherited from the input this one was derived from, or null; it does not cover the stale buildings
+    private final PackedRTree inheritedTree;
+    private final BitSet stale;
+    private final int[] staleBuildings;
+
+    // Built lazily; the volatile tree fields are written last so their arrays are visible to every thread
+    private volatile PackedRTree buildingTree;
+    private volatile PackedRTree segmentTree;
+    private int[] segmentHighway;
+    private int[] segmentOffset;
+
+    /**
+     * Create an input from plain coordinates.
+     *
+     * @param buildings building outlines as flat lon/lat arrays (null for unusable ones)
+     * @param highways highway polylines as flat lon/lat arrays
+     * @param residential per highway, whether it is highway=residential
+     */
+    QAInput(double[][] buildings, double[][] highways, boolean[] residential) {
+        this(Collections.emptyList(), buildings, highways, residential);
+    }
+
+    private QAInput(List<Way> buildingWays, double[][] buildings, double[][] highways, boolean[] residential) {
+        this.buildingWays = buildingWays;
+        this.buildings = buildings;
+        this.highways = highways;
+        this.residential = residential;
+        this.buildingBoxes = new double[buildings.length * 4];
+        for (int i = 0; i < buildings.length; i++) {
+            setBox(i);
+        }
+        this.inheritedTree = null;
+        this.stale = null;
+        this.staleBuildings = null;
+    }
+
+    private QAInput(QAInput parent, List<Way> buildingWays, Map<Integer, double[]> changes) {
+        int size = parent.buildings.length;
+        for (int i : changes.keySet()) {
+            size = Math.max(size, i + 1);
+        }
+        this.buildingWays = buildingWays;
+        this.buildings = Arrays.copyOf(parent.buildings, size);
+        this.buildingBoxes = Arrays.copyOf(parent.buildingBoxes, size * 4);
+        for (int i = parent.buildings.length; i < size; i++) {
+            setBox(i);
+        }
+        for (Map.Entry<Integer, double[]> change : changes.entrySet()) {
+            buildings[change.getKey()] = change.getValue();
+            setBox(change.getKey());
+        }
+        this.highways = parent.highways;
+        this.residential = parent.residential;
+
+        // Reuse the parent's building tree while few buildings have changed since it was built
+        PackedRTree tree = parent.inheritedTree != null ? parent.inheritedTree : parent.buildingTree;
+        BitSet changed = parent.stale != null ? (BitSet) parent.stale.clone() : new BitSet();
+        if (tree != null) {
+            for (int i : changes.keySet()) {
+                changed.set(i);
+            }
+            for (int i = parent.buildings.length; i < size; i++) {
+                changed.set(i);
+            }
+        }
+        if (tree != null && changed.cardinality() <= MAX_STALE) {
+            this.inheritedTree = tree;
+            this.stale = changed;
+            this.staleBuildings = changed.stream().toArray();
+        } else {
+            this.inheritedTree = null;
+            this.stale = null;
+            this.staleBuildings = null;
+        }
+
+        // Highways do not change, so their segment tree is shared as is
+        if (parent.segmentTree != null) {
+            this.segmentHighway = parent.segmentHighway;
+            this.segmentOffset = parent.segmentOffset;
+            this.segmentTree = parent.segmentTree;
+        }
+    }
+
+    private void setBox(int i) {
+        if (buildings[i] == null || buildings[i].length == 0) {
+            // Inverted box never matches a tree query
+            buildingBoxes[i * 4] = Double.POSITIVE_INFINITY;
+            buildingBoxes[i * 4 + 1] = Double.POSITIVE_INFINITY;
+            buildingBoxes[i * 4 + 2] = Double.NEGATIVE_INFINITY;
+            buildingBoxes[i * 4 + 3] = Double.NEGATIVE_INFINITY;
+        } else {
+            System.arraycopy(BuildingGeometry.bbox(buildings[i]), 0, buildingBoxes, i * 4, 4);
+        }
+    }
+
+    /**
+     * Snapshot building and highway ways. Call with the DataSet read lock(s) held.
+     *
+     * @param buildingWays building ways to check
+     * @param highwayWays highway ways buildings must not cross
+     * @return the input
+     */
+    public static QAInput of(Collection<Way> buildingWays, Collection<Way> highwayWays) {
+        List<Way> ways = new ArrayList<>(buildingWays);
+        double[][] buildings = new double[ways.size()][];
+        for (int i = 0; i < buildings.length; i++) {
+            buildings[i] = BuildingGeometry.coordinates(ways.get(i));
+        }
+        List<double[]> lines = new ArrayList<>(highwayWays.size());
+        List<Boolean> flags = new ArrayList<>(highwayWays.size());
+        for (Way w : highwayWays) {
+            double[] coords = w.getNodesCount() >= 2 ? BuildingGeometry.coordinates(w) : null;
+            if (coords != null) {
+                lines.add(coords);
+                flags.add("residential".equals(w.get("highway")));
+            }
+        }
+        boolean[] residential = new boolean[flags.size()];
+        for (int i = 0; i < residential.length; i++) {
+            residential[i] = flags.get(i);
+        }
+        return new QAInput(Collections.unmodifiableList(ways), buildings, lines.toArray(new double[0][]), residential);
+    }
+
+    /**
+     * Derive an input with some buildings replaced, added or removed. Highways are kept.
+     *
+     * @param changes new coordinates by building index; null removes a building, indexes
+     *                past the end add buildings (skipped indexes become removed buildings)
+     * @param buildingWays building ways of the derived input, in index order
+     * @return the derived input; this input is not modified
+     */
+    QAInput withBuildings(Map<Integer, double[]> changes, List<Way> buildingWays) {
+        return new QAInput(this, buildingWays, changes);
+    }
+
+    /**
+     * Get the number of buildings.
+     *
+     * @return building count
+     */
+    public int size() {
+        return buildings.length;
+    }
+
+    /**
+     * Get the building ways in index order.
+     *
+     * @return the ways, or an empty list for coordinate-only inputs
+     */
+    public List<Way> getBuildingWays() {
+        return buildingWays;
+    }
+
+    /**
+     * Get a building's coordinates.
+     *
+     * @param i building index
+     * @return flat lon/lat array, or null if a node has no position
+     */
+    double[] building(int i) {
+        return buildings[i];
+    }
+
+    /**
+     * Check whether a building outline is closed (first and last position equal).
+     *
+     * @param i building index
+     * @return true if closed
+     */
+    boolean isClosed(int i) {
+        double[] c = buildings[i];
+        return c != null && c.length >= 4 && c[0] == c[c.length - 2] && c[1] == c[c.length - 1];
+    }
+
+    /**
+     * Check whether building a's box contains building b's box.
+     */
+    boolean boxContains(int a, int b) {
+        return buildingBoxes[a * 4] <= buildingBoxes[b * 4] && buildingBoxes[a * 4 + 1] <= buildingBoxes[b * 4 + 1]
+            && buildingBoxes[a * 4 + 2] >= buildingBoxes[b * 4 + 2] && buildingBoxes[a * 4 + 3] >= buildingBoxes[b * 4 + 3];
+    }
+
+    /**
+     * Visit every building whose box intersects building i's box, including i itself.
+     */
+    void searchNearbyBuildings(int i, IntConsumer visitor) {
+        searchBuildings(buildingBoxes[i * 4], buildingBoxes[i * 4 + 1],
+            buildingBoxes[i * 4 + 2], buildingBoxes[i * 4 + 3], visitor);
+    }
+
+    /**
+     * Visit every building whose box intersects the given box.
+     */
+    void searchBuildings(double minLon, double minLat, double maxLon, double maxLat, IntConsumer visitor) {
+        if (inheritedTree == null) {
+            buildingTree().search(minLon, minLat, maxLon, maxLat, visitor);
+            return;
+        }
+        // The inherited tree holds outdated boxes for stale buildings; test their current boxes instead
+        inheritedTree.search(minLon, minLat, maxLon, maxLat, i -> {
+            if (!stale.get(i)) {
+                visitor.accept(i);
+            }
+        });
+        for (int i : staleBuildings) {
+            if (buildingBoxes[i * 4] <= maxLon && buildingBoxes[i * 4 + 2] >= minLon
+                    && buildingBoxes[i * 4 + 1] <= maxLat && buildingBoxes[i * 4 + 3] >= minLat) {
+                visitor.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Check whether building i is crossed by any highway of the given kind.
+     *
+     * @param i building index
+     * @param residentialOnly true for highway=residential, false for every other highway
+     * @return true if a matching highway segment crosses the outline
+     */
+    boolean crossedByHighway(int i, boolean residentialOnly) {
+        double[] ring = buildings[i];
+        if (ring == null) {
+            return false;
+        }
+        boolean[] found = {false};
+        segmentTree().search(buildingBoxes[i * 4], buildingBoxes[i * 4 + 1],
+                buildingBoxes[i * 4 + 2], buildingBoxes[i * 4 + 3], s -> {
+            int h = segmentHighway[s];
+            if (found[0] || residential[h] != residentialOnly) {
+                return;
+            }
+            double[] line = highways[h];
+            int k = segmentOffset[s];
+            double[] segment = {line[k], line[k + 1], line[k + 2], line[k + 3]};
+            if (BuildingGeometry.linesCross(segment, ring)) {
+                found[0] = true;
+            }
+        });
+        return found[0];
+    }
+
+    private PackedRTree buildingTree() {
+        PackedRTree tree = buildingTree;
+        if (tree == null) {
+            synchronized (this) {
+                tree = buildingTree;
+                if (tree == null) {
+                    tree = new PackedRTree(buildingBoxes);
+                    buildingTree = tree;
+                }
+            }
+        }
+        return tree;
+    }
+
+    private PackedRTree segmentTree() {
+        PackedRTree tree = segmentTree;
+        if (tree != null) {
+            return tree;
+        }
+        synchronized (this) {
+            if (segmentTree != null) {
+                return segmentTree;
+            }
+            int count = 0;
+            for (double[] line : highways) {
+                count += line.length / 2 - 1;
+            }
+            double[] boxes = new double[count * 4];
+            int[] highwayOf = new int[count];
+            int[] offsetOf = new int[count];
+            int s = 0;
+            for (int h = 0; h < highways.length; h++) {
+                double[] line = highways[h];
+                for (int k = 0; k + 3 < line.length; k += 2, s++) {
+                    boxes[s * 4] = Math.min(line[k], line[k + 2]);
+                    boxes[s * 4 + 1] = Math.min(line[k + 1], line[k + 3]);
+                    boxes[s * 4 + 2] = Math.max(line[k], line[k + 2]);
+                    boxes[s * 4 + 3] = Math.max(line[k + 1], line[k + 3]);
+                    highwayOf[s] = h;
+                    offsetOf[s] = k;
+                }
+            }
+            segmentHighway = highwayOf;
+            segmentOffset = offsetOf;
+            segmentTree = new PackedRTree(boxes);
+            return segmentTree;
+        }
+    }
+}
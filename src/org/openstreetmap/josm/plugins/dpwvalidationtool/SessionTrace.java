@@ -0,0 +1,292 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Ring buffer of timed workflow stages, grouped into validation sessions.
+ *
+ * Every {@link Metrics.Timer} stage (mapper fetch, isolate, clone, submit, export, upload
+ * and the lookups) lands here with its start time, duration, thread and an optional value
+ * such as the HTTP status, and a session reset adds an instant event and starts the next
+ * session. Events are held in preallocated parallel arrays, so recording does not allocate;
+ * once the buffer is full the oldest events are overwritten.
+ *
+ * The buffer exports as JSON lines, one event per line, or as a Chrome trace-event file
+ * that chrome://tracing and Perfetto show with one track per session and thread.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class SessionTrace {
+
+    /** Events kept by the shared trace */
+    static final int DEFAULT_CAPACITY = 4096;
+    /** Value of events that carry none */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+    // Duration stored for instant events
+    private static final long INSTANT = -1;
+
+    private static final SessionTrace DEFAULT = new SessionTrace(DEFAULT_CAPACITY);
+
+    // Wall-clock time matching originNanos, to turn nanoTime into timestamps
+    private final long originNanos;
+    private final long originEpochMillis;
+
+    // Guarded by this
+    private final String[] names;
+    private final long[] starts;
+    private final long[] durations;
+    private final long[] values;
+    private final int[] sessions;
+    private final long[] threadIds;
+    private final String[] threadNames;
+    private long written;
+    private int session = 1;
+
+    /**
+     * Create a trace.
+     *
+     * @param capacity number of events kept
+     */
+    SessionTrace(int capacity) {
+        names = new String[capacity];
+        starts = new long[capacity];
+        durations = new long[capacity];
+        values = new long[capacity];
+        sessions = new int[capacity];
+        threadIds = new long[capacity];
+        threadNames = new String[capacity];
+        originEpochMillis = System.currentTimeMillis();
+        originNanos = System.nanoTime();
+    }
+
+    /**
+     * Get the trace shared by the plugin.
+     *
+     * @return the shared trace
+     */
+    public static SessionTrace getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Record a completed stage.
+     *
+     * @param stage stage name, a constant
+     * @param startNanos {@link System#nanoTime()} at the start
+     * @param endNanos {@link System#nanoTime()} at the end
+     * @param value value to attach, or {@link #NO_VALUE}
+     */
+    public void record(String stage, long startNanos, long endNanos, long value) {
+        append(stage, startNanos, Math.max(0, endNanos - startNanos), value);
+    }
+
+    /**
+     * Record an instant event, such as a session reset.
+     *
+     * @param stage event name, a constant
+     */
+    public void mark(String stage) {
+        append(stage, System.nanoTime(), INSTANT, NO_VALUE);
+    }
+
+    private void append(String stage, long startNanos, long duration, long value) {
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            int i = (int) (written++ % names.length);
+            names[i] = stage;
+            starts[i] = startNanos;
+            durations[i] = duration;
+            values[i] = value;
+            sessions[i] = session;
+            threadIds[i] = thread.threadId();
+            threadNames[i] = thread.getName();
+        }
+    }
+
+    /**
+     * End the current session with a "reset" event; later events belong to the next session.
+     */
+    public void reset() {
+        mark("reset");
+        synchronized (this) {
+            session++;
+        }
+    }
+
+    /**
+     * @return number of the session events are currently recorded in, starting at 1
+     */
+    public synchronized int getSession() {
+        return session;
+    }
+
+    /**
+     * @return number of events in the buffer
+     */
+    public synchronized int size() {
+        return (int) Math.min(written, names.length);
+    }
+
+    /**
+     * Remove all events. The session number is kept.
+     */
+    public synchronized void clear() {
+        written = 0;
+        Arrays.fill(names, null);
+        Arrays.fill(threadNames, null);
+    }
+
+    // ========== Export ==========
+
+    /**
+     * Write the buffer to a file: Chrome trace-event JSON for .json, JSON lines otherwise.
+     *
+     * @param file the target file
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        boolean chrome = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (chrome) {
+                writeChromeTrace(out);
+            } else {
+                writeJsonLines(out);
+            }
+        }
+    }
+
+    /**
+     * Write one JSON object per event, oldest first.
+     *
+     * @param out the target
+     * @throws IOException if writing fails
+     */
+    public void writeJsonLines(Writer out) throws IOException {
+        for (Event e : events()) {
+            StringBuilder sb = new StringBuilder("{\"session\":").append(e.session)
+                .append(",\"stage\":\"").append(escape(e.name))
+                .append("\",\"start\":\"").append(Instant.ofEpochSecond(0, toEpochNanos(e.start)))
+                .append("\",\"duration_ms\":").append(String.format(Locale.ROOT, "%.3f", Math.max(0, e.duration) / 1e6))
+                .append(",\"thread\":\"").append(escape(e.threadName)).append('"');
+            if (e.value != NO_VALUE) {
+                sb.append(",\"value\":").append(e.value);
+            }
+            out.write(sb.append("}\n").toString());
+        }
+    }
+
+    /**
+     * Write the Chrome trace-event format: one process per session, one thread per
+     * recording thread, complete events for stages and instant events for resets.
+     *
+     * @param out the target
+     * @throws IOException if writing fails
+     */
+    public void writeChromeTrace(Writer out) throws IOException {
+        Event[] events = events();
+        out.write("{\"displayTimeUnit\":\"ms\",\"otherData\":{\"plugin_version\":\"" + UpdateChecker.CURRENT_VERSION
+            + "\",\"origin\":\"" + Instant.ofEpochMilli(originEpochMillis) + "\"},\"traceEvents\":[");
+        boolean first = true;
+        Set<String> named = new HashSet<>();
+        for (Event e : events) {
+            if (named.add("p" + e.session)) {
+                first = writeEvent(out, first, "{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + e.session
+                    + ",\"args\":{\"name\":\"Session " + e.session + "\"}}");
+            }
+            if (named.add("t" + e.session + ":" + e.threadId)) {
+                first = writeEvent(out, first, "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + e.session
+                    + ",\"tid\":" + e.threadId + ",\"args\":{\"name\":\"" + escape(e.threadName) + "\"}}");
+            }
+            StringBuilder sb = new StringBuilder("{\"name\":\"").append(escape(e.name)).append("\",\"cat\":\"dpw\"");
+            if (e.duration == INSTANT) {
+                sb.append(",\"ph\":\"i\",\"s\":\"p\"");
+            } else {
+                sb.append(",\"ph\":\"X\",\"dur\":").append(micros(e.duration));
+            }
+            sb.append(",\"ts\":").append(micros(e.start - originNanos))
+                .append(",\"pid\":").append(e.session).append(",\"tid\":").append(e.threadId);
+            if (e.value != NO_VALUE) {
+                sb.append(",\"args\":{\"value\":").append(e.value).append('}');
+            }
+            first = writeEvent(out, first, sb.append('}').toString());
+        }
+        out.write("]}\n");
+    }
+
+    private static boolean writeEvent(Writer out, boolean first, String json) throws IOException {
+        out.write(first ? "\n" : ",\n");
+        out.write(json);
+        return false;
+    }
+
+    /** Copy of one buffered event */
+    static final class Event {
+        final String name;
+        final long start;
+        final long duration;
+        final long value;
+        final int session;
+        final long threadId;
+        final String threadName;
+
+        Event(String name, long start, long duration, long value, int session, long threadId, String threadName) {
+            this.name = name;
+            this.start = start;
+            this.duration = duration;
+            this.value = value;
+            this.session = session;
+            this.threadId = threadId;
+            this.threadName = threadName;
+        }
+    }
+
+    /**
+     * Copy the buffered events, oldest first.
+     *
+     * @return the events
+     */
+    synchronized Event[] events() {
+        int n = size();
+        Event[] result = new Event[n];
+        long first = written - n;
+        for (int k = 0; k < n; k++) {
+            int i = (int) ((first + k) % names.length);
+            result[k] = new Event(names[i], starts[i], durations[i], values[i], sessions[i], threadIds[i], threadNames[i]);
+        }
+        return result;
+    }
+
+    private long toEpochNanos(long nanoTime) {
+        return originEpochMillis * 1_000_000 + (nanoTime - originNanos);
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e3);
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
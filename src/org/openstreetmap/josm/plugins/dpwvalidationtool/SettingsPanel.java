@@ -24,6 +24,15 @@ public class SettingsPanel extends JDialog {
     private JCheckBox autoFetchSettlementCheckbox;
     private JCheckBox remoteControlDetectionCheckbox;
     private JSpinner cacheExpirySpinner;
+    private JCheckBox virtualThreadIOCheckbox;
+    private JCheckBox warmSessionCheckbox;
+    private JCheckBox isolatedViewCheckbox;
+    private JCheckBox isolateTaskAreaCheckbox;
+    private JCheckBox liveQACheckbox;
+    private JCheckBox deltaUploadCheckbox;
+    private JSpinner layerBudgetSpinner;
+    private JCheckBox autoEvictLayersCheckbox;
+    private JCheckBox pbfExportCheckbox;
     
     public SettingsPanel() {
         super(MainApplication.getMainFrame(), "DPW Validation Tool - Settings", true);
@@ -157,6 +166,67 @@ public class SettingsPanel extends JDialog {
         mainPanel.add(cacheExpirySpinner, GBC.eol().insets(5, 5, 5, 10));
         row++;
         
+        // Performance Section
+        mainPanel.add(new JLabel("<html><b>Performance</b></html>"), 
+            GBC.eol().fill(GBC.HORIZONTAL).insets(0, 15, 0, 5));
+        row++;
+        
+        virtualThreadIOCheckbox = new JCheckBox("Use virtual threads for network requests");
+        virtualThreadIOCheckbox.setToolTipText("<html>Run API, Tasking Manager and update requests on Java 21 virtual threads<br>" +
+            "Many concurrent requests no longer hold one system thread each<br>" +
+            "Takes effect for the next request</html>");
+        mainPanel.add(virtualThreadIOCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        warmSessionCheckbox = new JCheckBox("Keep downloaded data between tasks (warm session)");
+        warmSessionCheckbox.setToolTipText("<html>After export, default to clearing only the [Validation] layers and the form<br>" +
+            "The source data and its mapper index stay loaded, so the next task in the same area isolates instantly</html>");
+        mainPanel.add(warmSessionCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        isolatedViewCheckbox = new JCheckBox("Isolate as filtered view (copy only on export)");
+        isolatedViewCheckbox.setToolTipText("<html>Hide other data on the source layer instead of copying the mapper's buildings into a new layer<br>" +
+            "Uses much less memory for large mappers; the copy is made when exporting</html>");
+        mainPanel.add(isolatedViewCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        isolateTaskAreaCheckbox = new JCheckBox("Limit isolation to the task area");
+        isolateTaskAreaCheckbox.setToolTipText("<html>Only isolate buildings inside the Tasking Manager task polygon<br>" +
+            "Isolation is refused while no task geometry is loaded for the current Task ID</html>");
+        mainPanel.add(isolateTaskAreaCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        liveQACheckbox = new JCheckBox("Re-check auto-detected errors while editing");
+        liveQACheckbox.setToolTipText("<html>After Auto-Detect, re-run the checks on edited buildings and their neighbours<br>" +
+            "and adjust the error counters as problems are fixed or introduced</html>");
+        mainPanel.add(liveQACheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        deltaUploadCheckbox = new JCheckBox("Upload only changes when re-exporting");
+        deltaUploadCheckbox.setToolTipText("<html>When a validation log was already backed up, upload an osmChange file with the edits since then<br>" +
+            "Used only once the server reports that it accepts deltas; otherwise the full file is uploaded</html>");
+        mainPanel.add(deltaUploadCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        pbfExportCheckbox = new JCheckBox("Export as OSM PBF by default");
+        pbfExportCheckbox.setToolTipText("<html>Preselect the compact binary .osm.pbf format in the export dialog<br>" +
+            "PBF files are much smaller than OSM XML and faster to back up</html>");
+        mainPanel.add(pbfExportCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 5));
+        row++;
+        
+        mainPanel.add(new JLabel("Validation layer memory budget (MB):"), GBC.std().insets(5, 5, 5, 5));
+        layerBudgetSpinner = new JSpinner(new SpinnerNumberModel(256, 16, 8192, 16));
+        layerBudgetSpinner.setToolTipText("<html>Estimated heap all [Validation] layers may use together<br>" +
+            "Over the budget the panel warns, or closes old layers if enabled below</html>");
+        mainPanel.add(layerBudgetSpinner, GBC.eol().insets(5, 5, 5, 5));
+        row++;
+        
+        autoEvictLayersCheckbox = new JCheckBox("Close old validation layers when over the budget");
+        autoEvictLayersCheckbox.setToolTipText("<html>After isolating, close the oldest [Validation] layers until the budget is met<br>" +
+            "The current isolation and layers with unsaved edits are never closed</html>");
+        mainPanel.add(autoEvictLayersCheckbox, GBC.eol().fill(GBC.HORIZONTAL).insets(5, 5, 5, 10));
+        row++;
+        
         // Add flexible space
         mainPanel.add(new JLabel(""), GBC.eol().fill(GBC.BOTH).weight(1.0, 1.0));
         
@@ -207,7 +277,11 @@ public class SettingsPanel extends JDialog {
         // Add panels to dialog
         JScrollPane scrollPane = new JScrollPane(mainPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
-        add(scrollPane, BorderLayout.CENTER);
+        // v3.2.8 - Diagnostics tab with live timings for support
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Settings", scrollPane);
+        tabs.addTab("Diagnostics", new DiagnosticsPanel());
+        add(tabs, BorderLayout.CENTER);
         add(buttonsPanel, BorderLayout.SOUTH);
         
         // Dialog settings
@@ -224,6 +298,15 @@ public class SettingsPanel extends JDialog {
         autoFetchSettlementCheckbox.setSelected(PluginSettings.isAutoFetchSettlement());
         remoteControlDetectionCheckbox.setSelected(PluginSettings.isRemoteControlDetectionEnabled());
         cacheExpirySpinner.setValue(PluginSettings.getCacheExpiryHours());
+        virtualThreadIOCheckbox.setSelected(PluginSettings.isVirtualThreadIOEnabled());
+        warmSessionCheckbox.setSelected(PluginSettings.isWarmSessionEnabled());
+        isolatedViewCheckbox.setSelected(PluginSettings.isIsolatedViewEnabled());
+        isolateTaskAreaCheckbox.setSelected(PluginSettings.isIsolateTaskAreaEnabled());
+        liveQACheckbox.setSelected(PluginSettings.isLiveQAEnabled());
+        deltaUploadCheckbox.setSelected(PluginSettings.isDeltaUploadEnabled());
+        pbfExportCheckbox.setSelected("pbf".equals(PluginSettings.getExportFormat()));
+        layerBudgetSpinner.setValue(PluginSettings.getLayerMemoryBudgetMb());
+        autoEvictLayersCheckbox.setSelected(PluginSettings.isAutoEvictLayersEnabled());
     }
     
     private void saveSettings() {
@@ -235,6 +318,15 @@ public class SettingsPanel extends JDialog {
         PluginSettings.setAutoFetchSettlement(autoFetchSettlementCheckbox.isSelected());
         PluginSettings.setRemoteControlDetectionEnabled(remoteControlDetectionCheckbox.isSelected());
         PluginSettings.setCacheExpiryHours((Integer) cacheExpirySpinner.getValue());
+        PluginSettings.setVirtualThreadIOEnabled(virtualThreadIOCheckbox.isSelected());
+        PluginSettings.setWarmSessionEnabled(warmSessionCheckbox.isSelected());
+        PluginSettings.setIsolatedViewEnabled(isolatedViewCheckbox.isSelected());
+        PluginSettings.setIsolateTaskAreaEnabled(isolateTaskAreaCheckbox.isSelected());
+        PluginSettings.setLiveQAEnabled(liveQACheckbox.isSelected());
+        PluginSettings.setDeltaUploadEnabled(deltaUploadCheckbox.isSelected());
+        PluginSettings.setExportFormat(pbfExportCheckbox.isSelected() ? "pbf" : "osm");
+        PluginSettings.setLayerMemoryBudgetMb((Integer) layerBudgetSpinner.getValue());
+        PluginSettings.setAutoEvictLayersEnabled(autoEvictLayersCheckbox.isSelected());
     }
     
     private void resetToDefaults() {
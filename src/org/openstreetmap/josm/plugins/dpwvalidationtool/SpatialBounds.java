@@ -0,0 +1,125 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Area that isolation is limited to, e.g. a Tasking Manager task polygon or the map view.
+ *
+ * Holds one or more rings of (lon, lat) coordinates. A point is inside when it lies inside
+ * an odd number of rings, so holes and multipolygon parts need no special handling.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class SpatialBounds {
+
+    private final List<double[]> rings;
+    private final String description;
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+
+    /**
+     * Create bounds from polygon rings.
+     *
+     * @param rings rings as flat (lon0, lat0, lon1, lat1, ...) arrays; closing point optional
+     * @param description short human-readable source, e.g. "TM task 42"
+     */
+    public SpatialBounds(List<double[]> rings, String description) {
+        if (rings == null || rings.isEmpty()) {
+            throw new IllegalArgumentException("At least one ring is required");
+        }
+        double x0 = Double.POSITIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY;
+        double y1 = Double.NEGATIVE_INFINITY;
+        for (double[] ring : rings) {
+            if (ring.length < 6 || ring.length % 2 != 0) {
+                throw new IllegalArgumentException("A ring needs at least 3 (lon, lat) points");
+            }
+            for (int i = 0; i < ring.length; i += 2) {
+                x0 = Math.min(x0, ring[i]);
+                x1 = Math.max(x1, ring[i]);
+                y0 = Math.min(y0, ring[i + 1]);
+                y1 = Math.max(y1, ring[i + 1]);
+            }
+        }
+        this.rings = Collections.unmodifiableList(new ArrayList<>(rings));
+        this.description = description;
+        this.minLon = x0;
+        this.minLat = y0;
+        this.maxLon = x1;
+        this.maxLat = y1;
+    }
+
+    /**
+     * Create rectangular bounds.
+     *
+     * @param minLon west edge
+     * @param minLat south edge
+     * @param maxLon east edge
+     * @param maxLat north edge
+     * @param description short human-readable source, e.g. "map view"
+     * @return the bounds
+     */
+    public static SpatialBounds ofBox(double minLon, double minLat, double maxLon, double maxLat, String description) {
+        double[] ring = {minLon, minLat, maxLon, minLat, maxLon, maxLat, minLon, maxLat};
+        return new SpatialBounds(Collections.singletonList(ring), description);
+    }
+
+    /**
+     * Check whether a point lies inside the area (even-odd rule over all rings).
+     *
+     * @param lon longitude
+     * @param lat latitude
+     * @return true if inside
+     */
+    public boolean contains(double lon, double lat) {
+        if (lon < minLon || lon > maxLon || lat < minLat || lat > maxLat) {
+            return false;
+        }
+        boolean inside = false;
+        for (double[] ring : rings) {
+            int n = ring.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double xi = ring[i * 2];
+                double yi = ring[i * 2 + 1];
+                double xj = ring[j * 2];
+                double yj = ring[j * 2 + 1];
+                if ((yi > lat) != (yj > lat) && lon < (xj - xi) * (lat - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    /**
+     * Get where these bounds came from, for messages and layer names.
+     *
+     * @return description such as "TM task 42" or "map view"
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -5,6 +5,7 @@ import org.openstreetmap.josm.tools.Logging;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.regex.Matcher;
@@ -23,6 +24,7 @@ public class TaskManagerAPIClient {
         "(?:https?://)?(?:www\\.)?tasks\\.hotosm\\.org/projects/(\\d+)(?:/tasks/)?(\\d+)?");
     private static final Pattern CHANGESET_COMMENT_PATTERN = Pattern.compile(
         "#hotosm-project-(\\d+)-task-(\\d+)");
+    private static final Pattern TASK_ID_PATTERN = Pattern.compile("\"taskId\"\\s*:\\s*(\\d+)");
     
     /**
      * Result class for TM task information
@@ -34,15 +36,23 @@ public class TaskManagerAPIClient {
         public final String taskStatus;
         public final boolean success;
         public final String errorMessage;
+        /** v3.2.8 - Task polygon, or null if it could not be fetched or had no usable geometry */
+        public final SpatialBounds taskArea;
         
         public TaskInfo(int projectId, int taskId, String mapperUsername, 
                        String taskStatus, boolean success, String errorMessage) {
+            this(projectId, taskId, mapperUsername, taskStatus, success, errorMessage, null);
+        }
+        
+        public TaskInfo(int projectId, int taskId, String mapperUsername, 
+                       String taskStatus, boolean success, String errorMessage, SpatialBounds taskArea) {
             this.projectId = projectId;
             this.taskId = taskId;
             this.mapperUsername = mapperUsername;
             this.taskStatus = taskStatus;
             this.success = success;
             this.errorMessage = errorMessage;
+            this.taskArea = taskArea;
         }
         
         public static TaskInfo error(String message) {
@@ -109,6 +119,8 @@ public class TaskManagerAPIClient {
             
             Logging.info("Fetching TM task info: " + apiUrl);
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", apiUrl);
             URL url = new URL(apiUrl);
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
@@ -118,6 +130,8 @@ public class TaskManagerAPIClient {
             
             int responseCode = conn.getResponseCode();
             if (responseCode != 200) {
+                Metrics.recordCall(Metrics.TASK_INFO, start, responseCode);
+                JfrEvents.endHttp(jfr, responseCode, 0, 0);
                 return TaskInfo.error("TM API returned status: " + responseCode);
             }
             
@@ -130,6 +144,8 @@ public class TaskManagerAPIClient {
                 response.append(line);
             }
             reader.close();
+            Metrics.recordCall(Metrics.TASK_INFO, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, 0, response.length());
             
             String jsonResponse = response.toString();
             
@@ -140,34 +156,7 @@ public class TaskManagerAPIClient {
             }
             
             // Find mapper from task history
-            String mapperUsername = null;
-            
-            // First try to extract from taskHistory array
-            int historyStart = jsonResponse.indexOf("\"taskHistory\"");
-            if (historyStart != -1) {
-                int arrayStart = jsonResponse.indexOf('[', historyStart);
-                if (arrayStart != -1) {
-                    int arrayEnd = findMatchingBracket(jsonResponse, arrayStart);
-                    if (arrayEnd != -1) {
-                        String historyArray = jsonResponse.substring(arrayStart + 1, arrayEnd);
-                        
-                        // Parse history entries in reverse order (most recent first)
-                        String[] entries = splitJsonArray(historyArray);
-                        for (int i = entries.length - 1; i >= 0; i--) {
-                            String entry = entries[i];
-                            String action = extractJsonStringField(entry, "action");
-                            
-                            if ("STATE_CHANGE".equals(action)) {
-                                String actionText = extractJsonStringField(entry, "actionText");
-                                if (actionText != null && (actionText.contains("MAPPED") || actionText.contains("BADIMAGERY"))) {
-                                    mapperUsername = extractJsonStringField(entry, "actionBy");
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            String mapperUsername = findMapperInTaskHistory(jsonResponse);
             
             // Also check mappedBy field in properties
             if (mapperUsername == null) {
@@ -189,14 +178,65 @@ public class TaskManagerAPIClient {
             }
             
             Logging.info("Found mapper: " + mapperUsername + " for task " + taskId);
-            return TaskInfo.success(projectId, taskId, mapperUsername, taskStatus);
+            SpatialBounds taskArea = fetchTaskArea(projectId, taskId);
+            return new TaskInfo(projectId, taskId, mapperUsername, taskStatus, true, null, taskArea);
             
         } catch (Exception e) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("Error fetching TM task info: " + e.getMessage());
             return TaskInfo.error("Failed to fetch task info: " + e.getMessage());
         }
     }
     
+    /**
+     * Fetch the polygon of one task.
+     * v3.2.8 - The task detail response has no geometry, so it is read from the
+     * project's task GeoJSON limited to this task.
+     * 
+     * @return the task area, or null if it could not be fetched or parsed
+     */
+    static SpatialBounds fetchTaskArea(int projectId, int taskId) {
+        String apiUrl = PluginSettings.getTMApiBaseUrl() + "/projects/" 
+            + projectId + "/tasks/?task_ids=" + taskId;
+        try {
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", apiUrl);
+            HttpURLConnection conn = (HttpURLConnection) new URI(apiUrl).toURL().openConnection();
+            conn.setRequestMethod("GET");
+            conn.setRequestProperty("Accept", "application/json");
+            conn.setConnectTimeout(10000);
+            conn.setReadTimeout(10000);
+            
+            int responseCode = conn.getResponseCode();
+            if (responseCode != 200) {
+                Metrics.recordCall(Metrics.TASK_INFO, start, responseCode);
+                JfrEvents.endHttp(jfr, responseCode, 0, 0);
+                Logging.warn("TM task geometry request returned status: " + responseCode);
+                return null;
+            }
+            StringBuilder response = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    response.append(line);
+                }
+            }
+            Metrics.recordCall(Metrics.TASK_INFO, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, 0, response.length());
+            
+            SpatialBounds area = parseTaskFeature(response.toString(), taskId, "TM task " + taskId);
+            if (area == null) {
+                Logging.warn("No geometry for task " + taskId + " in " + apiUrl);
+            }
+            return area;
+        } catch (Exception e) {
+            Metrics.NETWORK_ERRORS.increment();
+            Logging.warn("Error fetching TM task geometry: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Fetch task info from TM URL
      */
@@ -223,7 +263,7 @@ public class TaskManagerAPIClient {
     /**
      * Extract a string field value from a JSON string
      */
-    private static String extractJsonStringField(String json, String fieldName) {
+    static String extractJsonStringField(String json, String fieldName) {
         int fieldStart = json.indexOf("\"" + fieldName + "\"");
         if (fieldStart == -1) {
             return null;
@@ -276,6 +316,97 @@ public class TaskManagerAPIClient {
         return json.substring(stringStart, stringEnd);
     }
     
+    /**
+     * Parse the polygon rings of a GeoJSON "geometry" object (Polygon or MultiPolygon)
+     * v3.2.8 - used to limit isolation to the task area
+     * 
+     * @return the task area, or null if there is no geometry or it cannot be parsed
+     */
+    static SpatialBounds parseTaskGeometry(String json, String description) {
+        int geometryStart = json.indexOf("\"geometry\"");
+        if (geometryStart == -1) {
+            return null;
+        }
+        int coordsStart = json.indexOf("\"coordinates\"", geometryStart);
+        int arrayStart = coordsStart == -1 ? -1 : json.indexOf('[', coordsStart);
+        int arrayEnd = arrayStart == -1 ? -1 : findMatchingBracket(json, arrayStart);
+        if (arrayEnd == -1) {
+            return null;
+        }
+        
+        // Arrays holding numbers are positions; arrays holding positions are rings.
+        // Each open array collects its numbers, or the lon/lat of its child positions.
+        java.util.List<double[]> rings = new java.util.ArrayList<>();
+        java.util.Deque<java.util.List<Double>> open = new java.util.ArrayDeque<>();
+        java.util.Deque<Boolean> holdsPositions = new java.util.ArrayDeque<>();
+        try {
+            int i = arrayStart;
+            while (i <= arrayEnd) {
+                char c = json.charAt(i);
+                if (c == '[') {
+                    open.push(new java.util.ArrayList<>());
+                    holdsPositions.push(Boolean.FALSE);
+                    i++;
+                } else if (c == ']') {
+                    java.util.List<Double> values = open.pop();
+                    boolean ring = holdsPositions.pop();
+                    if (ring) {
+                        if (values.size() >= 6) {
+                            double[] coords = new double[values.size()];
+                            for (int k = 0; k < coords.length; k++) {
+                                coords[k] = values.get(k);
+                            }
+                            rings.add(coords);
+                        }
+                    } else if (values.size() >= 2 && !open.isEmpty()) {
+                        // Position: keep lon, lat and drop any altitude
+                        open.peek().add(values.get(0));
+                        open.peek().add(values.get(1));
+                        holdsPositions.pop();
+                        holdsPositions.push(Boolean.TRUE);
+                    }
+                    i++;
+                } else if (c == '-' || Character.isDigit(c)) {
+                    int end = i + 1;
+                    while (end < json.length() && "0123456789.eE+-".indexOf(json.charAt(end)) >= 0) {
+                        end++;
+                    }
+                    open.peek().add(Double.parseDouble(json.substring(i, end)));
+                    i = end;
+                } else {
+                    i++;
+                }
+            }
+            return rings.isEmpty() ? null : new SpatialBounds(rings, description);
+        } catch (RuntimeException e) {
+            Logging.warn("Could not parse TM task geometry: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Parse the polygon of one task from a project task FeatureCollection
+     * ({@code /projects/{p}/tasks/}), picking the feature whose properties carry the task ID
+     * v3.2.8 - used to limit isolation to the task area
+     * 
+     * @return the task area, or null if the task is not in the collection or has no usable geometry
+     */
+    static SpatialBounds parseTaskFeature(String json, int taskId, String description) {
+        int featuresStart = json.indexOf("\"features\"");
+        int arrayStart = featuresStart == -1 ? -1 : json.indexOf('[', featuresStart);
+        int arrayEnd = arrayStart == -1 ? -1 : findMatchingBracket(json, arrayStart);
+        if (arrayEnd == -1) {
+            return null;
+        }
+        for (String feature : splitJsonArray(json.substring(arrayStart + 1, arrayEnd))) {
+            Matcher matcher = TASK_ID_PATTERN.matcher(feature);
+            if (matcher.find() && Integer.parseInt(matcher.group(1)) == taskId) {
+                return parseTaskGeometry(feature, description);
+            }
+        }
+        return null;
+    }
+    
     /**
      * Find the matching closing bracket for an opening bracket
      */
@@ -308,10 +439,47 @@ public class TaskManagerAPIClient {
         return -1;
     }
     
+    /**
+     * Find the user who marked a task MAPPED (or BADIMAGERY) in its taskHistory array.
+     *
+     * @param jsonResponse the TM task response
+     * @return the mapper's username, or null if the history has no such state change
+     */
+    static String findMapperInTaskHistory(String jsonResponse) {
+        int historyStart = jsonResponse.indexOf("\"taskHistory\"");
+        if (historyStart == -1) {
+            return null;
+        }
+        int arrayStart = jsonResponse.indexOf('[', historyStart);
+        if (arrayStart == -1) {
+            return null;
+        }
+        int arrayEnd = findMatchingBracket(jsonResponse, arrayStart);
+        if (arrayEnd == -1) {
+            return null;
+        }
+        String historyArray = jsonResponse.substring(arrayStart + 1, arrayEnd);
+        
+        // Parse history entries in reverse order (most recent first)
+        String[] entries = splitJsonArray(historyArray);
+        for (int i = entries.length - 1; i >= 0; i--) {
+            String entry = entries[i];
+            String action = extractJsonStringField(entry, "action");
+            
+            if ("STATE_CHANGE".equals(action)) {
+                String actionText = extractJsonStringField(entry, "actionText");
+                if (actionText != null && (actionText.contains("MAPPED") || actionText.contains("BADIMAGERY"))) {
+                    return extractJsonStringField(entry, "actionBy");
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Split a JSON array string into individual object strings
      */
-    private static String[] splitJsonArray(String arrayContent) {
+    static String[] splitJsonArray(String arrayContent) {
         java.util.List<String> objects = new java.util.ArrayList<>();
         int depth = 0;
         int objStart = 0;
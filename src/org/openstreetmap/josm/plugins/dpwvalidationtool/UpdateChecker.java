@@ -13,6 +13,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Checks for plugin updates from GitHub releases and auto-installs updates
@@ -63,6 +65,9 @@ public class UpdateChecker {
                 }
                 
                 // Show success notification
+                if (GraphicsEnvironment.isHeadless()) {
+                    return;
+                }
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(
                         null,
@@ -95,11 +100,22 @@ public class UpdateChecker {
         }
     }
     
+    /**
+     * v3.2.8 - Apply a pending update off the startup path. Installing moves plugin jars
+     * and writes preferences, so JOSM's boot only schedules it.
+     *
+     * @param executor runs the install
+     * @return completes once the pending update, if any, has been handled
+     */
+    public static CompletableFuture<Void> applyPendingUpdateAsync(Executor executor) {
+        return CompletableFuture.runAsync(UpdateChecker::applyPendingUpdate, executor);
+    }
+    
     /**
      * Check for updates in background and show notification if available
      */
     public static void checkForUpdatesAsync(boolean showNoUpdateMessage) {
-        new Thread(() -> {
+        NetworkExecutor.execute(() -> {
             try {
                 UpdateInfo info = checkForUpdates();
                 
@@ -132,7 +148,7 @@ public class UpdateChecker {
                     });
                 }
             }
-        }).start();
+        });
     }
     
     /**
@@ -212,7 +228,7 @@ public class UpdateChecker {
      * Find the latest release from the releases array (sorted by published_at descending)
      * GitHub returns releases in descending order by default, so first one is latest
      */
-    private static String findLatestRelease(String jsonArray) {
+    static String findLatestRelease(String jsonArray) {
         // The response is an array of release objects
         // Find the first release object (most recent)
         int firstReleaseStart = jsonArray.indexOf('{');
@@ -406,7 +422,7 @@ public class UpdateChecker {
         });
         
         // Download in background thread
-        new Thread(() -> {
+        NetworkExecutor.execute(() -> {
             try {
                 // Get plugin directory
                 String josmHome = System.getProperty("josm.home");
@@ -544,7 +560,7 @@ public class UpdateChecker {
                     );
                 });
             }
-        }).start();
+        });
         
         progressDialog.setVisible(true);
     }
@@ -571,7 +587,7 @@ public class UpdateChecker {
     /**
      * Extract string field from JSON (manual parsing)
      */
-    private static String extractJsonStringField(String json, String fieldName) {
+    static String extractJsonStringField(String json, String fieldName) {
         int fieldStart = json.indexOf("\"" + fieldName + "\"");
         if (fieldStart == -1) {
             return null;
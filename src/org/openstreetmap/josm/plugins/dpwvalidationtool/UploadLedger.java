@@ -0,0 +1,229 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local record of exported files already uploaded to cloud storage, keyed by the
+ * SHA-256 of their content and the validation log they were attached to. The same
+ * content exported for two logs is two uploads: the server must link the stored file
+ * to each log.
+ *
+ * Uses the same append-only tab-separated layout as the {@link ValidationLedger}: the
+ * file is read once into a hash index and each upload adds one line.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class UploadLedger {
+
+    /** First line of an upload ledger file */
+    static final String HEADER = "# DPW upload ledger v1";
+
+    private static UploadLedger defaultLedger;
+
+    private final Path file;
+
+    // Guarded by this; loaded on first use. Keyed by hash and log, and by hash alone (latest upload)
+    private Map<String, Entry> index;
+    private Map<String, Entry> byContent;
+
+    /**
+     * One uploaded file.
+     */
+    public static final class Entry {
+        /** When the upload finished */
+        public final Instant uploadedAt;
+        /** Lower-case hex SHA-256 of the file content */
+        public final String sha256;
+        /** File name at upload time */
+        public final String fileName;
+        /** Validation log the file was attached to */
+        public final int validationLogId;
+        /** Cloud storage URL returned by the server */
+        public final String driveUrl;
+
+        /**
+         * Create an entry.
+         *
+         * @param uploadedAt when the upload finished
+         * @param sha256 hex SHA-256 of the file content
+         * @param fileName file name at upload time
+         * @param validationLogId validation log the file was attached to
+         * @param driveUrl cloud storage URL returned by the server
+         */
+        public Entry(Instant uploadedAt, String sha256, String fileName, int validationLogId, String driveUrl) {
+            this.uploadedAt = uploadedAt;
+            this.sha256 = sha256.toLowerCase(Locale.ROOT);
+            this.fileName = fileName == null ? "" : fileName.replaceAll("[\\t\\r\\n]+", " ");
+            this.validationLogId = validationLogId;
+            this.driveUrl = driveUrl == null ? "" : driveUrl.trim();
+        }
+
+        String toLine() {
+            return uploadedAt + "\t" + sha256 + "\t" + fileName + "\t" + validationLogId + "\t" + driveUrl;
+        }
+
+        static Entry parse(String line) {
+            String[] f = line.split("\t", -1);
+            if (f.length != 5 || f[1].length() != 64) {
+                return null;
+            }
+            try {
+                return new Entry(Instant.parse(f[0]), f[1], f[2], Integer.parseInt(f[3]), f[4]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Create a ledger backed by a file. The file is created on the first record.
+     *
+     * @param file the ledger file
+     */
+    UploadLedger(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the upload ledger in the JOSM user data directory.
+     *
+     * @return the shared ledger
+     */
+    public static synchronized UploadLedger getDefault() {
+        if (defaultLedger == null) {
+            File dir = new File(Config.getDirs().getUserDataDirectory(true), "DPWValidationTool");
+            defaultLedger = new UploadLedger(new File(dir, "upload-ledger.tsv").toPath());
+        }
+        return defaultLedger;
+    }
+
+    /**
+     * Create a SHA-256 digest for hashing a file while it is written.
+     *
+     * @return a new digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Format a digest as lower-case hex.
+     *
+     * @param digest digest bytes
+     * @return hex string
+     */
+    public static String toHex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Find an earlier upload of identical content for a validation log.
+     *
+     * @param sha256 hex SHA-256 of the content
+     * @param validationLogId validation log the content is attached to
+     * @return the entry, or null if this content was not uploaded for this log from here
+     */
+    public synchronized Entry find(String sha256, int validationLogId) {
+        load();
+        return index.get(key(sha256.toLowerCase(Locale.ROOT), validationLogId));
+    }
+
+    /**
+     * Find the latest earlier upload of identical content for any validation log.
+     *
+     * @param sha256 hex SHA-256 of the content
+     * @return the entry, or null if this content was not uploaded from here
+     */
+    public synchronized Entry find(String sha256) {
+        load();
+        return byContent.get(sha256.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Append an upload to the ledger.
+     *
+     * @param entry the upload
+     * @throws IOException if the file cannot be written; the entry is then still indexed for this session
+     */
+    public synchronized void record(Entry entry) throws IOException {
+        load();
+        put(entry);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean fresh = !Files.exists(file);
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (fresh) {
+                w.write(HEADER);
+                w.newLine();
+            }
+            w.write(entry.toLine());
+            w.newLine();
+        }
+    }
+
+    private void load() {
+        if (index != null) {
+            return;
+        }
+        index = new HashMap<>();
+        byContent = new HashMap<>();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            int skipped = 0;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Entry entry = Entry.parse(line);
+                if (entry == null) {
+                    skipped++;
+                } else {
+                    put(entry);
+                }
+            }
+            if (skipped > 0) {
+                Logging.warn("DPWValidationTool: Skipped " + skipped + " unreadable lines in " + file);
+            }
+        } catch (IOException e) {
+            Logging.warn("DPWValidationTool: Could not read upload ledger " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void put(Entry entry) {
+        index.put(key(entry.sha256, entry.validationLogId), entry);
+        byContent.put(entry.sha256, entry);
+    }
+
+    private static String key(String sha256, int validationLogId) {
+        return sha256 + "/" + validationLogId;
+    }
+}
@@ -242,12 +242,18 @@ public final class ValidationConstants {
     /** Default export file extension */
     public static final String EXPORT_FILE_EXTENSION = ".osm";
     
+    /** Compact binary export file extension (v3.2.8) */
+    public static final String EXPORT_PBF_FILE_EXTENSION = ".osm.pbf";
+    
     /** Export file name pattern: validated_{mapper}_{task}.osm */
     public static final String EXPORT_FILE_NAME_PATTERN = "validated_%s_%s.osm";
     
     /** Isolated layer name pattern: Isolated: {username} */
     public static final String ISOLATED_LAYER_NAME_PATTERN = "Isolated: %s";
     
+    /** Name prefix of isolated validation layers: [Validation] {mapper} - {date} */
+    public static final String VALIDATION_LAYER_PREFIX = "[Validation] ";
+    
     // ========================================================================
     // REGEX PATTERNS
     // ========================================================================
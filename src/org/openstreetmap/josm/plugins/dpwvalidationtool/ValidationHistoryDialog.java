@@ -0,0 +1,131 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.openstreetmap.josm.gui.MainApplication;
+
+/**
+ * Searchable list of the validation logs submitted from this computer,
+ * read from the {@link ValidationLedger}.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public class ValidationHistoryDialog extends JDialog {
+
+    private static final String[] COLUMNS = {"Submitted", "Task", "Mapper", "Date", "Status", "Validator", "Log ID", "Buildings"};
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+        .withZone(ZoneId.systemDefault());
+
+    private final List<ValidationLedger.Entry> entries;
+    private final TableRowSorter<AbstractTableModel> sorter;
+    private final JTextField searchField = new JTextField(24);
+    private final JLabel countLabel = new JLabel();
+
+    public ValidationHistoryDialog() {
+        super(MainApplication.getMainFrame(), "DPW Validation Tool - Submission History", false);
+        this.entries = ValidationLedger.getDefault().getEntries();
+
+        AbstractTableModel model = new AbstractTableModel() {
+            @Override
+            public int getRowCount() {
+                return entries.size();
+            }
+
+            @Override
+            public int getColumnCount() {
+                return COLUMNS.length;
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return COLUMNS[column];
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column >= 6 ? Integer.class : String.class;
+            }
+
+            @Override
+            public Object getValueAt(int row, int column) {
+                // Newest first
+                ValidationLedger.Entry e = entries.get(entries.size() - 1 - row);
+                switch (column) {
+                    case 0: return TIME_FORMAT.format(e.submittedAt);
+                    case 1: return e.taskId;
+                    case 2: return e.mapper;
+                    case 3: return e.date;
+                    case 4: return e.status;
+                    case 5: return e.validator;
+                    case 6: return e.logId;
+                    default: return e.totalBuildings;
+                }
+            }
+        };
+        JTable table = new JTable(model);
+        sorter = new TableRowSorter<>(model);
+        table.setRowSorter(sorter);
+
+        searchField.setToolTipText("Filter by task, mapper, date, status or validator");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applyFilter();
+            }
+        });
+
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
+        searchPanel.add(new JLabel("Search:"));
+        searchPanel.add(searchField);
+        searchPanel.add(countLabel);
+
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        buttonsPanel.add(closeButton);
+
+        setLayout(new BorderLayout(5, 5));
+        add(searchPanel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(buttonsPanel, BorderLayout.SOUTH);
+        applyFilter();
+        setSize(850, 450);
+        setLocationRelativeTo(getParent());
+    }
+
+    private void applyFilter() {
+        String text = searchField.getText().trim();
+        sorter.setRowFilter(text.isEmpty() ? null
+            : RowFilter.regexFilter("(?i)" + Pattern.quote(text), 1, 2, 3, 4, 5));
+        countLabel.setText(sorter.getViewRowCount() + " of " + entries.size() + " submissions");
+    }
+
+    /**
+     * Show the history dialog.
+     * Automatically runs on the Event Dispatch Thread.
+     */
+    public static void showHistoryDialog() {
+        SwingUtilities.invokeLater(() -> new ValidationHistoryDialog().setVisible(true));
+    }
+}
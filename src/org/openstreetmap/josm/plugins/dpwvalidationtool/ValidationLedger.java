@@ -0,0 +1,221 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.spi.preferences.Config;
+import org.openstreetmap.josm.tools.Logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local record of validation logs submitted from this computer.
+ *
+ * Entries are appended as tab-separated lines to a small file in the JOSM user data
+ * directory and never rewritten. The file is read once; after that an in-memory hash
+ * index on (task, mapper, date) answers duplicate checks without touching the disk.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ * @since 3.2.8
+ */
+public final class ValidationLedger {
+
+    /** First line of a ledger file */
+    static final String HEADER = "# DPW validation ledger v1";
+
+    private static ValidationLedger defaultLedger;
+
+    private final Path file;
+
+    // Guarded by this; loaded on first use
+    private List<Entry> entries;
+    private Map<String, Entry> index;
+
+    /**
+     * One submitted validation log.
+     */
+    public static final class Entry {
+        /** When the submission was accepted */
+        public final Instant submittedAt;
+        /** TM task ID, may be empty */
+        public final String taskId;
+        /** Mapper OSM username */
+        public final String mapper;
+        /** Validated date or date range label */
+        public final String date;
+        /** "Validated" or "Rejected" */
+        public final String status;
+        /** Validator OSM username */
+        public final String validator;
+        /** Server log ID, or -1 if unknown */
+        public final int logId;
+        /** Building count submitted */
+        public final int totalBuildings;
+
+        /**
+         * Create an entry.
+         *
+         * @param submittedAt when the submission was accepted
+         * @param taskId TM task ID, may be empty
+         * @param mapper mapper OSM username
+         * @param date validated date or date range label
+         * @param status validation status
+         * @param validator validator OSM username
+         * @param logId server log ID, or -1 if unknown
+         * @param totalBuildings building count submitted
+         */
+        public Entry(Instant submittedAt, String taskId, String mapper, String date, String status,
+                String validator, int logId, int totalBuildings) {
+            this.submittedAt = submittedAt;
+            this.taskId = clean(taskId);
+            this.mapper = clean(mapper);
+            this.date = clean(date);
+            this.status = clean(status);
+            this.validator = clean(validator);
+            this.logId = logId;
+            this.totalBuildings = totalBuildings;
+        }
+
+        String toLine() {
+            return submittedAt + "\t" + taskId + "\t" + mapper + "\t" + date + "\t" + status + "\t"
+                + validator + "\t" + logId + "\t" + totalBuildings;
+        }
+
+        static Entry parse(String line) {
+            String[] f = line.split("\t", -1);
+            if (f.length != 8) {
+                return null;
+            }
+            try {
+                return new Entry(Instant.parse(f[0]), f[1], f[2], f[3], f[4], f[5],
+                    Integer.parseInt(f[6]), Integer.parseInt(f[7]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String clean(String value) {
+            // Tabs and line breaks would split the record
+            return value == null ? "" : value.trim().replaceAll("[\\t\\r\\n]+", " ");
+        }
+    }
+
+    /**
+     * Create a ledger backed by a file. The file is created on the first record.
+     *
+     * @param file the ledger file
+     */
+    ValidationLedger(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the ledger in the JOSM user data directory.
+     *
+     * @return the shared ledger
+     */
+    public static synchronized ValidationLedger getDefault() {
+        if (defaultLedger == null) {
+            File dir = new File(Config.getDirs().getUserDataDirectory(true), "DPWValidationTool");
+            defaultLedger = new ValidationLedger(new File(dir, "validation-ledger.tsv").toPath());
+        }
+        return defaultLedger;
+    }
+
+    /**
+     * Build the index key of a submission. Usernames are matched case-insensitively,
+     * like the panel's authorization checks.
+     */
+    static String key(String taskId, String mapper, String date) {
+        return Entry.clean(taskId) + "\t" + Entry.clean(mapper).toLowerCase(Locale.ROOT) + "\t" + Entry.clean(date);
+    }
+
+    /**
+     * Find the latest submission for a task, mapper and date.
+     *
+     * @param taskId TM task ID, may be empty
+     * @param mapper mapper OSM username
+     * @param date validated date or date range label
+     * @return the entry, or null if nothing was submitted for it
+     */
+    public synchronized Entry find(String taskId, String mapper, String date) {
+        load();
+        return index.get(key(taskId, mapper, date));
+    }
+
+    /**
+     * Append a submission to the ledger.
+     *
+     * @param entry the submission
+     * @throws IOException if the file cannot be written; the entry is then still indexed for this session
+     */
+    public synchronized void record(Entry entry) throws IOException {
+        load();
+        entries.add(entry);
+        index.put(key(entry.taskId, entry.mapper, entry.date), entry);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        boolean fresh = !Files.exists(file);
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (fresh) {
+                w.write(HEADER);
+                w.newLine();
+            }
+            w.write(entry.toLine());
+            w.newLine();
+        }
+    }
+
+    /**
+     * Get all submissions in the order they were recorded.
+     *
+     * @return unmodifiable copy of the entries
+     */
+    public synchronized List<Entry> getEntries() {
+        load();
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    private void load() {
+        if (entries != null) {
+            return;
+        }
+        entries = new ArrayList<>();
+        index = new HashMap<>();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            int skipped = 0;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Entry entry = Entry.parse(line);
+                if (entry == null) {
+                    skipped++;
+                    continue;
+                }
+                entries.add(entry);
+                index.put(key(entry.taskId, entry.mapper, entry.date), entry);
+            }
+            if (skipped > 0) {
+                Logging.warn("DPWValidationTool: Skipped " + skipped + " unreadable lines in " + file);
+            }
+        } catch (IOException e) {
+            Logging.warn("DPWValidationTool: Could not read validation ledger " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -5,14 +5,14 @@ import org.openstreetmap.josm.data.UserIdentityManager;
 import org.openstreetmap.josm.data.osm.DataSet;
 import org.openstreetmap.josm.data.osm.OsmPrimitive;
 import org.openstreetmap.josm.data.osm.User;
-import org.openstreetmap.josm.data.osm.search.SearchCompiler;
-import org.openstreetmap.josm.data.osm.search.SearchParseError;
+import org.openstreetmap.josm.data.osm.Way;
 import org.openstreetmap.josm.gui.layer.OsmDataLayer;
 import org.openstreetmap.josm.actions.SaveAction;
 import org.openstreetmap.josm.io.OsmWriterFactory;
 import org.openstreetmap.josm.io.OsmWriter;
 import org.openstreetmap.josm.gui.MainApplication;
 import org.openstreetmap.josm.gui.dialogs.ToggleDialog;
+import org.openstreetmap.josm.gui.util.GuiHelper;
 import org.openstreetmap.josm.tools.I18n;
 import org.openstreetmap.josm.tools.Logging;
 
@@ -34,11 +34,14 @@ import java.net.URLEncoder;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ValidationToolPanel extends ToggleDialog {
 
@@ -79,10 +82,14 @@ public class ValidationToolPanel extends ToggleDialog {
     private final Object settlementLock = new Object(); // Thread-safe lock for settlement map
     private JLabel authStatusLabel;
     private JLabel fetchStatusLabel;
+    private JLabel memoryStatusLabel; // v3.2.8 - [Validation] layer memory budget
     private JButton validateButton;
     private JButton refreshMapperListButton;
     private javax.swing.JComponent datePickerComponent;
+    private javax.swing.JComponent endDatePickerComponent; // v3.2.8 - optional end of date range
     private JButton isolateButton;
+    private JButton batchIsolateButton;
+    private JButton autoDetectButton;
     private volatile boolean isSending = false;
     private volatile boolean isFetchingMappers = false;
     
@@ -97,6 +104,10 @@ public class ValidationToolPanel extends ToggleDialog {
     private volatile int submissionRetryCount = 0;
     private static final int MAX_SUBMISSION_RETRIES = 3;
     private String pendingValidationStatus = null; // Store for retry
+    private ValidationLedger.Entry pendingLedgerEntry = null; // v3.2.8 - recorded in the ledger once accepted
+    private volatile String duplicateConfirmedKey = null; // v3.2.8 - ledger key the validator chose to resubmit
+    private static volatile boolean uploadExistsUnsupported = false; // v3.2.8 - server lacks HEAD /osm-uploads/{sha256}
+    private static volatile boolean deltaUploadSupported = false; // v3.2.8 - server advertised upload_mode=delta this session
     
     private JDialog sendingDialog;
     private boolean submittedThisSession = false;
@@ -104,6 +115,11 @@ public class ValidationToolPanel extends ToggleDialog {
     // v3.0 - Workflow state management
     private ValidationState currentState = ValidationState.IDLE;
     private OsmDataLayer isolatedLayer = null;
+    private IsolatedView isolatedView = null; // v3.2.8 - set instead of a cloned layer in view mode
+    private IsolatedCopy isolatedCopy = null; // v3.2.8 - source-to-clone mapping of the [Validation] layer
+    private volatile SpatialBounds taskArea = null; // v3.2.8 - TM task polygon of the current task, if fetched
+    private volatile LiveQA liveQA = null; // v3.2.8 - keeps auto-detected counts current while editing
+    private QAEngine.Report liveQAReport = null; // v3.2.8 - last QA results applied to the counters (EDT only)
     private String lastValidationStatus = null; // "Validated" or "Rejected"
     
     // v3.0.1 - Cloud upload integration
@@ -130,7 +146,9 @@ public class ValidationToolPanel extends ToggleDialog {
         super(I18n.tr("DPW Validation Tool v" + UpdateChecker.CURRENT_VERSION), "validator", I18n.tr("Open DPW Validation Tool"), null, 400);
         try {
             Logging.info("DPWValidationTool: constructing ValidationToolPanel v" + UpdateChecker.CURRENT_VERSION);
+            long start = System.nanoTime();
             setupUI();
+            // v3.2.8 - the mapper index scan runs on the worker, the user fetch below on the network pool
             updatePanelData();
             
             // v3.1.0-BETA: Setup remote control detection listener
@@ -142,7 +160,7 @@ public class ValidationToolPanel extends ToggleDialog {
             }
             
             // Kick off an initial authorized-mapper fetch in background
-            new Thread(() -> {
+            NetworkExecutor.execute(() -> {
                 try {
                     setFetchingMappers(true);
                     fetchAuthorizedMappers();
@@ -157,7 +175,8 @@ public class ValidationToolPanel extends ToggleDialog {
                 } finally {
                     setFetchingMappers(false);
                 }
-            }).start();
+            });
+            Metrics.PANEL_BUILD.recordSince(start);
             Logging.info("DPWValidationTool: ValidationToolPanel v3.1.0-BETA constructed");
         } catch (Throwable t) {
             Logging.error(t);
@@ -284,7 +303,7 @@ public class ValidationToolPanel extends ToggleDialog {
         // Wire refresh button action
         refreshMapperListButton.addActionListener(e -> {
             setFetchingMappers(true);
-            new Thread(() -> {
+            NetworkExecutor.execute(() -> {
                 try {
                     fetchAuthorizedMappers();
                     SwingUtilities.invokeLater(() -> {
@@ -309,7 +328,7 @@ public class ValidationToolPanel extends ToggleDialog {
                 } finally {
                     setFetchingMappers(false);
                 }
-            }).start();
+            });
         });
     }
     
@@ -328,24 +347,15 @@ public class ValidationToolPanel extends ToggleDialog {
         JPanel dateIsolatePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
         
         // Initialize date picker component
-        try {
-            org.jdatepicker.impl.SqlDateModel model = new org.jdatepicker.impl.SqlDateModel();
-            java.util.Properties p = new java.util.Properties();
-            org.jdatepicker.impl.JDatePanelImpl datePanel = 
-                new org.jdatepicker.impl.JDatePanelImpl(model, p);
-            org.jdatepicker.impl.JDatePickerImpl picker = 
-                new org.jdatepicker.impl.JDatePickerImpl(datePanel, 
-                    new org.jdatepicker.impl.DateComponentFormatter());
-            datePickerComponent = picker;
-        } catch (Throwable t) {
-            datePickerComponent = new JTextField(10);
-        }
-        
-        if (datePickerComponent instanceof JComponent) {
-            ((JComponent) datePickerComponent).setPreferredSize(new Dimension(130, 24));
-        }
+        datePickerComponent = createDatePicker();
         dateIsolatePanel.add(datePickerComponent);
         
+        // v3.2.8 - Optional end date for isolating a range of days
+        endDatePickerComponent = createDatePicker();
+        endDatePickerComponent.setToolTipText("Optional end date - leave empty to isolate a single day");
+        dateIsolatePanel.add(new JLabel("to"));
+        dateIsolatePanel.add(endDatePickerComponent);
+        
         // Isolate button
         isolateButton = new JButton("🔍 Isolate Work");
         isolateButton.setToolTipText("<html><b>Isolate mapper's buildings</b><br>" +
@@ -354,6 +364,13 @@ public class ValidationToolPanel extends ToggleDialog {
         isolateButton.setFont(isolateButton.getFont().deriveFont(Font.BOLD));
         dateIsolatePanel.add(isolateButton);
         
+        // v3.2.8 - Batch isolation of every mapper active on the selected date
+        batchIsolateButton = new JButton("👥 All Mappers");
+        batchIsolateButton.setToolTipText("<html><b>Isolate every mapper's work for the selected date</b><br>" +
+            "One [Validation] layer or .osm export per mapper</html>");
+        batchIsolateButton.setPreferredSize(new Dimension(130, 26));
+        dateIsolatePanel.add(batchIsolateButton);
+        
         gbc.gridx = 1;
         gbc.gridwidth = 3;
         gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -362,6 +379,25 @@ public class ValidationToolPanel extends ToggleDialog {
         gbc.gridy++;
     }
     
+    /**
+     * Create a date picker, falling back to a plain text field if JDatePicker is unavailable.
+     */
+    private JComponent createDatePicker() {
+        JComponent component;
+        try {
+            org.jdatepicker.impl.SqlDateModel model = new org.jdatepicker.impl.SqlDateModel();
+            java.util.Properties p = new java.util.Properties();
+            org.jdatepicker.impl.JDatePanelImpl datePanel = 
+                new org.jdatepicker.impl.JDatePanelImpl(model, p);
+            component = new org.jdatepicker.impl.JDatePickerImpl(datePanel, 
+                    new org.jdatepicker.impl.DateComponentFormatter());
+        } catch (Throwable t) {
+            component = new JTextField(10);
+        }
+        component.setPreferredSize(new Dimension(130, 24));
+        return component;
+    }
+    
     /**
      * Setup total buildings field.
      */
@@ -392,6 +428,19 @@ public class ValidationToolPanel extends ToggleDialog {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         panel.add(new JSeparator(), gbc);
         gbc.gridy++;
+        
+        // v3.2.8 - Automatic QA checks feeding the error counters
+        autoDetectButton = new JButton("🔎 Auto-Detect Errors");
+        autoDetectButton.setToolTipText("<html><b>Run automatic QA checks on the isolated buildings</b><br>" +
+            "Fills in overlapping, inside-building, highway-crossing and improperly-drawn counts<br>" +
+            "and selects the offending buildings</html>");
+        autoDetectButton.addActionListener(e -> runAutoDetect());
+        gbc.gridx = 0;
+        gbc.gridwidth = 3;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.anchor = GridBagConstraints.WEST;
+        panel.add(autoDetectButton, gbc);
+        gbc.gridy++;
 
         // Add all error rows
         for (int i = 0; i < errorTypes.length; i++) {
@@ -458,6 +507,14 @@ public class ValidationToolPanel extends ToggleDialog {
         authStatusLabel.setFont(authStatusLabel.getFont().deriveFont(12f));
         panel.add(authStatusLabel, gbc);
         gbc.gridy++;
+        
+        // v3.2.8 - Memory status label, shown once layers have been measured
+        memoryStatusLabel = new JLabel();
+        memoryStatusLabel.setOpaque(true);
+        memoryStatusLabel.setFont(memoryStatusLabel.getFont().deriveFont(11f));
+        memoryStatusLabel.setVisible(false);
+        panel.add(memoryStatusLabel, gbc);
+        gbc.gridy++;
     }
     
     /**
@@ -547,11 +604,14 @@ public class ValidationToolPanel extends ToggleDialog {
         
         // Wire isolate button action listener
         setupIsolateButtonListener();
+        batchIsolateButton.addActionListener(e -> performBatchIsolation());
         
         // Disable submit buttons until Task ID is provided
         validateButton.setEnabled(false);
         taskIdField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
             private void update() {
+                // v3.2.8 - The task polygon belongs to the previous task ID
+                taskArea = null;
                 updateSubmitButtonsEnabled();
                 // Fetch mapper info when Task ID is manually entered
                 fetchMapperFromTaskId();
@@ -641,6 +701,138 @@ public class ValidationToolPanel extends ToggleDialog {
         }
     }
     
+    /**
+     * Check the date and the current user's validator role before isolating work.
+     * Shows the reason to the user when isolation is not allowed.
+     * 
+     * @param dateString the selected filter date
+     * @return true if isolation may proceed
+     */
+    private boolean checkIsolationAllowed(String dateString) {
+        // CRITICAL: Date validation - must be set before isolation
+        if (dateString == null || dateString.isEmpty() || dateString.equals("YYYY-MM-DD")) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, 
+                "Please select a date before isolating work.\n\n" +
+                "Date selection is mandatory to ensure proper data filtering.",
+                "Date Required", 
+                JOptionPane.ERROR_MESSAGE));
+            return false;
+        }
+        
+        // CRITICAL: Authorization check - current user must be authorized
+        String currentValidator = getCurrentValidator();
+        if (currentValidator == null || currentValidator.isEmpty()) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                "Cannot isolate work: You are not authenticated with OpenStreetMap.\n\n" +
+                "Please authenticate with OSM in JOSM:\n" +
+                "1. Go to Edit → Preferences → Connection Settings\n" +
+                "2. Click 'Authorize now' to authenticate with OSM\n" +
+                "3. Complete the OAuth authorization process",
+                "Authentication Required",
+                JOptionPane.ERROR_MESSAGE));
+            return false;
+        }
+        
+        // Check if current user has Validator role (only validators can perform validation)
+        synchronized (mapperLock) {
+            if (cachedUserList != null && !cachedUserList.isEmpty()) {
+                final String validatorToCheck = currentValidator;
+                
+                // Find current user in cached user list
+                UserInfo currentUser = cachedUserList.stream()
+                    .filter(user -> user.osmUsername.equalsIgnoreCase(validatorToCheck))
+                    .findFirst()
+                    .orElse(null);
+                
+                if (currentUser == null) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                        "Access Denied: You are not registered in the DPW system.\n\n" +
+                        "Current user: " + validatorToCheck + "\n\n" +
+                        "Please contact your project manager to request access.",
+                        "User Not Found",
+                        JOptionPane.ERROR_MESSAGE));
+                    return false;
+                }
+                
+                // Check if user has Validator role
+                if (!"Validator".equalsIgnoreCase(currentUser.role)) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                        "Access Denied: Only validators can perform validation tasks.\n\n" +
+                        "Current user: " + validatorToCheck + "\n" +
+                        "Your role: " + currentUser.role + "\n\n" +
+                        "Please contact your project manager to request validator access.\n\n" +
+                        "Note: Only users with 'Validator' role can isolate and validate data.",
+                        "Validator Role Required",
+                        JOptionPane.ERROR_MESSAGE));
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * v3.2.8 - Resolve the selected date range, showing an error if the end date is invalid.
+     * Must not be called on the EDT.
+     *
+     * @param dateString the start date as YYYY-MM-DD
+     * @return {from, to} (equal when no end date is picked), or null if the range is invalid
+     */
+    private java.time.LocalDate[] getSelectedDateRange(String dateString) {
+        java.time.LocalDate from = java.time.LocalDate.parse(dateString);
+        String endString = getEndDateStringFromPicker();
+        if (endString == null) {
+            return new java.time.LocalDate[] {from, from};
+        }
+        java.time.LocalDate to;
+        try {
+            to = java.time.LocalDate.parse(endString);
+        } catch (java.time.format.DateTimeParseException ex) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                "End date '" + endString + "' is not a valid date (expected YYYY-MM-DD).",
+                "Invalid Date", JOptionPane.ERROR_MESSAGE));
+            return null;
+        }
+        if (to.isBefore(from)) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                "End date " + endString + " is before start date " + dateString + ".",
+                "Invalid Date Range", JOptionPane.ERROR_MESSAGE));
+            return null;
+        }
+        return new java.time.LocalDate[] {from, to};
+    }
+    
+    /**
+     * v3.2.8 - Get the area isolation is limited to, if task-area isolation is enabled.
+     * Callers check {@link #checkIsolationAreaAvailable()} first.
+     *
+     * @return the TM task polygon, or null to isolate across the whole download
+     */
+    private SpatialBounds getIsolationArea() {
+        return PluginSettings.isIsolateTaskAreaEnabled() ? taskArea : null;
+    }
+    
+    /**
+     * v3.2.8 - Check that the TM task polygon of the current task ID is loaded when
+     * isolation is limited to the task area. Clipping to anything else would silently
+     * change which buildings get validated, so isolation is refused instead.
+     *
+     * @return true if isolation may go ahead
+     */
+    private boolean checkIsolationAreaAvailable() {
+        if (!PluginSettings.isIsolateTaskAreaEnabled() || taskArea != null) {
+            return true;
+        }
+        Logging.warn("DPWValidationTool: Isolation limited to the task area, but no task geometry is loaded");
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+            "Isolation is limited to the task area, but no Tasking Manager task geometry\n" +
+            "is loaded for the current Task ID.\n\n" +
+            "Load the task from the Tasking Manager, or turn off\n" +
+            "'Limit isolation to the task area' in the settings.",
+            "No Task Area", JOptionPane.WARNING_MESSAGE));
+        return false;
+    }
+    
     /**
      * Setup the isolate button action listener.
      * Handles mapper work isolation into dedicated validation layer.
@@ -650,194 +842,120 @@ public class ValidationToolPanel extends ToggleDialog {
             isolateButton.setEnabled(false);
             new Thread(() -> {
                 try {
-                    // CRITICAL: Date validation - must be set before isolation
                     String dateString = getDateStringFromPicker();
-                    if (dateString == null || dateString.isEmpty() || dateString.equals("YYYY-MM-DD")) {
-                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, 
-                            "Please select a date before isolating work.\n\n" +
-                            "Date selection is mandatory to ensure proper data filtering.",
-                            "Date Required", 
-                            JOptionPane.ERROR_MESSAGE));
+                    if (!checkIsolationAllowed(dateString) || !checkIsolationAreaAvailable()) {
                         return;
                     }
-                    
-                    // CRITICAL: Authorization check - current user must be authorized
-                    String currentValidator = getCurrentValidator();
-                    if (currentValidator == null || currentValidator.isEmpty()) {
-                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
-                            "Cannot isolate work: You are not authenticated with OpenStreetMap.\n\n" +
-                            "Please authenticate with OSM in JOSM:\n" +
-                            "1. Go to Edit → Preferences → Connection Settings\n" +
-                            "2. Click 'Authorize now' to authenticate with OSM\n" +
-                            "3. Complete the OAuth authorization process",
-                            "Authentication Required",
-                            JOptionPane.ERROR_MESSAGE));
+                    java.time.LocalDate[] range = getSelectedDateRange(dateString);
+                    if (range == null) {
                         return;
                     }
                     
-                    // Check if current user has Validator role (only validators can perform validation)
-                    synchronized (mapperLock) {
-                        if (cachedUserList != null && !cachedUserList.isEmpty()) {
-                            final String validatorToCheck = currentValidator;
-                            
-                            // Find current user in cached user list
-                            UserInfo currentUser = cachedUserList.stream()
-                                .filter(user -> user.osmUsername.equalsIgnoreCase(validatorToCheck))
-                                .findFirst()
-                                .orElse(null);
-                            
-                            if (currentUser == null) {
-                                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
-                                    "Access Denied: You are not registered in the DPW system.\n\n" +
-                                    "Current user: " + validatorToCheck + "\n\n" +
-                                    "Please contact your project manager to request access.",
-                                    "User Not Found",
-                                    JOptionPane.ERROR_MESSAGE));
-                                return;
-                            }
-                            
-                            // Check if user has Validator role
-                            if (!"Validator".equalsIgnoreCase(currentUser.role)) {
-                                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
-                                    "Access Denied: Only validators can perform validation tasks.\n\n" +
-                                    "Current user: " + validatorToCheck + "\n" +
-                                    "Your role: " + currentUser.role + "\n\n" +
-                                    "Please contact your project manager to request validator access.\n\n" +
-                                    "Note: Only users with 'Validator' role can isolate and validate data.",
-                                    "Validator Role Required",
-                                    JOptionPane.ERROR_MESSAGE));
-                                return;
-                            }
-                        }
-                    }
-                    
                     String mapper = (String) mapperUsernameComboBox.getSelectedItem();
                     if (mapper == null) mapper = "";
-                    String search = "user:'" + mapper + "' timestamp:" + dateString;
-                    // create and apply search to current active layer
                     DataSet editDataSet = MainApplication.getLayerManager().getEditDataSet();
                     if (editDataSet == null) {
                         SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "No active editing layer found.", "No Layer", JOptionPane.ERROR_MESSAGE));
                         return;
                     }
-                    SearchCompiler.Match match;
-                    try {
-                        match = SearchCompiler.compile(search);
-                    } catch (SearchParseError spe) {
-                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Invalid search expression: " + spe.getMessage(), "Search Error", JOptionPane.ERROR_MESSAGE));
+                    // v3.2.8 - an existing [Validation] layer that is still open can be updated in place
+                    IsolatedCopy copy = isolatedCopy;
+                    OsmDataLayer copyLayer = isolatedLayer;
+                    boolean copyLive = copy != null && copyLayer != null && isolatedView == null
+                        && copyLayer.getDataSet() == copy.getTarget()
+                        && currentState == ValidationState.ISOLATED
+                        && MainApplication.getLayerManager().containsLayer(copyLayer);
+                    // Validator edits are never dropped by an in-place update; clone afresh instead
+                    boolean copyEdited = copyLive && copyLayer.isModified();
+                    // Re-isolating while the [Validation] layer is active means re-isolating from its source
+                    DataSet sourceDataSet = copyLive && editDataSet == copy.getTarget() ? copy.getSource() : editDataSet;
+                    
+                    // v3.2.8 - collect the mapper's buildings for the date range from the resident mapper/day index
+                    long isolateStart = System.nanoTime();
+                    JfrEvents.Isolate isolateEvent = JfrEvents.beginIsolate();
+                    MapperDayIndex index = MapperDayIndex.forDataSet(sourceDataSet);
+                    SpatialBounds area = getIsolationArea();
+                    Set<OsmPrimitive> selected = new HashSet<>(index.getBuildings(mapper, range[0], range[1], area));
+                    if (selected.isEmpty()) {
+                        String where = area != null ? " within the " + area.getDescription() : "";
+                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "No building objects found for selected mapper" + where + ".", "No Matches", JOptionPane.INFORMATION_MESSAGE));
                         return;
                     }
-                    // collect building primitives authored by the selected mapper (and matching date where possible)
-                    Set<OsmPrimitive> selected = new HashSet<>();
-                    for (OsmPrimitive p : editDataSet.getPrimitives(pr -> pr.hasKey("building"))) {
-                        try {
-                            User u = p.getUser();
-                            if (u == null) continue;
-                            if (!u.getName().equals(mapper)) continue;
-                            
-                            // Direct timestamp comparison using Java time API
-                            if (dateString != null && !dateString.isEmpty()) {
-                                // Skip if primitive has no timestamp
-                                if (p.isTimestampEmpty()) {
-                                    Logging.debug("DPWValidationTool: primitive " + p.getId() + " has no timestamp, skipping");
-                                    continue;
-                                }
-                                
-                                try {
-                                    // Parse the selected date (YYYY-MM-DD)
-                                    java.time.LocalDate filterDate = java.time.LocalDate.parse(dateString);
-                                    
-                                    // Get primitive's timestamp as Instant
-                                    java.time.Instant timestamp = p.getInstant();
-                                    if (timestamp == null) {
-                                        Logging.debug("DPWValidationTool: primitive " + p.getId() + " has null instant timestamp");
-                                        continue;
-                                    }
-                                    
-                                    // Convert to LocalDate for date-only comparison (ignore time)
-                                    java.time.LocalDate primitiveDate = timestamp.atZone(java.time.ZoneOffset.UTC).toLocalDate();
-                                    
-                                    // Compare dates (ignoring time portion)
-                                    if (!primitiveDate.equals(filterDate)) {
-                                        Logging.debug("DPWValidationTool: primitive " + p.getId() + " date " + primitiveDate + 
-                                                    " doesn't match filter " + filterDate);
-                                        continue; // Skip if dates don't match
-                                    }
-                                    
-                                    Logging.debug("DPWValidationTool: primitive " + p.getId() + " passed date filter: " + primitiveDate);
-                                } catch (Exception ex) {
-                                    Logging.warn("DPWValidationTool: error checking timestamp for primitive " + p.getId() + 
-                                               ": " + ex.getMessage());
-                                    
-                                    // Fall back to SearchCompiler as a backup method
-                                    try {
-                                        if (!p.evaluateCondition(match)) {
-                                            continue; // SearchCompiler says no match
-                                        }
-                                    } catch (Exception searchEx) {
-                                        // Both timestamp methods failed - continue with next primitive
-                                        Logging.warn("DPWValidationTool: search filter also failed for primitive " + p.getId());
-                                        continue;
-                                    }
-                                }
+                    String rangeLabel = dateRangeLabel(range[0].toString(), range[1].toString());
+                    Logging.info("DPWValidationTool: preparing to isolate work for mapper='" + mapper + "', date='" + rangeLabel + "', selectedCount=" + selected.size());
+                    String layerName = ValidationConstants.VALIDATION_LAYER_PREFIX + mapper + " - " + rangeLabel;
+                    // Auto-detected counts belong to the previous isolation
+                    stopLiveQA();
+                    
+                    if (PluginSettings.isIsolatedViewEnabled()) {
+                        // v3.2.8 - view mode: filter the source layer, clone only at export time
+                        IsolatedView view = isolatedView;
+                        final boolean incremental = view != null && view.getSourceLayer().getDataSet() == sourceDataSet
+                            && MainApplication.getLayerManager().containsLayer(view.getSourceLayer());
+                        if (incremental) {
+                            // Only toggle primitives whose visibility changes
+                            view.update(selected);
+                        } else {
+                            // The selection comes from sourceDataSet, which is not the edit layer's
+                            // when re-isolating from an active [Validation] layer
+                            OsmDataLayer sourceLayer = findLayerOf(sourceDataSet);
+                            if (sourceLayer == null) {
+                                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                                    "The source data layer of the isolated buildings is no longer open.",
+                                    "No Layer", JOptionPane.ERROR_MESSAGE));
+                                return;
                             }
-                            
-                            // If we get here, the primitive passed both mapper and date filters
-                            selected.add(p);
-                        } catch (Exception ex) {
-                            Logging.debug("DPWValidationTool: Non-critical error processing primitive: " + ex.getMessage());
+                            clearIsolatedView();
+                            view = IsolatedView.apply(sourceLayer, selected);
+                            isolatedView = view;
                         }
+                        isolatedLayer = view.getSourceLayer();
+                        isolatedCopy = null;
+                        currentState = ValidationState.ISOLATED;
+                        
+                        final String sourceName = view.getSourceLayer().getName();
+                        final int count = selected.size();
+                        Metrics.ISOLATE.recordSince(isolateStart);
+                        JfrEvents.endIsolate(isolateEvent, count, "view");
+                        SwingUtilities.invokeLater(() -> {
+                            updateWorkflowState();
+                            JOptionPane.showMessageDialog(null, (incremental ? "Isolated view updated on layer '" : "Isolated view applied to layer '")
+                                + sourceName + "'\n" +
+                                count + " buildings shown; other data hidden until the session is reset.",
+                                "Isolated", JOptionPane.INFORMATION_MESSAGE);
+                        });
+                        return;
                     }
-                    if (selected.isEmpty()) {
-                        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "No building objects found for selected mapper.", "No Matches", JOptionPane.INFORMATION_MESSAGE));
+                    
+                    // Drop any previous isolated view before isolating again
+                    clearIsolatedView();
+                    
+                    if (copyLive && !copyEdited && copy.getSource() == sourceDataSet && copy.canUpdate(selected)) {
+                        // v3.2.8 - incremental re-isolation: diff against the open [Validation] layer
+                        IsolatedCopy.Diff[] diff = new IsolatedCopy.Diff[1];
+                        GuiHelper.runInEDTAndWait(() -> {
+                            diff[0] = copy.update(selected);
+                            copyLayer.setName(layerName);
+                            MainApplication.getLayerManager().setActiveLayer(copyLayer);
+                        });
+                        Logging.info("DPWValidationTool: Incrementally re-isolated '" + layerName + "': +" 
+                            + diff[0].added + " / -" + diff[0].removed);
+                        Metrics.ISOLATE.recordSince(isolateStart);
+                        JfrEvents.endIsolate(isolateEvent, selected.size(), "incremental");
+                        
+                        SwingUtilities.invokeLater(() -> {
+                            updateWorkflowState();
+                            JOptionPane.showMessageDialog(null, "Isolated layer updated: " + layerName + "\n" +
+                                diff[0].added + " buildings added, " + diff[0].removed + " removed.",
+                                "Isolated", JOptionPane.INFORMATION_MESSAGE);
+                        });
                         return;
                     }
+                    
                     // create new dataset and clone primitives into it to avoid sharing primitives
-                    Logging.info("DPWValidationTool: preparing to create isolated layer for mapper='" + mapper + "', date='" + dateString + "', selectedCount=" + selected.size());
-                    DataSet newDs = new DataSet();
-                    // split selected primitives into nodes/ways/relations for clonePrimitives
-                    java.util.List<org.openstreetmap.josm.data.osm.Node> nodes = new java.util.ArrayList<>();
-                    java.util.List<org.openstreetmap.josm.data.osm.Way> ways = new java.util.ArrayList<>();
-                    java.util.List<org.openstreetmap.josm.data.osm.Relation> relations = new java.util.ArrayList<>();
-                    for (OsmPrimitive p : selected) {
-                        if (p instanceof org.openstreetmap.josm.data.osm.Node) nodes.add((org.openstreetmap.josm.data.osm.Node) p);
-                        else if (p instanceof org.openstreetmap.josm.data.osm.Way) ways.add((org.openstreetmap.josm.data.osm.Way) p);
-                        else if (p instanceof org.openstreetmap.josm.data.osm.Relation) relations.add((org.openstreetmap.josm.data.osm.Relation) p);
-                    }
-                    // Ensure we include all nodes referenced by selected ways (they might not be in selected set)
-                    java.util.Set<Long> existingNodeIds = new java.util.HashSet<>();
-                    for (org.openstreetmap.josm.data.osm.Node n : nodes) {
-                        existingNodeIds.add(n.getUniqueId());
-                    }
-                    for (org.openstreetmap.josm.data.osm.Way w : ways) {
-                        try {
-                            for (org.openstreetmap.josm.data.osm.Node n : w.getNodes()) {
-                                if (n == null) continue;
-                                long uid = n.getUniqueId();
-                                if (!existingNodeIds.contains(uid)) {
-                                    nodes.add(n);
-                                    existingNodeIds.add(uid);
-                                }
-                            }
-                        } catch (Exception ex) {
-                            Logging.debug("DPWValidationTool: Non-critical error processing way nodes: " + ex.getMessage());
-                        }
-                    }
-                    // Log IDs and dataset presence for diagnostics before cloning
-                    StringBuilder ids = new StringBuilder();
-                    for (OsmPrimitive p : selected) {
-                        try {
-                            long id = p.getId();
-                            boolean hasDs = p.getDataSet() != null;
-                            ids.append(String.format("[type=%s id=%d dataset=%s] ", p.getClass().getSimpleName(), id, hasDs ? "yes" : "no"));
-                        } catch (Exception ex) {
-                            Logging.debug("DPWValidationTool: Error logging primitive info: " + ex.getMessage());
-                        }
-                    }
-                    Logging.info("DPWValidationTool: primitives before clone: " + ids.toString());
+                    IsolatedCopy newCopy;
                     try {
-                        java.util.Map<org.openstreetmap.josm.data.osm.OsmPrimitive, org.openstreetmap.josm.data.osm.OsmPrimitive> mapping = newDs.clonePrimitives(nodes, ways, relations);
-                        Logging.info("DPWValidationTool: clonePrimitives mapping size=" + (mapping == null ? 0 : mapping.size()) + ", newDs size=" + newDs.getPrimitives(pr -> true).size());
+                        newCopy = IsolatedCopy.create(sourceDataSet, selected);
                     } catch (org.openstreetmap.josm.data.osm.DataIntegrityProblemException dip) {
                         // Specific dataset integrity problem: log and show detailed message to help diagnosis
                         Logging.error("DPWValidationTool: DataIntegrityProblemException while cloning primitives: " + dip.getMessage());
@@ -861,14 +979,17 @@ public class ValidationToolPanel extends ToggleDialog {
                         SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Failed to clone primitives into new dataset: " + ex.getMessage(), "Clone Error", JOptionPane.ERROR_MESSAGE));
                         return;
                     }
-                    String layerName = "[Validation] " + mapper + " - " + dateString;
-                    OsmDataLayer newLayer = new OsmDataLayer(newDs, layerName, null);
+                    OsmDataLayer newLayer = new OsmDataLayer(newCopy.getTarget(), layerName, null);
                     MainApplication.getLayerManager().addLayer(newLayer);
                     MainApplication.getLayerManager().setActiveLayer(newLayer);
                     
                     // v3.0 - Track the isolated layer and update state
                     isolatedLayer = newLayer;
+                    isolatedCopy = newCopy;
                     currentState = ValidationState.ISOLATED;
+                    Metrics.ISOLATE.recordSince(isolateStart);
+                    JfrEvents.endIsolate(isolateEvent, selected.size(), "copy");
+                    checkLayerMemory(Collections.singletonList(newLayer));
                     
                     SwingUtilities.invokeLater(() -> {
                         updateWorkflowState();
@@ -884,6 +1005,307 @@ public class ValidationToolPanel extends ToggleDialog {
         });
     }
 
+    /**
+     * Isolate the work of every mapper active on the selected date or date range.
+     * v3.2.8 - Partitions come from the mapper/day index in one pass and are cloned in
+     * parallel; the result is one [Validation] layer or one .osm export per mapper.
+     */
+    private void performBatchIsolation() {
+        String dateString = getDateStringFromPicker();
+        String endString = getEndDateStringFromPicker();
+        String[] options = {"Create Layers", "Export to Folder...", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(null,
+            "Isolate the work of every mapper active on " + dateString 
+                + (endString != null ? " to " + endString : "") + "?\n\n" +
+            "Create Layers: one [Validation] layer per mapper\n" +
+            "Export to Folder: one .osm file per mapper, no layers",
+            "Batch Isolation",
+            JOptionPane.YES_NO_CANCEL_OPTION,
+            JOptionPane.QUESTION_MESSAGE,
+            null, options, options[0]);
+        if (choice != 0 && choice != 1) {
+            return;
+        }
+        
+        java.io.File exportDir = null;
+        if (choice == 1) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export Folder for Batch Isolation");
+            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (chooser.showSaveDialog(MainApplication.getMainFrame()) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            exportDir = chooser.getSelectedFile();
+        }
+        
+        final java.io.File targetDir = exportDir;
+        isolateButton.setEnabled(false);
+        batchIsolateButton.setEnabled(false);
+        new Thread(() -> {
+            try {
+                if (!checkIsolationAllowed(dateString) || !checkIsolationAreaAvailable()) {
+                    return;
+                }
+                java.time.LocalDate[] range = getSelectedDateRange(dateString);
+                if (range == null) {
+                    return;
+                }
+                String rangeLabel = dateRangeLabel(range[0].toString(), range[1].toString());
+                DataSet source = MainApplication.getLayerManager().getEditDataSet();
+                IsolatedCopy copy = isolatedCopy;
+                if (copy != null && source == copy.getTarget()) {
+                    source = copy.getSource();
+                }
+                if (source == null) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "No active editing layer found.", "No Layer", JOptionPane.ERROR_MESSAGE));
+                    return;
+                }
+                
+                Map<String, List<OsmPrimitive>> partitions = 
+                    MapperDayIndex.forDataSet(source).getBuildingsByMapper(range[0], range[1], getIsolationArea());
+                if (partitions.isEmpty()) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, 
+                        "No building objects found for any mapper on " + rangeLabel + ".", 
+                        "No Matches", JOptionPane.INFORMATION_MESSAGE));
+                    return;
+                }
+                
+                List<BatchIsolation.Result> results = BatchIsolation.isolate(source, partitions);
+                if (targetDir != null) {
+                    results = BatchIsolation.export(results, targetDir, rangeLabel);
+                } else {
+                    // Add all layers in one EDT batch
+                    final List<BatchIsolation.Result> toAdd = results;
+                    final List<OsmDataLayer> batchLayers = new ArrayList<>();
+                    GuiHelper.runInEDTAndWait(() -> {
+                        for (BatchIsolation.Result r : toAdd) {
+                            if (r.isSuccess()) {
+                                OsmDataLayer layer = new OsmDataLayer(r.copy.getTarget(), 
+                                    ValidationConstants.VALIDATION_LAYER_PREFIX + r.mapper + " - " + rangeLabel, null);
+                                MainApplication.getLayerManager().addLayer(layer);
+                                batchLayers.add(layer);
+                            }
+                        }
+                    });
+                    // v3.2.8 - never close the layers of this batch, only older ones (or warn)
+                    if (isolatedLayer != null) {
+                        batchLayers.add(isolatedLayer);
+                    }
+                    checkLayerMemory(batchLayers);
+                }
+                
+                StringBuilder summary = new StringBuilder();
+                int ok = 0;
+                for (BatchIsolation.Result r : results) {
+                    if (r.isSuccess()) {
+                        ok++;
+                        summary.append("✓ ").append(r.mapper).append(": ").append(r.buildings).append(" buildings\n");
+                    } else {
+                        summary.append("✗ ").append(r.mapper).append(": ").append(r.error).append("\n");
+                    }
+                }
+                String header = (targetDir != null 
+                    ? "Exported " + ok + " of " + results.size() + " mappers to:\n" + targetDir.getAbsolutePath()
+                    : "Created " + ok + " of " + results.size() + " validation layers") + "\n\n";
+                final String report = header + summary;
+                final int rows = Math.min(20, results.size() + 4);
+                SwingUtilities.invokeLater(() -> {
+                    JTextArea ta = new JTextArea(report);
+                    ta.setEditable(false);
+                    ta.setRows(rows);
+                    ta.setColumns(50);
+                    JOptionPane.showMessageDialog(null, new JScrollPane(ta), 
+                        "Batch Isolation Complete", JOptionPane.INFORMATION_MESSAGE);
+                });
+            } catch (Exception ex) {
+                Logging.error(ex);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Failed to batch-isolate work: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    isolateButton.setEnabled(true);
+                    batchIsolateButton.setEnabled(true);
+                });
+            }
+        }).start();
+    }
+
+    /**
+     * v3.2.8 - Run the automatic QA checks over the isolated buildings, pre-fill the
+     * error counters they feed and select the offenders. Runs in the background with a
+     * cancellable progress monitor.
+     */
+    private void runAutoDetect() {
+        final IsolatedView view = isolatedView;
+        final IsolatedCopy copy = isolatedCopy;
+        final OsmDataLayer layer = isolatedLayer;
+        if (currentState == ValidationState.IDLE || layer == null
+                || !MainApplication.getLayerManager().containsLayer(layer)) {
+            JOptionPane.showMessageDialog(this,
+                "Isolate a mapper's work first, then run auto-detection on it.",
+                "Nothing Isolated", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        autoDetectButton.setEnabled(false);
+        final AtomicBoolean cancel = new AtomicBoolean();
+        final ProgressMonitor monitor = new ProgressMonitor(this, "Running QA checks on isolated buildings...", null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        MainApplication.worker.execute(() -> {
+            try {
+                // Buildings come from the isolated layer, highways from the data they were isolated from
+                DataSet buildingData = layer.getDataSet();
+                DataSet highwayData = view != null ? buildingData
+                    : copy != null && copy.getTarget() == buildingData ? copy.getSource() : buildingData;
+                QAInput input;
+                java.util.concurrent.locks.Lock buildingLock = buildingData.getReadLock();
+                java.util.concurrent.locks.Lock highwayLock = highwayData.getReadLock();
+                buildingLock.lock();
+                if (highwayData != buildingData) highwayLock.lock();
+                try {
+                    List<Way> buildings = new ArrayList<>();
+                    Iterable<? extends OsmPrimitive> candidates = view != null ? view.getSelected() : buildingData.getWays();
+                    for (OsmPrimitive p : candidates) {
+                        if (p instanceof Way && p.hasKey("building") && p.isUsable()) {
+                            buildings.add((Way) p);
+                        }
+                    }
+                    List<Way> highways = new ArrayList<>();
+                    for (Way w : highwayData.getWays()) {
+                        if (w.hasKey("highway") && w.isUsable()) {
+                            highways.add(w);
+                        }
+                    }
+                    input = QAInput.of(buildings, highways);
+                } finally {
+                    if (highwayData != buildingData) highwayLock.unlock();
+                    buildingLock.unlock();
+                }
+                
+                QAEngine.Report report = QAEngine.withDefaultChecks().run(input, cancel, percent ->
+                    SwingUtilities.invokeLater(() -> {
+                        monitor.setProgress(percent);
+                        if (monitor.isCanceled()) {
+                            cancel.set(true);
+                        }
+                    }));
+                
+                SwingUtilities.invokeLater(() -> {
+                    monitor.close();
+                    if (report.cancelled) {
+                        JOptionPane.showMessageDialog(this, "Auto-detection was cancelled; error counts were not changed.",
+                            "Auto-Detection Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    StringBuilder message = new StringBuilder("Checked " + input.size() 
+                        + " buildings in " + report.elapsedMillis + " ms:\n\n");
+                    for (int type : report.getErrorTypes()) {
+                        errorCounts[type] = report.getIssues(type);
+                        errorCountLabels[type].setText(String.valueOf(errorCounts[type]));
+                    }
+                    startLiveQA(buildingData, report, view == null);
+                    for (QAEngine.CheckResult r : report.results) {
+                        message.append(String.format("  • %-28s %4d   (%d ms)%n", r.check.getName() + ":", r.issues, r.nanos / 1_000_000));
+                    }
+                    Set<Way> offenders = report.getOffenders();
+                    buildingData.setSelected(offenders);
+                    message.append("\n").append(offenders.size()).append(" offending buildings are now selected.\n")
+                        .append("Review them and adjust the counts with +/- if needed.");
+                    if (liveQA != null) {
+                        message.append("\nCounts follow your edits as buildings are fixed.");
+                    }
+                    if (previewExpanded) {
+                        updateValidationPreview();
+                    }
+                    JOptionPane.showMessageDialog(this, message.toString(),
+                        "Auto-Detection Complete", JOptionPane.INFORMATION_MESSAGE);
+                });
+            } catch (Exception ex) {
+                Logging.error(ex);
+                SwingUtilities.invokeLater(() -> {
+                    monitor.close();
+                    JOptionPane.showMessageDialog(this,
+                        "Auto-detection failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                });
+            } finally {
+                SwingUtilities.invokeLater(() -> autoDetectButton.setEnabled(true));
+            }
+        });
+    }
+
+    /**
+     * v3.2.8 - Keep the auto-detected counts current as the isolated buildings are edited.
+     * Later re-checks add their difference to the counters, so manual +/- adjustments stay.
+     */
+    private void startLiveQA(DataSet buildingData, QAEngine.Report report, boolean trackNewBuildings) {
+        stopLiveQA();
+        if (!PluginSettings.isLiveQAEnabled()) {
+            return;
+        }
+        liveQAReport = report;
+        liveQA = new LiveQA(buildingData, report, trackNewBuildings, updated -> {
+            QAEngine.Report previous = liveQAReport;
+            liveQAReport = updated;
+            if (previous == null) {
+                return;
+            }
+            for (int type : updated.getErrorTypes()) {
+                int delta = updated.getIssues(type) - previous.getIssues(type);
+                if (delta != 0) {
+                    errorCounts[type] = Math.max(0, errorCounts[type] + delta);
+                    errorCountLabels[type].setText(String.valueOf(errorCounts[type]));
+                }
+            }
+            if (previewExpanded) {
+                updateValidationPreview();
+            }
+        });
+    }
+
+    private void stopLiveQA() {
+        LiveQA live = liveQA;
+        if (live != null) {
+            liveQA = null;
+            live.stop();
+        }
+    }
+
+    /**
+     * v3.2.8 - Find the open data layer holding a DataSet.
+     *
+     * @return the layer, or null if none holds it
+     */
+    private static OsmDataLayer findLayerOf(DataSet dataSet) {
+        for (OsmDataLayer layer : MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class)) {
+            if (layer.getDataSet() == dataSet) {
+                return layer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * v3.2.8 - Measure the data layers after an isolation and keep the [Validation] layers
+     * within the memory budget, closing old ones when auto-evict is enabled. Call off the EDT.
+     *
+     * @param keep the layers just isolated, never closed
+     */
+    private void checkLayerMemory(Collection<OsmDataLayer> keep) {
+        LayerMemoryAccountant.Report report;
+        try {
+            report = LayerMemoryAccountant.getDefault().enforce(keep);
+        } catch (RuntimeException ex) {
+            Logging.warn("DPWValidationTool: Layer memory check failed: " + ex.getMessage());
+            return;
+        }
+        final String summary = report.getSummary();
+        final boolean over = report.isOverBudget();
+        SwingUtilities.invokeLater(() -> {
+            memoryStatusLabel.setText((over ? "⚠ " : "") + summary);
+            memoryStatusLabel.setBackground(over ? new Color(255, 243, 205) : new Color(240, 240, 240));
+            memoryStatusLabel.setForeground(over ? new Color(102, 60, 0) : new Color(90, 90, 90));
+            memoryStatusLabel.setVisible(true);
+        });
+    }
+
     private void addErrorRow(JPanel panel, GridBagConstraints gbc, String labelText, final int index) {
         gbc.gridx = 0;
         gbc.gridwidth = 1;
@@ -942,33 +1364,23 @@ public class ValidationToolPanel extends ToggleDialog {
             mapperUsernameComboBox.removeAllItems();
             return;
         }
-        int buildingCount = 0;
-        Set<String> userNames = new HashSet<>();
-        for (OsmPrimitive primitive : dataSet.getPrimitives(p -> true)) {
-            if (primitive.hasKey("building")) {
-                buildingCount++;
-            }
-            User user = primitive.getUser();
-            if (user != null && user.getName() != null && !user.getName().isEmpty()) {
-                userNames.add(user.getName());
-            }
-        }
         // Show overall building count by default, but if a mapper is selected, show mapper-specific buildings
         String selectedMapper = (String) mapperUsernameComboBox.getSelectedItem();
-        if (selectedMapper != null && !selectedMapper.isEmpty()) {
-            int mapperBuildings = countBuildingsForMapper(selectedMapper, dataSet);
-            totalBuildingsField.setText(String.valueOf(mapperBuildings));
-        } else {
-            totalBuildingsField.setText(String.valueOf(buildingCount));
-        }
-
-        // Populate mapper dropdown
-        mapperUsernameComboBox.removeAllItems();
-        List<String> sortedUsers = new ArrayList<>(userNames);
-        Collections.sort(sortedUsers);
-        for (String userName : sortedUsers) {
-            mapperUsernameComboBox.addItem(userName);
-        }
+        // v3.2.8 - building the index scans the whole DataSet, so do it off the EDT and fill the fields after
+        MainApplication.worker.execute(() -> {
+            MapperDayIndex index = MapperDayIndex.forDataSet(dataSet);
+            int count = selectedMapper != null && !selectedMapper.isEmpty()
+                ? index.countBuildings(selectedMapper) : index.getTotalBuildings();
+            List<String> userNames = index.getUserNames();
+            SwingUtilities.invokeLater(() -> {
+                totalBuildingsField.setText(String.valueOf(count));
+                // Populate mapper dropdown (index keeps user names sorted)
+                mapperUsernameComboBox.removeAllItems();
+                for (String userName : userNames) {
+                    mapperUsernameComboBox.addItem(userName);
+                }
+            });
+        });
     }
 
     /**
@@ -976,18 +1388,7 @@ public class ValidationToolPanel extends ToggleDialog {
      */
     private int countBuildingsForMapper(String mapper, DataSet dataSet) {
         if (dataSet == null || mapper == null) return 0;
-        int count = 0;
-        for (OsmPrimitive p : dataSet.getPrimitives(pr -> pr.hasKey("building"))) {
-            try {
-                User u = p.getUser();
-                if (u != null && mapper.equals(u.getName())) {
-                    count++;
-                }
-            } catch (Exception e) {
-                Logging.debug("DPWValidationTool: Error counting primitives for mapper: " + e.getMessage());
-            }
-        }
-        return count;
+        return MapperDayIndex.forDataSet(dataSet).countBuildings(mapper);
     }
 
     /**
@@ -1001,14 +1402,14 @@ public class ValidationToolPanel extends ToggleDialog {
                 return;
             }
             String sel = (String) mapperUsernameComboBox.getSelectedItem();
-            if (sel == null || sel.isEmpty()) {
-                // show overall building count
-                int total = 0;
-                for (OsmPrimitive p : ds.getPrimitives(pr -> pr.hasKey("building"))) total++;
-                totalBuildingsField.setText(String.valueOf(total));
-            } else {
-                totalBuildingsField.setText(String.valueOf(countBuildingsForMapper(sel, ds)));
-            }
+            // v3.2.8 - a stale index is rebuilt by the count, so count off the EDT
+            MainApplication.worker.execute(() -> {
+                int count = sel == null || sel.isEmpty()
+                    // show overall building count
+                    ? MapperDayIndex.forDataSet(ds).getTotalBuildings()
+                    : countBuildingsForMapper(sel, ds);
+                SwingUtilities.invokeLater(() -> totalBuildingsField.setText(String.valueOf(count)));
+            });
         });
     }
 
@@ -1052,6 +1453,8 @@ public class ValidationToolPanel extends ToggleDialog {
         if (cachedUserList != null && (now - cacheTimestamp) < CACHE_DURATION) {
             Logging.info("DPWValidationTool: Using cached user list (age: " + 
                 ((now - cacheTimestamp) / 1000) + "s)");
+            Metrics.USER_CACHE_HITS.increment();
+            JfrEvents.cacheLookup("user_list", true);
             
             // Use cached data
             synchronized (mapperLock) {
@@ -1075,6 +1478,9 @@ public class ValidationToolPanel extends ToggleDialog {
             return;
         }
         
+        Metrics.USER_CACHE_MISSES.increment();
+        JfrEvents.cacheLookup("user_list", false);
+        
         // Use configurable DPW API base URL (v3.1.0-BETA: from PluginSettings)
         String apiBaseUrl = PluginSettings.getDPWApiBaseUrl();
         
@@ -1089,6 +1495,8 @@ public class ValidationToolPanel extends ToggleDialog {
             updateSubmitButtonsEnabled();
         });
 
+        long start = System.nanoTime();
+        JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", fullUrl);
         URL url = new URI(fullUrl).toURL();
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
         conn.setRequestMethod("GET");
@@ -1129,6 +1537,8 @@ public class ValidationToolPanel extends ToggleDialog {
             while ((line = br.readLine()) != null) sb.append(line);
         }
         String body = sb.toString().trim();
+        Metrics.recordCall(Metrics.FETCH_USERS, start, rc);
+        JfrEvents.endHttp(jfr, rc, 0, body.length());
         
         if (rc < 200 || rc >= 300) {
             // Try to parse error message from JSON
@@ -1444,7 +1854,7 @@ public class ValidationToolPanel extends ToggleDialog {
     /**
      * Unescape a JSON string value (handles escape sequences like quotes, backslash, newline, tab, unicode).
      */
-    private String unescapeJsonString(String str) {
+    static String unescapeJsonString(String str) {
         StringBuilder result = new StringBuilder();
         boolean escaped = false;
         
@@ -1511,10 +1921,16 @@ public class ValidationToolPanel extends ToggleDialog {
      */
     private void resetValidationSession() {
         submittedThisSession = false;
+        duplicateConfirmedKey = null;
         
         // v3.0 - Reset workflow state
         currentState = ValidationState.IDLE;
+        stopLiveQA();
+        liveQAReport = null;
+        clearIsolatedView();
         isolatedLayer = null;
+        isolatedCopy = null;
+        taskArea = null;
         lastValidationStatus = null;
         
         // Clear form fields
@@ -1528,13 +1944,15 @@ public class ValidationToolPanel extends ToggleDialog {
             errorCountLabels[i].setText("0");
         }
         
-        // Reset date picker
+        // Reset date pickers
         try {
-            if (datePickerComponent instanceof org.jdatepicker.impl.JDatePickerImpl) {
-                org.jdatepicker.impl.JDatePickerImpl picker = (org.jdatepicker.impl.JDatePickerImpl) datePickerComponent;
-                picker.getModel().setValue(null);
-            } else if (datePickerComponent instanceof JTextField) {
-                ((JTextField) datePickerComponent).setText("YYYY-MM-DD");
+            for (JComponent component : new JComponent[] {datePickerComponent, endDatePickerComponent}) {
+                if (component instanceof org.jdatepicker.impl.JDatePickerImpl) {
+                    org.jdatepicker.impl.JDatePickerImpl picker = (org.jdatepicker.impl.JDatePickerImpl) component;
+                    picker.getModel().setValue(null);
+                } else if (component instanceof JTextField) {
+                    ((JTextField) component).setText("YYYY-MM-DD");
+                }
             }
         } catch (Exception e) {
             Logging.warn("DPWValidationTool: Could not reset date picker: " + e.getMessage());
@@ -1545,9 +1963,21 @@ public class ValidationToolPanel extends ToggleDialog {
         updateSubmitButtonsEnabled();
         updateWorkflowState();
         
+        SessionTrace.getDefault().reset();
         Logging.info("DPWValidationTool: Validation session reset");
     }
     
+    /**
+     * Remove the isolated view (if any) so the source layer shows all its data again.
+     */
+    private void clearIsolatedView() {
+        IsolatedView view = isolatedView;
+        if (view != null) {
+            isolatedView = null;
+            view.clear();
+        }
+    }
+    
     /**
      * Update UI based on current workflow state.
      * v3.0 - New method to manage state-based UI updates.
@@ -1716,6 +2146,18 @@ public class ValidationToolPanel extends ToggleDialog {
         return result == JOptionPane.OK_OPTION;
     }
     
+    /**
+     * Look up a user_id on the network executor.
+     * Blank usernames complete immediately with -1.
+     */
+    private CompletableFuture<Integer> lookupUserIdAsync(String osmUsername) {
+        if (osmUsername == null || osmUsername.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        String username = osmUsername.trim();
+        return NetworkExecutor.supplyAsync(() -> getUserIdByOsmUsername(username));
+    }
+    
     /**
      * Fetch user_id from DPW API by OSM username.
      * v3.0.1 - Needed for cloud upload integration.
@@ -1735,6 +2177,8 @@ public class ValidationToolPanel extends ToggleDialog {
             
             Logging.debug("DPWValidationTool: Fetching user_id for: " + osmUsername);
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("GET", apiUrl);
             URL url = new URI(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
@@ -1759,6 +2203,8 @@ public class ValidationToolPanel extends ToggleDialog {
             }
             
             String responseBody = response.toString();
+            Metrics.recordCall(Metrics.USER_LOOKUP, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, 0, responseBody.length());
             
             if (responseCode == 200) {
                 // Parse user_id from response
@@ -1785,6 +2231,7 @@ public class ValidationToolPanel extends ToggleDialog {
             }
             
         } catch (Exception ex) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("DPWValidationTool: Error fetching user_id: " + ex.getMessage());
             Logging.error(ex);
             return -1;
@@ -1795,7 +2242,12 @@ public class ValidationToolPanel extends ToggleDialog {
      * Upload OSM file to cloud storage via DPW API.
      * v3.0.1 - Cloud integration for validated data backup.
      * 
+     * v3.2.8 - Content already uploaded (per the local upload ledger or the server) is not sent again.
+     * Content uploaded for a different validation log is linked to this log instead.
+     * 
      * @param file The OSM file to upload
+     * @param sha256 Hex SHA-256 of the file content, or null if unknown
+     * @param baseSha256 For an osmChange delta, the SHA-256 of the export it applies to; null for full files
      * @param validationLogId The log_id from validation submission
      * @param mapperUserId Database user_id of the mapper
      * @param validatorUserId Database user_id of the validator
@@ -1803,14 +2255,51 @@ public class ValidationToolPanel extends ToggleDialog {
      * @param settlement Optional settlement name
      * @return Google Drive URL if successful, null otherwise
      */
-    private String uploadToCloud(java.io.File file, int validationLogId, int mapperUserId, 
-                                   int validatorUserId, String taskId, String settlement) {
+    private String uploadToCloud(java.io.File file, String sha256, String baseSha256, int validationLogId, 
+                                   int mapperUserId, int validatorUserId, String taskId, String settlement) {
+        String apiUrl = PluginSettings.getDPWApiBaseUrl() + "/osm-uploads";
+        
+        // v3.2.8 - Skip byte-identical re-exports
+        if (sha256 != null && baseSha256 == null) {
+            UploadLedger.Entry previous = UploadLedger.getDefault().find(sha256, validationLogId);
+            JfrEvents.cacheLookup("upload_ledger", previous != null);
+            if (previous != null) {
+                Logging.info("DPWValidationTool: " + file.getName() + " matches upload of " + previous.fileName 
+                    + " at " + previous.uploadedAt + ", not uploading again");
+                Metrics.UPLOADS_DEDUPLICATED.increment();
+                return previous.driveUrl;
+            }
+            // Stored already, possibly for another log: the server must still attach it to this one
+            if (UploadLedger.getDefault().find(sha256) != null || findExistingUpload(apiUrl, sha256) != null) {
+                String linked = postUpload(apiUrl, file, true, sha256, null, validationLogId,
+                    mapperUserId, validatorUserId, taskId, settlement);
+                if (linked != null) {
+                    Logging.info("DPWValidationTool: Server already has " + file.getName() + ", linked it to log "
+                        + validationLogId + " without uploading again");
+                    Metrics.UPLOADS_DEDUPLICATED.increment();
+                    return linked;
+                }
+                Logging.info("DPWValidationTool: Could not link the stored copy of " + file.getName() + ", uploading it");
+            }
+        }
+        return postUpload(apiUrl, file, false, sha256, baseSha256, validationLogId,
+            mapperUserId, validatorUserId, taskId, settlement);
+    }
+    
+    /**
+     * v3.2.8 - POST to /osm-uploads. With {@code linkOnly} no file is sent; the request
+     * ({@code upload_mode=link}) asks the server to attach the content it stores under
+     * {@code sha256} to the validation log.
+     * 
+     * @return Google Drive URL if successful, null otherwise
+     */
+    private String postUpload(String apiUrl, java.io.File file, boolean linkOnly, String sha256, String baseSha256,
+                              int validationLogId, int mapperUserId, int validatorUserId, String taskId, String settlement) {
         try {
-            String baseUrl = PluginSettings.getDPWApiBaseUrl();
-            String apiUrl = baseUrl + "/osm-uploads";
-            
-            Logging.info("DPWValidationTool: Uploading to cloud: " + file.getName());
+            Logging.info("DPWValidationTool: " + (linkOnly ? "Linking stored upload: " : "Uploading to cloud: ") + file.getName());
             
+            long start = System.nanoTime();
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("POST", apiUrl);
             URL url = new URI(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("POST");
@@ -1827,17 +2316,42 @@ public class ValidationToolPanel extends ToggleDialog {
                  java.io.PrintWriter writer = new java.io.PrintWriter(
                      new java.io.OutputStreamWriter(out, StandardCharsets.UTF_8), true)) {
                 
-                // Add file field
-                writer.append("--").append(boundary).append("\r\n");
-                writer.append("Content-Disposition: form-data; name=\"file\"; filename=\"")
-                      .append(file.getName()).append("\"\r\n");
-                writer.append("Content-Type: application/xml\r\n\r\n");
-                writer.flush();
+                if (linkOnly) {
+                    writer.append("--").append(boundary).append("\r\n");
+                    writer.append("Content-Disposition: form-data; name=\"upload_mode\"\r\n\r\n");
+                    writer.append("link").append("\r\n");
+                } else {
+                    // Add file field
+                    writer.append("--").append(boundary).append("\r\n");
+                    writer.append("Content-Disposition: form-data; name=\"file\"; filename=\"")
+                          .append(file.getName()).append("\"\r\n");
+                    writer.append("Content-Type: ").append(file.getName().endsWith(".pbf")
+                          ? "application/x-protobuf" : "application/xml").append("\r\n\r\n");
+                    writer.flush();
+                    
+                    // Write file content
+                    java.nio.file.Files.copy(file.toPath(), out);
+                    out.flush();
+                    writer.append("\r\n");
+                }
+                
+                // v3.2.8 - Content hash, lets the server answer later existence checks;
+                // for a delta it is the hash of the full export the delta produces
+                if (sha256 != null) {
+                    writer.append("--").append(boundary).append("\r\n");
+                    writer.append("Content-Disposition: form-data; name=\"sha256\"\r\n\r\n");
+                    writer.append(sha256).append("\r\n");
+                }
                 
-                // Write file content
-                java.nio.file.Files.copy(file.toPath(), out);
-                out.flush();
-                writer.append("\r\n");
+                // v3.2.8 - Delta uploads name the export they apply to
+                if (baseSha256 != null) {
+                    writer.append("--").append(boundary).append("\r\n");
+                    writer.append("Content-Disposition: form-data; name=\"upload_mode\"\r\n\r\n");
+                    writer.append("delta").append("\r\n");
+                    writer.append("--").append(boundary).append("\r\n");
+                    writer.append("Content-Disposition: form-data; name=\"base_sha256\"\r\n\r\n");
+                    writer.append(baseSha256).append("\r\n");
+                }
                 
                 // Add validation_log_id
                 writer.append("--").append(boundary).append("\r\n");
@@ -1892,9 +2406,18 @@ public class ValidationToolPanel extends ToggleDialog {
             }
             
             String responseBody = response.toString();
+            Metrics.recordCall(Metrics.UPLOAD, start, responseCode);
+            JfrEvents.endHttp(jfr, responseCode, linkOnly ? 0 : file.length(), responseBody.length());
             Logging.debug("DPWValidationTool: Upload response: " + responseBody);
             
             if (responseCode == 200) {
+                // v3.2.8 - Deltas are only sent once the server has said it takes them
+                if (baseSha256 == null && !linkOnly && !deltaUploadSupported
+                        && Pattern.compile("\"delta_upload\"\\s*:\\s*true").matcher(responseBody).find()) {
+                    deltaUploadSupported = true;
+                    Logging.debug("DPWValidationTool: Server accepts delta uploads");
+                }
+                
                 // Parse drive_file_url from response
                 Pattern urlPattern = Pattern.compile("\"drive_file_url\"\\s*:\\s*\"([^\"]+)\"");
                 Matcher matcher = urlPattern.matcher(responseBody);
@@ -1902,6 +2425,9 @@ public class ValidationToolPanel extends ToggleDialog {
                 if (matcher.find()) {
                     String driveUrl = matcher.group(1);
                     Logging.info("DPWValidationTool: Upload successful, Drive URL: " + driveUrl);
+                    if (sha256 != null && baseSha256 == null) {
+                        recordUpload(sha256, file, validationLogId, driveUrl);
+                    }
                     return driveUrl;
                 } else {
                     Logging.warn("DPWValidationTool: Upload successful but no drive_file_url in response");
@@ -1910,16 +2436,156 @@ public class ValidationToolPanel extends ToggleDialog {
             } else {
                 String errorMsg = extractErrorMessage(responseBody);
                 Logging.error("DPWValidationTool: Upload failed: HTTP " + responseCode + " - " + errorMsg);
+                if (baseSha256 != null) {
+                    deltaUploadSupported = false;
+                }
                 return null;
             }
             
         } catch (Exception ex) {
+            Metrics.NETWORK_ERRORS.increment();
             Logging.error("DPWValidationTool: Upload exception: " + ex.getMessage());
             Logging.error(ex);
             return null;
         }
     }
     
+    /**
+     * v3.2.8 - Give an export file the extension of the chosen format, so switching the
+     * format filter in the save dialog does not leave an XML file named .pbf or the reverse.
+     */
+    static java.io.File withExportExtension(java.io.File file, boolean pbf) {
+        String name = file.getName();
+        String base = name.endsWith(ValidationConstants.EXPORT_PBF_FILE_EXTENSION)
+            ? name.substring(0, name.length() - ValidationConstants.EXPORT_PBF_FILE_EXTENSION.length())
+            : name.endsWith(".pbf") || name.endsWith(ValidationConstants.EXPORT_FILE_EXTENSION)
+                ? name.substring(0, name.lastIndexOf('.'))
+                : name;
+        String ext = pbf ? ValidationConstants.EXPORT_PBF_FILE_EXTENSION : ValidationConstants.EXPORT_FILE_EXTENSION;
+        return name.equals(base + ext) ? file : new java.io.File(file.getParentFile(), base + ext);
+    }
+
+    /**
+     * v3.2.8 - Upload an export, sending only an osmChange delta when this validation log
+     * was uploaded before and the server accepts deltas. Falls back to the full file.
+     * The snapshot of what was uploaded is kept for the next re-export.
+     * 
+     * A server accepts deltas once a full upload response this session carried
+     * {@code "delta_upload": true}; until then, and after a rejected delta, full files are sent.
+     * 
+     * @return Google Drive URL if successful, null otherwise
+     */
+    private String uploadExport(java.io.File file, String sha256, DataSet exported, int validationLogId,
+                                int mapperUserId, int validatorUserId, String taskId, String settlement) {
+        java.nio.file.Path snapshotFile = LayerSnapshot.fileFor(validationLogId);
+        LayerSnapshot snapshot;
+        exported.getReadLock().lock();
+        try {
+            snapshot = LayerSnapshot.of(exported, sha256);
+        } finally {
+            exported.getReadLock().unlock();
+        }
+        
+        String driveUrl = null;
+        LayerSnapshot base = PluginSettings.isDeltaUploadEnabled() && deltaUploadSupported
+            ? LayerSnapshot.load(snapshotFile) : null;
+        if (base != null && !sha256.equals(base.getSha256())
+                && UploadLedger.getDefault().find(sha256, validationLogId) == null) {
+            LayerSnapshot.Diff diff = snapshot.diffFrom(base);
+            java.io.File delta = null;
+            try {
+                delta = java.io.File.createTempFile("dpw-delta-", ".osc");
+                try (java.io.Writer out = new java.io.BufferedWriter(new java.io.OutputStreamWriter(
+                        new java.io.FileOutputStream(delta), StandardCharsets.UTF_8))) {
+                    exported.getReadLock().lock();
+                    try {
+                        LayerSnapshot.writeOsmChange(out, exported, diff);
+                    } finally {
+                        exported.getReadLock().unlock();
+                    }
+                }
+                if (delta.length() < file.length()) {
+                    Logging.info("DPWValidationTool: Uploading " + diff.size() + " changed primitives as delta ("
+                        + delta.length() + " of " + file.length() + " bytes)");
+                    driveUrl = uploadToCloud(delta, sha256, base.getSha256(), validationLogId,
+                        mapperUserId, validatorUserId, taskId, settlement);
+                    if (driveUrl == null) {
+                        Logging.info("DPWValidationTool: Delta upload not accepted, uploading the full file");
+                    } else {
+                        // The server now holds the full export under sha256, so later checks find it
+                        recordUpload(sha256, file, validationLogId, driveUrl);
+                    }
+                }
+            } catch (java.io.IOException e) {
+                Logging.warn("DPWValidationTool: Could not prepare delta upload: " + e.getMessage());
+            } finally {
+                if (delta != null && !delta.delete()) {
+                    delta.deleteOnExit();
+                }
+            }
+        }
+        if (driveUrl == null) {
+            driveUrl = uploadToCloud(file, sha256, null, validationLogId, mapperUserId, validatorUserId, taskId, settlement);
+        }
+        if (driveUrl != null) {
+            try {
+                snapshot.save(snapshotFile);
+            } catch (java.io.IOException e) {
+                Logging.warn("DPWValidationTool: Could not save upload snapshot: " + e.getMessage());
+            }
+        }
+        return driveUrl;
+    }
+    
+    /**
+     * v3.2.8 - Ask the server whether content with this hash was already uploaded
+     * (HEAD /osm-uploads/{sha256}). Servers without the endpoint are not asked again
+     * this session.
+     * 
+     * @return the stored file URL if the server has it, null otherwise
+     */
+    private String findExistingUpload(String apiUrl, String sha256) {
+        if (uploadExistsUnsupported) {
+            return null;
+        }
+        HttpURLConnection conn = null;
+        try {
+            JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("HEAD", apiUrl + "/" + sha256);
+            conn = (HttpURLConnection) new URI(apiUrl + "/" + sha256).toURL().openConnection();
+            conn.setRequestMethod("HEAD");
+            conn.setRequestProperty("X-API-Key", PluginSettings.getDPWApiKey());
+            conn.setConnectTimeout(5000);
+            conn.setReadTimeout(5000);
+            int responseCode = conn.getResponseCode();
+            JfrEvents.endHttp(jfr, responseCode, 0, 0);
+            if (responseCode == 200) {
+                String location = conn.getHeaderField("Location");
+                return location != null && !location.isEmpty() ? location : apiUrl + "/" + sha256;
+            }
+            if (responseCode != 404) {
+                // 405/501 and friends: no existence endpoint on this server
+                uploadExistsUnsupported = true;
+                Logging.debug("DPWValidationTool: Upload existence check not supported (HTTP " + responseCode + ")");
+            }
+        } catch (Exception ex) {
+            Logging.debug("DPWValidationTool: Upload existence check failed: " + ex.getMessage());
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+        return null;
+    }
+    
+    private void recordUpload(String sha256, java.io.File file, int validationLogId, String driveUrl) {
+        try {
+            UploadLedger.getDefault().record(new UploadLedger.Entry(java.time.Instant.now(), sha256,
+                file.getName(), validationLogId, driveUrl));
+        } catch (java.io.IOException e) {
+            Logging.warn("DPWValidationTool: Could not write upload ledger: " + e.getMessage());
+        }
+    }
+    
     /**
      * Show export dialog after successful validation acceptance.
      * v3.0 - Auto-prompt to export validated layer.
@@ -2006,16 +2672,26 @@ public class ValidationToolPanel extends ToggleDialog {
                 String mapper = (String) mapperUsernameComboBox.getSelectedItem();
                 if (mapper == null) mapper = "";
                 String dateString = getDateStringFromPicker();
-                String filename = String.format("Task_%s_%s_%s.osm", 
+                String baseName = String.format("Task_%s_%s_%s", 
                     taskId.isEmpty() ? "unknown" : taskId, 
                     mapper, 
-                    dateString != null ? dateString : "unknown");
+                    dateString != null ? dateRangeLabel(dateString, getEndDateStringFromPicker()) : "unknown");
+                boolean pbfDefault = "pbf".equals(PluginSettings.getExportFormat());
                 
                 // Show file chooser on EDT
                 SwingUtilities.invokeLater(() -> {
                     JFileChooser chooser = new JFileChooser();
                     chooser.setDialogTitle("Export Validated Layer");
-                    chooser.setSelectedFile(new java.io.File(filename));
+                    // v3.2.8 - OSM XML or the compact PBF format, chosen per export
+                    javax.swing.filechooser.FileNameExtensionFilter xmlFilter =
+                        new javax.swing.filechooser.FileNameExtensionFilter("OSM XML (*.osm)", "osm");
+                    javax.swing.filechooser.FileNameExtensionFilter pbfFilter =
+                        new javax.swing.filechooser.FileNameExtensionFilter("OSM PBF (*.osm.pbf)", "pbf");
+                    chooser.addChoosableFileFilter(xmlFilter);
+                    chooser.addChoosableFileFilter(pbfFilter);
+                    chooser.setFileFilter(pbfDefault ? pbfFilter : xmlFilter);
+                    chooser.setSelectedFile(new java.io.File(baseName + (pbfDefault
+                        ? ValidationConstants.EXPORT_PBF_FILE_EXTENSION : ValidationConstants.EXPORT_FILE_EXTENSION)));
                     
                     int res = chooser.showSaveDialog(MainApplication.getMainFrame());
                     if (res != JFileChooser.APPROVE_OPTION) {
@@ -2032,10 +2708,12 @@ public class ValidationToolPanel extends ToggleDialog {
                         return;
                     }
                     
-                    java.io.File file = chooser.getSelectedFile();
+                    boolean pbf = chooser.getFileFilter() == pbfFilter
+                        || chooser.getSelectedFile().getName().endsWith(".pbf");
+                    java.io.File file = withExportExtension(chooser.getSelectedFile(), pbf);
                     
                     // Perform export in background thread
-                    new Thread(() -> {
+                    NetworkExecutor.execute(() -> {
                         try {
                             // Show progress dialog
                             JDialog progressDialog = new JDialog(MainApplication.getMainFrame(), "Exporting...", false);
@@ -2053,18 +2731,38 @@ public class ValidationToolPanel extends ToggleDialog {
                             
                             SwingUtilities.invokeLater(() -> progressDialog.setVisible(true));
                             
-                            // Write DataSet to file
-                            try (java.io.PrintWriter pw = new java.io.PrintWriter(
-                                    new java.io.OutputStreamWriter(
-                                        new java.io.FileOutputStream(file), 
-                                        java.nio.charset.StandardCharsets.UTF_8))) {
-                                OsmWriter w = OsmWriterFactory.createOsmWriter(pw, true, 
-                                    org.openstreetmap.josm.io.OsmWriter.DEFAULT_API_VERSION);
-                                w.write(isolatedLayer.getDataSet());
-                                pw.flush();
+                            // Write DataSet to file, hashing it on the way for upload deduplication (v3.2.8)
+                            long exportStart = System.nanoTime();
+                            JfrEvents.Export exportEvent = JfrEvents.beginExport();
+                            java.security.MessageDigest digest = UploadLedger.newDigest();
+                            // v3.2.8 - in view mode the isolated data is only cloned now, at export time
+                            IsolatedView view = isolatedView;
+                            DataSet exported = view != null ? view.materialize() : isolatedLayer.getDataSet();
+                            java.io.OutputStream fileOut = new java.io.BufferedOutputStream(
+                                new java.security.DigestOutputStream(new java.io.FileOutputStream(file), digest));
+                            if (pbf) {
+                                try (PbfWriter w = new PbfWriter(fileOut)) {
+                                    exported.getReadLock().lock();
+                                    try {
+                                        w.write(exported);
+                                    } finally {
+                                        exported.getReadLock().unlock();
+                                    }
+                                }
+                            } else {
+                                try (java.io.PrintWriter pw = new java.io.PrintWriter(
+                                        new java.io.OutputStreamWriter(fileOut, java.nio.charset.StandardCharsets.UTF_8))) {
+                                    OsmWriter w = OsmWriterFactory.createOsmWriter(pw, true, 
+                                        org.openstreetmap.josm.io.OsmWriter.DEFAULT_API_VERSION);
+                                    w.write(exported);
+                                    pw.flush();
+                                }
                             }
                             
-                            Logging.info("DPWValidationTool: Export successful: " + file.getAbsolutePath());
+                            String sha256 = UploadLedger.toHex(digest.digest());
+                            Metrics.EXPORT.recordSince(exportStart);
+                            JfrEvents.endExport(exportEvent, file.getName(), pbf ? "pbf" : "osm", file.length());
+                            Logging.info("DPWValidationTool: Export successful: " + file.getAbsolutePath() + " (sha256 " + sha256 + ")");
                             
                             // v3.0.1 - Upload to cloud if we have validation log data
                             String driveUrl = null;
@@ -2079,22 +2777,17 @@ public class ValidationToolPanel extends ToggleDialog {
                                 UserIdentityManager userManager = UserIdentityManager.getInstance();
                                 String validatorOsmUsername = userManager.getUserName();
                                 
-                                int mapperId = -1;
-                                int validatorId = -1;
-                                
-                                if (mapperOsmUsername != null && !mapperOsmUsername.trim().isEmpty()) {
-                                    mapperId = getUserIdByOsmUsername(mapperOsmUsername.trim());
-                                }
-                                
-                                if (validatorOsmUsername != null && !validatorOsmUsername.trim().isEmpty()) {
-                                    validatorId = getUserIdByOsmUsername(validatorOsmUsername.trim());
-                                }
+                                // Look up both IDs concurrently on the network executor
+                                CompletableFuture<Integer> mapperIdFuture = lookupUserIdAsync(mapperOsmUsername);
+                                CompletableFuture<Integer> validatorIdFuture = lookupUserIdAsync(validatorOsmUsername);
+                                int mapperId = mapperIdFuture.join();
+                                int validatorId = validatorIdFuture.join();
                                 
                                 // Upload to cloud
                                 if (mapperId > 0 && validatorId > 0) {
                                     String settlement = settlementField.getText().trim();
-                                    driveUrl = uploadToCloud(file, lastValidationLogId, mapperId, 
-                                                             validatorId, taskId, settlement);
+                                    driveUrl = uploadExport(file, sha256, exported, lastValidationLogId, mapperId, 
+                                                            validatorId, taskId, settlement);
                                     
                                     if (driveUrl != null) {
                                         googleDriveFileUrl = driveUrl;
@@ -2152,7 +2845,7 @@ public class ValidationToolPanel extends ToggleDialog {
                                     JOptionPane.ERROR_MESSAGE);
                             });
                         }
-                    }).start();
+                    });
                 });
                 
             } catch (Exception ex) {
@@ -2171,6 +2864,7 @@ public class ValidationToolPanel extends ToggleDialog {
     /**
      * Show dialog prompting user to reset session after export.
      * v3.0 - Helps prevent data duplication by clearing all layers.
+     * v3.2.8 - Offers a warm "Next Task" reset that keeps the downloaded data.
      * 
      * @param exportedFileName The name of the file that was exported
      */
@@ -2181,28 +2875,29 @@ public class ValidationToolPanel extends ToggleDialog {
         message.append("✓ Validation submitted successfully\n");
         message.append("✓ Data exported to: ").append(exportedFileName).append("\n\n");
         message.append("To prevent data duplication and prepare for your\n");
-        message.append("next validation task, we recommend resetting the\n");
-        message.append("session now. This will:\n\n");
-        message.append("  • Clear all JOSM layers\n");
-        message.append("  • Reset the validation form\n");
-        message.append("  • Prepare for the next validation\n\n");
+        message.append("next validation task, choose how to reset:\n\n");
+        message.append("  ♻ Next Task: clear [Validation] layers and the form,\n");
+        message.append("     keep the downloaded data for the same area\n");
+        message.append("  🔄 Reset Session: clear all JOSM layers and the form\n\n");
         message.append("What would you like to do?\n\n");
         message.append("⚠️  Continuing without reset may cause layer\n");
         message.append("   confusion in future validations.");
         
-        String[] options = {"🔄 Reset Session", "📝 Continue Working"};
+        String[] options = {"♻ Next Task (keep data)", "🔄 Reset Session", "📝 Continue Working"};
         int result = JOptionPane.showOptionDialog(
             null,
             message.toString(),
             "Reset Session",
-            JOptionPane.YES_NO_OPTION,
+            JOptionPane.YES_NO_CANCEL_OPTION,
             JOptionPane.QUESTION_MESSAGE,
             null,
             options,
-            options[0]
+            PluginSettings.isWarmSessionEnabled() ? options[0] : options[1]
         );
         
-        if (result == 0) { // Reset Session
+        if (result == 0) { // Next Task (warm)
+            warmResetSession();
+        } else if (result == 1) { // Reset Session
             resetSession();
         } else {
             // Continue working - just reset the form
@@ -2218,9 +2913,54 @@ public class ValidationToolPanel extends ToggleDialog {
         }
     }
     
+    /**
+     * Reset for the next task while keeping the source data warm.
+     * v3.2.8 - Removes only the [Validation] layers and resets the form. The downloaded
+     * source layers and their mapper/day index stay resident, so the next isolation in
+     * the same area needs neither a re-download nor a rescan.
+     */
+    private void warmResetSession() {
+        try {
+            Logging.info("DPWValidationTool: User requested warm session reset");
+            boolean wasVisible = isDialogShowing();
+            
+            java.util.List<OsmDataLayer> validationLayers = new java.util.ArrayList<>();
+            for (OsmDataLayer layer : MainApplication.getLayerManager().getLayersOfType(OsmDataLayer.class)) {
+                String name = layer.getName();
+                if ((layer == isolatedLayer && isolatedView == null) || (name != null && name.startsWith(ValidationConstants.VALIDATION_LAYER_PREFIX))) {
+                    validationLayers.add(layer);
+                }
+            }
+            for (OsmDataLayer layer : validationLayers) {
+                MapperDayIndex.release(layer.getDataSet());
+            }
+            int removed = removeLayersInBatch(validationLayers);
+            
+            resetValidationSession();
+            ensureDialogVisible(wasVisible);
+            
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(null,
+                    "✓ Ready for Next Task\n\n" +
+                    removed + " validation layer(s) cleared.\n" +
+                    "Downloaded data has been kept.\n" +
+                    "The form has been reset.",
+                    "Session Reset",
+                    JOptionPane.INFORMATION_MESSAGE);
+            });
+            
+            Logging.info("DPWValidationTool: Warm session reset completed, removed " + removed + " validation layers");
+        } catch (Exception ex) {
+            Logging.error("DPWValidationTool: Warm session reset failed, falling back to full reset: " + ex.getMessage());
+            Logging.error(ex);
+            resetSession();
+        }
+    }
+    
     /**
      * Reset the entire session by clearing all layers and resetting the form.
      * v3.0 - Provides clean slate for next validation task without restarting JOSM.
+     * v3.2.8 - All layers are removed in a single EDT batch (see {@link #removeLayersInBatch}).
      */
     private void resetSession() {
         try {
@@ -2229,110 +2969,40 @@ public class ValidationToolPanel extends ToggleDialog {
             // Store dialog visibility state before clearing layers
             boolean wasVisible = isDialogShowing();
             
-            // Get layer manager
-            org.openstreetmap.josm.gui.layer.LayerManager layerManager = MainApplication.getLayerManager();
+            java.util.List<org.openstreetmap.josm.gui.layer.Layer> allLayers = 
+                new java.util.ArrayList<>(MainApplication.getLayerManager().getLayers());
             
-            // Get all layers and remove them
-            java.util.List<org.openstreetmap.josm.gui.layer.Layer> allLayers = new java.util.ArrayList<>(layerManager.getLayers());
+            // Full reset: drop the isolated view and every resident mapper/day index along with the layers
+            clearIsolatedView();
+            MapperDayIndex.releaseAll();
             
             if (allLayers.isEmpty()) {
                 Logging.info("DPWValidationTool: No layers to remove");
             } else {
-                Logging.info("DPWValidationTool: Removing " + allLayers.size() + " layers");
-                
-                // Show progress for large number of layers
-                if (allLayers.size() > 5) {
-                    SwingUtilities.invokeLater(() -> {
-                        JDialog progressDialog = new JDialog(MainApplication.getMainFrame(), "Resetting Session...", false);
-                        JPanel progressPanel = new JPanel(new BorderLayout(8,8));
-                        progressPanel.setBorder(BorderFactory.createEmptyBorder(16,16,16,16));
-                        JLabel progressLabel = new JLabel("Clearing all layers...");
-                        JProgressBar progressBar = new JProgressBar();
-                        progressBar.setIndeterminate(true);
-                        progressPanel.add(progressLabel, BorderLayout.NORTH);
-                        progressPanel.add(progressBar, BorderLayout.CENTER);
-                        progressDialog.getContentPane().add(progressPanel);
-                        progressDialog.pack();
-                        progressDialog.setLocationRelativeTo(MainApplication.getMainFrame());
-                        progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
-                        progressDialog.setVisible(true);
-                        
-                        // Remove layers in background
-                        new Thread(() -> {
-                            try {
-                                for (org.openstreetmap.josm.gui.layer.Layer layer : allLayers) {
-                                    try {
-                                        layerManager.removeLayer(layer);
-                                        Thread.sleep(50); // Small delay to avoid overwhelming UI
-                                    } catch (Exception e) {
-                                        Logging.warn("DPWValidationTool: Could not remove layer: " + e.getMessage());
-                                    }
-                                }
-                                
-                                SwingUtilities.invokeLater(() -> {
-                                    progressDialog.dispose();
-                                    
-                                    // Reset the form
-                                    resetValidationSession();
-                                    
-                                    // Ensure dialog stays visible and functional after layer removal
-                                    ensureDialogVisible(wasVisible);
-                                    
-                                    // Show success message
-                                    JOptionPane.showMessageDialog(null,
-                                        "✓ Session Reset Complete!\n\n" +
-                                        "All layers have been cleared.\n" +
-                                        "The form has been reset.\n\n" +
-                                        "You're ready for the next validation task.",
-                                        "Session Reset",
-                                        JOptionPane.INFORMATION_MESSAGE);
-                                    
-                                    Logging.info("DPWValidationTool: Session reset completed successfully");
-                                });
-                            } catch (Exception ex) {
-                                Logging.error("DPWValidationTool: Error during session reset: " + ex.getMessage());
-                                SwingUtilities.invokeLater(() -> {
-                                    progressDialog.dispose();
-                                    JOptionPane.showMessageDialog(null,
-                                        "Session reset completed with some errors.\n\n" +
-                                        "Some layers may not have been removed.\n" +
-                                        "Please check the layer list.",
-                                        "Reset Warning",
-                                        JOptionPane.WARNING_MESSAGE);
-                                });
-                            }
-                        }).start();
-                    });
-                } else {
-                    // Quick reset for few layers
-                    for (org.openstreetmap.josm.gui.layer.Layer layer : allLayers) {
-                        try {
-                            layerManager.removeLayer(layer);
-                        } catch (Exception e) {
-                            Logging.warn("DPWValidationTool: Could not remove layer: " + e.getMessage());
-                        }
-                    }
-                    
-                    // Reset the form
-                    resetValidationSession();
-                    
-                    // Ensure dialog stays visible and functional after layer removal
-                    ensureDialogVisible(wasVisible);
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(null,
-                            "✓ Session Reset Complete!\n\n" +
-                            "All layers have been cleared.\n" +
-                            "The form has been reset.\n\n" +
-                            "You're ready for the next validation task.",
-                            "Session Reset",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    });
-                    
-                    Logging.info("DPWValidationTool: Session reset completed successfully");
-                }
+                long start = System.nanoTime();
+                int removed = removeLayersInBatch(allLayers);
+                Logging.info("DPWValidationTool: Removed " + removed + " of " + allLayers.size() + " layers in " 
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
             }
             
+            // Reset the form
+            resetValidationSession();
+            
+            // Ensure dialog stays visible and functional after layer removal
+            ensureDialogVisible(wasVisible);
+            
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(null,
+                    "✓ Session Reset Complete!\n\n" +
+                    "All layers have been cleared.\n" +
+                    "The form has been reset.\n\n" +
+                    "You're ready for the next validation task.",
+                    "Session Reset",
+                    JOptionPane.INFORMATION_MESSAGE);
+            });
+            
+            Logging.info("DPWValidationTool: Session reset completed successfully");
+            
         } catch (Exception ex) {
             Logging.error("DPWValidationTool: Failed to reset session: " + ex.getMessage());
             Logging.error(ex);
@@ -2362,6 +3032,67 @@ public class ValidationToolPanel extends ToggleDialog {
         }
     }
     
+    /**
+     * Remove the given layers in one EDT batch and free their data eagerly.
+     * v3.2.8 - Replaces the one-layer-per-50ms background loop.
+     * 
+     * All removals happen inside a single EDT task, so Swing coalesces the map repaints
+     * they request into one paint after the batch. The active layer is removed last so
+     * JOSM does not re-elect (and notify listeners about) a new active layer for every
+     * removal. The DataSets of removed data layers are cleared on the JOSM worker thread
+     * so their primitives can be collected even if something still references the layer.
+     * 
+     * @param layers the layers to remove
+     * @return number of layers actually removed
+     */
+    private int removeLayersInBatch(java.util.Collection<? extends org.openstreetmap.josm.gui.layer.Layer> layers) {
+        org.openstreetmap.josm.gui.layer.MainLayerManager layerManager = MainApplication.getLayerManager();
+        java.util.List<DataSet> removedData = new java.util.ArrayList<>();
+        int[] removed = {0};
+        
+        Runnable batch = () -> {
+            org.openstreetmap.josm.gui.layer.Layer active = layerManager.getActiveLayer();
+            java.util.List<org.openstreetmap.josm.gui.layer.Layer> ordered = new java.util.ArrayList<>(layers);
+            if (ordered.remove(active)) {
+                ordered.add(active);
+            }
+            for (org.openstreetmap.josm.gui.layer.Layer layer : ordered) {
+                try {
+                    if (!layerManager.containsLayer(layer)) {
+                        continue;
+                    }
+                    layerManager.removeLayer(layer);
+                    removed[0]++;
+                    if (layer instanceof OsmDataLayer) {
+                        removedData.add(((OsmDataLayer) layer).getDataSet());
+                    }
+                } catch (Exception e) {
+                    Logging.warn("DPWValidationTool: Could not remove layer: " + e.getMessage());
+                }
+            }
+        };
+        
+        if (SwingUtilities.isEventDispatchThread()) {
+            batch.run();
+        } else {
+            GuiHelper.runInEDTAndWait(batch);
+        }
+        
+        if (!removedData.isEmpty()) {
+            MainApplication.worker.execute(() -> {
+                for (DataSet ds : removedData) {
+                    try {
+                        ds.clear();
+                    } catch (Exception e) {
+                        // Locked or still shared: leave it to the garbage collector
+                        Logging.debug("DPWValidationTool: Could not clear removed DataSet: " + e.getMessage());
+                    }
+                }
+            });
+        }
+        return removed[0];
+    }
+    
     /**
      * Ensure the dialog stays visible and functional after session reset.
      * v3.0.1 - Fix for plugin becoming unresponsive after clearing all layers.
@@ -2610,6 +3341,34 @@ public class ValidationToolPanel extends ToggleDialog {
             return;
         }
 
+        // v3.2.8 - Check the local ledger so the same task, mapper and date are not submitted twice by accident
+        String dateString = getDateStringFromPicker();
+        String ledgerDate = dateString != null ? dateRangeLabel(dateString, getEndDateStringFromPicker()) : "";
+        String ledgerKey = ValidationLedger.key(taskId, finalMapperUsername, ledgerDate);
+        ValidationLedger.Entry previous = ValidationLedger.getDefault().find(taskId, finalMapperUsername, ledgerDate);
+        if (previous != null && !ledgerKey.equals(duplicateConfirmedKey)) {
+            SwingUtilities.invokeLater(() -> {
+                int choice = JOptionPane.showConfirmDialog(null,
+                    "This work was already submitted from this computer:\n\n" +
+                    "Task: " + (previous.taskId.isEmpty() ? "-" : previous.taskId) + "\n" +
+                    "Mapper: " + previous.mapper + "\n" +
+                    "Date: " + previous.date + "\n" +
+                    "Status: " + previous.status + " (log ID " + previous.logId + ")\n" +
+                    "Submitted: " + previous.submittedAt.atZone(java.time.ZoneId.systemDefault()).toLocalDateTime().withNano(0) + "\n\n" +
+                    "Submit it again anyway?",
+                    "Already Submitted",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+                if (choice == JOptionPane.YES_OPTION) {
+                    duplicateConfirmedKey = ledgerKey;
+                    submitData(validationStatus);
+                }
+            });
+            return;
+        }
+        pendingLedgerEntry = new ValidationLedger.Entry(java.time.Instant.now(), taskId, finalMapperUsername,
+            ledgerDate, validationStatus, validatorUsername, -1, totalBuildingsInt);
+
         // Build JSON payload according to v2.0 API spec
         StringBuilder jsonBuilder = new StringBuilder();
         jsonBuilder.append("{");
@@ -2645,12 +3404,29 @@ public class ValidationToolPanel extends ToggleDialog {
         sendPostRequest(jsonBuilder.toString());
     }
 
+    /**
+     * v3.2.8 - Record the accepted submission in the local validation ledger.
+     */
+    private void recordSubmission(int logId) {
+        ValidationLedger.Entry pending = pendingLedgerEntry;
+        if (pending == null) {
+            return;
+        }
+        pendingLedgerEntry = null;
+        try {
+            ValidationLedger.getDefault().record(new ValidationLedger.Entry(java.time.Instant.now(), pending.taskId,
+                pending.mapper, pending.date, pending.status, pending.validator, logId, pending.totalBuildings));
+        } catch (java.io.IOException e) {
+            Logging.warn("DPWValidationTool: Could not write validation ledger: " + e.getMessage());
+        }
+    }
+
     /**
      * Send validation data to the DPW Manager API (/api/validation-log endpoint).
      * Implements v2.1 API specification with proper JSON response parsing and error handling.
      */
     private void sendPostRequest(String jsonData) {
-        new Thread(() -> {
+        NetworkExecutor.execute(() -> {
             setSending(true);
             
             // v3.2: Use production DPW Manager API at app.spatialcollective.com
@@ -2662,6 +3438,8 @@ public class ValidationToolPanel extends ToggleDialog {
                 Logging.info("DPWValidationTool: Submitting validation data to " + apiUrl);
                 Logging.debug("DPWValidationTool: JSON payload: " + jsonData);
                 
+                long start = System.nanoTime();
+                JfrEvents.HttpRequest jfr = JfrEvents.beginHttp("POST", apiUrl);
                 URL url = new URI(apiUrl).toURL();
                 conn = (HttpURLConnection) url.openConnection();
                 conn.setRequestMethod("POST");
@@ -2675,8 +3453,8 @@ public class ValidationToolPanel extends ToggleDialog {
                 conn.setReadTimeout(15000);
 
                 // Write JSON payload
+                byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
                 try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
                     os.write(input, 0, input.length);
                     os.flush();
                 }
@@ -2696,6 +3474,8 @@ public class ValidationToolPanel extends ToggleDialog {
                 }
                 
                 String responseBody = response.toString();
+                Metrics.recordCall(Metrics.SUBMIT, start, responseCode);
+                JfrEvents.endHttp(jfr, responseCode, input.length, responseBody.length());
                 Logging.debug("DPWValidationTool: API response body: " + responseBody);
 
                 // Handle different response codes according to API spec
@@ -2728,6 +3508,7 @@ public class ValidationToolPanel extends ToggleDialog {
                             Logging.warn("DPWValidationTool: Could not parse log_id: " + logId);
                             lastValidationLogId = -1;
                         }
+                        recordSubmission(lastValidationLogId);
                         
                         SwingUtilities.invokeLater(() -> {
                             String successMsg = "✓ Validation log created successfully!\n\n" +
@@ -2761,6 +3542,7 @@ public class ValidationToolPanel extends ToggleDialog {
                     } catch (Exception e) {
                         Logging.warn("DPWValidationTool: Could not parse success response details: " + e.getMessage());
                         submittedThisSession = true;
+                        recordSubmission(-1);
                         SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, 
                             "Data submitted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE));
                     }
@@ -2820,7 +3602,8 @@ public class ValidationToolPanel extends ToggleDialog {
                         });
                         
                         // Schedule retry
-                        new Thread(() -> {
+                        Metrics.SUBMIT_RETRIES.increment();
+                        NetworkExecutor.execute(() -> {
                             try {
                                 Thread.sleep(backoffDelay);
                                 Logging.info("DPWValidationTool: Retrying submission after rate limit backoff");
@@ -2828,7 +3611,7 @@ public class ValidationToolPanel extends ToggleDialog {
                             } catch (InterruptedException ie) {
                                 Logging.error("Retry interrupted: " + ie.getMessage());
                             }
-                        }).start();
+                        });
                         
                     } else {
                         // Max retries exceeded
@@ -2873,6 +3656,7 @@ public class ValidationToolPanel extends ToggleDialog {
                 }
                 
             } catch (Exception e) {
+                Metrics.NETWORK_ERRORS.increment();
                 Logging.error("DPWValidationTool: Exception during submission: " + e.getMessage());
                 Logging.error(e);
                 
@@ -2894,7 +3678,7 @@ public class ValidationToolPanel extends ToggleDialog {
                 }
                 setSending(false);
             }
-        }).start();
+        });
     }
     
     /**
@@ -3088,10 +3872,43 @@ public class ValidationToolPanel extends ToggleDialog {
     }
 
     private String getDateStringFromPicker() {
-        if (datePickerComponent == null) return null;
+        return getDateStringFromPicker(datePickerComponent);
+    }
+
+    /**
+     * v3.2.8 - Get the optional end date of the isolation range.
+     *
+     * @return the end date as YYYY-MM-DD, or null if no end date was picked
+     */
+    private String getEndDateStringFromPicker() {
+        if (endDatePickerComponent instanceof JTextField) {
+            String txt = ((JTextField) endDatePickerComponent).getText().trim();
+            if (txt.isEmpty() || "YYYY-MM-DD".equals(txt)) return null;
+        } else if (endDatePickerComponent instanceof org.jdatepicker.impl.JDatePickerImpl) {
+            // The model falls back to today's year/month/day when nothing is picked, so check the value itself
+            if (((org.jdatepicker.impl.JDatePickerImpl) endDatePickerComponent).getModel().getValue() == null) {
+                return null;
+            }
+        }
+        return getDateStringFromPicker(endDatePickerComponent);
+    }
+
+    /**
+     * v3.2.8 - Describe the selected date range for layer and file names.
+     *
+     * @param from start date as YYYY-MM-DD
+     * @param to end date as YYYY-MM-DD, or null for a single day
+     * @return "from" for a single day, otherwise "from_to_to"
+     */
+    private static String dateRangeLabel(String from, String to) {
+        return to == null || to.equals(from) ? from : from + "_to_" + to;
+    }
+
+    private String getDateStringFromPicker(JComponent component) {
+        if (component == null) return null;
         try {
-            if (datePickerComponent instanceof JTextField) {
-                String txt = ((JTextField) datePickerComponent).getText().trim();
+            if (component instanceof JTextField) {
+                String txt = ((JTextField) component).getText().trim();
                 if (txt.isEmpty()) return null;
                 // If already in YYYY-MM-DD, return as-is; otherwise attempt to normalize
                 if (txt.matches("\\d{4}-\\d{2}-\\d{2}")) return txt;
@@ -3108,7 +3925,7 @@ public class ValidationToolPanel extends ToggleDialog {
                 return txt;
             } else {
                 // attempt to extract value from JDatePickerImpl via reflection
-                Object picker = datePickerComponent;
+                Object picker = component;
                 try {
                     java.lang.reflect.Method getModel = picker.getClass().getMethod("getModel");
                     Object model = getModel.invoke(picker);
@@ -3182,14 +3999,15 @@ public class ValidationToolPanel extends ToggleDialog {
 
         // Parse TM URL in background to avoid blocking UI
         final String finalTmUrl = tmUrl;
-        new Thread(() -> {
+        NetworkExecutor.execute(() -> {
             try {
                 TaskManagerAPIClient.TaskInfo info = TaskManagerAPIClient.fetchTaskInfoFromURL(finalTmUrl);
                 
                 SwingUtilities.invokeLater(() -> {
                     if (info.success) {
-                        // Auto-fill task ID
+                        // Auto-fill task ID; setting the text clears the previous task's polygon
                         taskIdField.setText(String.valueOf(info.taskId));
+                        taskArea = info.taskArea;
                         
                         // Auto-select mapper if found
                         if (info.mapperUsername != null && !info.mapperUsername.isEmpty()) {
@@ -3203,13 +4021,15 @@ public class ValidationToolPanel extends ToggleDialog {
                         
                         Logging.info("TM integration: Auto-populated from " + finalTmUrl);
                     } else {
+                        taskArea = null;
                         Logging.warn("TM integration: " + info.errorMessage);
                     }
                 });
             } catch (Exception e) {
+                taskArea = null;
                 Logging.error("TM integration error: " + e.getMessage());
             }
-        }).start();
+        });
     }
 
     /**
@@ -3254,13 +4074,14 @@ public class ValidationToolPanel extends ToggleDialog {
             Logging.info("TM integration: Detected task from remote control - project " + projectId + " task " + taskId);
 
             // Fetch mapper info in background
-            new Thread(() -> {
+            NetworkExecutor.execute(() -> {
                 TaskManagerAPIClient.TaskInfo info = TaskManagerAPIClient.fetchTaskInfo(projectId, taskId);
                 
                 SwingUtilities.invokeLater(() -> {
                     if (info.success) {
-                        // Auto-fill fields
+                        // Auto-fill fields; setting the text clears the previous task's polygon
                         taskIdField.setText(String.valueOf(taskId));
+                        taskArea = info.taskArea;
                         
                         if (info.mapperUsername != null && !info.mapperUsername.isEmpty()) {
                             selectMapperInComboBox(info.mapperUsername);
@@ -3283,10 +4104,11 @@ public class ValidationToolPanel extends ToggleDialog {
                         
                         Logging.info("TM integration: Auto-populated from remote control");
                     } else {
+                        taskArea = null;
                         Logging.warn("TM integration: " + info.errorMessage);
                     }
                 });
-            }).start();
+            });
 
         } catch (Exception e) {
             Logging.error("TM remote control detection error: " + e.getMessage());
@@ -3317,10 +4139,15 @@ public class ValidationToolPanel extends ToggleDialog {
             int taskId = Integer.parseInt(parts[1]);
             
             // Fetch mapper info in background
-            new Thread(() -> {
+            NetworkExecutor.execute(() -> {
                 TaskManagerAPIClient.TaskInfo info = TaskManagerAPIClient.fetchTaskInfo(projectId, taskId);
                 
                 SwingUtilities.invokeLater(() -> {
+                    // Ignore answers for a Task ID that has since been edited
+                    if (!taskIdText.equals(taskIdField.getText().trim())) {
+                        return;
+                    }
+                    taskArea = info.success ? info.taskArea : null;
                     if (info.success && info.mapperUsername != null && !info.mapperUsername.isEmpty()) {
                         selectMapperInComboBox(info.mapperUsername);
                         
@@ -3331,7 +4158,7 @@ public class ValidationToolPanel extends ToggleDialog {
                         Logging.info("TM integration: Auto-populated mapper '" + info.mapperUsername + "' for task " + taskId);
                     }
                 });
-            }).start();
+            });
             
         } catch (NumberFormatException e) {
             // Invalid task ID format - ignore silently
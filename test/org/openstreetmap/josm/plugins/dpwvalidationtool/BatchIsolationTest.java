@@ -0,0 +1,147 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for BatchIsolation.
+ * Partitions come from a MapperDayIndex over synthetic data, as in the panel.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("BatchIsolation Tests")
+class BatchIsolationTest {
+
+    private static final LocalDate DAY = SyntheticDataSetGenerator.FIRST_DAY;
+
+    private static Set<Long> ids(Iterable<? extends OsmPrimitive> primitives) {
+        Set<Long> ids = new HashSet<>();
+        for (OsmPrimitive p : primitives) {
+            ids.add(p.getUniqueId());
+        }
+        return ids;
+    }
+
+    private static Map<String, List<OsmPrimitive>> partitions(DataSet source) {
+        MapperDayIndex index = MapperDayIndex.unregistered(source);
+        try {
+            return index.getBuildingsByMapper(DAY, DAY);
+        } finally {
+            index.dispose();
+        }
+    }
+
+    // ========== Isolation Tests ==========
+
+    @Test
+    @DisplayName("Each mapper gets a copy of exactly their buildings and nodes")
+    void testPartitionsCloned() {
+        DataSet source = new SyntheticDataSetGenerator(600, 6, 3, 4, 5).generate();
+        int sourcePrimitives = source.allPrimitives().size();
+        Map<String, List<OsmPrimitive>> partitions = partitions(source);
+        assertTrue(partitions.size() > 1);
+
+        List<BatchIsolation.Result> results = BatchIsolation.isolate(source, partitions);
+        assertEquals(new ArrayList<>(partitions.keySet()), mappers(results));
+        for (BatchIsolation.Result r : results) {
+            List<OsmPrimitive> buildings = partitions.get(r.mapper);
+            assertTrue(r.isSuccess(), r.error);
+            assertEquals(buildings.size(), r.buildings);
+            DataSet target = r.copy.getTarget();
+            assertNotSame(source, target);
+            assertSame(source, r.copy.getSource());
+
+            assertEquals(ids(buildings), ids(target.getWays()), r.mapper);
+            Set<Long> nodeIds = new HashSet<>();
+            for (OsmPrimitive p : buildings) {
+                nodeIds.addAll(ids(((Way) p).getNodes()));
+            }
+            assertEquals(nodeIds, ids(target.getNodes()), r.mapper);
+            for (Way w : target.getWays()) {
+                assertTrue(w.hasKey("building"));
+                assertEquals(r.mapper, w.getUser().getName());
+                for (Node n : w.getNodes()) {
+                    assertSame(target, n.getDataSet());
+                }
+            }
+        }
+
+        // The source is only read
+        assertEquals(sourcePrimitives, source.allPrimitives().size());
+        for (Node n : source.getNodes()) {
+            for (OsmPrimitive referrer : n.getReferrers()) {
+                assertSame(source, referrer.getDataSet());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Copies are independent of each other")
+    void testCopiesIndependent() {
+        DataSet source = new SyntheticDataSetGenerator(200, 3, 1, 4, 9).generate();
+        Map<String, List<OsmPrimitive>> partitions = partitions(source);
+        // The same buildings isolated twice under different names
+        String first = partitions.keySet().iterator().next();
+        partitions.put("copy_of_" + first, partitions.get(first));
+
+        List<BatchIsolation.Result> results = BatchIsolation.isolate(source, partitions);
+        DataSet a = null;
+        DataSet b = null;
+        for (BatchIsolation.Result r : results) {
+            if (r.mapper.equals(first)) a = r.copy.getTarget();
+            if (r.mapper.equals("copy_of_" + first)) b = r.copy.getTarget();
+        }
+        assertNotNull(a);
+        assertNotNull(b);
+        assertEquals(ids(a.allPrimitives()), ids(b.allPrimitives()));
+
+        Way edited = a.getWays().iterator().next();
+        edited.put("note", "checked");
+        for (Way w : b.getWays()) {
+            assertNotSame(edited, w);
+            if (w.getUniqueId() == edited.getUniqueId()) {
+                assertNull(w.get("note"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("No partitions give no results")
+    void testEmpty() {
+        DataSet source = new SyntheticDataSetGenerator(50, 2, 1, 4, 1).generate();
+        assertTrue(BatchIsolation.isolate(source, new TreeMap<>()).isEmpty());
+    }
+
+    // ========== File Name Tests ==========
+
+    @Test
+    @DisplayName("Export file names are safe for any user name")
+    void testFileName() {
+        assertEquals("Batch_jane_doe_2025-01-15.osm", BatchIsolation.fileNameFor("jane doe", "2025-01-15"));
+        assertEquals("Batch_a_b_c_2025-01-15.osm", BatchIsolation.fileNameFor("a/b\\c", "2025-01-15"));
+        assertEquals("Batch_m.x-1_2025-01-15.osm", BatchIsolation.fileNameFor("m.x-1", "2025-01-15"));
+    }
+
+    private static List<String> mappers(List<BatchIsolation.Result> results) {
+        List<String> names = new ArrayList<>();
+        for (BatchIsolation.Result r : results) {
+            names.add(r.mapper);
+        }
+        return names;
+    }
+}
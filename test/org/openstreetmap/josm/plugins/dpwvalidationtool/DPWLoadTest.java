@@ -0,0 +1,202 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load tests that drive DPWAPIClient concurrently against a {@link StubDPWServer}
+ * and report p50/p99 latency and throughput per scenario. Tagged "load", so they run
+ * with {@code ant test-load} rather than {@code ant test}.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@Tag("load")
+@DisplayName("DPW API Load Tests")
+class DPWLoadTest {
+
+    private static final String API_KEY = "stub-key";
+    private static final int WORKERS = 32;
+    private static final int REQUESTS = 600;
+
+    @TempDir
+    Path dir;
+
+    private StubDPWServer server;
+    private DPWAPIClient client;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new StubDPWServer();
+        client = new DPWAPIClient(server.getBaseUrl(), API_KEY);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    // ========== Load Scenarios ==========
+
+    @Test
+    @DisplayName("Mixed client traffic succeeds and reports latency and throughput")
+    void testMixedTraffic(TestReporter reporter) throws Exception {
+        server.setLatency(5, 10);
+        File export = exportFile();
+        LoadReport report = runLoad(reporter, "mixed", WORKERS, REQUESTS, i -> {
+            switch (i % 3) {
+                case 0:
+                    return client.fetchAuthorizedMappers().size() == 200;
+                case 1:
+                    return client.submitValidation("{\"task_id\":\"" + i + "\"}").success;
+                default:
+                    return client.uploadToCloud(export, 1000 + i, 1001, 1002, String.valueOf(i), "Kibera").success;
+            }
+        });
+        assertEquals(REQUESTS, report.successes);
+        assertEquals(REQUESTS / 3, server.getRequestCount("/users"));
+        assertEquals(REQUESTS / 3, server.getRequestCount("/validation-log"));
+        assertEquals(REQUESTS / 3, server.getRequestCount("/osm-uploads"));
+        assertTrue(report.p50Millis >= 5, "Latency should include the server delay");
+        assertTrue(report.p99Millis >= report.p50Millis);
+        assertTrue(report.throughput > 0);
+    }
+
+    @Test
+    @DisplayName("Injected server errors surface as failed submissions")
+    void testInjectedErrors(TestReporter reporter) throws Exception {
+        server.setErrorRate(0.25);
+        LoadReport report = runLoad(reporter, "errors 25%", WORKERS, REQUESTS,
+            i -> client.submitValidation("{\"task_id\":\"" + i + "\"}").success);
+        assertEquals(REQUESTS, report.successes + report.failures);
+        assertEquals(server.getStatusCount(500), report.failures);
+        assertTrue(report.failures > REQUESTS / 10 && report.failures < REQUESTS / 2,
+            "About a quarter should fail, got " + report.failures);
+    }
+
+    @Test
+    @DisplayName("Requests over the rate limit get 429 with Retry-After")
+    void testRateLimit(TestReporter reporter) throws Exception {
+        server.setRateLimit(100, 60);
+        LoadReport report = runLoad(reporter, "rate limit 100/min", WORKERS, 300,
+            i -> client.getUserIdByOsmUsername(SyntheticDataSetGenerator.mapperName(i % 50)) == 1000 + i % 50);
+        assertEquals(100, report.successes);
+        assertEquals(200, server.getStatusCount(429));
+
+        HttpURLConnection conn = (HttpURLConnection) new URI(server.getBaseUrl() + "/users").toURL().openConnection();
+        assertEquals(429, conn.getResponseCode());
+        assertEquals("100", conn.getHeaderField("X-RateLimit-Limit"));
+        assertEquals("0", conn.getHeaderField("X-RateLimit-Remaining"));
+        assertNotNull(conn.getHeaderField("X-RateLimit-Reset"));
+        int retryAfter = Integer.parseInt(conn.getHeaderField("Retry-After"));
+        assertTrue(retryAfter >= 1 && retryAfter <= 60);
+        try (InputStream in = conn.getErrorStream()) {
+            in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Random throttling sends the configured Retry-After")
+    void testThrottling() throws Exception {
+        server.setThrottleRate(1.0, 7);
+        HttpURLConnection conn = (HttpURLConnection) new URI(server.getBaseUrl() + "/validation-log").toURL().openConnection();
+        assertEquals(429, conn.getResponseCode());
+        assertEquals("7", conn.getHeaderField("Retry-After"));
+        assertFalse(client.submitValidation("{}").success);
+    }
+
+    // ========== Harness ==========
+
+    /** One request of a scenario; returns whether the client saw success */
+    private interface Call {
+        boolean run(int index) throws Exception;
+    }
+
+    private static final class LoadReport {
+        int successes;
+        int failures;
+        double p50Millis;
+        double p99Millis;
+        double throughput;
+    }
+
+    /**
+     * Run a closed-loop load: each worker issues the next request as soon as its last one finished.
+     */
+    private static LoadReport runLoad(TestReporter reporter, String name, int workers, int total, Call call)
+            throws Exception {
+        long[] latencies = new long[total];
+        boolean[] ok = new boolean[total];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = NetworkExecutor.create(true);
+        long start = System.nanoTime();
+        try {
+            Callable<Void> worker = () -> {
+                for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                    long t0 = System.nanoTime();
+                    try {
+                        ok[i] = call.run(i);
+                    } catch (Exception e) {
+                        ok[i] = false;
+                    }
+                    latencies[i] = System.nanoTime() - t0;
+                }
+                return null;
+            };
+            Future<?>[] futures = new Future<?>[workers];
+            for (int w = 0; w < workers; w++) {
+                futures[w] = executor.submit(worker);
+            }
+            for (Future<?> f : futures) {
+                f.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        LoadReport report = new LoadReport();
+        for (boolean b : ok) {
+            if (b) {
+                report.successes++;
+            } else {
+                report.failures++;
+            }
+        }
+        Arrays.sort(latencies);
+        report.p50Millis = latencies[total / 2] / 1e6;
+        report.p99Millis = latencies[Math.min(total - 1, (int) (total * 0.99))] / 1e6;
+        report.throughput = total / seconds;
+        reporter.publishEntry("DPW load " + name, String.format(Locale.ROOT,
+            "%d requests, %d workers, %d ok, %d failed, p50 %.1f ms, p99 %.1f ms, %.0f req/s",
+            total, workers, report.successes, report.failures, report.p50Millis, report.p99Millis,
+            report.throughput));
+        return report;
+    }
+
+    private File exportFile() throws Exception {
+        Path file = dir.resolve("Task_1_mapper_00_2025-01-06.osm");
+        Files.writeString(file, "<?xml version='1.0' encoding='UTF-8'?>\n<osm version='0.6' generator='test'>\n</osm>\n");
+        return file.toFile();
+    }
+}
@@ -0,0 +1,105 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for DaySortedList class.
+ * Tests sorting and inclusive day-range queries used by date-range isolation.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("DaySortedList Tests")
+class DaySortedListTest {
+
+    private static DaySortedList<String> sample() {
+        DaySortedList<String> list = new DaySortedList<>();
+        list.add(20003, "d");
+        list.add(20000, "a");
+        list.add(20001, "b1");
+        list.add(20005, "e");
+        list.add(20001, "b2");
+        return list;
+    }
+
+    // ========== Range Tests ==========
+
+    @Test
+    @DisplayName("Single-day range returns items of that day in insertion order")
+    void testSingleDay() {
+        DaySortedList<String> list = sample();
+        assertEquals(Arrays.asList("b1", "b2"), list.range(20001, 20001));
+        assertEquals(Arrays.asList("a"), list.range(20000, 20000));
+    }
+
+    @Test
+    @DisplayName("Range is inclusive on both ends and sorted by day")
+    void testInclusiveRange() {
+        DaySortedList<String> list = sample();
+        assertEquals(Arrays.asList("b1", "b2", "d"), list.range(20001, 20003));
+        assertEquals(Arrays.asList("a", "b1", "b2", "d", "e"), list.range(19000, 21000));
+    }
+
+    @Test
+    @DisplayName("Days without items and reversed ranges are empty")
+    void testEmptyRanges() {
+        DaySortedList<String> list = sample();
+        assertTrue(list.range(20002, 20002).isEmpty());
+        assertTrue(list.range(20006, 30000).isEmpty());
+        assertTrue(list.range(20003, 20001).isEmpty());
+        assertTrue(new DaySortedList<String>().range(0, 100).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Range up to Integer.MAX_VALUE does not overflow")
+    void testMaxValueBound() {
+        DaySortedList<String> list = sample();
+        assertEquals(Arrays.asList("d", "e"), list.range(20002, Integer.MAX_VALUE));
+        assertEquals(2, list.count(20002, Integer.MAX_VALUE));
+    }
+
+    // ========== Count Tests ==========
+
+    @Test
+    @DisplayName("Count matches range size")
+    void testCountMatchesRange() {
+        DaySortedList<Integer> list = new DaySortedList<>();
+        Random random = new Random(42);
+        List<Integer> days = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int day = 19000 + random.nextInt(400);
+            days.add(day);
+            list.add(day, day);
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = 18990 + random.nextInt(420);
+            int to = from + random.nextInt(60);
+            long expected = days.stream().filter(d -> d >= from && d <= to).count();
+            List<Integer> range = list.range(from, to);
+            assertEquals(expected, range.size());
+            assertEquals(expected, list.count(from, to));
+            for (int j = 1; j < range.size(); j++) {
+                assertTrue(range.get(j - 1) <= range.get(j));
+            }
+        }
+        assertEquals(5000, list.size());
+    }
+
+    // ========== Seal Tests ==========
+
+    @Test
+    @DisplayName("Adding after seal is rejected")
+    void testAddAfterSeal() {
+        DaySortedList<String> list = sample();
+        list.seal();
+        list.seal();
+        assertThrows(IllegalStateException.class, () -> list.add(1, "x"));
+    }
+}
@@ -0,0 +1,43 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for the DiagnosticsPanel formatting.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("DiagnosticsPanel Tests")
+class DiagnosticsPanelTest {
+
+    // ========== Formatting Tests ==========
+
+    @Test
+    @DisplayName("Hit rates show percentage and counts, or n/a when unused")
+    void testHitRate() {
+        assertEquals("n/a", DiagnosticsPanel.hitRate(0, 0));
+        assertEquals("75% (3 of 4)", DiagnosticsPanel.hitRate(3, 4));
+        assertEquals("0% (0 of 9)", DiagnosticsPanel.hitRate(0, 9));
+    }
+
+    @Test
+    @DisplayName("Support report lists layers and includes the metrics JSON")
+    void testReport() {
+        LayerMemoryAccountant.LayerStats source = new LayerMemoryAccountant.LayerStats("Data Layer 1", 4000, 1000, 5000, 2, 10, 1200);
+        LayerMemoryAccountant.LayerStats isolated = new LayerMemoryAccountant.LayerStats("[Validation] mapper_01", 40, 10, 50, 0, 0, 10);
+        String report = DiagnosticsPanel.report(Metrics.snapshot(), Arrays.asList(source, isolated));
+        assertTrue(report.contains("Layer 'Data Layer 1': 4000 nodes, 1000 ways, 2 relations, about "), report);
+        assertTrue(report.contains("Layer '[Validation] mapper_01': 40 nodes"), report);
+        assertTrue(report.contains("\"timers\": {"), report);
+
+        String empty = DiagnosticsPanel.report(Metrics.snapshot(), Collections.emptyList());
+        assertFalse(empty.contains("Layer '"));
+        assertEquals("1.5 MB", DiagnosticsPanel.megabytes(3 * 512 * 1024));
+    }
+}
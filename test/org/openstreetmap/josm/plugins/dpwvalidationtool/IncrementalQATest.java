@@ -0,0 +1,148 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for IncrementalQA.
+ * Every incremental result is compared with a full QAEngine run over the same buildings.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("IncrementalQA Tests")
+class IncrementalQATest {
+
+    private static final double[][] NO_HIGHWAYS = new double[0][];
+    private static final boolean[] NO_FLAGS = new boolean[0];
+
+    private static double[] square(double x, double y, double size) {
+        return new double[] {x, y, x + size, y, x + size, y + size, x, y + size, x, y};
+    }
+
+    private static QAEngine.Report fullRun(QAInput input) {
+        return QAEngine.withDefaultChecks().run(input, new AtomicBoolean(), null);
+    }
+
+    private static IncrementalQA start(double[]... buildings) {
+        return new IncrementalQA(fullRun(new QAInput(buildings, NO_HIGHWAYS, NO_FLAGS)));
+    }
+
+    private static QAEngine.Report update(IncrementalQA qa, int index, double[] coords) {
+        Map<Integer, double[]> changes = new HashMap<>();
+        changes.put(index, coords);
+        return qa.update(changes, Collections.emptyList());
+    }
+
+    /** Assert that the incremental report matches a full run over its input */
+    private static void assertMatchesFullRun(QAEngine.Report incremental) {
+        QAEngine.Report full = fullRun(incremental.input);
+        for (int c = 0; c < full.results.size(); c++) {
+            QAEngine.CheckResult expected = full.results.get(c);
+            QAEngine.CheckResult actual = incremental.results.get(c);
+            assertEquals(expected.issues, actual.issues, expected.check.getName() + " issues");
+            assertEquals(expected.flagged, actual.flagged, expected.check.getName() + " flags");
+        }
+    }
+
+    // ========== Edit Tests ==========
+
+    @Test
+    @DisplayName("Moving a building off its neighbour clears the overlap")
+    void testFixOverlap() {
+        IncrementalQA qa = start(square(0, 0, 2), square(1, 1, 2), square(10, 10, 1));
+        assertEquals(1, qa.getReport().getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        QAEngine.Report r = update(qa, 1, square(5, 5, 2));
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertTrue(r.results.get(0).flagged.isEmpty());
+        assertMatchesFullRun(r);
+    }
+
+    @Test
+    @DisplayName("Moving a building onto another adds an overlap")
+    void testIntroduceOverlap() {
+        IncrementalQA qa = start(square(0, 0, 2), square(5, 5, 2));
+        QAEngine.Report r = update(qa, 1, square(1, 1, 2));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertMatchesFullRun(r);
+    }
+
+    @Test
+    @DisplayName("Overlap with a lower-index neighbour stays flagged when an unrelated neighbour changes")
+    void testUnchangedPairKept() {
+        // 0 and 1 overlap; 2 touches 1 and is edited without affecting the pair
+        IncrementalQA qa = start(square(0, 0, 2), square(1, 1, 2), square(3, 1, 1));
+        QAEngine.Report r = update(qa, 2, square(3, 1, 0.5));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertTrue(r.results.get(0).flagged.get(1));
+        assertMatchesFullRun(r);
+    }
+
+    @Test
+    @DisplayName("Removed and added buildings are re-checked")
+    void testRemoveAndAdd() {
+        IncrementalQA qa = start(square(0, 0, 2), square(1, 1, 2));
+        QAEngine.Report r = update(qa, 0, null);
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        r = update(qa, 3, square(1.5, 1.5, 0.5));
+        assertEquals(4, r.input.size());
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_INSIDE));
+        assertMatchesFullRun(r);
+    }
+
+    @Test
+    @DisplayName("Random edit sequence always matches a full run")
+    void testRandomEdits() {
+        Random random = new Random(42);
+        int side = 30;
+        double[][] buildings = new double[side * side][];
+        for (int i = 0; i < buildings.length; i++) {
+            buildings[i] = square((i % side) * 2, (i / side) * 2, 1.5 + random.nextDouble());
+        }
+        IncrementalQA qa = new IncrementalQA(fullRun(new QAInput(buildings, NO_HIGHWAYS, NO_FLAGS)));
+        // Enough edits to push the derived inputs past MAX_STALE and onto a fresh tree
+        for (int edit = 0; edit < QAInput.MAX_STALE + 50; edit++) {
+            Map<Integer, double[]> changes = new HashMap<>();
+            for (int k = random.nextInt(3); k >= 0; k--) {
+                int i = random.nextInt(buildings.length);
+                changes.put(i, random.nextInt(10) == 0 ? null
+                    : square(random.nextDouble() * side * 2, random.nextDouble() * side * 2, 0.5 + random.nextDouble() * 2));
+            }
+            QAEngine.Report r = qa.update(changes, Collections.emptyList());
+            if (edit % 25 == 0) {
+                assertMatchesFullRun(r);
+            }
+        }
+        assertMatchesFullRun(qa.getReport());
+    }
+
+    // ========== Input Tests ==========
+
+    @Test
+    @DisplayName("Cancelled reports cannot be continued")
+    void testCancelledRejected() {
+        QAEngine.Report cancelled = QAEngine.withDefaultChecks().run(
+            new QAInput(new double[][] {square(0, 0, 1)}, NO_HIGHWAYS, NO_FLAGS), new AtomicBoolean(true), null);
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalQA(cancelled));
+    }
+
+    @Test
+    @DisplayName("Derived inputs find moved buildings at their new position only")
+    void testDerivedInputSearch() {
+        QAInput input = new QAInput(new double[][] {square(0, 0, 1), square(5, 5, 1)}, NO_HIGHWAYS, NO_FLAGS);
+        fullRun(input); // builds the tree the derived input inherits
+        QAInput moved = input.withBuildings(Collections.singletonMap(0, square(20, 20, 1)), Collections.emptyList());
+        int[] hits = {0, 0};
+        moved.searchBuildings(-1, -1, 2, 2, i -> hits[0]++);
+        moved.searchBuildings(19, 19, 22, 22, i -> hits[1]++);
+        assertEquals(0, hits[0]);
+        assertEquals(1, hits[1]);
+    }
+}
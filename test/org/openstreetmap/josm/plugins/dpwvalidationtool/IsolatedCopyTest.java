@@ -0,0 +1,185 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.openstreetmap.josm.command.ChangePropertyCommand;
+import org.openstreetmap.josm.data.UndoRedoHandler;
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for IsolatedCopy.
+ * Updates run on a plain DataSet; the source must never gain references to clones.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("IsolatedCopy Tests")
+class IsolatedCopyTest {
+
+    private static Node node(DataSet ds, long id, double lat, double lon) {
+        Node node = new Node(id, 1);
+        node.setCoor(new LatLon(lat, lon));
+        ds.addPrimitive(node);
+        return node;
+    }
+
+    private static Way building(DataSet ds, long id, Node... corners) {
+        Way way = new Way(id, 1);
+        List<Node> nodes = new ArrayList<>(Arrays.asList(corners));
+        nodes.add(corners[0]);
+        way.setNodes(nodes);
+        way.put("building", "yes");
+        ds.addPrimitive(way);
+        return way;
+    }
+
+    /** Two buildings sharing the wall from b to c, and a third one apart */
+    private static final class Block {
+        final DataSet ds = new DataSet();
+        final Node a = node(ds, 1, 0, 0);
+        final Node b = node(ds, 2, 0, 1);
+        final Node c = node(ds, 3, 1, 1);
+        final Node d = node(ds, 4, 1, 0);
+        final Node e = node(ds, 5, 0, 2);
+        final Node f = node(ds, 6, 1, 2);
+        final Node g = node(ds, 7, 5, 5);
+        final Node h = node(ds, 8, 5, 6);
+        final Node i = node(ds, 9, 6, 6);
+        final Way left = building(ds, 11, a, b, c, d);
+        final Way right = building(ds, 12, b, e, f, c);
+        final Way apart = building(ds, 13, g, h, i);
+    }
+
+    private static Way cloneOf(IsolatedCopy copy, Way source) {
+        for (Way w : copy.getTarget().getWays()) {
+            if (w.getUniqueId() == source.getUniqueId()) return w;
+        }
+        return null;
+    }
+
+    private static void assertSourceUntouched(Block block) {
+        for (Node n : block.ds.getNodes()) {
+            for (OsmPrimitive referrer : n.getReferrers()) {
+                assertSame(block.ds, referrer.getDataSet(), "source node " + n.getUniqueId() + " refers to a clone");
+            }
+        }
+    }
+
+    // ========== Update Tests ==========
+
+    @Test
+    @DisplayName("Adding a building clones it with its nodes")
+    void testAdd() {
+        Block block = new Block();
+        IsolatedCopy copy = IsolatedCopy.create(block.ds, Collections.singletonList(block.left));
+        assertEquals(1, copy.getTarget().getWays().size());
+        assertEquals(4, copy.getTarget().getNodes().size());
+
+        IsolatedCopy.Diff diff = copy.update(Arrays.asList(block.left, block.apart));
+        assertEquals(1, diff.added);
+        assertEquals(0, diff.removed);
+        assertEquals(2, copy.getTarget().getWays().size());
+        assertEquals(7, copy.getTarget().getNodes().size());
+        Way clone = cloneOf(copy, block.apart);
+        assertNotNull(clone);
+        assertNotSame(block.apart, clone);
+        assertEquals("yes", clone.get("building"));
+        for (Node n : clone.getNodes()) {
+            assertSame(copy.getTarget(), n.getDataSet());
+        }
+        assertSourceUntouched(block);
+    }
+
+    @Test
+    @DisplayName("Removing a building drops its clone and its unused nodes")
+    void testRemove() {
+        Block block = new Block();
+        IsolatedCopy copy = IsolatedCopy.create(block.ds, Arrays.asList(block.left, block.apart));
+
+        IsolatedCopy.Diff diff = copy.update(Collections.singletonList(block.left));
+        assertEquals(0, diff.added);
+        assertEquals(1, diff.removed);
+        assertEquals(1, copy.getTarget().getWays().size());
+        assertNull(cloneOf(copy, block.apart));
+        assertEquals(4, copy.getTarget().getNodes().size());
+
+        // And back again
+        copy.update(Arrays.asList(block.left, block.apart));
+        assertEquals(7, copy.getTarget().getNodes().size());
+        assertSourceUntouched(block);
+    }
+
+    @Test
+    @DisplayName("Nodes shared with a remaining building are kept, and reused when added")
+    void testSharedNodes() {
+        Block block = new Block();
+        IsolatedCopy copy = IsolatedCopy.create(block.ds, Collections.singletonList(block.left));
+
+        copy.update(Arrays.asList(block.left, block.right));
+        // b and c are cloned once and used by both clones
+        assertEquals(6, copy.getTarget().getNodes().size());
+        Way left = cloneOf(copy, block.left);
+        Way right = cloneOf(copy, block.right);
+        assertSame(left.getNode(1), right.getNode(0));
+        assertSame(left.getNode(2), right.getNode(3));
+
+        copy.update(Collections.singletonList(block.right));
+        assertEquals(4, copy.getTarget().getNodes().size());
+        assertEquals(1, copy.getTarget().getWays().size());
+        assertSame(copy.getTarget(), cloneOf(copy, block.right).getNode(0).getDataSet());
+        assertSourceUntouched(block);
+    }
+
+    @Test
+    @DisplayName("A selected node stays when the building using it is removed")
+    void testSelectedNode() {
+        Block block = new Block();
+        block.a.put("entrance", "main");
+        IsolatedCopy copy = IsolatedCopy.create(block.ds, Arrays.asList(block.left, block.a));
+        assertEquals(4, copy.getTarget().getNodes().size());
+
+        copy.update(Collections.singletonList(block.a));
+        assertTrue(copy.getTarget().getWays().isEmpty());
+        assertEquals(1, copy.getTarget().getNodes().size());
+        assertEquals("main", copy.getTarget().getNodes().iterator().next().get("entrance"));
+
+        copy.update(Collections.emptyList());
+        assertTrue(copy.getTarget().getNodes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("An unchanged selection keeps the undo history of the copy")
+    void testNoOpKeepsUndo() {
+        Block block = new Block();
+        IsolatedCopy copy = IsolatedCopy.create(block.ds, Collections.singletonList(block.left));
+        DataSet target = copy.getTarget();
+        UndoRedoHandler undo = UndoRedoHandler.getInstance();
+        try {
+            ChangePropertyCommand edit = new ChangePropertyCommand(target,
+                Collections.singletonList(cloneOf(copy, block.left)), "building:levels", "2");
+            undo.add(edit);
+
+            IsolatedCopy.Diff diff = copy.update(Collections.singletonList(block.left));
+            assertEquals(0, diff.added);
+            assertEquals(0, diff.removed);
+            assertTrue(undo.getUndoCommands().contains(edit));
+
+            // A real change drops commands that may refer to removed clones
+            copy.update(Collections.singletonList(block.apart));
+            assertFalse(undo.getUndoCommands().contains(edit));
+        } finally {
+            undo.clean(target);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for IsolatedView.
+ * The selection bookkeeping is driven directly, as the DataSet listener would.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("IsolatedView Tests")
+class IsolatedViewTest {
+
+    private static Way building(DataSet ds, long id, double lat, double lon) {
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < 4; i++) {
+            nodes[i] = id > 0 ? new Node(id * 10 + i, 1) : new Node();
+            nodes[i].setCoor(new LatLon(lat + (i / 2) * 0.0001, lon + ((i + 1) / 2 % 2) * 0.0001));
+            ds.addPrimitive(nodes[i]);
+        }
+        Way way = id > 0 ? new Way(id, 1) : new Way();
+        way.setNodes(Arrays.asList(nodes[0], nodes[1], nodes[2], nodes[3], nodes[0]));
+        way.put("building", "yes");
+        ds.addPrimitive(way);
+        return way;
+    }
+
+    // ========== Selection Tests ==========
+
+    @Test
+    @DisplayName("A building whose deletion is undone returns to the selection")
+    void testUndoDelete() {
+        DataSet ds = new DataSet();
+        Way kept = building(ds, 1, -1.3, 36.7);
+        Way deleted = building(ds, 2, -1.3, 36.71);
+        IsolatedView view = new IsolatedView(null, Arrays.asList(kept, deleted));
+
+        view.primitivesRemoved(Collections.singletonList(deleted));
+        assertFalse(view.getSelected().contains(deleted));
+        assertTrue(view.getSelected().contains(kept));
+
+        view.primitivesAdded(Collections.singletonList(deleted));
+        assertTrue(view.getSelected().contains(deleted), "undone deletion should be exported again");
+        assertEquals(2, view.getSelected().size());
+    }
+
+    @Test
+    @DisplayName("Only new tagged primitives and restored ones join the selection")
+    void testAddedPrimitives() {
+        DataSet ds = new DataSet();
+        Way selected = building(ds, 1, -1.3, 36.7);
+        Way other = building(ds, 2, -1.3, 36.71);
+        Way drawn = building(ds, 0, -1.3, 36.72);
+        IsolatedView view = new IsolatedView(null, Collections.singletonList(selected));
+
+        // Another mapper's building coming back (e.g. undo of its deletion) stays hidden
+        view.primitivesRemoved(Collections.singletonList(other));
+        view.primitivesAdded(Collections.singletonList(other));
+        assertFalse(view.getSelected().contains(other));
+
+        // A building drawn by the validator is exported, its untagged nodes come with the way
+        List<Node> drawnNodes = drawn.getNodes();
+        view.primitivesAdded(Arrays.asList(drawnNodes.get(0), drawn));
+        assertTrue(view.getSelected().contains(drawn));
+        assertFalse(view.getSelected().contains(drawnNodes.get(0)));
+        assertEquals(2, view.getSelected().size());
+    }
+
+    @Test
+    @DisplayName("Repeated delete and undo keeps the building selected")
+    void testRepeatedUndo() {
+        DataSet ds = new DataSet();
+        Way building = building(ds, 1, -1.3, 36.7);
+        IsolatedView view = new IsolatedView(null, Collections.singletonList(building));
+
+        for (int i = 0; i < 3; i++) {
+            view.primitivesRemoved(Collections.singletonList(building));
+            assertTrue(view.getSelected().isEmpty());
+            view.primitivesAdded(Collections.singletonList(building));
+            assertEquals(Collections.singleton(building), view.getSelected());
+        }
+    }
+
+    // ========== Filter Run Tests ==========
+
+    @Test
+    @DisplayName("Filter runs of a view keep the mapper index, edits still invalidate it")
+    void testFilterRunKeepsIndex() {
+        DataSet ds = new DataSet();
+        Way building = building(ds, 1, -1.3, 36.7);
+        building.setUser(User.createOsmUser(1, "mapper_01"));
+        MapperDayIndex index = MapperDayIndex.unregistered(ds);
+        try {
+            assertEquals(1, index.countBuildings("mapper_01"));
+            long rebuilds = Metrics.INDEX_REBUILDS.get();
+
+            IsolatedView.beginFilterRun(ds);
+            try {
+                building.setDisabledState(true);
+                ds.fireFilterChanged();
+            } finally {
+                IsolatedView.endFilterRun(ds);
+            }
+            assertFalse(IsolatedView.isFilterRun());
+            assertEquals(1, index.countBuildings("mapper_01"));
+            assertEquals(rebuilds, Metrics.INDEX_REBUILDS.get());
+
+            // Edits batched in one update arrive as a single DATA_CHANGED
+            ds.update(() -> {
+                building.put("building", null);
+                building.put("roof:material", "metal");
+            });
+            assertEquals(0, index.countBuildings("mapper_01"));
+            assertEquals(rebuilds + 1, Metrics.INDEX_REBUILDS.get());
+
+            // A filter run outside a view cannot be told from an edit too large to list
+            ds.fireFilterChanged();
+            index.countBuildings("mapper_01");
+            assertEquals(rebuilds + 2, Metrics.INDEX_REBUILDS.get());
+        } finally {
+            index.dispose();
+        }
+    }
+}
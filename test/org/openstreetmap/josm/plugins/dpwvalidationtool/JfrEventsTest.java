@@ -0,0 +1,102 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit tests for JfrEvents.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("JfrEvents Tests")
+class JfrEventsTest {
+
+    @TempDir
+    Path dir;
+
+    // ========== Recording Tests ==========
+
+    @Test
+    @DisplayName("Events are recorded with their fields")
+    void testEventsAreRecorded() throws Exception {
+        assertTrue(JfrEvents.AVAILABLE);
+        Path file = dir.resolve("plugin.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(JfrEvents.Isolate.class);
+            recording.enable(JfrEvents.Clone.class);
+            recording.enable(JfrEvents.Export.class);
+            recording.enable(JfrEvents.HttpRequest.class);
+            recording.enable(JfrEvents.CacheLookup.class);
+            recording.start();
+
+            JfrEvents.endIsolate(JfrEvents.beginIsolate(), 42, "copy");
+            JfrEvents.endClone(JfrEvents.beginClone(), 300, 42, 1);
+            JfrEvents.endExport(JfrEvents.beginExport(), "mapper.osm", "osm", 12345);
+            JfrEvents.endHttp(JfrEvents.beginHttp("POST", "https://example.org/api/validation-log?osm_username=x"),
+                201, 512, 64);
+            JfrEvents.cacheLookup("user_list", true);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().startsWith("org.openstreetmap.josm.plugins.dpwvalidationtool."))
+            .collect(Collectors.toList());
+        assertEquals(5, events.size());
+
+        RecordedEvent isolate = find(events, "Isolate");
+        assertEquals(42, isolate.getInt("buildings"));
+        assertEquals("copy", isolate.getString("mode"));
+        assertEquals(300, find(events, "Clone").getInt("nodes"));
+        assertEquals(12345L, find(events, "Export").getLong("bytes"));
+
+        RecordedEvent http = find(events, "HttpRequest");
+        assertEquals("/api/validation-log", http.getString("endpoint"));
+        assertEquals(201, http.getInt("status"));
+        assertEquals(512L, http.getLong("requestBytes"));
+        assertTrue(find(events, "CacheLookup").getBoolean("hit"));
+        assertTrue(events.get(0).getEventType().getCategoryNames().contains("DPW Validation Tool"));
+    }
+
+    @Test
+    @DisplayName("Ending a missing event is a no-op")
+    void testNullEvents() {
+        assertDoesNotThrow(() -> {
+            JfrEvents.endIsolate(null, 1, "view");
+            JfrEvents.endClone(null, 1, 1, 1);
+            JfrEvents.endExport(null, "a.osm", "osm", 1);
+            JfrEvents.endHttp(null, 200, 0, 0);
+        });
+    }
+
+    // ========== URL Tests ==========
+
+    @Test
+    @DisplayName("Only the URL path is recorded")
+    void testPathOf() {
+        assertEquals("/api/users", JfrEvents.pathOf("https://dpw.example.org/api/users?osm_username=someone"));
+        assertEquals("/projects/1/tasks/2/", JfrEvents.pathOf("https://tm.example.org/projects/1/tasks/2/"));
+        assertEquals("/", JfrEvents.pathOf("http://localhost:8080"));
+        assertEquals("/relative", JfrEvents.pathOf("/relative?q=1"));
+        assertNull(JfrEvents.pathOf(null));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(e -> e.getEventType().getName().endsWith("." + name))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("no " + name + " event"));
+    }
+}
@@ -0,0 +1,92 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for LayerMemoryAccountant.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("LayerMemoryAccountant Tests")
+class LayerMemoryAccountantTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    // ========== Estimate Tests ==========
+
+    @Test
+    @DisplayName("Heap estimate grows with primitives, way nodes and tags")
+    void testEstimateBytes() {
+        assertEquals(0L, LayerMemoryAccountant.estimateBytes(0, 0, 0, 0, 0, 0));
+        // A building: 4 nodes, one closed way of 5 refs, one tag
+        long building = LayerMemoryAccountant.estimateBytes(4, 1, 5, 0, 0, 1);
+        assertEquals(4 * LayerMemoryAccountant.NODE_BYTES + LayerMemoryAccountant.WAY_BYTES
+            + 5 * LayerMemoryAccountant.WAY_NODE_BYTES + LayerMemoryAccountant.TAG_BYTES, building);
+        LayerMemoryAccountant.LayerStats stats = new LayerMemoryAccountant.LayerStats("Data Layer 1", 400, 100, 500, 0, 0, 100);
+        assertEquals(100 * building, stats.estimatedBytes);
+
+        // A renamed layer keeps its measurement
+        LayerMemoryAccountant.LayerStats renamed = stats.withName("[Validation] mapper_01");
+        assertEquals("[Validation] mapper_01", renamed.name);
+        assertEquals(stats.estimatedBytes, renamed.estimatedBytes);
+    }
+
+    // ========== Budget Tests ==========
+
+    @Test
+    @DisplayName("Validation and source layers are totalled separately against the budget")
+    void testReportTotals() {
+        LayerMemoryAccountant.Report report = new LayerMemoryAccountant.Report(Arrays.asList(
+            usage("Data Layer 1", 40 * MB, false, 0),
+            usage("[Validation] mapper_01 - 2026-01-05", 10 * MB, false, 1),
+            usage("[Validation] mapper_02 - 2026-01-05", 12 * MB, false, 2)), 16 * MB, 0);
+        assertEquals(22 * MB, report.getValidationBytes());
+        assertEquals(40 * MB, report.getSourceBytes());
+        assertEquals(2, report.getValidationLayerCount());
+        assertTrue(report.isOverBudget());
+        assertTrue(report.getSummary().startsWith("2 validation layers use about 22.0 MB of the 16.0 MB budget"),
+            report.getSummary());
+        assertTrue(report.getSummary().endsWith("close old validation layers"));
+    }
+
+    @Test
+    @DisplayName("Eviction closes the oldest unmodified validation layers until within budget")
+    void testPlanEviction() {
+        LayerMemoryAccountant.Report report = new LayerMemoryAccountant.Report(Arrays.asList(
+            usage("Data Layer 1", 200 * MB, false, 0),
+            usage("[Validation] newest", 10 * MB, false, 4),
+            usage("[Validation] edited", 10 * MB, true, 1),
+            usage("[Validation] oldest", 10 * MB, false, 2),
+            usage("[Validation] middle", 10 * MB, false, 3)), 25 * MB, 0);
+        List<LayerMemoryAccountant.Usage> evict = LayerMemoryAccountant.planEviction(report, Collections.emptyList());
+        assertEquals(2, evict.size());
+        assertEquals("[Validation] oldest", evict.get(0).stats.name);
+        assertEquals("[Validation] middle", evict.get(1).stats.name);
+
+        LayerMemoryAccountant.Report within = new LayerMemoryAccountant.Report(report.getUsages(), 100 * MB, 0);
+        assertFalse(within.isOverBudget());
+        assertTrue(LayerMemoryAccountant.planEviction(within, Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Only layers with the validation prefix count as validation layers")
+    void testValidationLayerNames() {
+        assertTrue(LayerMemoryAccountant.isValidationLayer(ValidationConstants.VALIDATION_LAYER_PREFIX + "mapper"));
+        assertFalse(LayerMemoryAccountant.isValidationLayer("Data Layer 1"));
+        assertFalse(LayerMemoryAccountant.isValidationLayer(null));
+    }
+
+    private static LayerMemoryAccountant.Usage usage(String name, long bytes, boolean modified, long order) {
+        // Tags only, sized to the requested estimate
+        long tags = bytes / LayerMemoryAccountant.TAG_BYTES;
+        return new LayerMemoryAccountant.Usage(null, new LayerMemoryAccountant.LayerStats(name, 0, 0, 0, 0, 0, tags),
+            modified, order);
+    }
+}
@@ -0,0 +1,117 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for the LayerSnapshot diff and persistence logic.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("LayerSnapshot Tests")
+class LayerSnapshotTest {
+
+    private static final String SHA_A = "a".repeat(64);
+    private static final String SHA_B = "b".repeat(64);
+
+    @TempDir
+    Path dir;
+
+    private static LayerSnapshot snapshot(String sha256, Object... keysAndFingerprints) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (int i = 0; i < keysAndFingerprints.length; i += 2) {
+            fingerprints.put((String) keysAndFingerprints[i], (Long) keysAndFingerprints[i + 1]);
+        }
+        return new LayerSnapshot(sha256, fingerprints);
+    }
+
+    // ========== Diff Tests ==========
+
+    @Test
+    @DisplayName("Created, modified and deleted primitives are told apart")
+    void testDiff() {
+        LayerSnapshot base = snapshot(SHA_A, "n1", 10L, "n2", 20L, "w1", 30L, "n3", 40L);
+        LayerSnapshot current = snapshot(SHA_B, "n1", 10L, "n2", 21L, "w1", 30L, "n-4", 50L);
+        LayerSnapshot.Diff diff = current.diffFrom(base);
+        assertEquals(Set.of("n-4"), diff.created);
+        assertEquals(Set.of("n2"), diff.modified);
+        assertEquals(Set.of("n3"), diff.deleted);
+        assertEquals(3, diff.size());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Identical snapshots have an empty diff")
+    void testEmptyDiff() {
+        LayerSnapshot a = snapshot(SHA_A, "n1", 10L, "w1", 30L);
+        assertTrue(snapshot(SHA_B, "n1", 10L, "w1", 30L).diffFrom(a).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A small edit in a large layer yields a small diff")
+    void testSmallEditInLargeLayer() {
+        Map<String, Long> before = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            before.put("n" + i, (long) i);
+        }
+        Map<String, Long> after = new HashMap<>(before);
+        after.put("n17", -1L);
+        after.put("n-1", 99L);
+        LayerSnapshot.Diff diff = new LayerSnapshot(SHA_B, after).diffFrom(new LayerSnapshot(SHA_A, before));
+        assertEquals(2, diff.size());
+    }
+
+    // ========== Persistence Tests ==========
+
+    @Test
+    @DisplayName("Snapshot survives save and load, including negative fingerprints")
+    void testSaveLoad() throws IOException {
+        Path file = dir.resolve("snapshots").resolve("log-7.tsv");
+        LayerSnapshot original = snapshot(SHA_A, "n1", Long.MIN_VALUE, "w-2", -5L, "r3", Long.MAX_VALUE);
+        original.save(file);
+        LayerSnapshot loaded = LayerSnapshot.load(file);
+        assertNotNull(loaded);
+        assertEquals(SHA_A, loaded.getSha256());
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.diffFrom(original).isEmpty());
+
+        // Saving again replaces the earlier snapshot
+        snapshot(SHA_B, "n1", 1L).save(file);
+        assertEquals(SHA_B, LayerSnapshot.load(file).getSha256());
+    }
+
+    @Test
+    @DisplayName("Missing or foreign files load as no snapshot")
+    void testLoadMissing() throws IOException {
+        assertNull(LayerSnapshot.load(dir.resolve("none.tsv")));
+        Path foreign = dir.resolve("foreign.tsv");
+        java.nio.file.Files.write(foreign, Collections.singletonList("hello"));
+        assertNull(LayerSnapshot.load(foreign));
+    }
+
+    // ========== Helper Tests ==========
+
+    @Test
+    @DisplayName("Fingerprint hash distinguishes near-identical content")
+    void testFnv() {
+        assertEquals(LayerSnapshot.fnv64("-1.2345,36.8|building=yes;"), LayerSnapshot.fnv64("-1.2345,36.8|building=yes;"));
+        assertNotEquals(LayerSnapshot.fnv64("-1.2345,36.8|building=yes;"), LayerSnapshot.fnv64("-1.2345,36.9|building=yes;"));
+        assertNotEquals(LayerSnapshot.fnv64("Ā"), LayerSnapshot.fnv64("\u0001"));
+    }
+
+    @Test
+    @DisplayName("XML attribute values are escaped")
+    void testEscape() {
+        assertEquals("a&amp;b &lt;c&gt; &quot;d&quot;&#10;", LayerSnapshot.escape("a&b <c> \"d\"\n"));
+    }
+}
@@ -0,0 +1,209 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.openstreetmap.josm.data.osm.BBox;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.OsmPrimitive;
+import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Unit tests for MapperDayIndex.
+ * Every query is compared with a plain scan of the same synthetic DataSet.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("MapperDayIndex Tests")
+class MapperDayIndexTest {
+
+    private static final int MAPPERS = 8;
+    private static final int DAYS = 5;
+    private static final LocalDate FIRST = SyntheticDataSetGenerator.FIRST_DAY;
+    private static final LocalDate LAST = FIRST.plusDays(DAYS - 1);
+
+    private static SyntheticDataSetGenerator generator() {
+        return new SyntheticDataSetGenerator(400, MAPPERS, DAYS, 4, 11);
+    }
+
+    private static LocalDate day(OsmPrimitive p) {
+        return p.getInstant().atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    /** Buildings of a mapper within a date range and an optional area, found by scanning */
+    private static Set<OsmPrimitive> scan(DataSet ds, String mapper, LocalDate from, LocalDate to, SpatialBounds area) {
+        Set<OsmPrimitive> result = new HashSet<>();
+        for (OsmPrimitive p : ds.allPrimitives()) {
+            if (!p.hasKey("building") || p.getUser() == null || !p.getUser().getName().equals(mapper)) continue;
+            LocalDate day = day(p);
+            if (day.isBefore(from) || day.isAfter(to)) continue;
+            if (area != null) {
+                BBox box = p.getBBox();
+                if (!area.contains((box.minLon() + box.maxLon()) / 2, (box.minLat() + box.maxLat()) / 2)) continue;
+            }
+            result.add(p);
+        }
+        return result;
+    }
+
+    private static Map<String, Set<OsmPrimitive>> asSets(Map<String, List<OsmPrimitive>> byMapper) {
+        Map<String, Set<OsmPrimitive>> sets = new TreeMap<>();
+        for (Map.Entry<String, List<OsmPrimitive>> e : byMapper.entrySet()) {
+            assertFalse(e.getValue().isEmpty(), e.getKey() + " listed without buildings");
+            sets.put(e.getKey(), new HashSet<>(e.getValue()));
+        }
+        return sets;
+    }
+
+    private static Map<String, Set<OsmPrimitive>> scanByMapper(DataSet ds, LocalDate from, LocalDate to, SpatialBounds area) {
+        Map<String, Set<OsmPrimitive>> result = new TreeMap<>();
+        for (int m = 0; m < MAPPERS; m++) {
+            String mapper = SyntheticDataSetGenerator.mapperName(m);
+            Set<OsmPrimitive> buildings = scan(ds, mapper, from, to, area);
+            if (!buildings.isEmpty()) {
+                result.put(mapper, buildings);
+            }
+        }
+        return result;
+    }
+
+    // ========== Query Tests ==========
+
+    @Test
+    @DisplayName("Counts and user names match a scan")
+    void testCounts() {
+        DataSet ds = generator().generate();
+        MapperDayIndex index = MapperDayIndex.unregistered(ds);
+        try {
+            int total = 0;
+            Set<String> names = new TreeSet<>();
+            for (OsmPrimitive p : ds.allPrimitives()) {
+                if (p.hasKey("building")) total++;
+                if (p.getUser() != null) names.add(p.getUser().getName());
+            }
+            assertEquals(total, index.getTotalBuildings());
+            assertEquals(new ArrayList<>(names), index.getUserNames());
+            for (int m = 0; m < MAPPERS; m++) {
+                String mapper = SyntheticDataSetGenerator.mapperName(m);
+                assertEquals(scan(ds, mapper, LocalDate.MIN, LocalDate.MAX, null).size(), index.countBuildings(mapper), mapper);
+            }
+            assertEquals(0, index.countBuildings("nobody"));
+            assertTrue(index.getBuildings("nobody", FIRST).isEmpty());
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Day and range queries match a scan and come back in date order")
+    void testDayRanges() {
+        DataSet ds = generator().generate();
+        MapperDayIndex index = MapperDayIndex.unregistered(ds);
+        try {
+            for (int m = 0; m < MAPPERS; m++) {
+                String mapper = SyntheticDataSetGenerator.mapperName(m);
+                for (LocalDate d = FIRST; !d.isAfter(LAST); d = d.plusDays(1)) {
+                    assertEquals(scan(ds, mapper, d, d, null), new HashSet<>(index.getBuildings(mapper, d)), mapper + " " + d);
+                }
+                List<OsmPrimitive> range = index.getBuildings(mapper, FIRST.plusDays(1), LAST);
+                assertEquals(scan(ds, mapper, FIRST.plusDays(1), LAST, null), new HashSet<>(range), mapper);
+                for (int i = 1; i < range.size(); i++) {
+                    assertFalse(day(range.get(i)).isBefore(day(range.get(i - 1))), mapper + " out of date order");
+                }
+            }
+            assertEquals(scanByMapper(ds, FIRST.plusDays(1), FIRST.plusDays(3), null),
+                asSets(index.getBuildingsByMapper(FIRST.plusDays(1), FIRST.plusDays(3))));
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Area queries match a scan of bounding box centres")
+    void testArea() {
+        SyntheticDataSetGenerator generator = generator();
+        DataSet ds = generator.generate();
+        double[] extent = generator.getExtent();
+        // South-west quarter of the settlement
+        SpatialBounds area = SpatialBounds.ofBox(extent[0], extent[1],
+            (extent[0] + extent[2]) / 2, (extent[1] + extent[3]) / 2, "test");
+        MapperDayIndex index = MapperDayIndex.unregistered(ds);
+        try {
+            Map<String, Set<OsmPrimitive>> expected = scanByMapper(ds, FIRST, LAST, area);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, asSets(index.getBuildingsByMapper(FIRST, LAST, area)));
+            for (int m = 0; m < MAPPERS; m++) {
+                String mapper = SyntheticDataSetGenerator.mapperName(m);
+                assertEquals(scan(ds, mapper, FIRST, FIRST.plusDays(2), area),
+                    new HashSet<>(index.getBuildings(mapper, FIRST, FIRST.plusDays(2), area)), mapper);
+            }
+            // No area falls back to the day index
+            assertEquals(scanByMapper(ds, FIRST, LAST, null), asSets(index.getBuildingsByMapper(FIRST, LAST, null)));
+        } finally {
+            index.dispose();
+        }
+    }
+
+    // ========== Rebuild Tests ==========
+
+    @Test
+    @DisplayName("Edits to the DataSet show up in the next query")
+    void testRebuildAfterEdit() {
+        DataSet ds = generator().generate();
+        MapperDayIndex index = MapperDayIndex.unregistered(ds);
+        try {
+            String mapper = SyntheticDataSetGenerator.mapperName(0);
+            int before = index.countBuildings(mapper);
+            List<OsmPrimitive> buildings = index.getBuildings(mapper, FIRST, LAST);
+            assertFalse(buildings.isEmpty());
+
+            // Untagging one of the mapper's buildings
+            OsmPrimitive untagged = buildings.get(0);
+            untagged.put("building", null);
+            assertEquals(before - 1, index.countBuildings(mapper));
+            assertFalse(index.getBuildings(mapper, FIRST, LAST).contains(untagged));
+
+            // Another mapper's building handed over to this one
+            Way other = null;
+            for (Way w : ds.getWays()) {
+                if (w.hasKey("building") && !w.getUser().getName().equals(mapper)) {
+                    other = w;
+                    break;
+                }
+            }
+            assertNotNull(other);
+            other.setUser(User.createOsmUser(1000L, mapper));
+            // Not a DataSet event: only invalidate() tells the index
+            index.invalidate();
+            assertEquals(before, index.countBuildings(mapper));
+
+            long rebuilds = Metrics.INDEX_REBUILDS.get();
+            index.countBuildings(mapper);
+            index.getUserNames();
+            assertEquals(rebuilds, Metrics.INDEX_REBUILDS.get(), "unchanged DataSet rebuilt");
+
+            // A disposed index no longer follows the DataSet
+            index.dispose();
+            index.getTotalBuildings();
+            rebuilds = Metrics.INDEX_REBUILDS.get();
+            ds.getWays().iterator().next().put("building", "house");
+            index.getTotalBuildings();
+            assertEquals(rebuilds, Metrics.INDEX_REBUILDS.get());
+        } finally {
+            index.dispose();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Unit tests for Metrics.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("Metrics Tests")
+class MetricsTest {
+
+    @TempDir
+    Path dir;
+
+    // ========== Histogram Tests ==========
+
+    @Test
+    @DisplayName("Bucket bounds are contiguous and contain their values")
+    void testBucketBounds() {
+        assertEquals(0, Metrics.Timer.lowestValue(0));
+        for (int b = 1; b < Metrics.Timer.BUCKET_COUNT; b++) {
+            assertEquals(Metrics.Timer.highestValue(b - 1) + 1, Metrics.Timer.lowestValue(b), "bucket " + b);
+        }
+        Random random = new Random(5);
+        for (int i = 0; i < 10000; i++) {
+            long v = random.nextLong() >>> (1 + random.nextInt(63));
+            int b = Metrics.Timer.bucketIndex(v);
+            assertTrue(Metrics.Timer.lowestValue(b) <= v && v <= Metrics.Timer.highestValue(b), "value " + v);
+        }
+        assertEquals(Metrics.Timer.BUCKET_COUNT - 1, Metrics.Timer.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Percentiles are within the bucket resolution of the exact values")
+    void testPercentiles() {
+        Metrics.Timer timer = new Metrics.Timer("test", "Test timer");
+        for (long ms = 1; ms <= 1000; ms++) {
+            timer.record(ms * 1_000_000);
+        }
+        Metrics.TimerSnapshot s = timer.snapshot();
+        assertEquals(1000, s.count);
+        assertEquals(1_000_000_000L, s.maxNanos);
+        assertEquals(500_500_000_000L, s.sumNanos);
+        assertClose(500_000_000L, s.p50Nanos);
+        assertClose(900_000_000L, s.p90Nanos);
+        assertClose(990_000_000L, s.p99Nanos);
+        assertTrue(s.p999Nanos <= s.maxNanos);
+    }
+
+    @Test
+    @DisplayName("Empty timers and negative durations are handled")
+    void testEdgeCases() {
+        Metrics.Timer timer = new Metrics.Timer("test", "Test timer");
+        Metrics.TimerSnapshot empty = timer.snapshot();
+        assertEquals(0, empty.count);
+        assertEquals(0, empty.p99Nanos);
+        assertEquals(0.0, empty.getMeanNanos());
+
+        timer.record(-5);
+        assertEquals(1, timer.snapshot().count);
+        assertEquals(0, timer.snapshot().maxNanos);
+    }
+
+    @Test
+    @DisplayName("The most recent durations are kept newest first")
+    void testRecent() {
+        Metrics.Timer timer = new Metrics.Timer("test", "Test timer");
+        timer.record(1);
+        timer.record(2);
+        assertArrayEquals(new long[] {2, 1}, timer.snapshot().getRecentNanos());
+        for (long v = 3; v <= 20; v++) {
+            timer.record(v);
+        }
+        long[] recent = timer.snapshot().getRecentNanos();
+        assertEquals(Metrics.Timer.RECENT_SIZE, recent.length);
+        assertEquals(20, recent[0]);
+        assertEquals(20 - Metrics.Timer.RECENT_SIZE + 1, recent[recent.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Recording does not allocate")
+    void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        Metrics.Timer timer = new Metrics.Timer("test", "Test timer");
+        Metrics.Counter counter = new Metrics.Counter("test", "Test counter");
+        for (int i = 0; i < 20000; i++) {
+            timer.record(i * 997L);
+            counter.increment();
+        }
+        long tid = Thread.currentThread().threadId();
+        // The first round can include allocations by the JIT switching this loop to compiled code
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long before = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < 100000; i++) {
+                timer.record(i * 7919L);
+                counter.increment();
+            }
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(tid) - before);
+        }
+        // Allow for the measurement calls themselves
+        assertTrue(allocated < 1024, "record() allocated " + allocated + " bytes");
+    }
+
+    @Test
+    @DisplayName("A registered timer records into its histogram and the session trace")
+    void testRecordSinceRegistered() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        SessionTrace trace = SessionTrace.getDefault();
+        trace.clear();
+        try {
+            long count = Metrics.EXPORT.snapshot().count;
+            Metrics.EXPORT.recordSince(System.nanoTime() - 2_000_000);
+            Metrics.TimerSnapshot snapshot = Metrics.EXPORT.snapshot();
+            assertEquals(count + 1, snapshot.count);
+            assertTrue(snapshot.getRecentNanos()[0] >= 2_000_000);
+
+            SessionTrace.Event[] events = trace.events();
+            assertEquals(1, events.length);
+            assertEquals("export", events[0].name);
+            assertEquals(SessionTrace.NO_VALUE, events[0].value);
+            assertEquals(Thread.currentThread().threadId(), events[0].threadId);
+            assertTrue(events[0].duration >= 2_000_000);
+
+            // The trace buffer is preallocated, so tracing does not allocate either
+            for (int i = 0; i < 20000; i++) {
+                Metrics.EXPORT.recordSince(System.nanoTime());
+            }
+            long tid = Thread.currentThread().threadId();
+            long allocated = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                long before = threads.getThreadAllocatedBytes(tid);
+                for (int i = 0; i < 100000; i++) {
+                    Metrics.EXPORT.recordSince(System.nanoTime(), i);
+                }
+                allocated = Math.min(allocated, threads.getThreadAllocatedBytes(tid) - before);
+            }
+            assertTrue(allocated < 1024, "recordSince() allocated " + allocated + " bytes");
+        } finally {
+            trace.clear();
+        }
+    }
+
+    // ========== Export Tests ==========
+
+    @Test
+    @DisplayName("Snapshots export as JSON and Prometheus text")
+    void testExport() throws Exception {
+        Metrics.reset();
+        Metrics.recordCall(Metrics.SUBMIT, System.nanoTime() - 2_000_000, 201);
+        Metrics.recordCall(Metrics.SUBMIT, System.nanoTime() - 4_000_000, 429);
+
+        Metrics.Snapshot snapshot = Metrics.snapshot();
+        assertEquals(2, snapshot.getTimer("submit").count);
+        assertEquals(1L, (long) snapshot.getCounters().get("api_errors"));
+        assertEquals(1L, (long) snapshot.getCounters().get("api_rate_limited"));
+        assertNull(snapshot.getTimer("missing"));
+
+        String json = snapshot.toJson();
+        assertTrue(json.contains("\"submit\": {\"count\": 2, "), json);
+        assertTrue(json.contains("\"api_rate_limited\": 1"), json);
+        assertEquals(json.chars().filter(c -> c == '{').count(), json.chars().filter(c -> c == '}').count());
+
+        String prom = snapshot.toPrometheus();
+        assertTrue(prom.contains("# TYPE dpw_submit_seconds summary\n"), prom);
+        assertTrue(prom.contains("dpw_submit_seconds_count 2\n"), prom);
+        assertTrue(prom.contains("dpw_submit_seconds{quantile=\"0.99\"} 0.00"), prom);
+        assertTrue(prom.contains("# TYPE dpw_api_errors_total counter\ndpw_api_errors_total 1\n"), prom);
+
+        Path promFile = dir.resolve("metrics.prom");
+        Metrics.export(promFile);
+        assertTrue(Files.readString(promFile, StandardCharsets.UTF_8).startsWith("# HELP dpw_"));
+        Path jsonFile = dir.resolve("metrics.json");
+        Metrics.export(jsonFile);
+        assertTrue(Files.readString(jsonFile, StandardCharsets.UTF_8).startsWith("{"));
+        Metrics.reset();
+    }
+
+    private static void assertClose(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16 + 1_000_000,
+            "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,164 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestReporter;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress tests for NetworkExecutor.
+ * Fires 500 concurrent blocking HTTP calls at a {@link StubDPWServer} and reports
+ * peak platform thread count and latency for both execution modes. The stress tests
+ * are tagged "load" and run with {@code ant test-load}.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("NetworkExecutor Tests")
+class NetworkExecutorTest {
+
+    private static final int CONCURRENT_CALLS = 500;
+    private static final int SERVER_DELAY_MS = 50;
+
+    private StubDPWServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        // The stub's handlers run on virtual threads so they do not skew the client thread count
+        server = new StubDPWServer();
+        server.setLatency(SERVER_DELAY_MS, 0);
+        server.setUserCount(0);
+        baseUrl = server.getBaseUrl();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    // ========== Execution Mode Tests ==========
+
+    @Test
+    @DisplayName("Virtual mode runs tasks on virtual threads")
+    void testVirtualModeUsesVirtualThreads() throws Exception {
+        ExecutorService executor = NetworkExecutor.create(true);
+        try {
+            assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Platform mode runs tasks on daemon platform threads")
+    void testPlatformModeUsesDaemonThreads() throws Exception {
+        ExecutorService executor = NetworkExecutor.create(false);
+        try {
+            assertFalse(executor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+            assertTrue(executor.submit(() -> Thread.currentThread().isDaemon()).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // ========== Stress Tests ==========
+
+    @Test
+    @Tag("load")
+    @DisplayName("500 concurrent calls on virtual threads stay within a few platform threads")
+    void testVirtualThreadStress(TestReporter reporter) throws Exception {
+        StressResult result = runStress(true, reporter);
+        assertEquals(CONCURRENT_CALLS, result.successes, "All calls should succeed");
+        assertTrue(result.extraPlatformThreads < CONCURRENT_CALLS / 5,
+            "Virtual mode should not need a platform thread per call, peak extra threads: "
+                + result.extraPlatformThreads);
+    }
+
+    @Test
+    @Tag("load")
+    @DisplayName("500 concurrent calls on platform threads all succeed")
+    void testPlatformThreadStress(TestReporter reporter) throws Exception {
+        StressResult result = runStress(false, reporter);
+        assertEquals(CONCURRENT_CALLS, result.successes, "All calls should succeed");
+    }
+
+    // ========== Helpers ==========
+
+    private StressResult runStress(boolean virtualThreads, TestReporter reporter) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        ExecutorService executor = NetworkExecutor.create(virtualThreads);
+        long[] latencies = new long[CONCURRENT_CALLS];
+        List<CompletableFuture<Boolean>> calls = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < CONCURRENT_CALLS; i++) {
+                final int index = i;
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    long t0 = System.nanoTime();
+                    boolean ok = fetch(baseUrl + "/users?call=" + index);
+                    latencies[index] = System.nanoTime() - t0;
+                    return ok;
+                }, executor));
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        StressResult result = new StressResult();
+        for (CompletableFuture<Boolean> call : calls) {
+            if (call.get()) {
+                result.successes++;
+            }
+        }
+        result.extraPlatformThreads = threads.getPeakThreadCount() - baseline;
+
+        Arrays.sort(latencies);
+        reporter.publishEntry("NetworkExecutor " + (virtualThreads ? "virtual" : "platform") + " mode",
+            String.format(Locale.ROOT, "%d calls in %d ms, peak extra platform threads %d, p50 %.1f ms, p99 %.1f ms",
+                CONCURRENT_CALLS, wallMs, result.extraPlatformThreads,
+                latencies[CONCURRENT_CALLS / 2] / 1e6, latencies[(int) (CONCURRENT_CALLS * 0.99)] / 1e6));
+        return result;
+    }
+
+    private static boolean fetch(String url) {
+        try {
+            HttpURLConnection conn = (HttpURLConnection) new URI(url).toURL().openConnection();
+            conn.setConnectTimeout(10000);
+            conn.setReadTimeout(30000);
+            int code = conn.getResponseCode();
+            try (InputStream in = conn.getInputStream()) {
+                in.readAllBytes();
+            }
+            return code == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static class StressResult {
+        int successes;
+        int extraPlatformThreads;
+    }
+}
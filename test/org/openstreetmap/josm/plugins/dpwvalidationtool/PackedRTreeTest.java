@@ -0,0 +1,119 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for PackedRTree class.
+ * Compares tree searches against a brute-force scan of the same boxes.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("PackedRTree Tests")
+class PackedRTreeTest {
+
+    private static double[] randomBoxes(int n, long seed) {
+        Random random = new Random(seed);
+        double[] boxes = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            // Building-sized boxes scattered over ~1 km around Nairobi
+            double lon = 36.80 + random.nextDouble() * 0.01;
+            double lat = -1.30 + random.nextDouble() * 0.01;
+            double size = 0.00005 + random.nextDouble() * 0.0001;
+            boxes[i * 4] = lon;
+            boxes[i * 4 + 1] = lat;
+            boxes[i * 4 + 2] = lon + size;
+            boxes[i * 4 + 3] = lat + size;
+        }
+        return boxes;
+    }
+
+    private static List<Integer> search(PackedRTree tree, double[] q) {
+        List<Integer> result = new ArrayList<>();
+        tree.search(q[0], q[1], q[2], q[3], result::add);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<Integer> bruteForce(double[] boxes, double[] q) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < boxes.length / 4; i++) {
+            if (boxes[i * 4] <= q[2] && boxes[i * 4 + 1] <= q[3] && boxes[i * 4 + 2] >= q[0] && boxes[i * 4 + 3] >= q[1]) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    // ========== Search Tests ==========
+
+    @Test
+    @DisplayName("Search matches brute force for many sizes and queries")
+    void testSearchMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int n : new int[] {1, 2, 15, 16, 17, 255, 256, 257, 5000}) {
+            double[] boxes = randomBoxes(n, n);
+            PackedRTree tree = new PackedRTree(boxes);
+            assertEquals(n, tree.size());
+            for (int k = 0; k < 50; k++) {
+                double lon = 36.80 + random.nextDouble() * 0.01;
+                double lat = -1.30 + random.nextDouble() * 0.01;
+                double w = random.nextDouble() * 0.003;
+                double h = random.nextDouble() * 0.003;
+                double[] q = {lon, lat, lon + w, lat + h};
+                assertEquals(bruteForce(boxes, q), search(tree, q), "n=" + n + " query=" + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Query covering everything returns every item once")
+    void testSearchAll() {
+        double[] boxes = randomBoxes(1000, 3);
+        PackedRTree tree = new PackedRTree(boxes);
+        List<Integer> all = search(tree, new double[] {-180, -90, 180, 90});
+        assertEquals(1000, all.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) all.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Touching edges count as intersecting")
+    void testEdgesInclusive() {
+        PackedRTree tree = new PackedRTree(new double[] {0, 0, 1, 1});
+        assertEquals(1, search(tree, new double[] {1, 1, 2, 2}).size());
+        assertTrue(search(tree, new double[] {1.0001, 1, 2, 2}).isEmpty());
+    }
+
+    // ========== Edge Case Tests ==========
+
+    @Test
+    @DisplayName("Empty tree returns nothing")
+    void testEmptyTree() {
+        PackedRTree tree = new PackedRTree(new double[0]);
+        assertEquals(0, tree.size());
+        assertTrue(search(tree, new double[] {-180, -90, 180, 90}).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Inverted boxes are never reported")
+    void testInvertedBoxesIgnored() {
+        double inf = Double.POSITIVE_INFINITY;
+        PackedRTree tree = new PackedRTree(new double[] {0, 0, 1, 1, inf, inf, -inf, -inf, 2, 2, 3, 3});
+        assertEquals(List.of(0, 2), search(tree, new double[] {-180, -90, 180, 90}));
+    }
+
+    @Test
+    @DisplayName("Box array length must be a multiple of 4")
+    void testInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> new PackedRTree(new double[3]));
+    }
+}
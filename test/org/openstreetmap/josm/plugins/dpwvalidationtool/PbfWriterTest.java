@@ -0,0 +1,285 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.Way;
+import org.openstreetmap.josm.io.OsmPbfReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Inflater;
+
+/**
+ * Unit tests for PbfWriter.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("PbfWriter Tests")
+class PbfWriterTest {
+
+    private static final PbfWriter.Info INFO = new PbfWriter.Info(3, 1_700_000_000L, 42, 7, "mapper_a");
+
+    // ========== Minimal protobuf reader ==========
+
+    /** One field of a decoded message: a varint value or a length-delimited payload */
+    private static final class Field {
+        final long value;
+        final byte[] bytes;
+
+        Field(long value, byte[] bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    private static Map<Integer, List<Field>> decode(byte[] message) {
+        Map<Integer, List<Field>> fields = new HashMap<>();
+        int[] pos = {0};
+        while (pos[0] < message.length) {
+            long key = varint(message, pos);
+            int field = (int) (key >>> 3);
+            Field f;
+            if ((key & 7) == 0) {
+                f = new Field(varint(message, pos), null);
+            } else if ((key & 7) == 2) {
+                int len = (int) varint(message, pos);
+                f = new Field(0, Arrays.copyOfRange(message, pos[0], pos[0] + len));
+                pos[0] += len;
+            } else {
+                throw new AssertionError("Unexpected wire type " + (key & 7));
+            }
+            fields.computeIfAbsent(field, k -> new ArrayList<>()).add(f);
+        }
+        return fields;
+    }
+
+    private static long varint(byte[] b, int[] pos) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = b[pos[0]++];
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long[] packed(byte[] b, boolean zigzag, boolean delta) {
+        List<Long> values = new ArrayList<>();
+        int[] pos = {0};
+        long running = 0;
+        while (pos[0] < b.length) {
+            long v = varint(b, pos);
+            if (zigzag) {
+                v = (v >>> 1) ^ -(v & 1);
+            }
+            running = delta ? running + v : v;
+            values.add(running);
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static byte[] one(Map<Integer, List<Field>> m, int field) {
+        return m.get(field).get(0).bytes;
+    }
+
+    /** Decode the file into (block type, uncompressed block) pairs */
+    private static List<Map.Entry<String, byte[]>> blocks(byte[] file) throws Exception {
+        List<Map.Entry<String, byte[]>> blocks = new ArrayList<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(file));
+        while (in.available() > 0) {
+            byte[] header = new byte[in.readInt()];
+            in.readFully(header);
+            Map<Integer, List<Field>> h = decode(header);
+            byte[] blob = new byte[(int) h.get(3).get(0).value];
+            in.readFully(blob);
+            Map<Integer, List<Field>> b = decode(blob);
+            byte[] raw = new byte[(int) b.get(2).get(0).value];
+            Inflater inflater = new Inflater();
+            inflater.setInput(one(b, 3));
+            assertEquals(raw.length, inflater.inflate(raw));
+            inflater.end();
+            blocks.add(Map.entry(new String(one(h, 1), StandardCharsets.UTF_8), raw));
+        }
+        return blocks;
+    }
+
+    private static byte[] write(int nodes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PbfWriter w = new PbfWriter(out)) {
+            for (int i = 1; i <= nodes; i++) {
+                w.node(-i, -1.2864 + i * 1e-6, 36.8172, Collections.emptyMap(), INFO);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // ========== Format Tests ==========
+
+    @Test
+    @DisplayName("Header block declares dense nodes support")
+    void testHeaderBlock() throws Exception {
+        List<Map.Entry<String, byte[]>> blocks = blocks(write(0));
+        assertEquals(1, blocks.size());
+        assertEquals("OSMHeader", blocks.get(0).getKey());
+        List<String> features = new ArrayList<>();
+        for (Field f : decode(blocks.get(0).getValue()).get(4)) {
+            features.add(new String(f.bytes, StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of("OsmSchema-V0.6", "DenseNodes"), features);
+    }
+
+    @Test
+    @DisplayName("Dense nodes keep IDs, coordinates and tags")
+    void testDenseNodes() throws Exception {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("entrance", "main");
+        tags.put("name", "Kibera Ü");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PbfWriter w = new PbfWriter(out)) {
+            w.node(-5, -1.3139012, 36.7837881, tags, INFO);
+            w.node(12, 0.5, -0.25, Collections.emptyMap(), INFO);
+        }
+        List<Map.Entry<String, byte[]>> blocks = blocks(out.toByteArray());
+        assertEquals("OSMData", blocks.get(1).getKey());
+
+        Map<Integer, List<Field>> block = decode(blocks.get(1).getValue());
+        List<String> strings = new ArrayList<>();
+        for (Field f : decode(one(block, 1)).get(1)) {
+            strings.add(new String(f.bytes, StandardCharsets.UTF_8));
+        }
+        assertEquals("", strings.get(0));
+
+        Map<Integer, List<Field>> dense = decode(one(decode(one(block, 2)), 2));
+        assertArrayEquals(new long[] {-5, 12}, packed(one(dense, 1), true, true));
+        assertArrayEquals(new long[] {-13139012, 5000000}, packed(one(dense, 8), true, true));
+        assertArrayEquals(new long[] {367837881, -2500000}, packed(one(dense, 9), true, true));
+
+        long[] kv = packed(one(dense, 10), false, false);
+        assertEquals(6, kv.length);
+        assertEquals("name", strings.get((int) kv[2]));
+        assertEquals("Kibera Ü", strings.get((int) kv[3]));
+        assertEquals(0, kv[4]);
+        assertEquals(0, kv[5]);
+
+        Map<Integer, List<Field>> info = decode(one(dense, 5));
+        assertArrayEquals(new long[] {3, 3}, packed(one(info, 1), false, false));
+        assertArrayEquals(new long[] {1_700_000_000L, 1_700_000_000L}, packed(one(info, 2), true, true));
+        assertEquals("mapper_a", strings.get((int) packed(one(info, 5), true, true)[1]));
+    }
+
+    @Test
+    @DisplayName("Way refs are delta encoded and tags share the string table")
+    void testWay() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PbfWriter w = new PbfWriter(out)) {
+            w.node(1, 0, 0, Collections.emptyMap(), INFO);
+            w.way(-7, new long[] {1, -3, 4, 1}, Map.of("building", "yes"), INFO);
+        }
+        List<Map.Entry<String, byte[]>> blocks = blocks(out.toByteArray());
+        assertEquals(3, blocks.size());
+
+        Map<Integer, List<Field>> block = decode(blocks.get(2).getValue());
+        Map<Integer, List<Field>> way = decode(one(decode(one(block, 2)), 3));
+        assertEquals(-7, way.get(1).get(0).value);
+        assertArrayEquals(new long[] {1, -3, 4, 1}, packed(one(way, 8), true, true));
+        List<Field> strings = decode(one(block, 1)).get(1);
+        long key = packed(one(way, 2), false, false)[0];
+        assertEquals("building", new String(strings.get((int) key).bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Large node sets are split into bounded blocks")
+    void testBlockSplit() throws Exception {
+        List<Map.Entry<String, byte[]>> blocks = blocks(write(PbfWriter.MAX_BLOCK_ENTITIES + 1));
+        assertEquals(3, blocks.size());
+        Map<Integer, List<Field>> last = decode(one(decode(one(decode(blocks.get(2).getValue()), 2)), 2));
+        assertArrayEquals(new long[] {-(PbfWriter.MAX_BLOCK_ENTITIES + 1)}, packed(one(last, 1), true, true));
+    }
+
+    @Test
+    @DisplayName("Entities out of type order are rejected")
+    void testTypeOrder() throws IOException {
+        try (PbfWriter w = new PbfWriter(new ByteArrayOutputStream())) {
+            w.way(1, new long[0], Collections.emptyMap(), INFO);
+            assertThrows(IllegalStateException.class, () -> w.node(1, 0, 0, Collections.emptyMap(), INFO));
+        }
+    }
+
+    // ========== Round-trip Tests ==========
+
+    @Test
+    @DisplayName("JOSM reads back the written layer")
+    void testJosmRoundTrip() throws Exception {
+        DataSet ds = new DataSet();
+        List<Node> nodes = new ArrayList<>();
+        double[][] corners = {{-1.3139, 36.7837}, {-1.3139, 36.7838}, {-1.3140, 36.7838}, {-1.3140, 36.7837}};
+        for (double[] c : corners) {
+            Node n = new Node(new LatLon(c[0], c[1]));
+            ds.addPrimitive(n);
+            nodes.add(n);
+        }
+        nodes.add(nodes.get(0));
+        Way building = new Way();
+        building.setNodes(nodes);
+        building.put("building", "residential");
+        ds.addPrimitive(building);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PbfWriter w = new PbfWriter(out)) {
+            w.write(ds);
+        }
+        DataSet read = OsmPbfReader.parseDataSet(new ByteArrayInputStream(out.toByteArray()), null);
+        assertEquals(4, read.getNodes().size());
+        assertEquals(1, read.getWays().size());
+        Way readWay = read.getWays().iterator().next();
+        assertEquals("residential", readWay.get("building"));
+        assertEquals(5, readWay.getNodesCount());
+        assertTrue(readWay.isClosed());
+        assertEquals(-1.3140, readWay.getNode(2).lat(), 1e-7);
+        assertEquals(36.7838, readWay.getNode(2).lon(), 1e-7);
+    }
+
+    @Test
+    @DisplayName("Ways using nodes without coordinates are left out")
+    void testWayWithUnknownNodeSkipped() throws Exception {
+        DataSet ds = new DataSet();
+        Node a = new Node(new LatLon(-1.3139, 36.7837));
+        Node b = new Node(new LatLon(-1.3140, 36.7838));
+        Node unknown = new Node();
+        ds.addPrimitive(a);
+        ds.addPrimitive(b);
+        ds.addPrimitive(unknown);
+        Way complete = new Way();
+        complete.setNodes(Arrays.asList(a, b));
+        ds.addPrimitive(complete);
+        Way broken = new Way();
+        broken.setNodes(Arrays.asList(a, unknown, b));
+        ds.addPrimitive(broken);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PbfWriter w = new PbfWriter(out)) {
+            w.write(ds);
+        }
+        DataSet read = OsmPbfReader.parseDataSet(new ByteArrayInputStream(out.toByteArray()), null);
+        assertEquals(2, read.getNodes().size());
+        assertEquals(1, read.getWays().size());
+        assertEquals(2, read.getWays().iterator().next().getNodesCount());
+    }
+}
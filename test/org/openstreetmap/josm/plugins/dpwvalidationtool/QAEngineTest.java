@@ -0,0 +1,205 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for QAEngine and the built-in BuildingChecks.
+ * Runs the checks over plain coordinate arrays, without JOSM primitives.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("QAEngine Tests")
+class QAEngineTest {
+
+    private static final double[][] NO_HIGHWAYS = new double[0][];
+    private static final boolean[] NO_FLAGS = new boolean[0];
+
+    /** Closed square ring with its lower-left corner at (x, y) */
+    private static double[] square(double x, double y, double size) {
+        return new double[] {x, y, x + size, y, x + size, y + size, x, y + size, x, y};
+    }
+
+    private static QAEngine.Report run(double[][] buildings, double[][] highways, boolean[] residential) {
+        return QAEngine.withDefaultChecks().run(new QAInput(buildings, highways, residential), new AtomicBoolean(), null);
+    }
+
+    private static QAEngine.Report run(double[]... buildings) {
+        return run(buildings, NO_HIGHWAYS, NO_FLAGS);
+    }
+
+    /** Buildings flagged by any check feeding the error type */
+    private static BitSet flagged(QAEngine.Report report, int errorType) {
+        BitSet bits = new BitSet();
+        for (QAEngine.CheckResult r : report.results) {
+            if (r.check.getErrorType() == errorType) {
+                bits.or(r.flagged);
+            }
+        }
+        return bits;
+    }
+
+    // ========== Building Pair Tests ==========
+
+    @Test
+    @DisplayName("Partially overlapping buildings are flagged as one pair")
+    void testOverlap() {
+        QAEngine.Report r = run(square(0, 0, 2), square(1, 1, 2), square(10, 10, 1));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        BitSet bits = flagged(r, BuildingChecks.ERROR_OVERLAPPING);
+        assertTrue(bits.get(0));
+        assertTrue(bits.get(1));
+        assertFalse(bits.get(2));
+    }
+
+    @Test
+    @DisplayName("Buildings sharing a wall or a corner are not flagged")
+    void testSharedWallNotFlagged() {
+        QAEngine.Report r = run(square(0, 0, 1), square(1, 0, 1), square(1, 1, 1));
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_INSIDE));
+    }
+
+    @Test
+    @DisplayName("Duplicate buildings count as overlapping")
+    void testDuplicate() {
+        QAEngine.Report r = run(square(0, 0, 1), square(0, 0, 1));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+    }
+
+    @Test
+    @DisplayName("Building inside another is flagged on the inner building only")
+    void testInside() {
+        QAEngine.Report r = run(square(2, 2, 1), square(0, 0, 5));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_INSIDE));
+        BitSet bits = flagged(r, BuildingChecks.ERROR_INSIDE);
+        assertTrue(bits.get(0));
+        assertFalse(bits.get(1));
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+    }
+
+    // ========== Highway Tests ==========
+
+    @Test
+    @DisplayName("Highway crossings are split into residential and other highways")
+    void testHighwayCrossing() {
+        double[][] buildings = {square(0, 0, 1), square(3, 0, 1), square(6, 0, 1)};
+        double[][] highways = {
+            {-1, 0.5, 1.5, 0.5},          // crosses building 0
+            {3.5, -1, 3.5, 2},            // residential, crosses building 1
+            {6, -1, 6, 2}                 // runs along building 2's wall: not a crossing
+        };
+        QAEngine.Report r = run(buildings, highways, new boolean[] {false, true, false});
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_CROSSING_HIGHWAY));
+        assertTrue(flagged(r, BuildingChecks.ERROR_CROSSING_HIGHWAY).get(0));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_CROSSING_RESIDENTIAL));
+        assertTrue(flagged(r, BuildingChecks.ERROR_CROSSING_RESIDENTIAL).get(1));
+        assertFalse(flagged(r, BuildingChecks.ERROR_CROSSING_HIGHWAY).get(2));
+    }
+
+    @Test
+    @DisplayName("Long highway only flags the buildings along its path")
+    void testLongHighway() {
+        double[][] buildings = new double[100][];
+        for (int i = 0; i < 100; i++) {
+            buildings[i] = square(i * 2, (i % 2) * 3, 1);
+        }
+        // A straight road at y = 0.5 crosses the buildings on the lower row only
+        QAEngine.Report r = run(buildings, new double[][] {{-1, 0.5, 201, 0.5}}, new boolean[] {false});
+        assertEquals(50, r.getIssues(BuildingChecks.ERROR_CROSSING_HIGHWAY));
+    }
+
+    // ========== Shape Tests ==========
+
+    @Test
+    @DisplayName("Shape checks feed the improperly drawn counter")
+    void testShapeChecks() {
+        double m = 1.0 / 110_000;  // roughly one metre in degrees
+        double[] ok = square(0, 0, 10 * m);
+        double[] unclosed = {1, 0, 1.001, 0, 1.001, 0.001};
+        double[] tiny = square(2, 0, 0.5 * m);
+        double[] bowTie = {3, 0, 3.001, 0.001, 3.001, 0, 3, 0.001, 3, 0};
+        double[] duplicate = {4, 0, 4.001, 0, 4.001, 0, 4.001, 0.001, 4, 0.001, 4, 0};
+        QAEngine.Report r = run(ok, unclosed, tiny, bowTie, duplicate);
+        BitSet bits = flagged(r, BuildingChecks.ERROR_IMPROPERLY_DRAWN);
+        assertFalse(bits.get(0));
+        assertTrue(bits.get(1));
+        assertTrue(bits.get(2));
+        assertTrue(bits.get(3));
+        assertTrue(bits.get(4));
+        assertEquals(4, r.getIssues(BuildingChecks.ERROR_IMPROPERLY_DRAWN));
+        assertEquals(0, r.getFlags(0));
+        assertNotEquals(0, r.getFlags(3));
+    }
+
+    @Test
+    @DisplayName("Area of a 10 m square is about 100 m²")
+    void testArea() {
+        double m = 1.0 / 110_540;
+        double area = BuildingChecks.areaSquareMeters(square(36.8, 0, 10 * m));
+        assertEquals(100, area, 2);
+    }
+
+    // ========== Engine Tests ==========
+
+    @Test
+    @DisplayName("20k-building grid with a few overlaps is checked quickly and split into tasks")
+    void testLargeGrid() {
+        int side = 142;  // ~20k buildings
+        double[][] buildings = new double[side * side][];
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                buildings[row * side + col] = square(col * 0.0002, row * 0.0002, 0.0001);
+            }
+        }
+        // Shift three buildings onto their right-hand neighbours
+        for (int k : new int[] {10, 5000, 15000}) {
+            buildings[k] = square((k % side) * 0.0002 + 0.00015, (k / side) * 0.0002 + 0.00002, 0.0001);
+        }
+        AtomicInteger lastProgress = new AtomicInteger();
+        long start = System.nanoTime();
+        QAEngine.Report r = QAEngine.withDefaultChecks().run(new QAInput(buildings, NO_HIGHWAYS, NO_FLAGS),
+            new AtomicBoolean(), p -> lastProgress.accumulateAndGet(p, Math::max));
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(3, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_IMPROPERLY_DRAWN));
+        assertEquals(100, lastProgress.get());
+        assertFalse(r.cancelled);
+        assertTrue(ms < 5000, "QA took " + ms + " ms");
+    }
+
+    @Test
+    @DisplayName("Cancelled run reports cancellation and skips remaining tasks")
+    void testCancel() {
+        AtomicBoolean cancel = new AtomicBoolean(true);
+        QAEngine.Report r = QAEngine.withDefaultChecks().run(
+            new QAInput(new double[][] {square(0, 0, 2), square(1, 1, 2)}, NO_HIGHWAYS, NO_FLAGS), cancel, null);
+        assertTrue(r.cancelled);
+        assertEquals(0, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+    }
+
+    @Test
+    @DisplayName("A failing check does not stop the others")
+    void testFailingCheckIsolated() {
+        BuildingCheck broken = new BuildingCheck() {
+            @Override public String getName() { return "broken"; }
+            @Override public int getErrorType() { return 0; }
+            @Override public int check(QAInput input, int from, int to, BitSet flagged) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        QAEngine engine = new QAEngine(java.util.Arrays.asList(broken, new BuildingChecks.Overlap()));
+        QAEngine.Report r = engine.run(new QAInput(new double[][] {square(0, 0, 2), square(1, 1, 2)},
+            NO_HIGHWAYS, NO_FLAGS), new AtomicBoolean(), null);
+        assertEquals(0, r.getIssues(0));
+        assertEquals(1, r.getIssues(BuildingChecks.ERROR_OVERLAPPING));
+        assertEquals(Collections.emptySet(), r.getOffenders());
+    }
+}
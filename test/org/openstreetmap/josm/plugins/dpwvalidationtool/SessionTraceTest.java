@@ -0,0 +1,121 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit tests for SessionTrace.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("SessionTrace Tests")
+class SessionTraceTest {
+
+    @TempDir
+    Path dir;
+
+    // ========== Buffer Tests ==========
+
+    @Test
+    @DisplayName("Events are kept oldest first and overwritten when the buffer is full")
+    void testRingBuffer() {
+        SessionTrace trace = new SessionTrace(4);
+        for (int i = 0; i < 6; i++) {
+            trace.record("stage" + i, i * 1000L, i * 1000L + 10, i);
+        }
+        SessionTrace.Event[] events = trace.events();
+        assertEquals(4, trace.size());
+        assertEquals("stage2", events[0].name);
+        assertEquals("stage5", events[3].name);
+        assertEquals(10, events[3].duration);
+        assertEquals(5, events[3].value);
+
+        trace.clear();
+        assertEquals(0, trace.size());
+    }
+
+    @Test
+    @DisplayName("A reset ends the session with an instant event")
+    void testSessions() {
+        SessionTrace trace = new SessionTrace(16);
+        trace.record("isolate", 0, 5, SessionTrace.NO_VALUE);
+        trace.reset();
+        trace.record("submit", 10, 20, 201);
+        SessionTrace.Event[] events = trace.events();
+        assertEquals(3, events.length);
+        assertEquals(1, events[0].session);
+        assertEquals("reset", events[1].name);
+        assertEquals(1, events[1].session);
+        assertEquals(2, events[2].session);
+        assertEquals(2, trace.getSession());
+    }
+
+    @Test
+    @DisplayName("Registered timers feed the shared trace")
+    void testMetricsFeedTrace() {
+        SessionTrace trace = SessionTrace.getDefault();
+        trace.clear();
+        Metrics.recordCall(Metrics.FETCH_USERS, System.nanoTime() - 1_000_000, 200);
+        new Metrics.Timer("unregistered", "Not traced").recordSince(System.nanoTime());
+        SessionTrace.Event[] events = trace.events();
+        assertEquals(1, events.length);
+        assertEquals("fetch_users", events[0].name);
+        assertEquals(200, events[0].value);
+        assertTrue(events[0].duration >= 1_000_000);
+        trace.clear();
+    }
+
+    // ========== Export Tests ==========
+
+    @Test
+    @DisplayName("JSON lines hold one event per line")
+    void testJsonLines() throws Exception {
+        SessionTrace trace = new SessionTrace(16);
+        trace.record("export", System.nanoTime(), System.nanoTime() + 2_500_000, SessionTrace.NO_VALUE);
+        trace.reset();
+        StringWriter out = new StringWriter();
+        trace.writeJsonLines(out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].matches("\\{\"session\":1,\"stage\":\"export\",\"start\":\"\\d{4}-\\d\\d-\\d\\dT[^\"]+Z\","
+            + "\"duration_ms\":2\\.500,\"thread\":\"[^\"]*\"\\}"), lines[0]);
+        assertTrue(lines[1].startsWith("{\"session\":1,\"stage\":\"reset\","), lines[1]);
+        assertFalse(lines[1].contains("\"value\""));
+    }
+
+    @Test
+    @DisplayName("Chrome trace names sessions and threads and marks resets as instants")
+    void testChromeTrace() throws Exception {
+        SessionTrace trace = new SessionTrace(16);
+        long t0 = System.nanoTime();
+        trace.record("upload", t0, t0 + 3000, 200);
+        trace.reset();
+        trace.record("isolate", t0 + 5000, t0 + 9000, SessionTrace.NO_VALUE);
+
+        Path file = dir.resolve("trace.json");
+        trace.export(file);
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\","), json);
+        assertTrue(json.contains("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Session 1\"}}"));
+        assertTrue(json.contains("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":2,"));
+        assertTrue(json.contains("\"name\":\"thread_name\""));
+        assertTrue(json.contains("{\"name\":\"upload\",\"cat\":\"dpw\",\"ph\":\"X\",\"dur\":3.000,"), json);
+        assertTrue(json.contains("\"args\":{\"value\":200}"));
+        assertTrue(json.contains("{\"name\":\"reset\",\"cat\":\"dpw\",\"ph\":\"i\",\"s\":\"p\","), json);
+        assertEquals(json.chars().filter(c -> c == '{').count(), json.chars().filter(c -> c == '}').count());
+
+        Path lines = dir.resolve("trace.jsonl");
+        trace.export(lines);
+        List<String> written = Files.readAllLines(lines, StandardCharsets.UTF_8);
+        assertEquals(3, written.size());
+    }
+}
@@ -0,0 +1,130 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Unit tests for SpatialBounds class.
+ * Tests point-in-polygon checks and parsing of TM task geometry.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("SpatialBounds Tests")
+class SpatialBoundsTest {
+
+    // ========== Contains Tests ==========
+
+    @Test
+    @DisplayName("Box contains interior points and rejects outside points")
+    void testBoxContains() {
+        SpatialBounds box = SpatialBounds.ofBox(36.80, -1.30, 36.81, -1.29, "map view");
+        assertTrue(box.contains(36.805, -1.295));
+        assertFalse(box.contains(36.815, -1.295));
+        assertFalse(box.contains(36.805, -1.31));
+        assertEquals("map view", box.getDescription());
+    }
+
+    @Test
+    @DisplayName("Concave polygon excludes its notch")
+    void testConcavePolygon() {
+        // U shape: notch between x=1..2 above y=1
+        double[] ring = {0, 0, 3, 0, 3, 3, 2, 3, 2, 1, 1, 1, 1, 3, 0, 3};
+        SpatialBounds u = new SpatialBounds(Arrays.asList(ring), "u");
+        assertTrue(u.contains(0.5, 2.5));
+        assertTrue(u.contains(2.5, 2.5));
+        assertTrue(u.contains(1.5, 0.5));
+        assertFalse(u.contains(1.5, 2));
+    }
+
+    @Test
+    @DisplayName("Inner ring acts as a hole")
+    void testHole() {
+        double[] outer = {0, 0, 10, 0, 10, 10, 0, 10};
+        double[] hole = {4, 4, 6, 4, 6, 6, 4, 6};
+        SpatialBounds area = new SpatialBounds(Arrays.asList(outer, hole), "holed");
+        assertTrue(area.contains(2, 2));
+        assertFalse(area.contains(5, 5));
+    }
+
+    @Test
+    @DisplayName("Rings need at least three points")
+    void testInvalidRings() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialBounds(Arrays.asList(new double[] {0, 0, 1, 1}), "x"));
+        assertThrows(IllegalArgumentException.class, () -> new SpatialBounds(Arrays.asList(), "x"));
+    }
+
+    // ========== TM Geometry Parsing Tests ==========
+
+    @Test
+    @DisplayName("MultiPolygon task geometry is parsed")
+    void testParseMultiPolygon() {
+        String json = "{\"taskId\": 42, \"taskStatus\": \"MAPPED\", \"geometry\": {\"type\": \"MultiPolygon\", "
+            + "\"coordinates\": [[[[36.80, -1.30], [36.81, -1.30], [36.81, -1.29], [36.80, -1.29], [36.80, -1.30]]]]}}";
+        SpatialBounds area = TaskManagerAPIClient.parseTaskGeometry(json, "TM task 42");
+        assertNotNull(area);
+        assertEquals("TM task 42", area.getDescription());
+        assertEquals(36.80, area.getMinLon(), 1e-9);
+        assertEquals(-1.29, area.getMaxLat(), 1e-9);
+        assertTrue(area.contains(36.805, -1.295));
+        assertFalse(area.contains(36.82, -1.295));
+    }
+
+    @Test
+    @DisplayName("Polygon with altitude and exponent coordinates is parsed")
+    void testParsePolygonWithAltitude() {
+        String json = "{\"geometry\":{\"type\":\"Polygon\",\"coordinates\":"
+            + "[[[0,0,5],[1e1,0,5],[10,10,5],[0,10,5],[0,0,5]]]}}";
+        SpatialBounds area = TaskManagerAPIClient.parseTaskGeometry(json, "t");
+        assertNotNull(area);
+        assertTrue(area.contains(5, 5));
+        assertEquals(10, area.getMaxLon(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Task polygon is read from the recorded project task GeoJSON")
+    void testParseRecordedProjectTasks() throws IOException {
+        // GET /projects/27396/tasks/?task_ids=213
+        String json;
+        try (InputStream in = SpatialBoundsTest.class.getResourceAsStream("fixtures/tm-project-tasks.json")) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        SpatialBounds area = TaskManagerAPIClient.parseTaskFeature(json, 213, "TM task 213");
+        assertNotNull(area);
+        assertEquals("TM task 213", area.getDescription());
+        assertEquals(36.78359985351562, area.getMinLon(), 1e-9);
+        assertEquals(-1.31275134059999, area.getMaxLat(), 1e-9);
+        assertTrue(area.contains(36.7843, -1.3134));
+        assertFalse(area.contains(36.7855, -1.3134));
+        assertNull(TaskManagerAPIClient.parseTaskFeature(json, 214, "TM task 214"));
+    }
+
+    @Test
+    @DisplayName("The feature of the requested task is picked from a collection")
+    void testParseTaskFeaturePicksTask() {
+        String json = "{\"type\": \"FeatureCollection\", \"features\": ["
+            + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Polygon\", \"coordinates\": "
+            + "[[[0, 0], [1, 0], [1, 1], [0, 1], [0, 0]]]}, \"properties\": {\"taskId\": 7}}, "
+            + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Polygon\", \"coordinates\": "
+            + "[[[10, 10], [11, 10], [11, 11], [10, 11], [10, 10]]]}, \"properties\": {\"taskId\": 8}}]}";
+        SpatialBounds area = TaskManagerAPIClient.parseTaskFeature(json, 8, "t");
+        assertNotNull(area);
+        assertTrue(area.contains(10.5, 10.5));
+        assertFalse(area.contains(0.5, 0.5));
+        assertNull(TaskManagerAPIClient.parseTaskFeature("{\"taskId\": 8, \"taskHistory\": []}", 8, "t"));
+    }
+
+    @Test
+    @DisplayName("Missing or malformed geometry yields null")
+    void testParseMissingGeometry() {
+        assertNull(TaskManagerAPIClient.parseTaskGeometry("{\"taskId\": 1}", "t"));
+        assertNull(TaskManagerAPIClient.parseTaskGeometry("{\"geometry\": null}", "t"));
+        assertNull(TaskManagerAPIClient.parseTaskGeometry("{\"geometry\": {\"coordinates\": [[[0, 0], [1, 1]]]}}", "t"));
+    }
+}
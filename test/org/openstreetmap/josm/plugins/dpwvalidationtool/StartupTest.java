@@ -0,0 +1,91 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup tests: the work JOSM's boot schedules must not run on the startup path.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("Startup Tests")
+class StartupTest {
+
+    @TempDir
+    Path home;
+
+    private String previousHome;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        previousHome = System.getProperty("josm.home");
+        System.setProperty("josm.home", home.toString());
+        Files.createDirectories(home.resolve("plugins"));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (previousHome == null) {
+            System.clearProperty("josm.home");
+        } else {
+            System.setProperty("josm.home", previousHome);
+        }
+    }
+
+    // ========== Deferred Update Tests ==========
+
+    @Test
+    @DisplayName("Scheduling the pending update install returns without waiting for it")
+    void testUpdateInstallIsDeferred() throws Exception {
+        Path plugins = home.resolve("plugins");
+        Files.writeString(plugins.resolve("DPWValidationTool.jar"), "old");
+        Files.writeString(plugins.resolve("DPWValidationTool.jar.new"), "new");
+
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> install = UpdateChecker.applyPendingUpdateAsync(task -> executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }));
+
+        // The install waits on the latch, so returning here proves it did not run inline
+        assertFalse(install.isDone());
+        assertTrue(Files.exists(plugins.resolve("DPWValidationTool.jar.new")));
+
+        release.countDown();
+        install.get(5, TimeUnit.SECONDS);
+        assertEquals("new", Files.readString(plugins.resolve("DPWValidationTool.jar")));
+        assertEquals("old", Files.readString(plugins.resolve("DPWValidationTool.jar.bak")));
+        assertFalse(Files.exists(plugins.resolve("DPWValidationTool.jar.new")));
+    }
+
+    @Test
+    @DisplayName("Without a pending update the startup stage leaves the plugin directory alone")
+    void testNoPendingUpdate() throws Exception {
+        Path plugins = home.resolve("plugins");
+        Files.writeString(plugins.resolve("DPWValidationTool.jar"), "current");
+
+        UpdateChecker.applyPendingUpdateAsync(executor).get(5, TimeUnit.SECONDS);
+        assertEquals("current", Files.readString(plugins.resolve("DPWValidationTool.jar")));
+        assertFalse(Files.exists(plugins.resolve("DPWValidationTool.jar.bak")));
+    }
+}
@@ -0,0 +1,300 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the DPW API, for offline end-to-end and load tests.
+ *
+ * Serves /users, /validation-log and /osm-uploads (including HEAD /osm-uploads/{sha256})
+ * with the response shapes the plugin parses. Latency, injected 500s, random 429s with
+ * Retry-After and a fixed-window rate limit with X-RateLimit-* headers can be changed
+ * while the server runs. Handlers run on virtual threads so they do not skew the
+ * platform thread counts of the client under test.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+final class StubDPWServer implements AutoCloseable {
+
+    private static final Pattern SHA256_FIELD = Pattern.compile(
+        "name=\"sha256\"\\r\\n\\r\\n([0-9a-f]{64})");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile int latencyMs;
+    private volatile int latencyJitterMs;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+    private volatile int retryAfterSeconds = 1;
+    private volatile int rateLimit;
+    private volatile int rateLimitWindowSeconds = 60;
+    private volatile int userCount = 200;
+
+    // Guarded by this
+    private long windowStart;
+    private int windowRequests;
+
+    private final AtomicInteger nextLogId = new AtomicInteger(1000);
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+    private final Set<String> uploadedHashes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start a server on a free local port.
+     *
+     * @throws IOException if the server cannot be bound
+     */
+    StubDPWServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/users", exchange -> handle(exchange, "/users", this::users));
+        server.createContext("/validation-log", exchange -> handle(exchange, "/validation-log", this::validationLog));
+        server.createContext("/osm-uploads", exchange -> handle(exchange, "/osm-uploads", this::osmUploads));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Get the base URL to hand to the clients.
+     *
+     * @return base URL without trailing slash
+     */
+    String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // ========== Behaviour ==========
+
+    /**
+     * Delay every response.
+     *
+     * @param millis fixed delay
+     * @param jitterMillis extra uniformly random delay, 0 for none
+     */
+    void setLatency(int millis, int jitterMillis) {
+        latencyMs = millis;
+        latencyJitterMs = jitterMillis;
+    }
+
+    /**
+     * Answer a fraction of requests with 500.
+     *
+     * @param rate fraction from 0 to 1
+     */
+    void setErrorRate(double rate) {
+        errorRate = rate;
+    }
+
+    /**
+     * Answer a fraction of requests with 429, regardless of the rate limit.
+     *
+     * @param rate fraction from 0 to 1
+     * @param retryAfter Retry-After seconds to send
+     */
+    void setThrottleRate(double rate, int retryAfter) {
+        throttleRate = rate;
+        retryAfterSeconds = retryAfter;
+    }
+
+    /**
+     * Limit requests per fixed window. Every response then carries X-RateLimit-Limit,
+     * X-RateLimit-Remaining and X-RateLimit-Reset; requests over the limit get 429 with
+     * Retry-After set to the seconds left in the window.
+     *
+     * @param limit requests per window, 0 for no limit
+     * @param windowSeconds window length
+     */
+    synchronized void setRateLimit(int limit, int windowSeconds) {
+        rateLimit = limit;
+        rateLimitWindowSeconds = windowSeconds;
+        windowStart = System.currentTimeMillis();
+        windowRequests = 0;
+    }
+
+    /**
+     * Set how many mappers /users returns, named as in {@link SyntheticDataSetGenerator}.
+     *
+     * @param count number of users
+     */
+    void setUserCount(int count) {
+        userCount = count;
+    }
+
+    // ========== Statistics ==========
+
+    /**
+     * Get how many requests reached an endpoint.
+     *
+     * @param endpoint "/users", "/validation-log" or "/osm-uploads"
+     * @return request count
+     */
+    int getRequestCount(String endpoint) {
+        AtomicInteger n = requests.get(endpoint);
+        return n == null ? 0 : n.get();
+    }
+
+    /**
+     * Get how many responses had a status code.
+     *
+     * @param status HTTP status
+     * @return response count
+     */
+    int getStatusCount(int status) {
+        AtomicInteger n = statuses.get(status);
+        return n == null ? 0 : n.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ========== Handling ==========
+
+    private interface Route {
+        void respond(HttpExchange exchange, String body) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, Route route) throws IOException {
+        requests.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+        try (InputStream in = exchange.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            int delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextInt(latencyJitterMs + 1) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            long retryAfter = rateLimitHeaders(exchange.getResponseHeaders());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (retryAfter < 0 && random.nextDouble() < throttleRate) {
+                retryAfter = retryAfterSeconds;
+            }
+            if (retryAfter >= 0) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfter));
+                send(exchange, 429, "{\"success\":false,\"error\":\"Too many requests\"}");
+            } else if (random.nextDouble() < errorRate) {
+                send(exchange, 500, "{\"success\":false,\"error\":\"Injected server error\"}");
+            } else {
+                route.respond(exchange, body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Count the request against the rate limit and add the rate-limit headers.
+     *
+     * @return Retry-After seconds if the request is over the limit, otherwise -1
+     */
+    private synchronized long rateLimitHeaders(Headers headers) {
+        if (rateLimit <= 0) {
+            return -1;
+        }
+        long now = System.currentTimeMillis();
+        long windowMillis = rateLimitWindowSeconds * 1000L;
+        if (now - windowStart >= windowMillis) {
+            windowStart = now;
+            windowRequests = 0;
+        }
+        windowRequests++;
+        long reset = windowStart + windowMillis;
+        headers.set("X-RateLimit-Limit", String.valueOf(rateLimit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(Math.max(0, rateLimit - windowRequests)));
+        headers.set("X-RateLimit-Reset", String.valueOf(reset / 1000));
+        return windowRequests > rateLimit ? Math.max(1, (reset - now + 999) / 1000) : -1;
+    }
+
+    private void users(HttpExchange exchange, String body) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String wanted = null;
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("osm_username=")) {
+                    wanted = URLDecoder.decode(param.substring(13), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        StringBuilder json = new StringBuilder("{\"success\":true,\"data\":[");
+        int count = 0;
+        for (int i = 0; i < userCount; i++) {
+            String name = SyntheticDataSetGenerator.mapperName(i);
+            if (wanted != null && !wanted.equals(name)) {
+                continue;
+            }
+            if (count++ > 0) {
+                json.append(',');
+            }
+            json.append("{\"user_id\":").append(1000 + i).append(",\"osm_username\":\"").append(name)
+                .append("\",\"settlement\":\"Kibera\",\"role\":\"Mapper\",\"status\":\"Active\"}");
+        }
+        json.append("],\"count\":").append(count).append('}');
+        send(exchange, 200, json.toString());
+    }
+
+    private void validationLog(HttpExchange exchange, String body) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "{\"success\":false,\"error\":\"Method not allowed\"}");
+            return;
+        }
+        send(exchange, 201, "{\"success\":true,\"log_id\":" + nextLogId.getAndIncrement()
+            + ",\"mapper_name\":\"Stub Mapper\",\"validator_name\":\"Stub Validator\"}");
+    }
+
+    private void osmUploads(HttpExchange exchange, String body) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            String sha256 = path.substring(path.lastIndexOf('/') + 1);
+            if (uploadedHashes.contains(sha256)) {
+                exchange.getResponseHeaders().set("Location", driveUrl(sha256));
+                send(exchange, 200, null);
+            } else {
+                send(exchange, 404, null);
+            }
+            return;
+        }
+        Matcher sha256 = SHA256_FIELD.matcher(body);
+        String key = sha256.find() ? sha256.group(1) : Integer.toHexString(body.hashCode());
+        uploadedHashes.add(key);
+        send(exchange, 200, "{\"success\":true,\"drive_file_url\":\"" + driveUrl(key) + "\"}");
+    }
+
+    private static String driveUrl(String key) {
+        return "https://drive.example/stub/" + key;
+    }
+
+    private void send(HttpExchange exchange, int status, String json) throws IOException {
+        statuses.computeIfAbsent(status, k -> new AtomicInteger()).incrementAndGet();
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
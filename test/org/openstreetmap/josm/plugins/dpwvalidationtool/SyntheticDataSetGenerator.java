@@ -0,0 +1,380 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.openstreetmap.josm.data.coor.LatLon;
+import org.openstreetmap.josm.data.osm.DataSet;
+import org.openstreetmap.josm.data.osm.Node;
+import org.openstreetmap.josm.data.osm.User;
+import org.openstreetmap.josm.data.osm.Way;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic generator of settlement-scale OSM data for performance and integration tests.
+ *
+ * Produces buildings as closed ways on a jittered block grid, in the same order for the same
+ * parameters and seed. The data mimics a downloaded settlement:
+ * <ul>
+ * <li>mapper activity is skewed (Zipf-like), so a few mappers draw most buildings;</li>
+ * <li>each mapper works on a subset of the days, in sessions during East African working
+ * hours, with one changeset per mapper and day;</li>
+ * <li>most buildings are at version 1, some were edited again later.</li>
+ * </ul>
+ * Data can go straight into a JOSM {@link DataSet} or be streamed to an .osm file without
+ * holding it in memory, which is how 1M-primitive fixtures are produced offline.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+public final class SyntheticDataSetGenerator {
+
+    /** First day of edits */
+    public static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 6);
+
+    private static final double ORIGIN_LAT = -1.3200;
+    private static final double ORIGIN_LON = 36.7700;
+    /** Grid cell per building, about 16 m */
+    private static final double CELL = 0.00015;
+    private static final int BLOCK = 20;
+    private static final String[] BUILDING_VALUES = {"yes", "yes", "yes", "yes", "residential", "house", "commercial"};
+    private static final String[] ROOFS = {"metal", "metal", "metal", "concrete", "tiles"};
+
+    private final int buildings;
+    private final int mappers;
+    private final int days;
+    private final int nodesPerBuilding;
+    private final long seed;
+
+    /**
+     * Receives generated primitives. Node IDs run from 1; way IDs run from 1 in building order.
+     */
+    interface Sink {
+        void node(long id, double lat, double lon, Attribution a) throws IOException;
+
+        void way(long id, long[] nodeIds, Map<String, String> tags, Attribution a) throws IOException;
+    }
+
+    /**
+     * Author, time and version of a primitive.
+     */
+    static final class Attribution {
+        final int mapper;
+        final Instant timestamp;
+        final int version;
+        final long changeset;
+
+        Attribution(int mapper, Instant timestamp, int version, long changeset) {
+            this.mapper = mapper;
+            this.timestamp = timestamp;
+            this.version = version;
+            this.changeset = changeset;
+        }
+    }
+
+    /**
+     * Create a generator.
+     *
+     * @param buildings number of buildings
+     * @param mappers number of mappers
+     * @param days number of days the edits are spread over, from {@link #FIRST_DAY}
+     * @param nodesPerBuilding vertices per building outline, at least 4
+     * @param seed random seed; the same parameters and seed always give the same data
+     */
+    public SyntheticDataSetGenerator(int buildings, int mappers, int days, int nodesPerBuilding, long seed) {
+        if (buildings < 0 || mappers < 1 || days < 1 || nodesPerBuilding < 4) {
+            throw new IllegalArgumentException("Invalid generator parameters");
+        }
+        this.buildings = buildings;
+        this.mappers = mappers;
+        this.days = days;
+        this.nodesPerBuilding = nodesPerBuilding;
+        this.seed = seed;
+    }
+
+    /**
+     * Create a generator with settlement defaults: 50 mappers over 30 days, four-cornered buildings.
+     *
+     * @param buildings number of buildings
+     * @return the generator
+     */
+    public static SyntheticDataSetGenerator settlement(int buildings) {
+        return new SyntheticDataSetGenerator(buildings, 50, 30, 4, 42);
+    }
+
+    /**
+     * Get the user name of a mapper. Mapper 0 is the most active.
+     *
+     * @param index mapper number
+     * @return the user name
+     */
+    public static String mapperName(int index) {
+        return String.format(Locale.ROOT, "mapper_%02d", index);
+    }
+
+    /**
+     * Get the number of primitives {@link #generate()} produces.
+     *
+     * @return nodes plus ways
+     */
+    public long getPrimitiveCount() {
+        return (long) buildings * (nodesPerBuilding + 1);
+    }
+
+    /**
+     * Get the box the buildings are laid out in.
+     *
+     * @return minLon, minLat, maxLon, maxLat
+     */
+    public double[] getExtent() {
+        int columns = columns();
+        int rows = (buildings + columns - 1) / Math.max(1, columns);
+        return new double[] {ORIGIN_LON, ORIGIN_LAT, ORIGIN_LON + blockOffset(columns) + CELL,
+            ORIGIN_LAT + blockOffset(rows) + CELL};
+    }
+
+    /**
+     * Generate the data into a new DataSet.
+     *
+     * @return the DataSet
+     */
+    public DataSet generate() {
+        DataSet ds = new DataSet();
+        User[] users = new User[mappers];
+        for (int i = 0; i < mappers; i++) {
+            users[i] = User.createOsmUser(1000L + i, mapperName(i));
+        }
+        Map<Long, Node> nodes = new HashMap<>();
+        try {
+            emit(new Sink() {
+                @Override
+                public void node(long id, double lat, double lon, Attribution a) {
+                    Node n = new Node(id, a.version);
+                    n.setCoor(new LatLon(lat, lon));
+                    attribute(n, a);
+                    ds.addPrimitive(n);
+                    nodes.put(id, n);
+                }
+
+                @Override
+                public void way(long id, long[] nodeIds, Map<String, String> tags, Attribution a) {
+                    List<Node> wayNodes = new ArrayList<>(nodeIds.length);
+                    for (long nodeId : nodeIds) {
+                        // Each node belongs to one building, so it can be dropped once used
+                        Node n = nodes.remove(nodeId);
+                        wayNodes.add(n != null ? n : wayNodes.get(0));
+                    }
+                    Way w = new Way(id, a.version);
+                    w.setNodes(wayNodes);
+                    w.setKeys(tags);
+                    attribute(w, a);
+                    ds.addPrimitive(w);
+                }
+
+                private void attribute(org.openstreetmap.josm.data.osm.OsmPrimitive p, Attribution a) {
+                    p.setUser(users[a.mapper]);
+                    p.setInstant(a.timestamp);
+                    p.setChangesetId((int) a.changeset);
+                }
+            }, true, true);
+        } catch (IOException e) {
+            // The DataSet sink does no I/O
+            throw new IllegalStateException(e);
+        }
+        return ds;
+    }
+
+    /**
+     * Stream the data to an .osm file, nodes first.
+     *
+     * @param file target file
+     * @throws IOException if writing fails
+     */
+    public void writeOsm(Path file) throws IOException {
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            writeOsm(out);
+        }
+    }
+
+    /**
+     * Stream the data as OSM XML, nodes first.
+     *
+     * @param out target writer
+     * @throws IOException if writing fails
+     */
+    public void writeOsm(Writer out) throws IOException {
+        out.write("<?xml version='1.0' encoding='UTF-8'?>\n<osm version='0.6' generator='SyntheticDataSetGenerator'>\n");
+        Sink xml = new Sink() {
+            @Override
+            public void node(long id, double lat, double lon, Attribution a) throws IOException {
+                out.write(String.format(Locale.ROOT, "  <node id='%d' %s lat='%.7f' lon='%.7f' />\n",
+                    id, attributes(a), lat, lon));
+            }
+
+            @Override
+            public void way(long id, long[] nodeIds, Map<String, String> tags, Attribution a) throws IOException {
+                out.write("  <way id='" + id + "' " + attributes(a) + ">\n");
+                for (long nodeId : nodeIds) {
+                    out.write("    <nd ref='" + nodeId + "' />\n");
+                }
+                for (Map.Entry<String, String> tag : tags.entrySet()) {
+                    out.write("    <tag k='" + tag.getKey() + "' v='" + tag.getValue() + "' />\n");
+                }
+                out.write("  </way>\n");
+            }
+
+            private String attributes(Attribution a) {
+                return "timestamp='" + a.timestamp + "' uid='" + (1000 + a.mapper) + "' user='" + mapperName(a.mapper)
+                    + "' visible='true' version='" + a.version + "' changeset='" + a.changeset + "'";
+            }
+        };
+        // Same seed, two passes: all nodes, then all ways
+        emit(xml, true, false);
+        emit(xml, false, true);
+        out.write("</osm>\n");
+    }
+
+    // ========== Generation ==========
+
+    private int columns() {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(buildings)));
+    }
+
+    /** Offset of a grid index, leaving a street between blocks of {@link #BLOCK} cells */
+    private static double blockOffset(int index) {
+        return index * CELL + (index / BLOCK) * CELL;
+    }
+
+    private void emit(Sink sink, boolean withNodes, boolean withWays) throws IOException {
+        Random random = new Random(seed);
+        double[] cumulative = mapperWeights();
+        boolean[][] activeDays = activeDays(random);
+        long firstSecond = FIRST_DAY.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        int columns = columns();
+
+        long nodeId = 1;
+        long[] refs = new long[nodesPerBuilding + 1];
+        for (int b = 0; b < buildings; b++) {
+            int mapper = pick(cumulative, random.nextDouble());
+            int day = pickDay(activeDays[mapper], random);
+            // Working hours in Nairobi (UTC+3), centred on late morning
+            double hour = Math.min(14.5, Math.max(3.0, 7.5 + random.nextGaussian() * 2.5));
+            Instant time = Instant.ofEpochSecond(firstSecond + day * 86_400L + (long) (hour * 3600));
+            int version = random.nextInt(10) == 0 ? 2 + random.nextInt(2) : 1;
+            if (version > 1) {
+                time = time.plusSeconds(86_400L * (1 + random.nextInt(3)));
+            }
+            Attribution a = new Attribution(mapper, time, version, changeset(mapper, day));
+
+            double centreLat = ORIGIN_LAT + blockOffset(b / columns) + CELL / 2 + (random.nextDouble() - 0.5) * CELL * 0.2;
+            double centreLon = ORIGIN_LON + blockOffset(b % columns) + CELL / 2 + (random.nextDouble() - 0.5) * CELL * 0.2;
+            double radiusLat = CELL * (0.20 + random.nextDouble() * 0.15);
+            double radiusLon = CELL * (0.20 + random.nextDouble() * 0.15);
+            double rotation = random.nextDouble() * Math.PI / 2;
+            for (int v = 0; v < nodesPerBuilding; v++) {
+                // Star-shaped around the centre, so the outline never self-intersects
+                double angle = rotation + (v + 0.5 + (random.nextDouble() - 0.5) * 0.3) * 2 * Math.PI / nodesPerBuilding;
+                double lat = centreLat + Math.sin(angle) * radiusLat;
+                double lon = centreLon + Math.cos(angle) * radiusLon;
+                refs[v] = nodeId;
+                if (withNodes) {
+                    sink.node(nodeId, lat, lon, a);
+                }
+                nodeId++;
+            }
+            refs[nodesPerBuilding] = refs[0];
+
+            Map<String, String> tags = new HashMap<>();
+            tags.put("building", BUILDING_VALUES[random.nextInt(BUILDING_VALUES.length)]);
+            if (random.nextInt(4) == 0) {
+                tags.put("roof:material", ROOFS[random.nextInt(ROOFS.length)]);
+            }
+            if (withWays) {
+                sink.way(b + 1L, refs.clone(), tags, a);
+            }
+        }
+    }
+
+    /** Cumulative Zipf-like (s = 0.8) activity weights of the mappers */
+    private double[] mapperWeights() {
+        double[] cumulative = new double[mappers];
+        double sum = 0;
+        for (int i = 0; i < mappers; i++) {
+            sum += 1 / Math.pow(i + 1, 0.8);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < mappers; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double r) {
+        int i = java.util.Arrays.binarySearch(cumulative, r);
+        return Math.min(cumulative.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    /** Each mapper works on about 60% of the days, never on none */
+    private boolean[][] activeDays(Random random) {
+        boolean[][] active = new boolean[mappers][days];
+        for (int m = 0; m < mappers; m++) {
+            boolean any = false;
+            for (int d = 0; d < days; d++) {
+                active[m][d] = random.nextDouble() < 0.6;
+                any |= active[m][d];
+            }
+            if (!any) {
+                active[m][random.nextInt(days)] = true;
+            }
+        }
+        return active;
+    }
+
+    private static int pickDay(boolean[] active, Random random) {
+        int start = random.nextInt(active.length);
+        for (int i = 0; i < active.length; i++) {
+            int d = (start + i) % active.length;
+            if (active[d]) {
+                return d;
+            }
+        }
+        return start;
+    }
+
+    private long changeset(int mapper, int day) {
+        return 150_000_000L + (long) day * mappers + mapper;
+    }
+
+    /**
+     * Write a synthetic .osm file.
+     * Usage: SyntheticDataSetGenerator file.osm buildings [mappers days nodesPerBuilding seed]
+     *
+     * @param args command line arguments
+     * @throws IOException if writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 6) {
+            System.err.println("Usage: SyntheticDataSetGenerator file.osm buildings [mappers days nodesPerBuilding seed]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[1]);
+        SyntheticDataSetGenerator generator = args.length == 2 ? settlement(count)
+            : new SyntheticDataSetGenerator(count, Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                Integer.parseInt(args[4]), Long.parseLong(args[5]));
+        generator.writeOsm(Paths.get(args[0]));
+        System.out.println("Wrote " + generator.getPrimitiveCount() + " primitives to " + args[0]);
+    }
+}
@@ -0,0 +1,96 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Unit tests for SyntheticDataSetGenerator.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("SyntheticDataSetGenerator Tests")
+class SyntheticDataSetGeneratorTest {
+
+    private static String osm(SyntheticDataSetGenerator generator) throws IOException {
+        StringWriter out = new StringWriter();
+        generator.writeOsm(out);
+        return out.toString();
+    }
+
+    private static int count(String text, String needle) {
+        int n = 0;
+        for (int i = text.indexOf(needle); i != -1; i = text.indexOf(needle, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    // ========== Output Tests ==========
+
+    @Test
+    @DisplayName("Same parameters and seed give identical output")
+    void testDeterministic() throws IOException {
+        String a = osm(new SyntheticDataSetGenerator(500, 10, 7, 6, 7));
+        assertEquals(a, osm(new SyntheticDataSetGenerator(500, 10, 7, 6, 7)));
+        assertNotEquals(a, osm(new SyntheticDataSetGenerator(500, 10, 7, 6, 8)));
+    }
+
+    @Test
+    @DisplayName("Counts follow buildings and node density, with nodes written first")
+    void testCounts() throws IOException {
+        SyntheticDataSetGenerator generator = new SyntheticDataSetGenerator(300, 5, 3, 6, 1);
+        String xml = osm(generator);
+        assertEquals(300 * 6, count(xml, "<node "));
+        assertEquals(300, count(xml, "<way "));
+        assertEquals(300 * 7, count(xml, "<nd "));
+        assertEquals(generator.getPrimitiveCount(), count(xml, "<node ") + count(xml, "<way "));
+        assertTrue(xml.lastIndexOf("<node ") < xml.indexOf("<way "));
+    }
+
+    // ========== Distribution Tests ==========
+
+    @Test
+    @DisplayName("Mapper activity is skewed towards the first mappers")
+    void testMapperSkew() throws IOException {
+        Map<String, Integer> perMapper = new HashMap<>();
+        Matcher m = Pattern.compile("<way [^>]*user='([^']+)'").matcher(osm(SyntheticDataSetGenerator.settlement(5000)));
+        while (m.find()) {
+            perMapper.merge(m.group(1), 1, Integer::sum);
+        }
+        assertEquals(50, perMapper.size());
+        assertTrue(perMapper.get(SyntheticDataSetGenerator.mapperName(0))
+            > 3 * perMapper.get(SyntheticDataSetGenerator.mapperName(49)));
+    }
+
+    @Test
+    @DisplayName("Edit times stay within the configured days and working hours")
+    void testTimestamps() throws IOException {
+        int days = 5;
+        Matcher m = Pattern.compile("<node [^>]*timestamp='([^']+)'[^>]*version='1'")
+            .matcher(osm(new SyntheticDataSetGenerator(2000, 8, days, 4, 3)));
+        Instant first = SyntheticDataSetGenerator.FIRST_DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+        LocalDate last = SyntheticDataSetGenerator.FIRST_DAY.plusDays(days - 1);
+        int seen = 0;
+        while (m.find()) {
+            Instant t = Instant.parse(m.group(1));
+            assertFalse(t.isBefore(first));
+            assertFalse(t.atZone(ZoneOffset.UTC).toLocalDate().isAfter(last));
+            int hour = t.atZone(ZoneOffset.UTC).getHour();
+            assertTrue(hour >= 3 && hour <= 14, "hour " + hour);
+            seen++;
+        }
+        assertTrue(seen > 0);
+    }
+}
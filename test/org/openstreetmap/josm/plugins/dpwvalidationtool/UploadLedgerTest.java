@@ -0,0 +1,102 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+
+/**
+ * Unit tests for UploadLedger.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("UploadLedger Tests")
+class UploadLedgerTest {
+
+    /** SHA-256 of "abc" (FIPS 180-2 test vector) */
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path dir;
+
+    // ========== Hashing Tests ==========
+
+    @Test
+    @DisplayName("Streaming digest matches the SHA-256 test vector")
+    void testStreamingDigest() throws IOException {
+        MessageDigest digest = UploadLedger.newDigest();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (Writer w = new OutputStreamWriter(new DigestOutputStream(sink, digest), StandardCharsets.UTF_8)) {
+            w.write("a");
+            w.write("bc");
+        }
+        assertEquals("abc", sink.toString("UTF-8"));
+        assertEquals(ABC_SHA256, UploadLedger.toHex(digest.digest()));
+    }
+
+    @Test
+    @DisplayName("Hex keeps leading zeros")
+    void testHexLeadingZeros() {
+        assertEquals("000fff", UploadLedger.toHex(new byte[] {0, 15, (byte) 0xFF}));
+    }
+
+    // ========== Ledger Tests ==========
+
+    @Test
+    @DisplayName("Uploads are found by hash after reloading")
+    void testRecordAndReload() throws IOException {
+        Path file = dir.resolve("uploads.tsv");
+        UploadLedger ledger = new UploadLedger(file);
+        assertNull(ledger.find(ABC_SHA256));
+        ledger.record(new UploadLedger.Entry(Instant.parse("2025-03-01T10:15:30Z"), ABC_SHA256,
+            "task_27.osm", 1001, "https://drive.example/file/1"));
+        assertNotNull(ledger.find(ABC_SHA256.toUpperCase()));
+
+        UploadLedger.Entry reloaded = new UploadLedger(file).find(ABC_SHA256, 1001);
+        assertNotNull(reloaded);
+        assertEquals("task_27.osm", reloaded.fileName);
+        assertEquals(1001, reloaded.validationLogId);
+        assertEquals("https://drive.example/file/1", reloaded.driveUrl);
+    }
+
+    @Test
+    @DisplayName("The same content for another validation log is a separate upload")
+    void testKeyedByValidationLog() throws IOException {
+        UploadLedger ledger = new UploadLedger(dir.resolve("uploads.tsv"));
+        ledger.record(new UploadLedger.Entry(Instant.parse("2025-03-01T10:15:30Z"), ABC_SHA256,
+            "task_27.osm", 1001, "https://drive.example/file/1"));
+        assertNull(ledger.find(ABC_SHA256, 1002));
+        assertEquals(1001, ledger.find(ABC_SHA256).validationLogId);
+
+        ledger.record(new UploadLedger.Entry(Instant.parse("2025-03-02T09:00:00Z"), ABC_SHA256,
+            "task_27.osm", 1002, "https://drive.example/file/1"));
+        assertEquals(1001, ledger.find(ABC_SHA256, 1001).validationLogId);
+        assertEquals(1002, new UploadLedger(dir.resolve("uploads.tsv")).find(ABC_SHA256).validationLogId);
+    }
+
+    @Test
+    @DisplayName("Missing file names and URLs are stored as empty")
+    void testNullFields() {
+        UploadLedger.Entry entry = new UploadLedger.Entry(Instant.parse("2025-03-01T10:15:30Z"), ABC_SHA256, null, 1, null);
+        assertEquals("", entry.fileName);
+        assertEquals("", entry.driveUrl);
+    }
+
+    @Test
+    @DisplayName("Lines with malformed hashes are skipped")
+    void testMalformedHashSkipped() {
+        assertNull(UploadLedger.Entry.parse("2025-03-01T10:15:30Z\tabc\tf.osm\t1\turl"));
+        assertNotNull(UploadLedger.Entry.parse("2025-03-01T10:15:30Z\t" + ABC_SHA256 + "\tf.osm\t1\turl"));
+    }
+}
@@ -0,0 +1,104 @@
+package org.openstreetmap.josm.plugins.dpwvalidationtool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Unit tests for ValidationLedger.
+ *
+ * @author Spatial Collective Ltd
+ * @version 3.2.8
+ */
+@DisplayName("ValidationLedger Tests")
+class ValidationLedgerTest {
+
+    @TempDir
+    Path dir;
+
+    private static ValidationLedger.Entry entry(String taskId, String mapper, String date, int logId) {
+        return new ValidationLedger.Entry(Instant.parse("2025-03-01T10:15:30Z"), taskId, mapper, date,
+            "Validated", "validator1", logId, 42);
+    }
+
+    // ========== Lookup Tests ==========
+
+    @Test
+    @DisplayName("Recorded submission is found by task, mapper and date")
+    void testFind() throws IOException {
+        ValidationLedger ledger = new ValidationLedger(dir.resolve("ledger.tsv"));
+        assertNull(ledger.find("27", "mapper1", "2025-03-01"));
+        ledger.record(entry("27", "mapper1", "2025-03-01", 1001));
+        ValidationLedger.Entry found = ledger.find("27", "mapper1", "2025-03-01");
+        assertNotNull(found);
+        assertEquals(1001, found.logId);
+        assertNull(ledger.find("27", "mapper1", "2025-03-02"));
+        assertNull(ledger.find("28", "mapper1", "2025-03-01"));
+    }
+
+    @Test
+    @DisplayName("Mapper names match case-insensitively")
+    void testMapperCase() throws IOException {
+        ValidationLedger ledger = new ValidationLedger(dir.resolve("ledger.tsv"));
+        ledger.record(entry("27", "Mapper1", "2025-03-01", 1001));
+        assertNotNull(ledger.find("27", "mapper1", "2025-03-01"));
+    }
+
+    @Test
+    @DisplayName("Latest submission wins for the same key")
+    void testLatestWins() throws IOException {
+        ValidationLedger ledger = new ValidationLedger(dir.resolve("ledger.tsv"));
+        ledger.record(entry("27", "mapper1", "2025-03-01", 1001));
+        ledger.record(entry("27", "mapper1", "2025-03-01", 1002));
+        assertEquals(1002, ledger.find("27", "mapper1", "2025-03-01").logId);
+        assertEquals(2, ledger.getEntries().size());
+    }
+
+    // ========== File Tests ==========
+
+    @Test
+    @DisplayName("Entries survive reloading from the file")
+    void testReload() throws IOException {
+        Path file = dir.resolve("sub").resolve("ledger.tsv");
+        ValidationLedger ledger = new ValidationLedger(file);
+        ledger.record(entry("27", "mapper1", "2025-03-01", 1001));
+        ledger.record(entry("", "mapper2", "2025-03-01_to_2025-03-05", -1));
+
+        List<ValidationLedger.Entry> reloaded = new ValidationLedger(file).getEntries();
+        assertEquals(2, reloaded.size());
+        assertEquals("mapper2", reloaded.get(1).mapper);
+        assertEquals("2025-03-01_to_2025-03-05", reloaded.get(1).date);
+        assertEquals(Instant.parse("2025-03-01T10:15:30Z"), reloaded.get(0).submittedAt);
+        assertEquals(ValidationLedger.HEADER, Files.readAllLines(file, StandardCharsets.UTF_8).get(0));
+    }
+
+    @Test
+    @DisplayName("Tabs and line breaks in fields do not break records")
+    void testFieldCleaning() throws IOException {
+        Path file = dir.resolve("ledger.tsv");
+        new ValidationLedger(file).record(entry("27", "map\tper\n1", "2025-03-01", 1001));
+        ValidationLedger.Entry reloaded = new ValidationLedger(file).getEntries().get(0);
+        assertEquals("map per 1", reloaded.mapper);
+        assertEquals(2, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    @DisplayName("Unreadable lines are skipped")
+    void testCorruptLinesSkipped() throws IOException {
+        Path file = dir.resolve("ledger.tsv");
+        new ValidationLedger(file).record(entry("27", "mapper1", "2025-03-01", 1001));
+        Files.write(file, "garbage line\nnot-a-date\t1\t2\t3\t4\t5\t6\t7\n".getBytes(StandardCharsets.UTF_8),
+            java.nio.file.StandardOpenOption.APPEND);
+        ValidationLedger ledger = new ValidationLedger(file);
+        assertEquals(1, ledger.getEntries().size());
+        assertNotNull(ledger.find("27", "mapper1", "2025-03-01"));
+    }
+}